@@ -0,0 +1,175 @@
+/* Copyright (c) 2026 OpenJAX
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.openjax.dbcp;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.Executor;
+
+import javax.sql.DataSource;
+
+/**
+ * A {@link DelegateDataSource} that binds connections to the scope of the current thread. While a {@link Scope} is open on a thread,
+ * repeated invocations of {@link #getConnection()} on that thread return handles to the same connection, which is borrowed from the
+ * target {@link DataSource} upon first invocation, and is returned to it when the outermost {@link Scope} is closed. Closing a handle
+ * does not return the connection. Outside of a {@link Scope}, {@link #getConnection()} delegates to the target {@link DataSource}.
+ * <p>
+ * Because the handles of a {@link Scope} share one connection, state set via one handle, including an uncommitted transaction, is
+ * visible via the handles obtained thereafter.
+ */
+public class AffinityDataSource extends DelegateDataSource {
+  private final ThreadLocal<Scope> scope = new ThreadLocal<>();
+
+  /**
+   * Creates a new {@link AffinityDataSource} with the specified target {@link DataSource}.
+   *
+   * @param target The target {@link DataSource}.
+   * @throws NullPointerException If {@code target} is null.
+   */
+  public AffinityDataSource(final DataSource target) {
+    super(target);
+  }
+
+  /**
+   * Opens a {@link Scope} on the current thread, or enters the {@link Scope} that is already open on the current thread. The returned
+   * {@link Scope} must be closed on the same thread, typically via try-with-resources.
+   *
+   * @return The {@link Scope} that is open on the current thread.
+   */
+  public Scope open() {
+    Scope scope = this.scope.get();
+    if (scope == null)
+      this.scope.set(scope = new Scope(Thread.currentThread()));
+
+    ++scope.depth;
+    return scope;
+  }
+
+  /**
+   * Returns whether a {@link Scope} is open on the current thread.
+   *
+   * @return Whether a {@link Scope} is open on the current thread.
+   */
+  public boolean isScoped() {
+    return scope.get() != null;
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    final Scope scope = this.scope.get();
+    return scope == null ? target.getConnection() : scope.getConnection();
+  }
+
+  /**
+   * A scope on a thread within which {@link AffinityDataSource#getConnection()} reuses a single connection.
+   */
+  public final class Scope implements AutoCloseable {
+    private final Thread thread;
+    private Connection connection;
+    private int depth;
+
+    private Scope(final Thread thread) {
+      this.thread = thread;
+    }
+
+    private Connection getConnection() throws SQLException {
+      if (connection == null || connection.isClosed())
+        connection = target.getConnection();
+
+      return new ScopedConnection(this, connection);
+    }
+
+    private void abort(final Connection connection, final Executor executor) throws SQLException {
+      if (this.connection == connection)
+        this.connection = null;
+
+      connection.abort(executor);
+    }
+
+    /**
+     * Exits this {@link Scope}. If this is the outermost {@link Scope} on the current thread, the connection bound to it is returned
+     * to the target {@link DataSource}.
+     *
+     * @throws IllegalStateException If this {@link Scope} is not open on the current thread.
+     * @throws SQLException If a database access error occurs while returning the connection.
+     */
+    @Override
+    public void close() throws SQLException {
+      if (thread != Thread.currentThread() || depth == 0)
+        throw new IllegalStateException("Scope is not open on " + Thread.currentThread().getName());
+
+      if (--depth > 0)
+        return;
+
+      scope.remove();
+      final Connection connection = this.connection;
+      if (connection != null) {
+        this.connection = null;
+        connection.close();
+      }
+    }
+  }
+
+  private static final class ScopedConnection extends DelegateConnection {
+    private final Scope scope;
+    private boolean closed;
+
+    private ScopedConnection(final Scope scope, final Connection target) {
+      super(target);
+      this.scope = scope;
+    }
+
+    @Override
+    protected Connection target() throws SQLException {
+      if (closed)
+        throw new SQLException("Connection is closed", "08003");
+
+      return target;
+    }
+
+    @Override
+    public void close() {
+      closed = true;
+    }
+
+    @Override
+    public boolean isClosed() throws SQLException {
+      return closed || target.isClosed();
+    }
+
+    @Override
+    public boolean isValid(final int timeout) throws SQLException {
+      return !closed && target.isValid(timeout);
+    }
+
+    @Override
+    public void abort(final Executor executor) throws SQLException {
+      closed = true;
+      scope.abort(target, executor);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+      return obj == this;
+    }
+
+    @Override
+    public int hashCode() {
+      return System.identityHashCode(this);
+    }
+  }
+}
@@ -18,13 +18,43 @@ package org.openjax.dbcp;
 
 import java.io.PrintWriter;
 import java.sql.Connection;
+import java.sql.Driver;
 import java.sql.SQLException;
 import java.sql.SQLNonTransientConnectionException;
 import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Properties;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
 
 import javax.sql.DataSource;
+import javax.sql.PooledConnection;
 
+import org.apache.commons.dbcp2.ConnectionFactory;
+import org.apache.commons.dbcp2.DriverConnectionFactory;
+import org.apache.commons.dbcp2.PoolableConnection;
+import org.apache.commons.dbcp2.PoolableConnectionFactory;
+import org.apache.commons.dbcp2.PoolingDataSource;
+import org.apache.commons.dbcp2.cpdsadapter.DriverAdapterCPDS;
+import org.apache.commons.dbcp2.datasources.SharedPoolDataSource;
+import org.apache.commons.pool2.DestroyMode;
+import org.apache.commons.pool2.ObjectPool;
+import org.apache.commons.pool2.PooledObject;
+import org.apache.commons.pool2.PooledObjectState;
+import org.apache.commons.pool2.impl.AbandonedConfig;
+import org.apache.commons.pool2.impl.EvictionPolicy;
+import org.apache.commons.pool2.impl.GenericObjectPool;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
 import org.libj.lang.Throwables;
 import org.libj.sql.exception.SQLExceptions;
 
@@ -32,13 +62,1142 @@ import org.libj.sql.exception.SQLExceptions;
  * An extension of {@link org.apache.commons.dbcp2.BasicDataSource} that does not initialize the data source upon first invocation
  * of {@link #setLogWriter(PrintWriter)} or {@link #getLogWriter()}.
  */
-class BasicDataSource extends org.apache.commons.dbcp2.BasicDataSource {
+class BasicDataSource extends org.apache.commons.dbcp2.BasicDataSource implements LaneDataSource, PoolMetrics {
   private final AtomicBoolean initialized = new AtomicBoolean(false);
   private final AtomicBoolean settingLogWriter = new AtomicBoolean(false);
   private PrintWriter logWriter;
+  private String id;
+
+  private String vendorClassName;
+  private final LinkedHashMap<String,String> vendorProperties = new LinkedHashMap<>();
+  private boolean connectionProperties;
+
+  private int creationPermitsPerSecond;
+  private int creationBurst;
+  private int creationJvmPermitsPerSecond;
+  private long creationInitialBackoff;
+  private long creationMaxBackoff;
+  private RateLimitedConnectionFactory.JvmLimit creationJvmLimit;
+
+  private String budgetName;
+  private int budgetCapacity;
+  private int budgetReserved;
+  private int budgetWeight;
+  private ConnectionBudget.Member budgetMember;
+
+  private boolean compactBookkeeping;
+  private int stripes;
+  private int hotSet;
+  private long rotationInterval;
+  private ScheduledFuture<?> rotation;
+  private ConnectionObjectFactory objectFactory;
+
+  private long keepaliveIdleTime;
+  private long keepaliveTimeBetweenRuns;
+  private int keepaliveMaxPerRun;
+  private int keepaliveTimeout;
+  private ScheduledFuture<?> keepalive;
+
+  private boolean hasRetirement;
+  private long retirementJitter;
+  private boolean retirementProactive;
+  private long retirementTimeBetweenRuns;
+  private ScheduledFuture<?> retirement;
+
+  private String[] failoverUrls;
+  private int[] failoverWeights;
+  private boolean failoverWeighted;
+  private long failoverProbeInterval;
+  private int failoverProbeTimeout;
+  private long failoverResolveInterval;
+  private FailoverConnectionFactory failover;
+  private ScheduledFuture<?> failoverProbe;
+  private ScheduledFuture<?> failoverResolve;
+
+  private HealthScoring health;
+  private long healthTimeBetweenRuns;
+  private ScheduledFuture<?> healthScoring;
+
+  private LaneGate laneGate;
+
+  private boolean perUser;
+  private int perUserMaxTotal;
+  private int perUserMaxPerUser;
+  private int perUserMaxIdlePerUser;
+  private volatile SharedPoolDataSource userPools;
+
+  private volatile boolean suspended;
+  private int warmSize;
+
+  private String initSqlExecution = InitSqlConnectionFactory.SERIAL;
+  private final AtomicLong connectionInitCount = new AtomicLong();
+  private final AtomicLong connectionInitTime = new AtomicLong();
+  private final AtomicLong maxConnectionInitTime = new AtomicLong();
+  private volatile long lastConnectionInitTime;
+
+  private final WaitHistogram borrowWait = new WaitHistogram();
+  private final LongAdder borrowTimeoutCount = new LongAdder();
+  private final WaitHistogram userBorrowWait = new WaitHistogram();
+  private final LongAdder userBorrowTimeoutCount = new LongAdder();
+  private final LongAdder userCreatedCount = new LongAdder();
+
+  /**
+   * Specifies the id of the {@code <dbcp>} from which this pool is built.
+   *
+   * @param id The id of the {@code <dbcp>} from which this pool is built.
+   */
+  void setId(final String id) {
+    this.id = id;
+  }
+
+  /**
+   * Returns the id of the {@code <dbcp>} from which this pool is built.
+   *
+   * @return The id of the {@code <dbcp>} from which this pool is built.
+   */
+  String getId() {
+    return id;
+  }
+
+  /**
+   * Returns the name of this pool in the {@link PoolEvents} it emits, which is the {@link #getJmxName() JMX name} if specified, or
+   * else the id of the {@code <dbcp>} from which this pool is built.
+   *
+   * @return The name of this pool in the {@link PoolEvents} it emits.
+   */
+  String getPoolName() {
+    final String jmxName = getJmxName();
+    return jmxName != null ? jmxName : id;
+  }
+
+  /**
+   * Specifies a vendor {@link javax.sql.DataSource} or {@link javax.sql.ConnectionPoolDataSource} class from which physical
+   * connections are to be obtained instead of from the JDBC driver.
+   *
+   * @param className The fully qualified name of the vendor data source class.
+   * @param properties The bean properties to be set on the instance of the vendor data source class.
+   */
+  void setVendorDataSource(final String className, final Map<String,String> properties) {
+    this.vendorClassName = className;
+    this.vendorProperties.putAll(properties);
+  }
+
+  /**
+   * Returns whether a vendor data source class is specified.
+   *
+   * @return Whether a vendor data source class is specified.
+   */
+  boolean hasVendorDataSource() {
+    return vendorClassName != null;
+  }
+
+  @Override
+  public void addConnectionProperty(final String name, final String value) {
+    connectionProperties = true;
+    super.addConnectionProperty(name, value);
+  }
+
+  /**
+   * Returns whether connection properties to be sent to the JDBC driver are specified.
+   *
+   * @return Whether connection properties to be sent to the JDBC driver are specified.
+   */
+  boolean hasConnectionProperties() {
+    return connectionProperties;
+  }
+
+  /**
+   * Limits the rate at which this pool creates physical connections.
+   *
+   * @param permitsPerSecond The maximum number of physical connections this pool can create per second.
+   * @param burst The number of connections that can be created back-to-back before the rate limit applies.
+   * @param jvmPermitsPerSecond The maximum number of physical connections all pools in this JVM can create per second, or {@code 0}
+   *          for no JVM-wide limit.
+   * @param initialBackoff The backoff ceiling (in milliseconds) after the first failed creation attempt, or {@code 0} to disable
+   *          backoff.
+   * @param maxBackoff The maximum backoff ceiling (in milliseconds).
+   */
+  void setCreationRate(final int permitsPerSecond, final int burst, final int jvmPermitsPerSecond, final long initialBackoff, final long maxBackoff) {
+    this.creationPermitsPerSecond = permitsPerSecond;
+    this.creationBurst = burst;
+    this.creationJvmPermitsPerSecond = jvmPermitsPerSecond;
+    this.creationInitialBackoff = initialBackoff;
+    this.creationMaxBackoff = maxBackoff;
+  }
+
+  /**
+   * Returns whether the rate at which this pool creates physical connections is limited.
+   *
+   * @return Whether the rate at which this pool creates physical connections is limited.
+   */
+  boolean hasCreationRate() {
+    return creationPermitsPerSecond > 0;
+  }
+
+  /**
+   * Makes this pool a member of the JVM-wide {@link ConnectionBudget} with the specified name.
+   *
+   * @param name The name of the {@link ConnectionBudget}.
+   * @param capacity The maximum number of physical connections that can be open for all members of the budget at the same time.
+   * @param reserved The number of connections guaranteed to this pool.
+   * @param weight The weight of this pool when borrowing the headroom of the budget.
+   */
+  void setBudget(final String name, final int capacity, final int reserved, final int weight) {
+    this.budgetName = name;
+    this.budgetCapacity = capacity;
+    this.budgetReserved = reserved;
+    this.budgetWeight = weight;
+  }
+
+  /**
+   * Returns whether this pool is a member of a {@link ConnectionBudget}.
+   *
+   * @return Whether this pool is a member of a {@link ConnectionBudget}.
+   */
+  boolean hasBudget() {
+    return budgetName != null;
+  }
+
+  /**
+   * Specifies whether the bookkeeping of the pooled connections is kept in a {@link PooledObjectTable}.
+   *
+   * @param compactBookkeeping Whether the bookkeeping of the pooled connections is kept in a {@link PooledObjectTable}.
+   */
+  void setCompactBookkeeping(final boolean compactBookkeeping) {
+    this.compactBookkeeping = compactBookkeeping;
+  }
+
+  /**
+   * Specifies the number of stripes of a {@link StripedObjectPool}, or {@code 0} for a {@link GenericObjectPool} with a single idle
+   * deque.
+   *
+   * @param stripes The number of stripes, or {@code 0} for a {@link GenericObjectPool} with a single idle deque.
+   */
+  void setStripes(final int stripes) {
+    this.stripes = stripes;
+  }
+
+  /**
+   * Specifies the size of the hot set of a {@link MruObjectPool}, or {@code 0} for a {@link GenericObjectPool} without a hot set.
+   *
+   * @param hotSet The maximum number of connections in the hot set, or {@code 0} for a {@link GenericObjectPool} without a hot set.
+   * @param rotationInterval The time (in milliseconds) between {@link MruObjectPool#rotate() rotations} of the coldest idle connection
+   *          into the hot set.
+   */
+  void setHotSet(final int hotSet, final long rotationInterval) {
+    this.hotSet = hotSet;
+    this.rotationInterval = rotationInterval;
+  }
+
+  /**
+   * Returns the {@link ConnectionObjectFactory} of the pool, or {@code null} if the pool has not been created.
+   *
+   * @return The {@link ConnectionObjectFactory} of the pool, or {@code null} if the pool has not been created.
+   */
+  ConnectionObjectFactory getObjectFactory() {
+    return objectFactory;
+  }
+
+  /**
+   * Returns the {@link GenericObjectPool} of the pool, or {@code null} if the pool has not been created.
+   *
+   * @return The {@link GenericObjectPool} of the pool, or {@code null} if the pool has not been created.
+   */
+  GenericObjectPool<PoolableConnection> getObjectPool() {
+    return getConnectionPool();
+  }
+
+  /**
+   * Enables the {@link Keepalive} of idle connections.
+   *
+   * @param idleTime The time (in milliseconds) a connection must be idle before it is pinged.
+   * @param timeBetweenRuns The time (in milliseconds) between runs of the keepalive task.
+   * @param maxPerRun The maximum number of connections pinged per run.
+   * @param timeout The timeout (in seconds) of each ping.
+   */
+  void setKeepalive(final long idleTime, final long timeBetweenRuns, final int maxPerRun, final int timeout) {
+    this.keepaliveIdleTime = idleTime;
+    this.keepaliveTimeBetweenRuns = timeBetweenRuns;
+    this.keepaliveMaxPerRun = maxPerRun;
+    this.keepaliveTimeout = timeout;
+  }
+
+  /**
+   * Returns whether the {@link Keepalive} of idle connections is enabled.
+   *
+   * @return Whether the {@link Keepalive} of idle connections is enabled.
+   */
+  boolean hasKeepalive() {
+    return keepaliveIdleTime > 0;
+  }
+
+  /**
+   * Enables the jittered retirement of connections that exceed the {@link #getMaxConnLifetimeMillis() maximum lifetime}.
+   *
+   * @param jitter The maximum time (in milliseconds) by which the lifetime of each connection is randomly shortened.
+   * @param proactive Whether expired connections are retired and replaced by a background {@link Retirement} task, instead of when
+   *          they are borrowed.
+   * @param timeBetweenRuns The time (in milliseconds) between runs of the {@link Retirement} task.
+   */
+  void setRetirement(final long jitter, final boolean proactive, final long timeBetweenRuns) {
+    this.hasRetirement = true;
+    this.retirementJitter = jitter;
+    this.retirementProactive = proactive;
+    this.retirementTimeBetweenRuns = timeBetweenRuns;
+  }
+
+  /**
+   * Returns whether the jittered retirement of connections is enabled.
+   *
+   * @return Whether the jittered retirement of connections is enabled.
+   */
+  boolean hasRetirement() {
+    return hasRetirement;
+  }
+
+  /**
+   * Specifies alternate endpoints to which the creation of connections fails over when the endpoint at {@link #getUrl()} is unhealthy.
+   *
+   * @param urls The connection URLs of the alternate endpoints, in the order of preference.
+   * @param weights The weights of the alternate endpoints, where the endpoint at {@link #getUrl()} has a weight of 1.
+   * @param weighted Whether connections are spread over the healthy endpoints in proportion to their weights, or are created to the
+   *          first healthy endpoint.
+   * @param probeInterval The time (in milliseconds) between health probes of the endpoints.
+   * @param probeTimeout The timeout (in seconds) of each health probe.
+   * @param resolveInterval The time (in milliseconds) between re-resolutions of the hosts of the endpoints.
+   */
+  void setFailover(final String[] urls, final int[] weights, final boolean weighted, final long probeInterval, final int probeTimeout, final long resolveInterval) {
+    this.failoverUrls = urls;
+    this.failoverWeights = weights;
+    this.failoverWeighted = weighted;
+    this.failoverProbeInterval = probeInterval;
+    this.failoverProbeTimeout = probeTimeout;
+    this.failoverResolveInterval = resolveInterval;
+  }
+
+  /**
+   * Returns whether alternate endpoints are specified.
+   *
+   * @return Whether alternate endpoints are specified.
+   */
+  boolean hasFailover() {
+    return failoverUrls != null;
+  }
+
+  /**
+   * Returns the {@link FailoverConnectionFactory} of this pool, or {@code null} if the pool is not yet initialized or does not have
+   * alternate endpoints.
+   *
+   * @return The {@link FailoverConnectionFactory} of this pool.
+   */
+  FailoverConnectionFactory getFailover() {
+    return failover;
+  }
+
+  private ConnectionFactory createFailover(final ConnectionFactory connectionFactory) throws SQLException {
+    if (!(connectionFactory instanceof DriverConnectionFactory))
+      throw new SQLException("Failover requires connections to be created by a JDBC driver");
+
+    final Driver driver = ((DriverConnectionFactory)connectionFactory).getDriver();
+    final Properties properties = ((DriverConnectionFactory)connectionFactory).getProperties();
+    final FailoverConnectionFactory.Endpoint[] endpoints = new FailoverConnectionFactory.Endpoint[failoverUrls.length + 1];
+    endpoints[0] = new FailoverConnectionFactory.Endpoint(getUrl(), 1, connectionFactory);
+    for (int i = 0; i < failoverUrls.length; ++i) // [A]
+      endpoints[i + 1] = new FailoverConnectionFactory.Endpoint(failoverUrls[i], failoverWeights[i], new DriverConnectionFactory(driver, failoverUrls[i], properties));
+
+    failover = new FailoverConnectionFactory(endpoints, failoverWeighted, failoverProbeTimeout, (final FailoverConnectionFactory.Endpoint endpoint) -> Maintenance.execute(() -> drain(endpoint)));
+    if (failoverProbe == null)
+      failoverProbe = Maintenance.schedule(failover::probe, failoverProbeInterval);
+
+    if (failoverResolve == null)
+      failoverResolve = Maintenance.schedule(failover::resolve, failoverResolveInterval);
+
+    return failover;
+  }
+
+  /**
+   * Drains the connections to the specified endpoint from this pool: idle connections are closed, and borrowed connections are marked
+   * as broken, so that they are closed when they are returned.
+   *
+   * @param endpoint The endpoint.
+   */
+  void drain(final FailoverConnectionFactory.Endpoint endpoint) {
+    final ConnectionObjectFactory objectFactory = this.objectFactory;
+    final GenericObjectPool<PoolableConnection> pool = getConnectionPool();
+    if (objectFactory == null || pool == null)
+      return;
+
+    final ArrayList<PooledObject<PoolableConnection>> drained = new ArrayList<>();
+    for (final Map.Entry<PooledObject<PoolableConnection>,ConnectionState> entry : objectFactory.states()) {
+      final PooledObject<PoolableConnection> p = entry.getKey();
+      try {
+        if (p.getObject().unwrap(FailoverConnectionFactory.EndpointConnection.class).getEndpoint() != endpoint)
+          continue;
+      }
+      catch (final SQLException e) {
+        continue;
+      }
+
+      entry.getValue().markBroken();
+      drained.add(p);
+    }
+
+    final int size = drained.size();
+    if (size == 0)
+      return;
+
+    // Parked connections are allocated in the view of the pool, and would otherwise be served again without being invalidated
+    unpark(pool, drained::contains);
+    for (int i = 0; i < size; ++i) { // [RA]
+      final PooledObject<PoolableConnection> p = drained.get(i);
+      // Holding the monitor of the pooled object prevents a borrower from allocating it before it is invalidated
+      synchronized (p) {
+        if (p.getState() == PooledObjectState.IDLE) {
+          try {
+            pool.invalidateObject(p.getObject());
+          }
+          catch (final Exception e) {
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Enables the {@link HealthScoring health scoring} of the connections of this pool.
+   *
+   * @param halfLife The number of samples after which the weight of a sample in the moving averages has halved.
+   * @param minSamples The number of samples of a connection before its error rate is scored, and the number of probes of a
+   *          connection before its latency is scored.
+   * @param latencyFactor The multiple of the median latency of the connections above which a connection is an outlier.
+   * @param maxErrorPercent The percentage of samples with errors above which a connection is an outlier.
+   * @param timeBetweenRuns The time (in milliseconds) between runs of the health scoring task.
+   * @throws IllegalArgumentException If {@code halfLife}, {@code minSamples} or {@code latencyFactor} is not positive, or if
+   *           {@code maxErrorPercent} is not in the range [1, 100].
+   */
+  void setHealth(final int halfLife, final int minSamples, final int latencyFactor, final int maxErrorPercent, final long timeBetweenRuns) {
+    this.health = new HealthScoring(halfLife, minSamples, latencyFactor, maxErrorPercent);
+    this.healthTimeBetweenRuns = timeBetweenRuns;
+  }
+
+  /**
+   * Returns the {@link HealthScoring} of this pool, or {@code null} if health scoring is not enabled.
+   *
+   * @return The {@link HealthScoring} of this pool.
+   */
+  HealthScoring getHealth() {
+    return health;
+  }
+
+  /**
+   * Scores the health of the connections of this pool, and retires the outliers.
+   *
+   * @return The number of connections retired.
+   */
+  int scoreHealth() {
+    final GenericObjectPool<PoolableConnection> pool = getConnectionPool();
+    return health == null || pool == null || objectFactory == null ? 0 : health.score(pool, objectFactory);
+  }
+
+  /**
+   * Specifies how the {@link #getConnectionInitSqls() connection init SQLs} are executed on new physical connections.
+   *
+   * @param initSqlExecution The execution mode: "serial", "batch" or "multiStatement".
+   */
+  void setInitSqlExecution(final String initSqlExecution) {
+    this.initSqlExecution = initSqlExecution;
+  }
+
+  /**
+   * Returns how the {@link #getConnectionInitSqls() connection init SQLs} are executed on new physical connections.
+   *
+   * @return The execution mode: "serial", "batch" or "multiStatement".
+   */
+  String getInitSqlExecution() {
+    return initSqlExecution;
+  }
+
+  private void recordConnectionInit(final long time) {
+    connectionInitCount.incrementAndGet();
+    connectionInitTime.addAndGet(time);
+    lastConnectionInitTime = time;
+    for (long max; time > (max = maxConnectionInitTime.get()) && !maxConnectionInitTime.compareAndSet(max, time););
+  }
+
+  @Override
+  public long getConnectionInitCount() {
+    return connectionInitCount.get();
+  }
+
+  @Override
+  public long getConnectionInitTime() {
+    return connectionInitTime.get();
+  }
+
+  @Override
+  public long getMaxConnectionInitTime() {
+    return maxConnectionInitTime.get();
+  }
+
+  @Override
+  public long getLastConnectionInitTime() {
+    return lastConnectionInitTime;
+  }
+
+  @Override
+  public long getBorrowTimeoutCount() {
+    return borrowTimeoutCount.sum();
+  }
+
+  @Override
+  public long getHealthRetiredCount() {
+    return health != null ? health.getRetiredCount() : 0;
+  }
+
+  @Override
+  public long getHotSetBorrowCount() {
+    final GenericObjectPool<PoolableConnection> pool = getConnectionPool();
+    return pool instanceof MruObjectPool ? ((MruObjectPool<?>)pool).getHotBorrowCount() : 0;
+  }
+
+  @Override
+  public long getRotationCount() {
+    final GenericObjectPool<PoolableConnection> pool = getConnectionPool();
+    return pool instanceof MruObjectPool ? ((MruObjectPool<?>)pool).getRotationCount() : 0;
+  }
+
+  @Override
+  public long[] getBorrowCounts() {
+    final ConnectionObjectFactory objectFactory = this.objectFactory;
+    if (objectFactory == null)
+      return new long[0];
+
+    long[] counts = new long[8];
+    int size = 0;
+    for (final Map.Entry<PooledObject<PoolableConnection>,ConnectionState> entry : objectFactory.states()) {
+      if (size == counts.length)
+        counts = Arrays.copyOf(counts, size * 2);
+
+      counts[size++] = entry.getValue().getActivationCount();
+    }
+
+    Arrays.sort(counts, 0, size);
+    final long[] descending = new long[size];
+    for (int i = 0; i < size; ++i)
+      descending[i] = counts[size - 1 - i];
+
+    return descending;
+  }
+
+  /**
+   * Returns the {@link WaitHistogram} of the times waited to borrow a connection from this pool.
+   *
+   * @return The {@link WaitHistogram} of the times waited to borrow a connection from this pool.
+   */
+  WaitHistogram getBorrowWait() {
+    return borrowWait;
+  }
+
+  /**
+   * Returns the number of threads waiting to borrow a connection from this pool.
+   *
+   * @return The number of threads waiting to borrow a connection from this pool.
+   */
+  int getNumWaiters() {
+    final GenericObjectPool<PoolableConnection> pool = getConnectionPool();
+    return pool != null ? pool.getNumWaiters() : 0;
+  }
+
+  /**
+   * Returns the number of physical connections that have been created by this pool.
+   *
+   * @return The number of physical connections that have been created by this pool.
+   */
+  long getCreatedCount() {
+    final GenericObjectPool<PoolableConnection> pool = getConnectionPool();
+    return pool != null ? pool.getCreatedCount() : 0;
+  }
+
+  /**
+   * Returns the number of physical connections that have been destroyed by this pool.
+   *
+   * @return The number of physical connections that have been destroyed by this pool.
+   */
+  long getDestroyedCount() {
+    final GenericObjectPool<PoolableConnection> pool = getConnectionPool();
+    return pool != null ? pool.getDestroyedCount() : 0;
+  }
+
+  /**
+   * Closes one idle connection of this pool, provided that more than {@link #getMinIdle()} connections are idle.
+   *
+   * @return Whether an idle connection was closed.
+   */
+  boolean closeIdleConnection() {
+    final ConnectionObjectFactory objectFactory = this.objectFactory;
+    final GenericObjectPool<PoolableConnection> pool = getConnectionPool();
+    if (objectFactory == null || pool == null || pool.getNumIdle() <= getMinIdle())
+      return false;
+
+    // An idle connection is invalidated in place, because borrowing it would activate and validate it, or create a new connection
+    for (final Map.Entry<PooledObject<PoolableConnection>,ConnectionState> entry : objectFactory.states()) {
+      final PooledObject<PoolableConnection> p = entry.getKey();
+      // Holding the monitor of the pooled object prevents a borrower from allocating it before it is invalidated
+      synchronized (p) {
+        if (p.getState() == PooledObjectState.IDLE) {
+          try {
+            pool.invalidateObject(p.getObject());
+          }
+          catch (final Exception e) {
+          }
+
+          if (p.getState() == PooledObjectState.INVALID)
+            return true;
+        }
+      }
+    }
+
+    return false;
+  }
+
+  /**
+   * Adds a lane to the partitioning of the connections of this pool.
+   *
+   * @param name The name of the lane.
+   * @param reserved The number of connections guaranteed to the lane.
+   * @param max The maximum number of connections of the lane, or a negative value for {@link #getMaxTotal()}.
+   * @param priority The priority of the lane, where higher values are served first.
+   * @throws NullPointerException If {@code name} is null.
+   * @throws IllegalArgumentException If a lane with the specified name already exists, if {@code reserved} or {@code priority} is
+   *           negative, or if {@code max} is zero or less than {@code reserved}.
+   */
+  void addLane(final String name, final int reserved, final int max, final int priority) {
+    if (laneGate == null)
+      laneGate = new LaneGate(this::getMaxTotal);
+
+    laneGate.addLane(name, reserved, max, priority);
+  }
+
+  /**
+   * Specifies the lane of requests that do not select a lane.
+   *
+   * @param name The name of the lane.
+   * @throws NullPointerException If {@code name} is null.
+   */
+  void setDefaultLane(final String name) {
+    if (laneGate == null)
+      laneGate = new LaneGate(this::getMaxTotal);
+
+    laneGate.setDefaultLane(name);
+  }
+
+  /**
+   * Checks that the lanes of this pool fit {@link #getMaxTotal()}.
+   *
+   * @throws IllegalArgumentException If the reserved connections of all lanes exceed {@link #getMaxTotal()}, or if the default lane
+   *           is not declared.
+   */
+  void checkLanes() {
+    if (laneGate != null)
+      laneGate.check();
+  }
+
+  /**
+   * Returns the {@link LaneGate} of this pool, or {@code null} if the connections of this pool are not partitioned into lanes.
+   *
+   * @return The {@link LaneGate} of this pool, or {@code null} if the connections of this pool are not partitioned into lanes.
+   */
+  LaneGate getLaneGate() {
+    return laneGate;
+  }
+
+  /**
+   * Enables the pooling of connections requested with {@link #getConnection(String,String)} in a {@link SharedPoolDataSource} with
+   * one sub-pool per user. The connections of the sub-pools are opened with the driver and url of this pool via
+   * {@link java.sql.DriverManager}, and are therefore not subject to the creation rate, budget, lanes, failover, health scoring, vendor
+   * data source and driver class loader of this pool, with which {@link DataSources} does not support it.
+   *
+   * @param maxTotal The maximum number of connections of all users, or a negative value for {@link #getMaxTotal()}.
+   * @param maxPerUser The maximum number of connections of each user, or a negative value for {@code maxTotal}.
+   * @param maxIdlePerUser The maximum number of idle connections of each user, or a negative value for {@link #getMaxIdle()}.
+   */
+  void setPerUser(final int maxTotal, final int maxPerUser, final int maxIdlePerUser) {
+    this.perUser = true;
+    this.perUserMaxTotal = maxTotal;
+    this.perUserMaxPerUser = maxPerUser;
+    this.perUserMaxIdlePerUser = maxIdlePerUser;
+  }
+
+  private SharedPoolDataSource getUserPools() throws SQLException {
+    SharedPoolDataSource userPools = this.userPools;
+    if (userPools == null) {
+      synchronized (this) {
+        if ((userPools = this.userPools) == null)
+          this.userPools = userPools = createUserPools();
+      }
+    }
+
+    return userPools;
+  }
+
+  /**
+   * Returns whether the pooling of connections requested with {@link #getConnection(String,String)} is enabled.
+   *
+   * @return Whether the pooling of connections requested with {@link #getConnection(String,String)} is enabled.
+   */
+  boolean hasPerUser() {
+    return perUser;
+  }
+
+  private DriverAdapterCPDS createUserAdapter(final DriverAdapterCPDS cpds, final Properties properties) throws SQLException {
+    try {
+      cpds.setDriver(getDriverClassName());
+    }
+    catch (final ClassNotFoundException e) {
+      throw new SQLException("Cannot load JDBC driver class '" + getDriverClassName() + "'", e);
+    }
+
+    cpds.setUrl(getUrl());
+    if (properties != null)
+      cpds.setConnectionProperties(properties);
+
+    cpds.setPoolPreparedStatements(isPoolPreparedStatements());
+    cpds.setMaxPreparedStatements(getMaxOpenPreparedStatements());
+    cpds.setAccessToUnderlyingConnectionAllowed(isAccessToUnderlyingConnectionAllowed());
+    return cpds;
+  }
+
+  private SharedPoolDataSource createUserPools() throws SQLException {
+    final List<String> connectionInitSqls = getConnectionInitSqls();
+    final InitSqlConnectionFactory initSql = connectionInitSqls.size() == 0 ? null : new InitSqlConnectionFactory(connectionInitSqls.toArray(new String[connectionInitSqls.size()]), initSqlExecution, this::recordConnectionInit);
+    final Properties properties;
+    final ConnectionFactory connectionFactory = super.createConnectionFactory();
+    if (connectionFactory instanceof DriverConnectionFactory) {
+      // The credentials are those of each call to getConnection(String,String), not those of this pool
+      final Properties driverProperties = new Properties();
+      driverProperties.putAll(((DriverConnectionFactory)connectionFactory).getProperties());
+      driverProperties.remove("user");
+      driverProperties.remove("password");
+      properties = driverProperties.size() > 0 ? driverProperties : null;
+    }
+    else {
+      properties = null;
+    }
+
+    final DriverAdapterCPDS cpds = createUserAdapter(new DriverAdapterCPDS() {
+      @Override
+      public PooledConnection getPooledConnection(final String username, final String password) throws SQLException {
+        // A DriverAdapterCPDS with connection properties sets the user and password of each call in them, so each call with connection
+        // properties gets its own DriverAdapterCPDS and copy of the properties
+        final PooledConnection pooledConnection = properties == null ? super.getPooledConnection(username, password) : createUserAdapter(new DriverAdapterCPDS(), (Properties)properties.clone()).getPooledConnection(username, password);
+        if (initSql != null) {
+          // No listener is registered yet, so closing the logical connection does not return the physical connection to the pool
+          try (final Connection connection = pooledConnection.getConnection()) {
+            initSql.initialize(connection);
+          }
+          catch (final SQLException | RuntimeException e) {
+            try {
+              pooledConnection.close();
+            }
+            catch (final SQLException e1) {
+              e.addSuppressed(e1);
+            }
+
+            throw e;
+          }
+        }
+
+        userCreatedCount.increment();
+        return pooledConnection;
+      }
+    }, null);
+
+    final int maxTotal = getUserMaxTotal();
+    final SharedPoolDataSource userPools = new SharedPoolDataSource();
+    userPools.setConnectionPoolDataSource(cpds);
+    userPools.setMaxTotal(maxTotal);
+    userPools.setDefaultMaxTotal(perUserMaxPerUser < 0 ? maxTotal : perUserMaxPerUser);
+    userPools.setDefaultMaxIdle(perUserMaxIdlePerUser < 0 ? getMaxIdle() : perUserMaxIdlePerUser);
+    userPools.setDefaultMaxWaitMillis(getMaxWaitMillis());
+    userPools.setDefaultLifo(getLifo());
+    userPools.setDefaultAutoCommit(getDefaultAutoCommit());
+    userPools.setDefaultReadOnly(getDefaultReadOnly());
+    final int transactionIsolation = getDefaultTransactionIsolation();
+    if (transactionIsolation >= Connection.TRANSACTION_NONE)
+      userPools.setDefaultTransactionIsolation(transactionIsolation);
+
+    userPools.setMaxConnLifetimeMillis(getMaxConnLifetimeMillis());
+    userPools.setValidationQuery(getValidationQuery());
+    userPools.setValidationQueryTimeout(getValidationQueryTimeout());
+    userPools.setDefaultTestOnCreate(getTestOnCreate());
+    userPools.setDefaultTestOnBorrow(getTestOnBorrow());
+    userPools.setDefaultTestOnReturn(getTestOnReturn());
+    userPools.setDefaultTestWhileIdle(getTestWhileIdle());
+    userPools.setDefaultTimeBetweenEvictionRunsMillis(getTimeBetweenEvictionRunsMillis());
+    userPools.setDefaultNumTestsPerEvictionRun(getNumTestsPerEvictionRun());
+    userPools.setDefaultMinEvictableIdleTimeMillis(getMinEvictableIdleTimeMillis());
+    userPools.setDefaultSoftMinEvictableIdleTimeMillis(getSoftMinEvictableIdleTimeMillis());
+    return userPools;
+  }
+
+  private synchronized void closeUserPools() throws SQLException {
+    final SharedPoolDataSource userPools = this.userPools;
+    if (userPools == null)
+      return;
+
+    this.userPools = null;
+    try {
+      userPools.close();
+    }
+    catch (final SQLException | RuntimeException e) {
+      throw e;
+    }
+    catch (final Exception e) {
+      throw new SQLException(e);
+    }
+  }
+
+  /**
+   * Returns the number of connections of all users that are borrowed from the pools of {@link #getConnection(String,String)}.
+   *
+   * @return The number of connections of all users that are borrowed from the pools of {@link #getConnection(String,String)}.
+   */
+  int getNumUserActive() {
+    final SharedPoolDataSource userPools = this.userPools;
+    return userPools == null ? 0 : userPools.getNumActive();
+  }
+
+  /**
+   * Returns the number of idle connections of all users in the pools of {@link #getConnection(String,String)}.
+   *
+   * @return The number of idle connections of all users in the pools of {@link #getConnection(String,String)}.
+   */
+  int getNumUserIdle() {
+    final SharedPoolDataSource userPools = this.userPools;
+    return userPools == null ? 0 : userPools.getNumIdle();
+  }
+
+  /**
+   * Returns the maximum number of connections of all users in the pools of {@link #getConnection(String,String)}.
+   *
+   * @return The maximum number of connections of all users in the pools of {@link #getConnection(String,String)}.
+   */
+  int getUserMaxTotal() {
+    return perUserMaxTotal < 0 ? getMaxTotal() : perUserMaxTotal;
+  }
+
+  /**
+   * Returns the number of physical connections that have been created by the pools of {@link #getConnection(String,String)}.
+   *
+   * @return The number of physical connections that have been created by the pools of {@link #getConnection(String,String)}.
+   */
+  long getUserCreatedCount() {
+    return userCreatedCount.sum();
+  }
+
+  /**
+   * Returns the number of requests to {@link #getConnection(String,String)} that failed because no connection became available.
+   *
+   * @return The number of requests to {@link #getConnection(String,String)} that failed because no connection became available.
+   */
+  long getUserBorrowTimeoutCount() {
+    return userBorrowTimeoutCount.sum();
+  }
+
+  /**
+   * Returns the {@link WaitHistogram} of the times waited to borrow a connection from the pools of
+   * {@link #getConnection(String,String)}.
+   *
+   * @return The {@link WaitHistogram} of the times waited to borrow a connection from the pools of
+   *         {@link #getConnection(String,String)}.
+   */
+  WaitHistogram getUserBorrowWait() {
+    return userBorrowWait;
+  }
+
+  /**
+   * Prepares this pool for a checkpoint of the JVM: suspends the creation of connections, records the number of open connections as
+   * the warm size to be restored by {@link #afterRestore()}, and closes all physical connections, waiting up to the specified timeout
+   * for borrowed connections to be returned.
+   *
+   * @param timeout The maximum time (in milliseconds) to wait for borrowed connections to be returned.
+   * @throws SQLException If borrowed connections have not been returned within the timeout, or if the calling thread is interrupted.
+   */
+  void beforeCheckpoint(final long timeout) throws SQLException {
+    suspended = true;
+    closeUserPools();
+    final GenericObjectPool<PoolableConnection> pool = getConnectionPool();
+    if (pool == null) {
+      warmSize = 0;
+      return;
+    }
+
+    objectFactory.setSuspended(true);
+    warmSize = pool.getNumActive() + pool.getNumIdle();
+    final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+    while (true) {
+      pool.clear();
+      final int numActive = pool.getNumActive();
+      if (numActive == 0 && pool.getNumIdle() == 0)
+        return;
+
+      if (System.nanoTime() - deadline >= 0)
+        throw new SQLException(numActive + " connections are still borrowed from the pool");
+
+      try {
+        Thread.sleep(10);
+      }
+      catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new SQLException("Interrupted while waiting for borrowed connections to be returned", e);
+      }
+    }
+  }
+
+  /**
+   * Resumes this pool after a restore of the JVM from a checkpoint, or after a failed checkpoint.
+   *
+   * @return The warm size recorded by {@link #beforeCheckpoint(long)}, which is the number of connections to be reopened with
+   *         {@link #addIdleConnection()}.
+   */
+  int afterRestore() {
+    if (objectFactory != null)
+      objectFactory.setSuspended(false);
+
+    suspended = false;
+    final GenericObjectPool<PoolableConnection> pool = getConnectionPool();
+    return pool == null ? 0 : Math.max(0, warmSize - pool.getNumActive() - pool.getNumIdle());
+  }
+
+  /**
+   * Opens a physical connection and adds it to the idle connections of this pool.
+   *
+   * @throws SQLException If the connection cannot be opened.
+   */
+  void addIdleConnection() throws SQLException {
+    final GenericObjectPool<PoolableConnection> pool = getConnectionPool();
+    if (pool == null)
+      return;
+
+    try {
+      pool.addObject();
+    }
+    catch (final SQLException | RuntimeException e) {
+      throw e;
+    }
+    catch (final Exception e) {
+      throw new SQLException(e);
+    }
+  }
+
+  @Override
+  public synchronized void close() throws SQLException {
+    try {
+      super.close();
+    }
+    finally {
+      if (keepalive != null) {
+        keepalive.cancel(false);
+        keepalive = null;
+      }
+
+      if (retirement != null) {
+        retirement.cancel(false);
+        retirement = null;
+      }
+
+      if (healthScoring != null) {
+        healthScoring.cancel(false);
+        healthScoring = null;
+      }
+
+      if (rotation != null) {
+        rotation.cancel(false);
+        rotation = null;
+      }
+
+      if (failoverProbe != null) {
+        failoverProbe.cancel(false);
+        failoverProbe = null;
+      }
+
+      if (failoverResolve != null) {
+        failoverResolve.cancel(false);
+        failoverResolve = null;
+      }
+
+      if (budgetMember != null) {
+        budgetMember.unregister();
+        budgetMember = null;
+      }
+
+      if (creationJvmLimit != null) {
+        creationJvmLimit.release();
+        creationJvmLimit = null;
+      }
+
+      closeUserPools();
+    }
+  }
+
+  @Override
+  protected ConnectionFactory createConnectionFactory() throws SQLException {
+    ConnectionFactory connectionFactory = vendorClassName != null ? new VendorConnectionFactory(vendorClassName, getDriverClassLoader(), vendorProperties) : super.createConnectionFactory();
+    if (failoverUrls != null)
+      connectionFactory = createFailover(connectionFactory);
+
+    if (health != null)
+      connectionFactory = health.decorate(connectionFactory, getValidationQuery());
+
+    final List<String> connectionInitSqls = getConnectionInitSqls();
+    if (connectionInitSqls.size() > 0)
+      connectionFactory = new InitSqlConnectionFactory(connectionFactory, connectionInitSqls.toArray(new String[connectionInitSqls.size()]), initSqlExecution, this::recordConnectionInit);
+
+    if (creationPermitsPerSecond > 0) {
+      if (creationJvmPermitsPerSecond > 0 && creationJvmLimit == null)
+        creationJvmLimit = RateLimitedConnectionFactory.limitJvm(creationJvmPermitsPerSecond, creationBurst);
+
+      connectionFactory = new RateLimitedConnectionFactory(connectionFactory, creationPermitsPerSecond, creationBurst, creationInitialBackoff, creationMaxBackoff);
+    }
+
+    if (budgetName != null) {
+      if (budgetMember == null)
+        budgetMember = ConnectionBudget.get(budgetName, budgetCapacity).register(this, budgetReserved, budgetWeight);
+
+      connectionFactory = budgetMember.decorate(connectionFactory);
+    }
+
+    return connectionFactory;
+  }
+
+  @Override
+  protected PoolableConnectionFactory createPoolableConnectionFactory(final ConnectionFactory driverConnectionFactory) throws SQLException {
+    // The connection init SQLs are executed by the InitSqlConnectionFactory
+    final PoolableConnectionFactory factory = super.createPoolableConnectionFactory(driverConnectionFactory);
+    factory.setConnectionInitSql(null);
+    return factory;
+  }
+
+  @Override
+  protected GenericObjectPool<PoolableConnection> createObjectPool(final PoolableConnectionFactory factory, final GenericObjectPoolConfig<PoolableConnection> poolConfig, final AbandonedConfig abandonedConfig) {
+    objectFactory = new ConnectionObjectFactory(factory, compactBookkeeping);
+    objectFactory.setPoolName(getPoolName());
+    objectFactory.setAdmissions(laneGate != null);
+    final boolean removeAbandoned = abandonedConfig != null && (abandonedConfig.getRemoveAbandonedOnBorrow() || abandonedConfig.getRemoveAbandonedOnMaintenance());
+    final GenericObjectPool<PoolableConnection> pool;
+    if (stripes > 0) {
+      final int maxIdle = getMaxIdle();
+      final int maxTotal = getMaxTotal();
+      pool = new StripedObjectPool<>(objectFactory, poolConfig, removeAbandoned ? abandonedConfig : null, stripes, maxIdle < 0 ? maxTotal : maxTotal < 0 ? maxIdle : Math.min(maxIdle, maxTotal));
+    }
+    else if (hotSet > 0) {
+      final MruObjectPool<PoolableConnection> mruPool = new MruObjectPool<>(objectFactory, poolConfig, removeAbandoned ? abandonedConfig : null, hotSet);
+      if (rotation == null)
+        rotation = Maintenance.schedule(mruPool::rotate, rotationInterval);
+
+      pool = mruPool;
+    }
+    else
+      pool = removeAbandoned ? new GenericObjectPool<>(objectFactory, poolConfig, abandonedConfig) : new GenericObjectPool<>(objectFactory, poolConfig);
+
+    if (keepaliveIdleTime > 0 && keepalive == null) {
+      final Keepalive task = new Keepalive(objectFactory, keepaliveIdleTime, keepaliveMaxPerRun, keepaliveTimeout);
+      final long idleTime = keepaliveIdleTime;
+      keepalive = Maintenance.schedule(() -> {
+        unpark(pool, (final PooledObject<PoolableConnection> p) -> System.currentTimeMillis() - p.getLastUsedTime() >= idleTime);
+        task.run();
+      }, keepaliveTimeBetweenRuns);
+    }
+
+    if (health != null && healthScoring == null)
+      healthScoring = Maintenance.schedule(this::scoreHealth, healthTimeBetweenRuns);
+
+    final long maxConnLifetime = getMaxConnLifetimeMillis();
+    if (hasRetirement && maxConnLifetime > 0) {
+      // Proactive retirement leads the hard lifetime limit by two runs, so that connections are retired before they expire on borrow
+      objectFactory.setLifetime(retirementProactive ? maxConnLifetime - 2 * retirementTimeBetweenRuns : maxConnLifetime, retirementJitter, !retirementProactive);
+      if (retirementProactive && retirement == null) {
+        final Retirement task = new Retirement(pool, objectFactory);
+        final ConnectionObjectFactory objectFactory = this.objectFactory;
+        retirement = Maintenance.schedule(() -> {
+          final long now = System.currentTimeMillis();
+          unpark(pool, (final PooledObject<PoolableConnection> p) -> {
+            final ConnectionState state = objectFactory.getState(p);
+            return state != null && state.getExpiry() <= now;
+          });
+          task.run();
+        }, retirementTimeBetweenRuns);
+      }
+    }
+
+    return pool;
+  }
+
+  /**
+   * Returns the parked connections of the specified pool that match the specified predicate to its idle deque, if the pool is a
+   * {@link ParkingObjectPool}, so that maintenance tasks that act on idle connections see them.
+   */
+  @SuppressWarnings("unchecked")
+  static void unpark(final GenericObjectPool<PoolableConnection> pool, final Predicate<? super PooledObject<PoolableConnection>> predicate) {
+    if (pool instanceof ParkingObjectPool)
+      ((ParkingObjectPool<PoolableConnection>)pool).unpark(predicate);
+  }
+
+  @Override
+  protected DataSource createDataSourceInstance() throws SQLException {
+    // The superclass passes the pool as is, whereupon PoolingDataSource casts its factory to PoolableConnectionFactory, which the
+    // ConnectionObjectFactory installed by createObjectPool(...) is not
+    final PoolingDataSource<PoolableConnection> dataSource = new PoolingDataSource<>(new PoolView(getConnectionPool()));
+    dataSource.setAccessToUnderlyingConnectionAllowed(isAccessToUnderlyingConnectionAllowed());
+    return dataSource;
+  }
 
   @Override
   public Connection getConnection() throws SQLException {
+    return getConnection(null);
+  }
+
+  @Override
+  protected void createConnectionPool(final PoolableConnectionFactory factory) {
+    super.createConnectionPool(factory);
+    final GenericObjectPool<PoolableConnection> pool = getConnectionPool();
+    final EvictionPolicy<PoolableConnection> evictionPolicy = pool.getEvictionPolicy();
+    pool.setEvictionPolicy((config, underTest, idleCount) -> {
+      if (!evictionPolicy.evict(config, underTest, idleCount))
+        return false;
+
+      PoolEvents.commitEviction(getPoolName(), underTest.getIdleTimeMillis());
+      return true;
+    });
+  }
+
+  @Override
+  public Connection getConnection(final String lane) throws SQLException {
+    final Object event = PoolEvents.beginBorrow();
+    final long start = System.nanoTime();
+    try {
+      final Connection connection = borrow(lane);
+      borrowWait.record(System.nanoTime() - start);
+      PoolEvents.commitBorrow(event, getPoolName());
+      return connection;
+    }
+    catch (final SQLTransientConnectionException e) {
+      borrowTimeoutCount.increment();
+      if (event != null)
+        PoolEvents.commitExhausted(event, getPoolName(), e.getMessage(), getMaxTotal(), getNumActive(), getNumWaiters());
+
+      throw e;
+    }
+  }
+
+  private Connection borrow(final String lane) throws SQLException {
+    final LaneGate laneGate = this.laneGate;
+    if (laneGate == null && lane != null)
+      throw new IllegalArgumentException("Lane \"" + lane + "\" is not declared");
+
+    // The deadline of the borrow also bounds the creation of the pool, so that the initial connections of the pool can wait for capacity
+    // as long as the first borrow can
+    final boolean deadline = BorrowDeadline.enter(getMaxWaitMillis());
     try {
       if (!initialized.get()) {
         synchronized (this) {
@@ -50,18 +1209,74 @@ class BasicDataSource extends org.apache.commons.dbcp2.BasicDataSource {
         }
       }
 
-      return super.getConnection();
+      if (suspended)
+        throw new SQLTransientConnectionException("Pool is suspended for a checkpoint");
+
+      return laneGate == null ? super.getConnection() : borrow(laneGate, lane);
     }
     catch (final SQLException e) {
+      if (e instanceof SQLTransientConnectionException)
+        throw e;
+
       if (e.getMessage() == null || !e.getMessage().startsWith("Cannot get a connection"))
         throw SQLExceptions.toStrongType(e);
 
       final Throwable cause = e.getCause();
-      if (cause.getMessage() != null && cause.getMessage().startsWith("Timeout waiting"))
+      if (cause instanceof SQLTransientConnectionException || cause.getMessage() != null && cause.getMessage().startsWith("Timeout waiting"))
         throw Throwables.copy(e, new SQLTransientConnectionException(e.getMessage(), e.getSQLState(), e.getErrorCode()));
 
       throw Throwables.copy(e, new SQLNonTransientConnectionException(e.getMessage(), e.getSQLState(), e.getErrorCode()));
     }
+    finally {
+      if (deadline)
+        BorrowDeadline.exit();
+    }
+  }
+
+  private Connection borrow(final LaneGate laneGate, final String lane) throws SQLException {
+    final LaneGate.Lane lane$ = laneGate.getLane(lane != null ? lane : Lanes.current());
+    try {
+      if (!laneGate.acquire(lane$, getMaxWaitMillis()))
+        throw new SQLTransientConnectionException("Timeout waiting for a connection in lane \"" + lane$.getName() + "\"");
+    }
+    catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new SQLTransientConnectionException("Interrupted while waiting for a connection in lane \"" + lane$.getName() + "\"", e);
+    }
+
+    // The wait for admission to the lane counts towards the maximum wait time of the pool, by way of the deadline of the borrow
+    try {
+      final Connection connection = super.getConnection();
+      objectFactory.admit(() -> laneGate.release(lane$));
+      return connection;
+    }
+    catch (final SQLException | RuntimeException e) {
+      laneGate.release(lane$);
+      throw e;
+    }
+  }
+
+  @Override
+  public Connection getConnection(final String username, final String password) throws SQLException {
+    if (!perUser)
+      return super.getConnection(username, password);
+
+    if (suspended)
+      throw new SQLTransientConnectionException("Pool is suspended for a checkpoint");
+
+    final long start = System.nanoTime();
+    try {
+      final Connection connection = getUserPools().getConnection(username, password);
+      userBorrowWait.record(System.nanoTime() - start);
+      return connection;
+    }
+    catch (final SQLException e) {
+      // The pools of a SharedPoolDataSource report an exhausted pool with the NoSuchElementException of the keyed pool as the cause
+      if (e.getCause() instanceof NoSuchElementException)
+        userBorrowTimeoutCount.increment();
+
+      throw e;
+    }
   }
 
   @Override
@@ -105,4 +1320,63 @@ class BasicDataSource extends org.apache.commons.dbcp2.BasicDataSource {
       this.logWriter = logWriter;
     }
   }
+
+  /**
+   * An {@link ObjectPool} that delegates to the pool of a {@link BasicDataSource}, so that {@link PoolingDataSource} does not
+   * require the factory of that pool to be a {@link PoolableConnectionFactory}. Borrows wait only for the time that remains until the
+   * {@link BorrowDeadline deadline} of the borrow in progress, instead of for the configured maximum wait time.
+   */
+  private static final class PoolView implements ObjectPool<PoolableConnection> {
+    private final GenericObjectPool<PoolableConnection> pool;
+
+    private PoolView(final GenericObjectPool<PoolableConnection> pool) {
+      this.pool = pool;
+    }
+
+    @Override
+    public void addObject() throws Exception {
+      pool.addObject();
+    }
+
+    @Override
+    public PoolableConnection borrowObject() throws Exception {
+      final long remaining = BorrowDeadline.remaining();
+      return !BorrowDeadline.inProgress() || remaining == Long.MAX_VALUE ? pool.borrowObject() : pool.borrowObject(Duration.ofNanos(remaining));
+    }
+
+    @Override
+    public void clear() throws Exception {
+      pool.clear();
+    }
+
+    @Override
+    public void close() {
+      pool.close();
+    }
+
+    @Override
+    public int getNumActive() {
+      return pool.getNumActive();
+    }
+
+    @Override
+    public int getNumIdle() {
+      return pool.getNumIdle();
+    }
+
+    @Override
+    public void invalidateObject(final PoolableConnection obj) throws Exception {
+      pool.invalidateObject(obj);
+    }
+
+    @Override
+    public void invalidateObject(final PoolableConnection obj, final DestroyMode destroyMode) throws Exception {
+      pool.invalidateObject(obj, destroyMode);
+    }
+
+    @Override
+    public void returnObject(final PoolableConnection obj) throws Exception {
+      pool.returnObject(obj);
+    }
+  }
 }
\ No newline at end of file
@@ -0,0 +1,79 @@
+/* Copyright (c) 2026 OpenJAX
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.openjax.dbcp;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The deadline of the borrow in progress on the current thread, by which the connection factories that wait for capacity bound their
+ * wait, so that a borrow does not wait longer than the maximum wait time of its pool in total. A connection that is created without a
+ * borrow in progress, such as by the evictor to ensure the minimum number of idle connections, or by
+ * {@link org.apache.commons.pool2.ObjectPool#addObject()}, has no time to wait, so that it does not block the thread that creates it.
+ */
+final class BorrowDeadline {
+  private static final ThreadLocal<Long> deadline = new ThreadLocal<>();
+
+  /**
+   * Starts a borrow on the current thread, unless a borrow is already in progress on it, whose deadline is then kept.
+   *
+   * @param maxWait The maximum time to wait (in milliseconds), or a negative value to wait indefinitely.
+   * @return Whether the borrow was started, in which case {@link #exit()} must be called when it ends.
+   */
+  static boolean enter(final long maxWait) {
+    if (deadline.get() != null)
+      return false;
+
+    deadline.set(maxWait < 0 ? Long.MAX_VALUE : System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxWait));
+    return true;
+  }
+
+  /**
+   * Ends the borrow in progress on the current thread.
+   */
+  static void exit() {
+    deadline.remove();
+  }
+
+  /**
+   * Returns whether a borrow is in progress on the current thread.
+   *
+   * @return Whether a borrow is in progress on the current thread.
+   */
+  static boolean inProgress() {
+    return deadline.get() != null;
+  }
+
+  /**
+   * Returns the time (in nanoseconds) that remains until the deadline of the borrow in progress on the current thread,
+   * {@link Long#MAX_VALUE} if the borrow waits indefinitely, or {@code 0} if the deadline has passed or no borrow is in progress.
+   *
+   * @return The time (in nanoseconds) that remains until the deadline of the borrow in progress on the current thread.
+   */
+  static long remaining() {
+    final Long deadline = BorrowDeadline.deadline.get();
+    if (deadline == null)
+      return 0;
+
+    if (deadline == Long.MAX_VALUE)
+      return Long.MAX_VALUE;
+
+    return Math.max(0, deadline - System.nanoTime());
+  }
+
+  private BorrowDeadline() {
+  }
+}
@@ -0,0 +1,272 @@
+/* Copyright (c) 2026 OpenJAX
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.openjax.dbcp;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjax.dbcp_1_2.Dbcp;
+import org.xml.sax.SAXException;
+
+/**
+ * A size-bounded cache of the {@link Dbcp} bindings read from configuration documents, keyed by the {@link URL} of the document. A
+ * {@code file:} document, and the archive of a {@code jar:} document in the file system, are validated by their size and last modified
+ * time in nanoseconds, as read via {@link Files#readAttributes(Path,Class,java.nio.file.LinkOption...)} without opening the document.
+ * An {@code http:} or {@code https:} document is validated by a conditional request with the {@code ETag} and last modified time of
+ * its cached response, to which an unchanged document is answered with {@code 304 Not Modified}. A document that has not changed
+ * since it was last read is thereby neither read, parsed nor validated again, while a document that has changed is read anew and
+ * replaces the stale entry. A document of another scheme, or for which neither an {@code ETag} nor a last modified time is reported,
+ * is not cached. The least recently used entries are evicted when the cache is full.
+ * <p>
+ * The cached bindings are shared by all callers of {@link #get(String,URL,Reader)}, and must therefore not be modified.
+ */
+final class ConfigCache {
+  /**
+   * Reads the {@link Dbcp} bindings of a configuration document.
+   */
+  @FunctionalInterface
+  interface Reader {
+    /**
+     * Returns the {@link Dbcp} bindings of the configuration document read from the specified {@link InputStream}.
+     *
+     * @param in The {@link InputStream} of the document.
+     * @return The {@link Dbcp} bindings of the document.
+     * @throws IOException If an I/O error has occurred.
+     * @throws SAXException If the document is not valid.
+     */
+    Dbcp[] read(InputStream in) throws IOException, SAXException;
+  }
+
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final LinkedHashMap<String,Entry> entries = new LinkedHashMap<String,Entry>(16, 0.75f, true) {
+    @Override
+    protected boolean removeEldestEntry(final Map.Entry<String,Entry> eldest) {
+      return size() > maxSize;
+    }
+  };
+
+  private volatile int maxSize;
+
+  private static final class Entry {
+    private final String validator;
+    private final long lastModified;
+    private final Dbcp[] dbcps;
+
+    private Entry(final String validator, final long lastModified, final Dbcp[] dbcps) {
+      this.validator = validator;
+      this.lastModified = lastModified;
+      this.dbcps = dbcps;
+    }
+  }
+
+  /**
+   * Creates a new {@link ConfigCache} with the specified maximum number of entries.
+   *
+   * @param maxSize The maximum number of entries, or {@code 0} to disable the cache.
+   * @throws IllegalArgumentException If {@code maxSize} is negative.
+   */
+  ConfigCache(final int maxSize) {
+    setMaxSize(maxSize);
+  }
+
+  /**
+   * Sets the maximum number of entries of this cache, evicting the least recently used entries that exceed it.
+   *
+   * @param maxSize The maximum number of entries, or {@code 0} to disable the cache.
+   * @throws IllegalArgumentException If {@code maxSize} is negative.
+   */
+  void setMaxSize(final int maxSize) {
+    if (maxSize < 0)
+      throw new IllegalArgumentException("maxSize (" + maxSize + ") must not be negative");
+
+    synchronized (entries) {
+      this.maxSize = maxSize;
+      if (entries.size() > maxSize) {
+        final int excess = entries.size() - maxSize;
+        int i = 0;
+        for (final Iterator<String> iterator = entries.keySet().iterator(); i < excess; ++i) {
+          iterator.next();
+          iterator.remove();
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the maximum number of entries of this cache.
+   *
+   * @return The maximum number of entries of this cache.
+   */
+  int getMaxSize() {
+    return maxSize;
+  }
+
+  /**
+   * Returns the number of entries in this cache.
+   *
+   * @return The number of entries in this cache.
+   */
+  int size() {
+    synchronized (entries) {
+      return entries.size();
+    }
+  }
+
+  /**
+   * Returns the number of lookups that found the bindings of an unchanged document in this cache.
+   *
+   * @return The number of lookups that found the bindings of an unchanged document in this cache.
+   */
+  long getHitCount() {
+    return hits.get();
+  }
+
+  /**
+   * Returns the number of lookups that had to read the document because it was not in this cache, or because it had changed.
+   *
+   * @return The number of lookups that had to read the document.
+   */
+  long getMissCount() {
+    return misses.get();
+  }
+
+  /**
+   * Returns the {@link Dbcp} bindings of the document at the specified {@link URL}, from this cache if the document is unchanged, or
+   * as read by the specified {@link Reader} otherwise. The document is validated on each call, so that its changes are detected, but
+   * its content is read only if it has changed.
+   *
+   * @param scope The scope of the bindings, distinguishing readers that produce different bindings from the same document.
+   * @param url The {@link URL} of the document.
+   * @param reader The {@link Reader} of the document.
+   * @return The {@link Dbcp} bindings of the document.
+   * @throws IOException If an I/O error has occurred.
+   * @throws SAXException If the document is not valid.
+   * @throws NullPointerException If {@code url} or {@code reader} is null.
+   */
+  Dbcp[] get(final String scope, final URL url, final Reader reader) throws IOException, SAXException {
+    final URLConnection connection = url.openConnection();
+    if (maxSize == 0)
+      return read(connection, reader);
+
+    final String key = scope + ' ' + url;
+    final Entry cached;
+    synchronized (entries) {
+      cached = entries.get(key);
+    }
+
+    final String validator;
+    final long lastModified;
+    final Path path = path(connection);
+    if (path != null) {
+      // The attributes are read before the content, so that a change in between is seen as a change on the next call
+      validator = validator(path);
+      lastModified = 0;
+      if (cached != null && validator != null && validator.equals(cached.validator)) {
+        hits.incrementAndGet();
+        return cached.dbcps;
+      }
+
+      // A cached archive would be read as it was when it was first opened
+      if (connection instanceof JarURLConnection)
+        connection.setUseCaches(false);
+    }
+    else if (connection instanceof HttpURLConnection) {
+      final HttpURLConnection http = (HttpURLConnection)connection;
+      if (cached != null) {
+        if (cached.validator != null)
+          http.setRequestProperty("If-None-Match", cached.validator);
+
+        if (cached.lastModified != 0)
+          http.setIfModifiedSince(cached.lastModified);
+      }
+
+      if (cached != null && http.getResponseCode() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+        hits.incrementAndGet();
+        return cached.dbcps;
+      }
+
+      validator = http.getHeaderField("ETag");
+      lastModified = http.getLastModified();
+    }
+    else {
+      validator = null;
+      lastModified = 0;
+    }
+
+    misses.incrementAndGet();
+    final Dbcp[] dbcps = read(connection, reader);
+    if (validator != null || lastModified != 0) {
+      synchronized (entries) {
+        entries.put(key, new Entry(validator, lastModified, dbcps));
+      }
+    }
+
+    return dbcps;
+  }
+
+  private static Dbcp[] read(final URLConnection connection, final Reader reader) throws IOException, SAXException {
+    try (final InputStream in = connection.getInputStream()) {
+      return reader.read(in);
+    }
+  }
+
+  /**
+   * Returns the {@link Path} of the document of a {@code file:} {@link URLConnection}, or of the archive of a {@code jar:}
+   * {@link URLConnection}, or {@code null} if the document is not in the default file system.
+   */
+  private static Path path(final URLConnection connection) {
+    final URL url = connection instanceof JarURLConnection ? ((JarURLConnection)connection).getJarFileURL() : connection.getURL();
+    if (!"file".equals(url.getProtocol()))
+      return null;
+
+    try {
+      return Paths.get(url.toURI());
+    }
+    catch (final URISyntaxException | IllegalArgumentException | FileSystemNotFoundException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Returns the validator of the file at the specified {@link Path}, or {@code null} if its attributes cannot be read.
+   */
+  private static String validator(final Path path) {
+    try {
+      final BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+      return attributes.size() + " " + attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS);
+    }
+    catch (final IOException e) {
+      return null;
+    }
+  }
+}
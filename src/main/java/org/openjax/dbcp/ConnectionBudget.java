@@ -0,0 +1,350 @@
+/* Copyright (c) 2026 OpenJAX
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.openjax.dbcp;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.commons.dbcp2.ConnectionFactory;
+
+/**
+ * A JVM-wide budget of physical connections shared by the pools that are members of the budget. Each member is guaranteed its
+ * reserved number of connections. The capacity that is not reserved by any member is the headroom, which members borrow in proportion
+ * to their weight whenever more than one member contends for it. If the headroom is exhausted while a member is below its weighted
+ * share, idle connections are reclaimed from members above their share.
+ */
+final class ConnectionBudget {
+  private static final HashMap<String,ConnectionBudget> budgets = new HashMap<>();
+  private static final ThreadLocal<Boolean> reclaiming = new ThreadLocal<>();
+
+  /**
+   * Returns the {@link ConnectionBudget} with the specified name, creating it if it does not exist.
+   *
+   * @param name The name of the budget.
+   * @param capacity The maximum number of physical connections that can be open for all members of the budget at the same time.
+   * @return The {@link ConnectionBudget} with the specified name.
+   * @throws NullPointerException If {@code name} is null.
+   * @throws IllegalArgumentException If {@code capacity} is not positive, or if the budget already exists with a different capacity.
+   */
+  static synchronized ConnectionBudget get(final String name, final int capacity) {
+    ConnectionBudget budget = budgets.get(Objects.requireNonNull(name));
+    if (budget == null)
+      budgets.put(name, budget = new ConnectionBudget(name, capacity));
+    else if (budget.capacity != capacity)
+      throw new IllegalArgumentException("Connection budget \"" + name + "\" already exists with capacity " + budget.capacity + ", not " + capacity);
+
+    return budget;
+  }
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition released = lock.newCondition();
+  private final ArrayList<Member> members = new ArrayList<>();
+  private final String name;
+  private final int capacity;
+  private int reserved;
+
+  private ConnectionBudget(final String name, final int capacity) {
+    if (capacity <= 0)
+      throw new IllegalArgumentException("capacity (" + capacity + ") must be positive");
+
+    this.name = name;
+    this.capacity = capacity;
+  }
+
+  /**
+   * Registers the specified {@link BasicDataSource} as a member of this budget.
+   *
+   * @param dataSource The {@link BasicDataSource} from which idle connections are reclaimed when other members need the capacity.
+   * @param reserved The number of connections guaranteed to the member.
+   * @param weight The weight of the member when borrowing the headroom.
+   * @return The {@link Member} representing the registration.
+   * @throws IllegalArgumentException If {@code reserved} is negative, if {@code weight} is not positive, or if the sum of the
+   *           reservations of all members would exceed the capacity of this budget.
+   */
+  Member register(final BasicDataSource dataSource, final int reserved, final int weight) {
+    if (reserved < 0)
+      throw new IllegalArgumentException("reserved (" + reserved + ") must not be negative");
+
+    if (weight <= 0)
+      throw new IllegalArgumentException("weight (" + weight + ") must be positive");
+
+    lock.lock();
+    try {
+      if (this.reserved + reserved > capacity)
+        throw new IllegalArgumentException("Reserving " + reserved + " connections exceeds the capacity of connection budget \"" + name + "\": " + this.reserved + " of " + capacity + " are already reserved");
+
+      final Member member = new Member(dataSource, reserved, weight);
+      this.reserved += reserved;
+      members.add(member);
+      return member;
+    }
+    finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Returns the number of connections that are occupied by all members, where the reservation of each registered member counts as
+   * occupied even if not in use. Must be called while holding {@link #lock}.
+   */
+  private int occupied() {
+    int occupied = 0;
+    for (int i = 0, i$ = members.size(); i < i$; ++i) { // [RA]
+      final Member member = members.get(i);
+      occupied += member.registered ? Math.max(member.used, member.reserved) : member.used;
+    }
+
+    return occupied;
+  }
+
+  /**
+   * Returns the number of headroom connections the specified member is entitled to when contending with other members. Must be called
+   * while holding {@link #lock}.
+   */
+  private int share(final Member member) {
+    int weights = 0;
+    for (int i = 0, i$ = members.size(); i < i$; ++i) { // [RA]
+      final Member other = members.get(i);
+      if (other == member || other.borrowed() > 0 || other.waiting > 0)
+        weights += other.weight;
+    }
+
+    return (int)Math.ceil((double)(capacity - reserved) * member.weight / weights);
+  }
+
+  /**
+   * Returns whether any member other than the specified member is waiting for capacity. Must be called while holding {@link #lock}.
+   */
+  private boolean isContended(final Member member) {
+    for (int i = 0, i$ = members.size(); i < i$; ++i) { // [RA]
+      final Member other = members.get(i);
+      if (other != member && other.waiting > 0)
+        return true;
+    }
+
+    return false;
+  }
+
+  /**
+   * Returns a member that has borrowed more than its share of the headroom, and has idle connections that can be reclaimed, or
+   * {@code null} if there is no such member. Must be called while holding {@link #lock}.
+   */
+  private Member findReclaimable(final Member member) {
+    for (int i = 0, i$ = members.size(); i < i$; ++i) { // [RA]
+      final Member other = members.get(i);
+      if (other != member && other.registered && other.borrowed() > share(other) && other.dataSource.getNumIdle() > 0)
+        return other;
+    }
+
+    return null;
+  }
+
+  /**
+   * A member of a {@link ConnectionBudget}.
+   */
+  final class Member {
+    private final BasicDataSource dataSource;
+    private final int reserved;
+    private final int weight;
+    private boolean registered = true;
+    private int used;
+    private int waiting;
+
+    private Member(final BasicDataSource dataSource, final int reserved, final int weight) {
+      this.dataSource = dataSource;
+      this.reserved = reserved;
+      this.weight = weight;
+    }
+
+    private int borrowed() {
+      return used > reserved ? used - reserved : 0;
+    }
+
+    /**
+     * Acquires capacity for one physical connection, waiting up to the specified timeout for capacity to become available.
+     *
+     * @param timeout The maximum time to wait (in nanoseconds), or {@link Long#MAX_VALUE} to wait indefinitely.
+     * @return Whether capacity was acquired.
+     * @throws InterruptedException If the calling thread is interrupted while waiting.
+     */
+    boolean acquire(final long timeout) throws InterruptedException {
+      if (reclaiming.get() != null)
+        return false;
+
+      long remaining = timeout;
+      lock.lock();
+      try {
+        ++waiting;
+        try {
+          while (true) {
+            if (used < reserved || occupied() < capacity && (borrowed() < share(this) || !isContended(this))) {
+              ++used;
+              return true;
+            }
+
+            if (borrowed() < share(this)) {
+              final Member victim = findReclaimable(this);
+              if (victim != null) {
+                final boolean reclaimed;
+                lock.unlock();
+                try {
+                  reclaimed = victim.reclaim();
+                }
+                finally {
+                  lock.lock();
+                }
+
+                if (reclaimed)
+                  continue;
+              }
+            }
+
+            if (remaining <= 0)
+              return false;
+
+            remaining = released.awaitNanos(remaining);
+          }
+        }
+        finally {
+          --waiting;
+        }
+      }
+      finally {
+        lock.unlock();
+      }
+    }
+
+    /**
+     * Releases the capacity for one physical connection.
+     */
+    void release() {
+      lock.lock();
+      try {
+        --used;
+        if (!registered && used == 0)
+          members.remove(this);
+
+        released.signalAll();
+      }
+      finally {
+        lock.unlock();
+      }
+    }
+
+    /**
+     * Removes this member from its {@link ConnectionBudget}. Connections that are still open remain counted until they are closed.
+     */
+    void unregister() {
+      lock.lock();
+      try {
+        if (!registered)
+          return;
+
+        registered = false;
+        ConnectionBudget.this.reserved -= reserved;
+        if (used == 0)
+          members.remove(this);
+
+        released.signalAll();
+      }
+      finally {
+        lock.unlock();
+      }
+    }
+
+    private boolean reclaim() {
+      reclaiming.set(Boolean.TRUE);
+      try {
+        return dataSource.closeIdleConnection();
+      }
+      finally {
+        reclaiming.remove();
+      }
+    }
+
+    /**
+     * Returns a {@link ConnectionFactory} that acquires capacity from this member before creating a connection with the specified
+     * {@link ConnectionFactory}, and releases the capacity when the connection is closed. The wait for capacity is bounded by the
+     * {@link BorrowDeadline deadline} of the borrow in progress, and a connection that is created without a borrow in progress, such as
+     * by the evictor, does not wait.
+     *
+     * @param connectionFactory The target {@link ConnectionFactory}.
+     * @return A {@link ConnectionFactory} that acquires capacity from this member.
+     */
+    ConnectionFactory decorate(final ConnectionFactory connectionFactory) {
+      return () -> {
+        try {
+          if (!acquire(BorrowDeadline.remaining()))
+            throw new SQLTransientConnectionException("Connection budget \"" + name + "\" of " + capacity + " connections is exhausted");
+        }
+        catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new SQLTransientConnectionException("Interrupted while waiting for connection budget \"" + name + "\"", e);
+        }
+
+        final Connection connection;
+        try {
+          connection = connectionFactory.createConnection();
+        }
+        catch (final SQLException | RuntimeException e) {
+          release();
+          throw e;
+        }
+
+        return new BudgetedConnection(connection);
+      };
+    }
+
+    private final class BudgetedConnection extends DelegateConnection {
+      private final AtomicBoolean released = new AtomicBoolean();
+
+      private BudgetedConnection(final Connection target) {
+        super(target);
+      }
+
+      @Override
+      public void close() throws SQLException {
+        try {
+          super.close();
+        }
+        finally {
+          if (released.compareAndSet(false, true))
+            release();
+        }
+      }
+
+      @Override
+      public void abort(final Executor executor) throws SQLException {
+        try {
+          super.abort(executor);
+        }
+        finally {
+          if (released.compareAndSet(false, true))
+            release();
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,238 @@
+/* Copyright (c) 2026 OpenJAX
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.openjax.dbcp;
+
+import java.sql.SQLException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientConnectionException;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.apache.commons.dbcp2.PoolableConnection;
+import org.apache.commons.dbcp2.PoolableConnectionFactory;
+import org.apache.commons.pool2.DestroyMode;
+import org.apache.commons.pool2.PooledObject;
+import org.apache.commons.pool2.PooledObjectFactory;
+
+/**
+ * A {@link PooledObjectFactory} that delegates the lifecycle of {@link PoolableConnection}s to a {@link PoolableConnectionFactory},
+ * keeps a {@link ConnectionState} for each pooled connection, and optionally keeps the bookkeeping of the pooled connections in a
+ * {@link PooledObjectTable}.
+ */
+class ConnectionObjectFactory implements PooledObjectFactory<PoolableConnection> {
+  private final PoolableConnectionFactory target;
+  private final PooledObjectTable<PoolableConnection> table;
+  private final ConcurrentHashMap<PooledObject<PoolableConnection>,ConnectionState> states = new ConcurrentHashMap<>();
+  private final ThreadLocal<PooledObject<PoolableConnection>> borrowed = new ThreadLocal<>();
+  private boolean admissions;
+  private long lifetime = -1;
+  private long jitter;
+  private boolean expireOnBorrow;
+  private volatile boolean suspended;
+  private String poolName;
+
+  /**
+   * Creates a new {@link ConnectionObjectFactory} with the specified target {@link PoolableConnectionFactory}.
+   *
+   * @param target The target {@link PoolableConnectionFactory}.
+   * @param compact Whether the bookkeeping of the pooled connections is kept in a {@link PooledObjectTable}.
+   * @throws NullPointerException If {@code target} is null.
+   */
+  ConnectionObjectFactory(final PoolableConnectionFactory target, final boolean compact) {
+    this.target = Objects.requireNonNull(target);
+    this.table = compact ? new PooledObjectTable<>() : null;
+  }
+
+  /**
+   * Specifies the lifetime of the connections created by this factory, which is shortened by a random jitter for each connection, so
+   * that connections created at the same time do not expire at the same time.
+   *
+   * @param lifetime The maximum lifetime (in milliseconds) of a connection, or a negative value for no limit.
+   * @param jitter The maximum time (in milliseconds) by which the lifetime of each connection is shortened.
+   * @param expireOnBorrow Whether an expired connection is rejected when it is borrowed, or is left to be retired in the background.
+   */
+  void setLifetime(final long lifetime, final long jitter, final boolean expireOnBorrow) {
+    this.lifetime = lifetime;
+    this.jitter = jitter;
+    this.expireOnBorrow = expireOnBorrow;
+  }
+
+  /**
+   * Specifies whether this factory is suspended, in which case {@link #makeObject()} fails.
+   *
+   * @param suspended Whether this factory is suspended.
+   */
+  void setSuspended(final boolean suspended) {
+    this.suspended = suspended;
+  }
+
+  /**
+   * Specifies whether borrowers are admitted to the pool, in which case the connection activated for the borrow in progress on each
+   * thread is kept until its admission is {@link #admit(Runnable) tied} to it.
+   *
+   * @param admissions Whether borrowers are admitted to the pool.
+   */
+  void setAdmissions(final boolean admissions) {
+    this.admissions = admissions;
+  }
+
+  /**
+   * Ties the specified release of an admission to the connection that the current thread has just borrowed, so that it is run once,
+   * when the connection is returned to the pool or destroyed, also if the connection is removed as abandoned or is drained while it is
+   * borrowed. The release is run immediately if there is no such connection.
+   *
+   * @param release The action that releases the admission.
+   */
+  void admit(final Runnable release) {
+    final PooledObject<PoolableConnection> p = borrowed.get();
+    borrowed.remove();
+    final ConnectionState state = p == null ? null : states.get(p);
+    if (state == null) {
+      release.run();
+      return;
+    }
+
+    state.setRelease(release);
+    // The connection may have been destroyed before the release was set
+    if (states.get(p) != state)
+      state.release();
+  }
+
+  /**
+   * Specifies the name of the pool in the {@link PoolEvents} emitted by this factory.
+   *
+   * @param poolName The name of the pool.
+   */
+  void setPoolName(final String poolName) {
+    this.poolName = poolName;
+  }
+
+  /**
+   * Returns the pooled connections of this factory that have not been destroyed, mapped to their {@link ConnectionState}.
+   *
+   * @return The pooled connections of this factory that have not been destroyed, mapped to their {@link ConnectionState}.
+   */
+  Set<Map.Entry<PooledObject<PoolableConnection>,ConnectionState>> states() {
+    return states.entrySet();
+  }
+
+  /**
+   * Returns the {@link ConnectionState} of the specified pooled connection, or {@code null} if the connection has been destroyed.
+   *
+   * @param p The pooled connection.
+   * @return The {@link ConnectionState} of the specified pooled connection, or {@code null} if the connection has been destroyed.
+   */
+  ConnectionState getState(final PooledObject<PoolableConnection> p) {
+    return states.get(p);
+  }
+
+  @Override
+  public PooledObject<PoolableConnection> makeObject() throws Exception {
+    if (suspended)
+      throw new SQLTransientConnectionException("Pool is suspended for a checkpoint");
+
+    final Object event = PoolEvents.beginCreate();
+    PooledObject<PoolableConnection> pooledObject;
+    try {
+      pooledObject = target.makeObject();
+    }
+    catch (final Exception e) {
+      PoolEvents.commitCreate(event, poolName, false);
+      throw e;
+    }
+
+    PoolEvents.commitCreate(event, poolName, true);
+    if (table != null)
+      pooledObject = table.wrap(pooledObject.getObject());
+
+    final long expiry = lifetime < 0 ? Long.MAX_VALUE : System.currentTimeMillis() + Math.max(0, lifetime - (jitter > 0 ? ThreadLocalRandom.current().nextLong(jitter + 1) : 0));
+    states.put(pooledObject, new ConnectionState(expiry));
+    return pooledObject;
+  }
+
+  @Override
+  public void activateObject(final PooledObject<PoolableConnection> p) throws Exception {
+    final ConnectionState state = states.get(p);
+    if (state != null) {
+      state.awaitKeepalive();
+      if (expireOnBorrow && System.currentTimeMillis() >= state.getExpiry())
+        throw new SQLException("Connection lifetime exceeded");
+
+      if (PoolEvents.isReturnEnabled())
+        state.setBorrowTime(System.nanoTime());
+
+      state.activated();
+    }
+
+    target.activateObject(p);
+    if (admissions && BorrowDeadline.inProgress())
+      borrowed.set(p);
+  }
+
+  @Override
+  public void passivateObject(final PooledObject<PoolableConnection> p) throws Exception {
+    final ConnectionState state = states.get(p);
+    if (state != null) {
+      state.release();
+      final long borrowTime = state.getBorrowTime();
+      if (borrowTime != 0) {
+        state.setBorrowTime(0);
+        PoolEvents.commitReturn(poolName, System.nanoTime() - borrowTime);
+      }
+
+      if (state.isBroken())
+        throw new SQLRecoverableException("Connection was drained from the pool");
+    }
+
+    target.passivateObject(p);
+  }
+
+  @Override
+  public boolean validateObject(final PooledObject<PoolableConnection> p) {
+    final ConnectionState state = states.get(p);
+    if (state != null && state.isBroken())
+      return false;
+
+    final Object event = PoolEvents.beginValidate();
+    final boolean valid = target.validateObject(p);
+    PoolEvents.commitValidate(event, poolName, valid);
+    return valid;
+  }
+
+  @Override
+  public void destroyObject(final PooledObject<PoolableConnection> p) throws Exception {
+    destroyObject(p, DestroyMode.NORMAL);
+  }
+
+  @Override
+  public void destroyObject(final PooledObject<PoolableConnection> p, final DestroyMode destroyMode) throws Exception {
+    try {
+      target.destroyObject(p, destroyMode);
+    }
+    finally {
+      final ConnectionState state = states.remove(p);
+      if (state != null)
+        state.release();
+
+      if (p instanceof PooledObjectTable.Entry)
+        ((PooledObjectTable<?>.Entry)p).free();
+    }
+  }
+}
@@ -0,0 +1,188 @@
+/* Copyright (c) 2026 OpenJAX
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.openjax.dbcp;
+
+import java.sql.SQLException;
+import java.sql.SQLRecoverableException;
+
+/**
+ * The state that is kept for each physical connection of a pool in addition to the bookkeeping of the pool itself.
+ */
+final class ConnectionState {
+  private static final int IDLE = 0;
+  private static final int PINGING = 1;
+  private static final int BROKEN = 2;
+
+  private final long expiry;
+  private int keepalive = IDLE;
+  private volatile long lastKeepalive;
+  private long borrowTime;
+  private volatile long activationCount;
+  private Runnable release;
+
+  /**
+   * Creates a new {@link ConnectionState}.
+   *
+   * @param expiry The time (in milliseconds since the epoch) at which the connection is to be retired, or {@link Long#MAX_VALUE} if
+   *          the connection does not expire.
+   */
+  ConnectionState(final long expiry) {
+    this.expiry = expiry;
+  }
+
+  /**
+   * Returns the time (in milliseconds since the epoch) at which the connection is to be retired, or {@link Long#MAX_VALUE} if the
+   * connection does not expire.
+   *
+   * @return The time at which the connection is to be retired.
+   */
+  long getExpiry() {
+    return expiry;
+  }
+
+  /**
+   * Returns the {@link System#nanoTime()} at which the connection was borrowed, or {@code 0} if it is not recorded.
+   *
+   * @return The {@link System#nanoTime()} at which the connection was borrowed, or {@code 0} if it is not recorded.
+   */
+  long getBorrowTime() {
+    return borrowTime;
+  }
+
+  /**
+   * Records the {@link System#nanoTime()} at which the connection was borrowed.
+   *
+   * @param borrowTime The {@link System#nanoTime()} at which the connection was borrowed, or {@code 0} to clear the record.
+   */
+  void setBorrowTime(final long borrowTime) {
+    this.borrowTime = borrowTime;
+  }
+
+  /**
+   * Returns the number of times the connection has been activated for use by a borrower, or by the pool to validate or rotate it.
+   *
+   * @return The number of times the connection has been activated.
+   */
+  long getActivationCount() {
+    return activationCount;
+  }
+
+  /**
+   * Counts an activation of the connection. Must not be called concurrently for the same connection, which holds because a connection
+   * is activated only by the thread to which the pool has allocated it.
+   */
+  void activated() {
+    ++activationCount;
+  }
+
+  /**
+   * Specifies the action that releases the admission of the borrower of the connection, which is {@link #release() run} when the
+   * connection is returned to the pool or destroyed.
+   *
+   * @param release The action that releases the admission of the borrower of the connection.
+   */
+  synchronized void setRelease(final Runnable release) {
+    this.release = release;
+  }
+
+  /**
+   * Runs and clears the action that releases the admission of the borrower of the connection, if one is set, so that it is run once.
+   */
+  void release() {
+    final Runnable release;
+    synchronized (this) {
+      release = this.release;
+      this.release = null;
+    }
+
+    if (release != null)
+      release.run();
+  }
+
+  /**
+   * Returns the time (in milliseconds since the epoch) of the last keepalive ping of the connection, or {@code 0} if it has not been
+   * pinged.
+   *
+   * @return The time of the last keepalive ping of the connection.
+   */
+  long getLastKeepalive() {
+    return lastKeepalive;
+  }
+
+  /**
+   * Claims the connection for a keepalive ping.
+   *
+   * @return Whether the connection was claimed, which is not the case if it is already being pinged, or if it is broken.
+   */
+  synchronized boolean startKeepalive() {
+    if (keepalive != IDLE)
+      return false;
+
+    keepalive = PINGING;
+    return true;
+  }
+
+  /**
+   * Releases the claim for a keepalive ping, and wakes up a borrower waiting in {@link #awaitKeepalive()}.
+   *
+   * @param valid Whether the ping found the connection to be valid.
+   */
+  synchronized void endKeepalive(final boolean valid) {
+    if (keepalive == PINGING)
+      keepalive = valid ? IDLE : BROKEN;
+
+    lastKeepalive = System.currentTimeMillis();
+    notifyAll();
+  }
+
+  /**
+   * Marks the connection as broken, so that it is rejected when it is next borrowed, validated or returned.
+   */
+  synchronized void markBroken() {
+    keepalive = BROKEN;
+    notifyAll();
+  }
+
+  /**
+   * Returns whether a keepalive ping found the connection to be broken, or whether it was {@link #markBroken() marked as broken}.
+   *
+   * @return Whether the connection is broken.
+   */
+  synchronized boolean isBroken() {
+    return keepalive == BROKEN;
+  }
+
+  /**
+   * Waits for a keepalive ping of the connection in progress to complete.
+   *
+   * @throws SQLRecoverableException If the connection is broken.
+   * @throws SQLException If the calling thread is interrupted while waiting.
+   */
+  synchronized void awaitKeepalive() throws SQLException {
+    try {
+      while (keepalive == PINGING)
+        wait();
+    }
+    catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new SQLException("Interrupted while waiting for keepalive", e);
+    }
+
+    if (keepalive == BROKEN)
+      throw new SQLRecoverableException("Connection is broken");
+  }
+}
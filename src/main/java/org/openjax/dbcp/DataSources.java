@@ -27,7 +27,15 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import javax.xml.XMLConstants;
 import javax.xml.bind.JAXBContext;
@@ -37,6 +45,7 @@ import javax.xml.bind.Unmarshaller;
 import javax.xml.stream.FactoryConfigurationError;
 import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.validation.Schema;
 import javax.xml.validation.SchemaFactory;
 
@@ -67,6 +76,127 @@ public final class DataSources {
   private static final String INDEFINITE = "INDEFINITE";
   private static final String schemaFile = "dbcp.xsd";
   private static Schema schema;
+  private static final boolean isNativeImage = System.getProperty("org.graalvm.nativeimage.imagecode") != null;
+  private static final ConfigCache configCache = new ConfigCache(64);
+  private static final Set<BasicDataSource> dataSources = Collections.newSetFromMap(new WeakHashMap<>());
+  private static final int RESTORE_PARALLELISM = 8;
+
+  /**
+   * Returns the pools created by {@link DataSources} that have not been garbage collected.
+   *
+   * @return The pools created by {@link DataSources} that have not been garbage collected.
+   */
+  static BasicDataSource[] dataSources() {
+    synchronized (dataSources) {
+      return dataSources.toArray(new BasicDataSource[dataSources.size()]);
+    }
+  }
+
+  /**
+   * Prepares the pools created by {@link DataSources} for a checkpoint of the JVM (for instance with CRaC), by suspending the creation
+   * of connections, recording the number of open connections of each pool, and closing all physical connections, so that the
+   * checkpoint contains no open sockets. Connections that are borrowed are closed once returned, and the borrowing of connections fails
+   * with {@link java.sql.SQLTransientConnectionException} until {@link #afterRestore()} is called.
+   *
+   * @param timeout The maximum time (in milliseconds) to wait for borrowed connections to be returned to each pool.
+   * @throws SQLException If borrowed connections have not been returned within the timeout, or if the calling thread is interrupted.
+   */
+  public static void beforeCheckpoint(final long timeout) throws SQLException {
+    for (final BasicDataSource dataSource : dataSources()) // [A]
+      if (!dataSource.isClosed())
+        dataSource.beforeCheckpoint(timeout);
+  }
+
+  /**
+   * Resumes the pools created by {@link DataSources} after a restore of the JVM from a checkpoint, or after a failed checkpoint, and
+   * reopens in parallel the number of connections that each pool had open before {@link #beforeCheckpoint(long)}.
+   *
+   * @throws SQLException If connections could not be reopened, with the exceptions of further failures suppressed, or if the calling
+   *           thread is interrupted.
+   */
+  public static void afterRestore() throws SQLException {
+    final ArrayList<Callable<Void>> tasks = new ArrayList<>();
+    for (final BasicDataSource dataSource : dataSources()) { // [A]
+      if (!dataSource.isClosed()) {
+        for (int i = 0, i$ = dataSource.afterRestore(); i < i$; ++i) {
+          tasks.add(() -> {
+            dataSource.addIdleConnection();
+            return null;
+          });
+        }
+      }
+    }
+
+    if (tasks.size() == 0)
+      return;
+
+    final ExecutorService executor = Executors.newFixedThreadPool(Math.min(tasks.size(), RESTORE_PARALLELISM), (final Runnable r) -> {
+      final Thread thread = new Thread(r, "dbcp-restore");
+      thread.setDaemon(true);
+      return thread;
+    });
+
+    try {
+      SQLException exception = null;
+      for (final Future<Void> future : executor.invokeAll(tasks)) {
+        try {
+          future.get();
+        }
+        catch (final ExecutionException e) {
+          final SQLException cause = e.getCause() instanceof SQLException ? (SQLException)e.getCause() : new SQLException(e.getCause());
+          if (exception == null)
+            exception = cause;
+          else
+            exception.addSuppressed(cause);
+        }
+      }
+
+      if (exception != null)
+        throw exception;
+    }
+    catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new SQLException("Interrupted while reopening connections", e);
+    }
+    finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Sets the maximum number of configuration documents whose bindings are cached by the {@code createDataSource} methods that accept
+   * a {@link URL} for a document with root element {@code dbcp:dbcp}. A cached document is validated on each call, by the size and
+   * last modified time of its file, or of the file of its {@code jar:} archive, or by a conditional request for an {@code http:} or
+   * {@code https:} document, but is not read, parsed or validated again unless it has changed. The least recently used documents are
+   * evicted when the cache is full. Documents with root element {@code dbcp:dbcps} are streamed on each call, and are
+   * not cached. (Default: 64).
+   *
+   * @param size The maximum number of cached configuration documents, or {@code 0} to disable the cache.
+   * @throws IllegalArgumentException If {@code size} is negative.
+   */
+  public static void setConfigCacheSize(final int size) {
+    configCache.setMaxSize(size);
+  }
+
+  /**
+   * Returns the number of {@code createDataSource} calls with a {@link URL} for which the bindings of the configuration document were
+   * found in the cache.
+   *
+   * @return The number of {@code createDataSource} calls with a {@link URL} for which the bindings were found in the cache.
+   */
+  public static long getConfigCacheHitCount() {
+    return configCache.getHitCount();
+  }
+
+  /**
+   * Returns the number of {@code createDataSource} calls with a {@link URL} for which the configuration document had to be parsed and
+   * validated, because it was not in the cache or its content had changed.
+   *
+   * @return The number of {@code createDataSource} calls with a {@link URL} for which the configuration document had to be parsed.
+   */
+  public static long getConfigCacheMissCount() {
+    return configCache.getMissCount();
+  }
 
   /**
    * Create a {@link BasicDataSource} from the configuration supplied by the {@link URL url} specifying an xml document with root
@@ -89,6 +219,9 @@ public final class DataSources {
    * Create a {@link BasicDataSource} from the configuration supplied by the {@link URL url} specifying an xml document with root
    * element {@code dbcp:dbcp}. {@link ClassLoader#getSystemClassLoader()} will be used by the {@link BasicDataSource} when it loads
    * the JDBC driver.
+   * <p>
+   * In a GraalVM native image, the document is read with a reflection-free reader that checks the constraints of the {@code dbcp.xsd}
+   * schema itself, instead of being unmarshalled with JAX-B and validated with the schema loaded from the context class loader.
    *
    * @param url An {@link URL} specifying a dbcp xml resource.
    * @param driverClassLoader Class loader to be used by the {@link BasicDataSource} when it loads the JDBC driver.
@@ -100,17 +233,23 @@ public final class DataSources {
    * @throws IllegalArgumentException If the {@code /dbcp:dbcp/dbcp:jdbc} element is missing.
    */
   public static BasicDataSource createDataSource(final URL url, final ClassLoader driverClassLoader) throws IOException, SAXException {
+    return createDataSource(driverClassLoader, configCache.get("dbcp", url, (final InputStream in) -> new Dbcp[] {isNativeImage ? DbcpReader.read(in) : unmarshal(in)}));
+  }
+
+  private static Unmarshaller createUnmarshaller() throws JAXBException, SAXException {
+    final Unmarshaller unmarshaller = JAXBContext.newInstance(Dbcp.class).createUnmarshaller();
+    final URL resource = Thread.currentThread().getContextClassLoader().getResource(schemaFile);
+    if (resource == null)
+      throw new IllegalStateException("Unable to find " + schemaFile + " in class loader " + Thread.currentThread().getContextClassLoader());
+
+    unmarshaller.setSchema(DataSources.schema == null ? DataSources.schema = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI).newSchema(resource) : DataSources.schema);
+    return unmarshaller;
+  }
+
+  static Dbcp unmarshal(final InputStream in) throws SAXException {
     try {
-      final Unmarshaller unmarshaller = JAXBContext.newInstance(Dbcp.class).createUnmarshaller();
-      final URL resource = Thread.currentThread().getContextClassLoader().getResource(schemaFile);
-      if (resource == null)
-        throw new IllegalStateException("Unable to find " + schemaFile + " in class loader " + Thread.currentThread().getContextClassLoader());
-
-      unmarshaller.setSchema(DataSources.schema == null ? DataSources.schema = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI).newSchema(resource) : DataSources.schema);
-      try (final InputStream in = url.openStream()) {
-        final JAXBElement<Dbcp> element = unmarshaller.unmarshal(XMLInputFactory.newInstance().createXMLStreamReader(in), Dbcp.class);
-        return createDataSource(driverClassLoader, element.getValue());
-      }
+      final JAXBElement<Dbcp> element = createUnmarshaller().unmarshal(XMLInputFactory.newInstance().createXMLStreamReader(in), Dbcp.class);
+      return element.getValue();
     }
     catch (final FactoryConfigurationError e) {
       throw new UnsupportedOperationException(e);
@@ -120,6 +259,81 @@ public final class DataSources {
     }
   }
 
+  /**
+   * Returns the {@link Dbcp} bindings of the {@code dbcp:dbcp} elements with the specified {@code id} in the document read from the
+   * specified {@link InputStream}, each of which is unmarshalled with JAX-B and validated with the schema loaded from the context class
+   * loader as the document is streamed.
+   */
+  private static Dbcp[] unmarshal(final InputStream in, final String id) throws IOException, SAXException {
+    try {
+      final Unmarshaller unmarshaller = createUnmarshaller();
+      return DbcpReader.read(in, id, (final XMLStreamReader reader) -> {
+        try {
+          return unmarshaller.unmarshal(reader, Dbcp.class).getValue();
+        }
+        catch (final JAXBException e) {
+          throw new SAXException(e);
+        }
+      });
+    }
+    catch (final FactoryConfigurationError e) {
+      throw new UnsupportedOperationException(e);
+    }
+    catch (final JAXBException e) {
+      throw new SAXException(e);
+    }
+  }
+
+  /**
+   * Create a {@link BasicDataSource} from the configuration supplied by the {@code dbcp:dbcp} elements that match the specified
+   * {@code id} in the {@link URL url} specifying an xml document with root element {@code dbcp:dbcps} or {@code dbcp:dbcp}.
+   * {@link ClassLoader#getSystemClassLoader()} will be used by the {@link BasicDataSource} when it loads the JDBC driver.
+   * <p>
+   * The document is read in a single streaming pass, in which only the matching elements are validated and bound, and all other
+   * elements are skipped. The memory and time to create the {@link BasicDataSource} therefore do not depend on the content of the
+   * non-matching elements in the document. Each matching element is unmarshalled with JAX-B and validated with the schema loaded from
+   * the context class loader or, in a GraalVM native image, read with a reflection-free reader that checks the constraints of the
+   * {@code dbcp.xsd} schema itself.
+   *
+   * @param id The id of the {@code dbcp:dbcp} elements to match, or {@code null} to match all elements.
+   * @param url An {@link URL} specifying a dbcp xml resource.
+   * @return The {@link BasicDataSource} instance, or {@code null} if no element matches the specified {@code id}.
+   * @throws IOException If an I/O error has occurred
+   * @throws SAXException If the xml document does not have a {@code dbcp:dbcps} or {@code dbcp:dbcp} root element, or if an XML
+   *           validation error has occurred.
+   * @throws NullPointerException If {@code url} is null.
+   * @throws IllegalArgumentException If the {@code /dbcp:dbcp/dbcp:jdbc} element is missing.
+   */
+  public static BasicDataSource createDataSource(final String id, final URL url) throws IOException, SAXException {
+    return createDataSource(id, ClassLoader.getSystemClassLoader(), url);
+  }
+
+  /**
+   * Create a {@link BasicDataSource} from the configuration supplied by the {@code dbcp:dbcp} elements that match the specified
+   * {@code id} in the {@link URL url} specifying an xml document with root element {@code dbcp:dbcps} or {@code dbcp:dbcp}.
+   * <p>
+   * The document is read in a single streaming pass, in which only the matching elements are validated and bound, and all other
+   * elements are skipped. The memory and time to create the {@link BasicDataSource} therefore do not depend on the content of the
+   * non-matching elements in the document. Each matching element is unmarshalled with JAX-B and validated with the schema loaded from
+   * the context class loader or, in a GraalVM native image, read with a reflection-free reader that checks the constraints of the
+   * {@code dbcp.xsd} schema itself.
+   *
+   * @param id The id of the {@code dbcp:dbcp} elements to match, or {@code null} to match all elements.
+   * @param driverClassLoader Class loader to be used by the {@link BasicDataSource} when it loads the JDBC driver.
+   * @param url An {@link URL} specifying a dbcp xml resource.
+   * @return The {@link BasicDataSource} instance, or {@code null} if no element matches the specified {@code id}.
+   * @throws IOException If an I/O error has occurred
+   * @throws SAXException If the xml document does not have a {@code dbcp:dbcps} or {@code dbcp:dbcp} root element, or if an XML
+   *           validation error has occurred.
+   * @throws NullPointerException If {@code url} is null.
+   * @throws IllegalArgumentException If the {@code /dbcp:dbcp/dbcp:jdbc} element is missing.
+   */
+  public static BasicDataSource createDataSource(final String id, final ClassLoader driverClassLoader, final URL url) throws IOException, SAXException {
+    try (final InputStream in = url.openStream()) {
+      return createDataSource(id, driverClassLoader, isNativeImage ? DbcpReader.read(in, id) : unmarshal(in, id));
+    }
+  }
+
   /**
    * Create a {@link BasicDataSource} from the configuration supplied by the array of {@link Dbcp dbcp} JAX-B bindings that match the
    * specified {@code id}. {@link ClassLoader#getSystemClassLoader()} will be used by the {@link BasicDataSource} when it loads the
@@ -411,6 +625,11 @@ public final class DataSources {
     String maxOpen = INDEFINITE;
 
     boolean lifo = true;
+    boolean striped = false;
+    int stripes = Runtime.getRuntime().availableProcessors();
+    boolean mru = false;
+    int hotSet = Runtime.getRuntime().availableProcessors();
+    int rotationInterval = 60000;
 
     boolean cacheState = true;
     String maxWait = INDEFINITE;
@@ -445,8 +664,10 @@ public final class DataSources {
       if (id != null && !id.equals(dbcp.getId()))
         continue;
 
-      if (dataSource == null)
+      if (dataSource == null) {
         dataSource = new BasicDataSource();
+        dataSource.setId(dbcp.getId());
+      }
 
       org.openjax.dbcp_1_2.Dbcp.Jdbc jdbc$ = dbcp.getJdbc();
       if (jdbc$ != null) {
@@ -457,6 +678,34 @@ public final class DataSources {
         final String url$ = jdbc$.getUrl();
         if (url$ != null)
           url = url$;
+
+        final Dbcp.Jdbc.DataSource dataSource$ = jdbc$.getDataSource();
+        if (dataSource$ != null) {
+          final LinkedHashMap<String,String> properties = new LinkedHashMap<>();
+          for (final Dbcp.Jdbc.DataSource.Property property : dataSource$.getProperty())
+            properties.put(property.getName(), property.getValue());
+
+          dataSource.setVendorDataSource(dataSource$.getClassName(), properties);
+        }
+
+        final Dbcp.Jdbc.Failover failover$ = jdbc$.getFailover();
+        if (failover$ != null) {
+          final List<Dbcp.Jdbc.Failover.Endpoint> endpoints = failover$.getEndpoint();
+          final String[] urls = new String[endpoints.size()];
+          final int[] weights = new int[urls.length];
+          for (int i = 0; i < urls.length; ++i) { // [RA]
+            final Dbcp.Jdbc.Failover.Endpoint endpoint = endpoints.get(i);
+            final Integer weight$ = endpoint.getWeight();
+            urls[i] = endpoint.getUrl();
+            weights[i] = weight$ != null ? weight$ : 1;
+          }
+
+          final Boolean weighted$ = failover$.getWeighted();
+          final Integer probeInterval$ = failover$.getProbeInterval();
+          final Integer probeTimeout$ = failover$.getProbeTimeout();
+          final Integer resolveInterval$ = failover$.getResolveInterval();
+          dataSource.setFailover(urls, weights, weighted$ != null && weighted$, probeInterval$ != null ? probeInterval$ : 5000, probeTimeout$ != null ? probeTimeout$ : 5, resolveInterval$ != null ? resolveInterval$ : 60000);
+        }
       }
 
       final Dbcp.Default _default = dbcp.getDefault();
@@ -512,6 +761,10 @@ public final class DataSources {
             connectionInitSqls.addAll(initSql$);
           else
             dataSource.setConnectionInitSqls(initSql$);
+
+          final String execution$ = initSqls$.getExecution();
+          if (execution$ != null)
+            dataSource.setInitSqlExecution(execution$);
         }
       }
 
@@ -540,20 +793,74 @@ public final class DataSources {
           if (maxOpen$ != null)
             maxOpen = maxOpen$;
         }
+
+        final Dbcp.Size.CreationRate creationRate$ = size.getCreationRate();
+        if (creationRate$ != null) {
+          final Integer burst$ = creationRate$.getBurst();
+          final Integer jvmPermitsPerSecond$ = creationRate$.getJvmPermitsPerSecond();
+          final Dbcp.Size.CreationRate.Backoff backoff$ = creationRate$.getBackoff();
+          dataSource.setCreationRate(creationRate$.getPermitsPerSecond(), burst$ != null ? burst$ : 1, jvmPermitsPerSecond$ != null ? jvmPermitsPerSecond$ : 0, backoff$ != null ? backoff$.getInitial() : 0, backoff$ != null ? backoff$.getMax() : 0);
+        }
+
+        final Dbcp.Size.Budget budget$ = size.getBudget();
+        if (budget$ != null) {
+          final Integer reserved$ = budget$.getReserved();
+          final Integer weight$ = budget$.getWeight();
+          dataSource.setBudget(budget$.getName(), budget$.getCapacity(), reserved$ != null ? reserved$ : 0, weight$ != null ? weight$ : 1);
+        }
+
+        final Dbcp.Size.Lanes lanes$ = size.getLanes();
+        if (lanes$ != null) {
+          for (final Dbcp.Size.Lanes.Lane lane : lanes$.getLane()) {
+            final Integer reserved$ = lane.getReserved();
+            final Integer max$ = lane.getMax();
+            final Integer priority$ = lane.getPriority();
+            dataSource.addLane(lane.getName(), reserved$ != null ? reserved$ : 0, max$ != null ? max$ : -1, priority$ != null ? priority$ : 0);
+          }
+
+          final String default$ = lanes$.getDefault();
+          if (default$ != null)
+            dataSource.setDefaultLane(default$);
+        }
+
+        final Dbcp.Size.PerUser perUser$ = size.getPerUser();
+        if (perUser$ != null) {
+          final Integer perUserMaxTotal$ = perUser$.getMaxTotal();
+          final Integer maxPerUser$ = perUser$.getMaxPerUser();
+          final Integer maxIdlePerUser$ = perUser$.getMaxIdlePerUser();
+          dataSource.setPerUser(perUserMaxTotal$ != null ? perUserMaxTotal$ : -1, maxPerUser$ != null ? maxPerUser$ : -1, maxIdlePerUser$ != null ? maxIdlePerUser$ : -1);
+        }
       }
 
       final Dbcp.Pool pool = dbcp.getPool();
       if (pool != null) {
         final String queue = pool.getQueue();
         if (queue != null) {
-          if ("lifo".equals(queue))
+          striped = "striped".equals(queue);
+          mru = "mru".equals(queue);
+          if ("lifo".equals(queue) || striped)
             lifo = true;
-          else if ("fifo".equals(queue))
+          else if ("fifo".equals(queue) || mru)
             lifo = false;
           else
             throw new UnsupportedOperationException("Unsupported queue spec: " + queue);
         }
 
+        final Integer stripes$ = pool.getStripes();
+        if (stripes$ != null)
+          stripes = stripes$;
+
+        final Integer hotSet$ = pool.getHotSet();
+        if (hotSet$ != null)
+          hotSet = hotSet$;
+
+        final Integer rotationInterval$ = pool.getRotationInterval();
+        if (rotationInterval$ != null)
+          rotationInterval = rotationInterval$;
+
+        if (mru)
+          dataSource.setHotSet(hotSet, rotationInterval);
+
         final Boolean cacheState$ = pool.getCacheState();
         if (cacheState$ != null)
           cacheState = cacheState$;
@@ -588,6 +895,25 @@ public final class DataSources {
         if (allowAccessToUnderlyingConnection$ != null)
           accessToUnderlyingConnectionAllowed = allowAccessToUnderlyingConnection$;
 
+        final Boolean compactBookkeeping$ = pool.getCompactBookkeeping();
+        if (compactBookkeeping$ != null)
+          dataSource.setCompactBookkeeping(compactBookkeeping$);
+
+        final Dbcp.Pool.Keepalive keepalive$ = pool.getKeepalive();
+        if (keepalive$ != null) {
+          final Integer timeBetweenRuns$ = keepalive$.getTimeBetweenRuns();
+          final Integer maxPerRun$ = keepalive$.getMaxPerRun();
+          final Integer timeout$ = keepalive$.getTimeout();
+          dataSource.setKeepalive(keepalive$.getIdleTime(), timeBetweenRuns$ != null ? timeBetweenRuns$ : 30000, maxPerRun$ != null ? maxPerRun$ : 3, timeout$ != null ? timeout$ : 1);
+        }
+
+        final Dbcp.Pool.Retirement retirement$ = pool.getRetirement();
+        if (retirement$ != null) {
+          final Boolean proactive$ = retirement$.getProactive();
+          final Integer timeBetweenRuns$ = retirement$.getTimeBetweenRuns();
+          dataSource.setRetirement(retirement$.getJitter(), proactive$ != null && proactive$, timeBetweenRuns$ != null ? timeBetweenRuns$ : 1000);
+        }
+
         final Dbcp.Pool.Eviction eviction = pool.getEviction();
         if (eviction != null) {
           hasEviction = true;
@@ -651,6 +977,16 @@ public final class DataSources {
             Collections.addAll(disconnectionQueryCodes, Strings.split(disconnectionSqlCodes, ' '));
           }
         }
+
+        final Dbcp.Validation.Health health$ = validation.getHealth();
+        if (health$ != null) {
+          final Integer halfLife$ = health$.getHalfLife();
+          final Integer minSamples$ = health$.getMinSamples();
+          final Integer latencyFactor$ = health$.getLatencyFactor();
+          final Integer maxErrorPercent$ = health$.getMaxErrorPercent();
+          final Integer timeBetweenRuns$ = health$.getTimeBetweenRuns();
+          dataSource.setHealth(halfLife$ != null ? halfLife$ : 20, minSamples$ != null ? minSamples$ : 20, latencyFactor$ != null ? latencyFactor$ : 3, maxErrorPercent$ != null ? maxErrorPercent$ : 50, timeBetweenRuns$ != null ? timeBetweenRuns$ : 5000);
+        }
       }
 
       final Dbcp.Logging logging = dbcp.getLogging();
@@ -666,7 +1002,7 @@ public final class DataSources {
       dataSource.setJmxName(dbcp.getJmxName());
     }
 
-    return build(driverClassLoader, dataSource, driverClassName, url, autoCommit, readOnly, queryTimeout, transactionIsolation, initialSize, minIdle, maxIdle, maxTotal, poolPreparedStatements, maxOpen, lifo, cacheState, maxWait, maxConnLifetime, autoCommitOnReturn, rollbackOnReturn, removeAbandonedOn, removeAbandonedTimeout, abandonedUsageTracking, accessToUnderlyingConnectionAllowed, hasEviction, timeBetweenEvictionRunsMillis, numTestsPerRun, minEvictableIdleTimeMillis, softMinEvictableIdleTimeMillis, policyClassName, hasValidation, validationQuery, validationQueryTimeout, testOnCreate, testOnBorrow, testOnReturn, testWhileIdle, disconnectionQueryCodes, loggingLevel, logExpiredConnections, logAbandoned);
+    return build(driverClassLoader, dataSource, driverClassName, url, autoCommit, readOnly, queryTimeout, transactionIsolation, initialSize, minIdle, maxIdle, maxTotal, poolPreparedStatements, maxOpen, lifo, striped ? stripes : 0, cacheState, maxWait, maxConnLifetime, autoCommitOnReturn, rollbackOnReturn, removeAbandonedOn, removeAbandonedTimeout, abandonedUsageTracking, accessToUnderlyingConnectionAllowed, hasEviction, timeBetweenEvictionRunsMillis, numTestsPerRun, minEvictableIdleTimeMillis, softMinEvictableIdleTimeMillis, policyClassName, hasValidation, validationQuery, validationQueryTimeout, testOnCreate, testOnBorrow, testOnReturn, testWhileIdle, disconnectionQueryCodes, loggingLevel, logExpiredConnections, logAbandoned);
   }
 
   private static void add(final BasicDataSource dataSource, final $Dbcp.Connection.Properties.Property property) {
@@ -702,6 +1038,11 @@ public final class DataSources {
     String maxOpen = INDEFINITE;
 
     boolean lifo = true;
+    boolean striped = false;
+    int stripes = Runtime.getRuntime().availableProcessors();
+    boolean mru = false;
+    int hotSet = Runtime.getRuntime().availableProcessors();
+    int rotationInterval = 60000;
 
     boolean cacheState = true;
     String maxWait = INDEFINITE;
@@ -737,8 +1078,10 @@ public final class DataSources {
       if (id != null && (id$ == null || !id.equals(id$.text())))
         continue;
 
-      if (dataSource == null)
+      if (dataSource == null) {
         dataSource = new BasicDataSource();
+        dataSource.setId(id$ != null ? id$.text() : null);
+      }
 
       final $Dbcp.Jdbc jdbc$ = dbcp.getJdbc();
       if (jdbc$ != null) {
@@ -749,6 +1092,28 @@ public final class DataSources {
         final $AnyURI url$ = jdbc$.getUrl();
         if (url$ != null)
           url = url$.text().toString();
+
+        final $Dbcp.Jdbc.DataSource dataSource$ = jdbc$.getDataSource();
+        if (dataSource$ != null) {
+          final LinkedHashMap<String,String> properties = new LinkedHashMap<>();
+          for (final $Dbcp.Jdbc.DataSource.Property property : dataSource$.getProperty())
+            properties.put(property.getName$().text(), property.getValue$().text());
+
+          dataSource.setVendorDataSource(dataSource$.getClassName$().text(), properties);
+        }
+
+        final $Dbcp.Jdbc.Failover failover$ = jdbc$.getFailover();
+        if (failover$ != null) {
+          final String[] urls = new String[failover$.getEndpoint().size()];
+          final int[] weights = new int[urls.length];
+          int i = 0;
+          for (final $Dbcp.Jdbc.Failover.Endpoint endpoint : failover$.getEndpoint()) {
+            urls[i] = endpoint.getUrl$().text().toString();
+            weights[i++] = endpoint.getWeight$() != null ? endpoint.getWeight$().text() : 1;
+          }
+
+          dataSource.setFailover(urls, weights, failover$.getWeighted$() != null && failover$.getWeighted$().text(), failover$.getProbeInterval$() != null ? failover$.getProbeInterval$().text() : 5000, failover$.getProbeTimeout$() != null ? failover$.getProbeTimeout$().text() : 5, failover$.getResolveInterval$() != null ? failover$.getResolveInterval$().text() : 60000);
+        }
       }
 
       final $Dbcp.Default _default = dbcp.getDefault();
@@ -820,6 +1185,9 @@ public final class DataSources {
             Collections.addAll(connectionInitSqls, sql);
           else
             dataSource.setConnectionInitSqls(Arrays.asList(sql));
+
+          if (initSqls.getExecution$() != null)
+            dataSource.setInitSqlExecution(initSqls.getExecution$().text());
         }
       }
 
@@ -848,6 +1216,31 @@ public final class DataSources {
           if (maxOpen$ != null)
             maxOpen = maxOpen$.text();
         }
+
+        final $Dbcp.Size.CreationRate creationRate$ = size.getCreationRate();
+        if (creationRate$ != null) {
+          final $PositiveInt burst$ = creationRate$.getBurst();
+          final $PositiveInt jvmPermitsPerSecond$ = creationRate$.getJvmPermitsPerSecond();
+          final $Dbcp.Size.CreationRate.Backoff backoff$ = creationRate$.getBackoff();
+          dataSource.setCreationRate(creationRate$.getPermitsPerSecond().text(), burst$ != null ? burst$.text() : 1, jvmPermitsPerSecond$ != null ? jvmPermitsPerSecond$.text() : 0, backoff$ != null ? backoff$.getInitial$().text() : 0, backoff$ != null ? backoff$.getMax$().text() : 0);
+        }
+
+        final $Dbcp.Size.Budget budget$ = size.getBudget();
+        if (budget$ != null)
+          dataSource.setBudget(budget$.getName$().text(), budget$.getCapacity$().text(), budget$.getReserved$() != null ? budget$.getReserved$().text() : 0, budget$.getWeight$() != null ? budget$.getWeight$().text() : 1);
+
+        final $Dbcp.Size.Lanes lanes$ = size.getLanes();
+        if (lanes$ != null) {
+          for (final $Dbcp.Size.Lanes.Lane lane : lanes$.getLane())
+            dataSource.addLane(lane.getName$().text(), lane.getReserved$() != null ? lane.getReserved$().text() : 0, lane.getMax$() != null ? lane.getMax$().text() : -1, lane.getPriority$() != null ? lane.getPriority$().text() : 0);
+
+          if (lanes$.getDefault$() != null)
+            dataSource.setDefaultLane(lanes$.getDefault$().text());
+        }
+
+        final $Dbcp.Size.PerUser perUser$ = size.getPerUser();
+        if (perUser$ != null)
+          dataSource.setPerUser(perUser$.getMaxTotal$() != null ? perUser$.getMaxTotal$().text() : -1, perUser$.getMaxPerUser$() != null ? perUser$.getMaxPerUser$().text() : -1, perUser$.getMaxIdlePerUser$() != null ? perUser$.getMaxIdlePerUser$().text() : -1);
       }
 
       final $Dbcp.Pool pool = dbcp.getPool();
@@ -855,14 +1248,31 @@ public final class DataSources {
         final $Dbcp.Pool.Queue queue = pool.getQueue();
         if (queue != null) {
           final String text = queue.text();
-          if ("lifo".equals(text))
+          striped = "striped".equals(text);
+          mru = "mru".equals(text);
+          if ("lifo".equals(text) || striped)
             lifo = true;
-          else if ("fifo".equals(text))
+          else if ("fifo".equals(text) || mru)
             lifo = false;
           else
             throw new UnsupportedOperationException("Unsupported queue spec: " + queue);
         }
 
+        final $PositiveInt stripes$ = pool.getStripes();
+        if (stripes$ != null)
+          stripes = stripes$.text();
+
+        final $PositiveInt hotSet$ = pool.getHotSet();
+        if (hotSet$ != null)
+          hotSet = hotSet$.text();
+
+        final $PositiveInt rotationInterval$ = pool.getRotationInterval();
+        if (rotationInterval$ != null)
+          rotationInterval = rotationInterval$.text();
+
+        if (mru)
+          dataSource.setHotSet(hotSet, rotationInterval);
+
         final $Boolean cacheState$ = pool.getCacheState();
         if (cacheState$ != null)
           cacheState = cacheState$.text();
@@ -897,6 +1307,22 @@ public final class DataSources {
         if (allowAccessToUnderlyingConnection$ != null)
           accessToUnderlyingConnectionAllowed = allowAccessToUnderlyingConnection$.text();
 
+        final $Boolean compactBookkeeping$ = pool.getCompactBookkeeping();
+        if (compactBookkeeping$ != null)
+          dataSource.setCompactBookkeeping(compactBookkeeping$.text());
+
+        final $Dbcp.Pool.Keepalive keepalive$ = pool.getKeepalive();
+        if (keepalive$ != null) {
+          final $PositiveInt timeBetweenRuns$ = keepalive$.getTimeBetweenRuns();
+          final $PositiveInt maxPerRun$ = keepalive$.getMaxPerRun();
+          final $PositiveInt timeout$ = keepalive$.getTimeout();
+          dataSource.setKeepalive(keepalive$.getIdleTime().text(), timeBetweenRuns$ != null ? timeBetweenRuns$.text() : 30000, maxPerRun$ != null ? maxPerRun$.text() : 3, timeout$ != null ? timeout$.text() : 1);
+        }
+
+        final $Dbcp.Pool.Retirement retirement$ = pool.getRetirement();
+        if (retirement$ != null)
+          dataSource.setRetirement(retirement$.getJitter$().text(), retirement$.getProactive$() != null && retirement$.getProactive$().text(), retirement$.getTimeBetweenRuns$() != null ? retirement$.getTimeBetweenRuns$().text() : 1000);
+
         final $Dbcp.Pool.Eviction eviction = pool.getEviction();
         if (eviction != null) {
           hasEviction = true;
@@ -961,6 +1387,10 @@ public final class DataSources {
             Collections.addAll(disconnectionQueryCodes, Strings.split(text, ' '));
           }
         }
+
+        final $Dbcp.Validation.Health health$ = validation.getHealth();
+        if (health$ != null)
+          dataSource.setHealth(health$.getHalfLife$() != null ? health$.getHalfLife$().text() : 20, health$.getMinSamples$() != null ? health$.getMinSamples$().text() : 20, health$.getLatencyFactor$() != null ? health$.getLatencyFactor$().text() : 3, health$.getMaxErrorPercent$() != null ? health$.getMaxErrorPercent$().text() : 50, health$.getTimeBetweenRuns$() != null ? health$.getTimeBetweenRuns$().text() : 5000);
       }
 
       final $Dbcp.Logging logging = dbcp.getLogging();
@@ -979,7 +1409,7 @@ public final class DataSources {
         dataSource.setJmxName(dbcp.getJmxName().text());
     }
 
-    return build(driverClassLoader, dataSource, driverClassName, url, autoCommit, readOnly, queryTimeout, transactionIsolation, initialSize, minIdle, maxIdle, maxTotal, poolPreparedStatements, maxOpen, lifo, cacheState, maxWait, maxConnLifetime, autoCommitOnReturn, rollbackOnReturn, removeAbandonedOn, removeAbandonedTimeout, abandonedUsageTracking, accessToUnderlyingConnectionAllowed, hasEviction, timeBetweenEvictionRunsMillis, numTestsPerRun, minEvictableIdleTimeMillis, softMinEvictableIdleTimeMillis, policyClassName, hasValidation, validationQuery, validationQueryTimeout, testOnCreate, testOnBorrow, testOnReturn, testWhileIdle, disconnectionQueryCodes, loggingLevel, logExpiredConnections, logAbandoned);
+    return build(driverClassLoader, dataSource, driverClassName, url, autoCommit, readOnly, queryTimeout, transactionIsolation, initialSize, minIdle, maxIdle, maxTotal, poolPreparedStatements, maxOpen, lifo, striped ? stripes : 0, cacheState, maxWait, maxConnLifetime, autoCommitOnReturn, rollbackOnReturn, removeAbandonedOn, removeAbandonedTimeout, abandonedUsageTracking, accessToUnderlyingConnectionAllowed, hasEviction, timeBetweenEvictionRunsMillis, numTestsPerRun, minEvictableIdleTimeMillis, softMinEvictableIdleTimeMillis, policyClassName, hasValidation, validationQuery, validationQueryTimeout, testOnCreate, testOnBorrow, testOnReturn, testWhileIdle, disconnectionQueryCodes, loggingLevel, logExpiredConnections, logAbandoned);
   }
 
   private static BasicDataSource build(
@@ -998,6 +1428,7 @@ public final class DataSources {
     final boolean poolPreparedStatements,
     final String maxOpen,
     final boolean lifo,
+    final int stripes,
     final boolean cacheState,
     final String maxWait,
     final String maxConnLifetime,
@@ -1028,8 +1459,47 @@ public final class DataSources {
     if (dataSource == null)
       return null;
 
-    if (driverClassName == null)
-      throw new IllegalArgumentException("/dbcp:jdbc is missing");
+    if (dataSource.hasVendorDataSource()) {
+      if (url != null)
+        throw new IllegalArgumentException("/dbcp:jdbc/dbcp:url is not supported with /dbcp:jdbc/dbcp:dataSource");
+
+      if (dataSource.hasConnectionProperties())
+        throw new IllegalArgumentException("/dbcp:connection/dbcp:properties is not supported with /dbcp:jdbc/dbcp:dataSource");
+    }
+    else {
+      if (driverClassName == null)
+        throw new IllegalArgumentException("/dbcp:jdbc is missing");
+
+      if (url == null)
+        throw new IllegalArgumentException("/dbcp:jdbc/dbcp:url is missing");
+    }
+
+    if (dataSource.hasFailover() && dataSource.hasVendorDataSource())
+      throw new IllegalArgumentException("/dbcp:jdbc/dbcp:failover is not supported with /dbcp:jdbc/dbcp:dataSource");
+
+    if (dataSource.hasPerUser()) {
+      if (dataSource.hasVendorDataSource())
+        throw new IllegalArgumentException("/dbcp:size/dbcp:perUser is not supported with /dbcp:jdbc/dbcp:dataSource");
+
+      if (dataSource.hasFailover())
+        throw new IllegalArgumentException("/dbcp:size/dbcp:perUser is not supported with /dbcp:jdbc/dbcp:failover");
+
+      if (dataSource.hasCreationRate())
+        throw new IllegalArgumentException("/dbcp:size/dbcp:perUser is not supported with /dbcp:size/dbcp:creationRate");
+
+      if (dataSource.hasBudget())
+        throw new IllegalArgumentException("/dbcp:size/dbcp:perUser is not supported with /dbcp:size/dbcp:budget");
+
+      if (dataSource.getLaneGate() != null)
+        throw new IllegalArgumentException("/dbcp:size/dbcp:perUser is not supported with /dbcp:size/dbcp:lanes");
+
+      if (dataSource.getHealth() != null)
+        throw new IllegalArgumentException("/dbcp:size/dbcp:perUser is not supported with /dbcp:validation/dbcp:health");
+
+      // The connections of the sub-pools are opened via java.sql.DriverManager, which only hands out drivers visible to the caller
+      if (driverClassLoader != null && driverClassLoader != ClassLoader.getSystemClassLoader())
+        throw new IllegalArgumentException("/dbcp:size/dbcp:perUser is not supported with a driver class loader other than the system class loader");
+    }
 
     dataSource.setDriverClassName(driverClassName);
     dataSource.setDriverClassLoader(driverClassLoader);
@@ -1062,6 +1532,7 @@ public final class DataSources {
     dataSource.setMaxOpenPreparedStatements(INDEFINITE.equals(maxOpen) ? DEFAULT_MAX_TOTAL : Integer.parseInt(maxOpen));
 
     dataSource.setLifo(lifo);
+    dataSource.setStripes(stripes);
 
     dataSource.setCacheState(cacheState);
     dataSource.setMaxWaitMillis(INDEFINITE.equals(maxWait) ? DEFAULT_MAX_WAIT_MILLIS : Long.parseLong(maxWait));
@@ -1121,6 +1592,11 @@ public final class DataSources {
       }
     }
 
+    dataSource.checkLanes();
+    synchronized (dataSources) {
+      dataSources.add(dataSource);
+    }
+
     return dataSource;
   }
 
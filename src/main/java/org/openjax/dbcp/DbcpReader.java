@@ -0,0 +1,943 @@
+/* Copyright (c) 2026 OpenJAX
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.openjax.dbcp;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.openjax.dbcp_1_2.Dbcp;
+import org.xml.sax.SAXException;
+
+/**
+ * A reader of {@code dbcp:dbcp} documents into {@link Dbcp} JAX-B bindings that does not rely on reflection. Instead of unmarshalling
+ * the document with a {@link javax.xml.bind.JAXBContext} and validating it with the {@code dbcp.xsd} schema loaded from the context
+ * class loader, this reader walks the document with an {@link XMLStreamReader}, populates the bindings with their setters, and checks
+ * the constraints of the schema that the bindings rely upon, rejecting undeclared elements and attributes, and repeated children of an
+ * {@code xs:all}. It is therefore usable in a GraalVM native image without reachability metadata for the bindings, and avoids the
+ * startup cost of a {@link javax.xml.bind.JAXBContext} on the JVM. Documents with root element {@code dbcp:dbcps} are read in a single
+ * streaming pass that binds only the {@code dbcp:dbcp} elements with a requested {@code id}.
+ */
+final class DbcpReader {
+  private static final String NAMESPACE = "http://www.openjax.org/dbcp-1.2.xsd";
+  private static final String XSI_NAMESPACE = "http://www.w3.org/2001/XMLSchema-instance";
+  private static final String INDEFINITE = "INDEFINITE";
+  private static final XMLInputFactory factory;
+
+  /** The names of the attributes declared by the schema for each element, by the local name of the element. */
+  private static final HashMap<String,String[]> attributes = new HashMap<>();
+  private static final String[] noAttributes = {};
+
+  static {
+    attributes.put("dbcp", new String[] {"id"});
+    attributes.put("dataSource", new String[] {"className"});
+    attributes.put("property", new String[] {"name", "value"});
+    attributes.put("failover", new String[] {"weighted", "probeInterval", "probeTimeout", "resolveInterval"});
+    attributes.put("endpoint", new String[] {"url", "weight"});
+    attributes.put("initSqls", new String[] {"execution"});
+    attributes.put("backoff", new String[] {"initial", "max"});
+    attributes.put("budget", new String[] {"name", "capacity", "reserved", "weight"});
+    attributes.put("lanes", new String[] {"default"});
+    attributes.put("lane", new String[] {"name", "reserved", "max", "priority"});
+    attributes.put("perUser", new String[] {"maxTotal", "maxPerUser", "maxIdlePerUser"});
+    attributes.put("removeAbandoned", new String[] {"on", "timeout"});
+    attributes.put("retirement", new String[] {"jitter", "proactive", "timeBetweenRuns"});
+    attributes.put("health", new String[] {"halfLife", "minSamples", "latencyFactor", "maxErrorPercent", "timeBetweenRuns"});
+
+    factory = XMLInputFactory.newInstance();
+    factory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.TRUE);
+    factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+    factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+  }
+
+  @FunctionalInterface
+  private interface DocumentReader<T> {
+    T read(XMLStreamReader reader) throws SAXException, XMLStreamException;
+  }
+
+  /**
+   * Binds the {@code dbcp:dbcp} element at whose start the {@link XMLStreamReader} is positioned, and leaves the reader positioned at
+   * the event right after the end of the element.
+   */
+  @FunctionalInterface
+  interface Binder {
+    Dbcp bind(XMLStreamReader reader) throws SAXException, XMLStreamException;
+  }
+
+  private static final Binder dbcpBinder = (final XMLStreamReader reader) -> {
+    final Dbcp dbcp = readDbcp(reader);
+    reader.next();
+    return dbcp;
+  };
+
+  private static <T> T read(final InputStream in, final DocumentReader<T> documentReader) throws IOException, SAXException {
+    try {
+      final XMLStreamReader reader = factory.createXMLStreamReader(in);
+      try {
+        while (reader.next() != XMLStreamConstants.START_ELEMENT);
+        checkElement(reader);
+        return documentReader.read(reader);
+      }
+      finally {
+        reader.close();
+      }
+    }
+    catch (final XMLStreamException e) {
+      if (e.getNestedException() instanceof IOException)
+        throw (IOException)e.getNestedException();
+
+      throw new SAXException(e);
+    }
+  }
+
+  /**
+   * Returns the {@link Dbcp} binding of the document with root element {@code dbcp:dbcp} read from the specified {@link InputStream}.
+   *
+   * @param in The {@link InputStream} of the document.
+   * @return The {@link Dbcp} binding of the document.
+   * @throws IOException If an I/O error has occurred.
+   * @throws SAXException If the document does not have a {@code dbcp:dbcp} root element, or if the document is not valid.
+   * @throws NullPointerException If {@code in} is null.
+   */
+  static Dbcp read(final InputStream in) throws IOException, SAXException {
+    return read(in, (final XMLStreamReader reader) -> {
+      if (!"dbcp".equals(reader.getLocalName()))
+        throw error(reader, "Root element must be dbcp:dbcp, not " + reader.getName());
+
+      return readDbcp(reader);
+    });
+  }
+
+  /**
+   * Returns the {@link Dbcp} bindings of the {@code dbcp:dbcp} elements with the specified {@code id} in the document with root
+   * element {@code dbcp:dbcps} or {@code dbcp:dbcp} read from the specified {@link InputStream}. The document is read in a single
+   * streaming pass: the matching elements are checked and bound as they are read, and all other {@code dbcp:dbcp} elements are skipped
+   * without being bound or checked beyond the uniqueness of their {@code id}.
+   *
+   * @param in The {@link InputStream} of the document.
+   * @param id The id of the {@code dbcp:dbcp} elements to bind, or {@code null} to bind all elements.
+   * @return The {@link Dbcp} bindings of the matching {@code dbcp:dbcp} elements in document order.
+   * @throws IOException If an I/O error has occurred.
+   * @throws SAXException If the document does not have a {@code dbcp:dbcps} or {@code dbcp:dbcp} root element, or if the document or
+   *           a matching element is not valid.
+   * @throws NullPointerException If {@code in} is null.
+   */
+  static Dbcp[] read(final InputStream in, final String id) throws IOException, SAXException {
+    return read(in, id, dbcpBinder);
+  }
+
+  /**
+   * Returns the {@link Dbcp} bindings of the {@code dbcp:dbcp} elements with the specified {@code id} in the document with root
+   * element {@code dbcp:dbcps} or {@code dbcp:dbcp} read from the specified {@link InputStream}, as bound by the specified
+   * {@link Binder}. The document is read in a single streaming pass, in which the matching elements are passed to the {@link Binder}
+   * as they are read, and all other {@code dbcp:dbcp} elements are skipped without being bound or checked beyond the uniqueness of
+   * their {@code id}.
+   *
+   * @param in The {@link InputStream} of the document.
+   * @param id The id of the {@code dbcp:dbcp} elements to bind, or {@code null} to bind all elements.
+   * @param binder The {@link Binder} of the matching {@code dbcp:dbcp} elements.
+   * @return The {@link Dbcp} bindings of the matching {@code dbcp:dbcp} elements in document order.
+   * @throws IOException If an I/O error has occurred.
+   * @throws SAXException If the document does not have a {@code dbcp:dbcps} or {@code dbcp:dbcp} root element, or if the document or
+   *           a matching element is not valid.
+   * @throws NullPointerException If {@code in} or {@code binder} is null.
+   */
+  static Dbcp[] read(final InputStream in, final String id, final Binder binder) throws IOException, SAXException {
+    return read(in, (final XMLStreamReader reader) -> {
+      final String localName = reader.getLocalName();
+      if ("dbcp".equals(localName))
+        return id == null || id.equals(required(reader, "id")) ? new Dbcp[] {binder.bind(reader)} : new Dbcp[0];
+
+      if (!"dbcps".equals(localName))
+        throw error(reader, "Root element must be dbcp:dbcps or dbcp:dbcp, not " + reader.getName());
+
+      final ArrayList<Dbcp> dbcps = new ArrayList<>();
+      final HashSet<String> ids = new HashSet<>();
+      for (boolean hasNext = nextElement(reader); hasNext;) {
+        if (!"dbcp".equals(reader.getLocalName()))
+          throw unexpected(reader);
+
+        final String id$ = required(reader, "id");
+        if (!ids.add(id$))
+          throw error(reader, "Duplicate id: " + id$);
+
+        if (id == null || id.equals(id$)) {
+          dbcps.add(binder.bind(reader));
+          hasNext = element(reader);
+        }
+        else {
+          skip(reader);
+          hasNext = nextElement(reader);
+        }
+      }
+
+      if (ids.size() == 0)
+        throw error(reader, "Missing element dbcps/dbcp");
+
+      return dbcps.toArray(new Dbcp[dbcps.size()]);
+    });
+  }
+
+  private static Dbcp readDbcp(final XMLStreamReader reader) throws SAXException, XMLStreamException {
+    final Dbcp dbcp = new Dbcp();
+    dbcp.setId(required(reader, "id"));
+    final HashSet<String> names = new HashSet<>();
+    while (nextElement(reader, names)) {
+      switch (reader.getLocalName()) {
+        case "jdbc":
+          dbcp.setJdbc(readJdbc(reader));
+          break;
+        case "default":
+          dbcp.setDefault(readDefault(reader));
+          break;
+        case "connection":
+          dbcp.setConnection(readConnection(reader));
+          break;
+        case "size":
+          dbcp.setSize(readSize(reader));
+          break;
+        case "pool":
+          dbcp.setPool(readPool(reader));
+          break;
+        case "validation":
+          dbcp.setValidation(readValidation(reader));
+          break;
+        case "logging":
+          dbcp.setLogging(readLogging(reader));
+          break;
+        case "jmxName":
+          dbcp.setJmxName(stringNonEmpty(reader, text(reader)));
+          break;
+        default:
+          throw unexpected(reader);
+      }
+    }
+
+    return dbcp;
+  }
+
+  private static Dbcp.Jdbc readJdbc(final XMLStreamReader reader) throws SAXException, XMLStreamException {
+    final Dbcp.Jdbc jdbc = new Dbcp.Jdbc();
+    final HashSet<String> names = new HashSet<>();
+    while (nextElement(reader, names)) {
+      switch (reader.getLocalName()) {
+        case "url":
+          jdbc.setUrl(text(reader));
+          break;
+        case "driverClassName":
+          jdbc.setDriverClassName(qualifiedIdentifier(reader, text(reader)));
+          break;
+        case "dataSource":
+          final Dbcp.Jdbc.DataSource dataSource = new Dbcp.Jdbc.DataSource();
+          dataSource.setClassName(qualifiedIdentifier(reader, required(reader, "className")));
+          while (nextElement(reader)) {
+            if (!"property".equals(reader.getLocalName()))
+              throw unexpected(reader);
+
+            final Dbcp.Jdbc.DataSource.Property property = new Dbcp.Jdbc.DataSource.Property();
+            property.setName(stringNonEmpty(reader, required(reader, "name")));
+            property.setValue(stringNonEmpty(reader, required(reader, "value")));
+            dataSource.getProperty().add(property);
+            empty(reader);
+          }
+
+          jdbc.setDataSource(dataSource);
+          break;
+        case "failover":
+          final Dbcp.Jdbc.Failover failover = new Dbcp.Jdbc.Failover();
+          final String weighted = reader.getAttributeValue(null, "weighted");
+          if (weighted != null)
+            failover.setWeighted(bool(reader, weighted));
+
+          final String probeInterval = reader.getAttributeValue(null, "probeInterval");
+          if (probeInterval != null)
+            failover.setProbeInterval(positiveInt(reader, probeInterval));
+
+          final String probeTimeout = reader.getAttributeValue(null, "probeTimeout");
+          if (probeTimeout != null)
+            failover.setProbeTimeout(positiveInt(reader, probeTimeout));
+
+          final String resolveInterval = reader.getAttributeValue(null, "resolveInterval");
+          if (resolveInterval != null)
+            failover.setResolveInterval(positiveInt(reader, resolveInterval));
+
+          while (nextElement(reader)) {
+            if (!"endpoint".equals(reader.getLocalName()))
+              throw unexpected(reader);
+
+            final Dbcp.Jdbc.Failover.Endpoint endpoint = new Dbcp.Jdbc.Failover.Endpoint();
+            endpoint.setUrl(required(reader, "url"));
+            final String weight = reader.getAttributeValue(null, "weight");
+            if (weight != null)
+              endpoint.setWeight(positiveInt(reader, weight));
+
+            failover.getEndpoint().add(endpoint);
+            empty(reader);
+          }
+
+          if (failover.getEndpoint().size() == 0)
+            throw error(reader, "Missing element failover/endpoint");
+
+          jdbc.setFailover(failover);
+          break;
+        default:
+          throw unexpected(reader);
+      }
+    }
+
+    if (jdbc.getDataSource() != null) {
+      if (names.size() > 1)
+        throw error(reader, "Element jdbc/dataSource must not be specified with jdbc/url, jdbc/driverClassName or jdbc/failover");
+    }
+    else if (jdbc.getUrl() == null)
+      throw error(reader, "Missing element jdbc/url");
+    else if (jdbc.getDriverClassName() == null)
+      throw error(reader, "Missing element jdbc/driverClassName");
+
+    return jdbc;
+  }
+
+  private static Dbcp.Default readDefault(final XMLStreamReader reader) throws SAXException, XMLStreamException {
+    final Dbcp.Default _default = new Dbcp.Default();
+    final HashSet<String> names = new HashSet<>();
+    while (nextElement(reader, names)) {
+      switch (reader.getLocalName()) {
+        case "catalog":
+          _default.setCatalog(stringNonEmpty(reader, text(reader)));
+          break;
+        case "autoCommit":
+          _default.setAutoCommit(bool(reader, text(reader)));
+          break;
+        case "readOnly":
+          _default.setReadOnly(bool(reader, text(reader)));
+          break;
+        case "queryTimeout":
+          _default.setQueryTimeout(positiveInt(reader, text(reader)));
+          break;
+        case "transactionIsolation":
+          _default.setTransactionIsolation(enumeration(reader, text(reader), "NONE", "READ_UNCOMMITTED", "READ_COMMITTED", "REPEATABLE_READ", "SERIALIZABLE"));
+          break;
+        default:
+          throw unexpected(reader);
+      }
+    }
+
+    return _default;
+  }
+
+  private static Dbcp.Connection readConnection(final XMLStreamReader reader) throws SAXException, XMLStreamException {
+    final Dbcp.Connection connection = new Dbcp.Connection();
+    final HashSet<String> names = new HashSet<>();
+    while (nextElement(reader, names)) {
+      switch (reader.getLocalName()) {
+        case "properties":
+          final Dbcp.Connection.Properties properties = new Dbcp.Connection.Properties();
+          while (nextElement(reader)) {
+            if (!"property".equals(reader.getLocalName()))
+              throw unexpected(reader);
+
+            final Dbcp.Connection.Properties.Property property = new Dbcp.Connection.Properties.Property();
+            property.setName(stringNonEmpty(reader, required(reader, "name")));
+            property.setValue(stringNonEmpty(reader, required(reader, "value")));
+            properties.getProperty().add(property);
+            empty(reader);
+          }
+
+          connection.setProperties(properties);
+          break;
+        case "initSqls":
+          final Dbcp.Connection.InitSqls initSqls = new Dbcp.Connection.InitSqls();
+          final String execution = reader.getAttributeValue(null, "execution");
+          if (execution != null)
+            initSqls.setExecution(enumeration(reader, execution, "serial", "batch", "multiStatement"));
+
+          while (nextElement(reader)) {
+            if (!"initSql".equals(reader.getLocalName()))
+              throw unexpected(reader);
+
+            initSqls.getInitSql().add(stringNonEmpty(reader, text(reader)));
+          }
+
+          connection.setInitSqls(initSqls);
+          break;
+        default:
+          throw unexpected(reader);
+      }
+    }
+
+    return connection;
+  }
+
+  private static Dbcp.Size readSize(final XMLStreamReader reader) throws SAXException, XMLStreamException {
+    final Dbcp.Size size = new Dbcp.Size();
+    final HashSet<String> names = new HashSet<>();
+    while (nextElement(reader, names)) {
+      switch (reader.getLocalName()) {
+        case "initialSize":
+          size.setInitialSize(nonNegativeInt(reader, text(reader)));
+          break;
+        case "minIdle":
+          size.setMinIdle(nonNegativeInt(reader, text(reader)));
+          break;
+        case "maxIdle":
+          size.setMaxIdle(indefinite(reader, text(reader), false));
+          break;
+        case "maxTotal":
+          size.setMaxTotal(indefinite(reader, text(reader), false));
+          break;
+        case "poolPreparedStatements":
+          final Dbcp.Size.PoolPreparedStatements poolPreparedStatements = new Dbcp.Size.PoolPreparedStatements();
+          final HashSet<String> poolPreparedStatementsNames = new HashSet<>();
+          while (nextElement(reader, poolPreparedStatementsNames)) {
+            if (!"maxOpen".equals(reader.getLocalName()))
+              throw unexpected(reader);
+
+            poolPreparedStatements.setMaxOpen(indefinite(reader, text(reader), false));
+          }
+
+          size.setPoolPreparedStatements(poolPreparedStatements);
+          break;
+        case "creationRate":
+          final Dbcp.Size.CreationRate creationRate = new Dbcp.Size.CreationRate();
+          boolean hasPermitsPerSecond = false;
+          final HashSet<String> creationRateNames = new HashSet<>();
+          while (nextElement(reader, creationRateNames)) {
+            switch (reader.getLocalName()) {
+              case "permitsPerSecond":
+                creationRate.setPermitsPerSecond(positiveInt(reader, text(reader)));
+                hasPermitsPerSecond = true;
+                break;
+              case "burst":
+                creationRate.setBurst(positiveInt(reader, text(reader)));
+                break;
+              case "jvmPermitsPerSecond":
+                creationRate.setJvmPermitsPerSecond(positiveInt(reader, text(reader)));
+                break;
+              case "backoff":
+                final Dbcp.Size.CreationRate.Backoff backoff = new Dbcp.Size.CreationRate.Backoff();
+                backoff.setInitial(positiveInt(reader, required(reader, "initial")));
+                backoff.setMax(positiveInt(reader, required(reader, "max")));
+                creationRate.setBackoff(backoff);
+                empty(reader);
+                break;
+              default:
+                throw unexpected(reader);
+            }
+          }
+
+          if (!hasPermitsPerSecond)
+            throw error(reader, "Missing element creationRate/permitsPerSecond");
+
+          size.setCreationRate(creationRate);
+          break;
+        case "budget":
+          final Dbcp.Size.Budget budget = new Dbcp.Size.Budget();
+          budget.setName(stringNonEmpty(reader, required(reader, "name")));
+          budget.setCapacity(positiveInt(reader, required(reader, "capacity")));
+          final String reserved = reader.getAttributeValue(null, "reserved");
+          if (reserved != null)
+            budget.setReserved(nonNegativeInt(reader, reserved));
+
+          final String weight = reader.getAttributeValue(null, "weight");
+          if (weight != null)
+            budget.setWeight(positiveInt(reader, weight));
+
+          size.setBudget(budget);
+          empty(reader);
+          break;
+        case "lanes":
+          final Dbcp.Size.Lanes lanes = new Dbcp.Size.Lanes();
+          final String _default = reader.getAttributeValue(null, "default");
+          if (_default != null)
+            lanes.setDefault(stringNonEmpty(reader, _default));
+
+          while (nextElement(reader)) {
+            if (!"lane".equals(reader.getLocalName()))
+              throw unexpected(reader);
+
+            final Dbcp.Size.Lanes.Lane lane = new Dbcp.Size.Lanes.Lane();
+            lane.setName(stringNonEmpty(reader, required(reader, "name")));
+            final String laneReserved = reader.getAttributeValue(null, "reserved");
+            if (laneReserved != null)
+              lane.setReserved(nonNegativeInt(reader, laneReserved));
+
+            final String max = reader.getAttributeValue(null, "max");
+            if (max != null)
+              lane.setMax(positiveInt(reader, max));
+
+            final String priority = reader.getAttributeValue(null, "priority");
+            if (priority != null)
+              lane.setPriority(nonNegativeInt(reader, priority));
+
+            lanes.getLane().add(lane);
+            empty(reader);
+          }
+
+          if (lanes.getLane().size() == 0)
+            throw error(reader, "Missing element lanes/lane");
+
+          size.setLanes(lanes);
+          break;
+        case "perUser":
+          final Dbcp.Size.PerUser perUser = new Dbcp.Size.PerUser();
+          final String perUserMaxTotal = reader.getAttributeValue(null, "maxTotal");
+          if (perUserMaxTotal != null)
+            perUser.setMaxTotal(positiveInt(reader, perUserMaxTotal));
+
+          final String maxPerUser = reader.getAttributeValue(null, "maxPerUser");
+          if (maxPerUser != null)
+            perUser.setMaxPerUser(positiveInt(reader, maxPerUser));
+
+          final String maxIdlePerUser = reader.getAttributeValue(null, "maxIdlePerUser");
+          if (maxIdlePerUser != null)
+            perUser.setMaxIdlePerUser(nonNegativeInt(reader, maxIdlePerUser));
+
+          size.setPerUser(perUser);
+          empty(reader);
+          break;
+        default:
+          throw unexpected(reader);
+      }
+    }
+
+    return size;
+  }
+
+  private static Dbcp.Pool readPool(final XMLStreamReader reader) throws SAXException, XMLStreamException {
+    final Dbcp.Pool pool = new Dbcp.Pool();
+    final HashSet<String> names = new HashSet<>();
+    while (nextElement(reader, names)) {
+      switch (reader.getLocalName()) {
+        case "queue":
+          pool.setQueue(enumeration(reader, text(reader), "lifo", "fifo", "striped", "mru"));
+          break;
+        case "stripes":
+          pool.setStripes(positiveInt(reader, text(reader)));
+          break;
+        case "hotSet":
+          pool.setHotSet(positiveInt(reader, text(reader)));
+          break;
+        case "rotationInterval":
+          pool.setRotationInterval(positiveInt(reader, text(reader)));
+          break;
+        case "cacheState":
+          pool.setCacheState(bool(reader, text(reader)));
+          break;
+        case "maxWait":
+          pool.setMaxWait(indefinite(reader, text(reader), true));
+          break;
+        case "maxConnectionLifetime":
+          pool.setMaxConnectionLifetime(indefinite(reader, text(reader), true));
+          break;
+        case "autoCommitOnReturn":
+          pool.setAutoCommitOnReturn(bool(reader, text(reader)));
+          break;
+        case "rollbackOnReturn":
+          pool.setRollbackOnReturn(bool(reader, text(reader)));
+          break;
+        case "removeAbandoned":
+          final Dbcp.Pool.RemoveAbandoned removeAbandoned = new Dbcp.Pool.RemoveAbandoned();
+          removeAbandoned.setOn(enumeration(reader, required(reader, "on"), "borrow", "maintenance"));
+          removeAbandoned.setTimeout(positiveInt(reader, required(reader, "timeout")));
+          pool.setRemoveAbandoned(removeAbandoned);
+          empty(reader);
+          break;
+        case "abandonedUsageTracking":
+          pool.setAbandonedUsageTracking(bool(reader, text(reader)));
+          break;
+        case "allowAccessToUnderlyingConnection":
+          pool.setAllowAccessToUnderlyingConnection(bool(reader, text(reader)));
+          break;
+        case "compactBookkeeping":
+          pool.setCompactBookkeeping(bool(reader, text(reader)));
+          break;
+        case "keepalive":
+          final Dbcp.Pool.Keepalive keepalive = new Dbcp.Pool.Keepalive();
+          boolean hasIdleTime = false;
+          final HashSet<String> keepaliveNames = new HashSet<>();
+          while (nextElement(reader, keepaliveNames)) {
+            switch (reader.getLocalName()) {
+              case "idleTime":
+                keepalive.setIdleTime(positiveInt(reader, text(reader)));
+                hasIdleTime = true;
+                break;
+              case "timeBetweenRuns":
+                keepalive.setTimeBetweenRuns(positiveInt(reader, text(reader)));
+                break;
+              case "maxPerRun":
+                keepalive.setMaxPerRun(positiveInt(reader, text(reader)));
+                break;
+              case "timeout":
+                keepalive.setTimeout(positiveInt(reader, text(reader)));
+                break;
+              default:
+                throw unexpected(reader);
+            }
+          }
+
+          if (!hasIdleTime)
+            throw error(reader, "Missing element keepalive/idleTime");
+
+          pool.setKeepalive(keepalive);
+          break;
+        case "retirement":
+          final Dbcp.Pool.Retirement retirement = new Dbcp.Pool.Retirement();
+          retirement.setJitter(nonNegativeInt(reader, required(reader, "jitter")));
+          final String proactive = reader.getAttributeValue(null, "proactive");
+          if (proactive != null)
+            retirement.setProactive(bool(reader, proactive));
+
+          final String timeBetweenRuns = reader.getAttributeValue(null, "timeBetweenRuns");
+          if (timeBetweenRuns != null)
+            retirement.setTimeBetweenRuns(positiveInt(reader, timeBetweenRuns));
+
+          pool.setRetirement(retirement);
+          empty(reader);
+          break;
+        case "eviction":
+          final Dbcp.Pool.Eviction eviction = new Dbcp.Pool.Eviction();
+          final HashSet<String> evictionNames = new HashSet<>();
+          while (nextElement(reader, evictionNames)) {
+            switch (reader.getLocalName()) {
+              case "timeBetweenRuns":
+                eviction.setTimeBetweenRuns(indefinite(reader, text(reader), true));
+                break;
+              case "numTestsPerRun":
+                eviction.setNumTestsPerRun(nonNegativeInt(reader, text(reader)));
+                break;
+              case "minIdleTime":
+                eviction.setMinIdleTime(nonNegativeLong(reader, text(reader)));
+                break;
+              case "softMinIdleTime":
+                eviction.setSoftMinIdleTime(indefinite(reader, text(reader), true));
+                break;
+              case "policyClassName":
+                eviction.setPolicyClassName(qualifiedIdentifier(reader, text(reader)));
+                break;
+              default:
+                throw unexpected(reader);
+            }
+          }
+
+          pool.setEviction(eviction);
+          break;
+        default:
+          throw unexpected(reader);
+      }
+    }
+
+    return pool;
+  }
+
+  private static Dbcp.Validation readValidation(final XMLStreamReader reader) throws SAXException, XMLStreamException {
+    final Dbcp.Validation validation = new Dbcp.Validation();
+    final HashSet<String> names = new HashSet<>();
+    while (nextElement(reader, names)) {
+      switch (reader.getLocalName()) {
+        case "query":
+          final String query = stringNonEmpty(reader, text(reader));
+          if (!query.startsWith("SELECT"))
+            throw error(reader, "Validation query must be a SELECT statement: " + query);
+
+          validation.setQuery(query);
+          break;
+        case "timeout":
+          validation.setTimeout(indefinite(reader, text(reader), false));
+          break;
+        case "testOnCreate":
+          validation.setTestOnCreate(bool(reader, text(reader)));
+          break;
+        case "testOnBorrow":
+          validation.setTestOnBorrow(bool(reader, text(reader)));
+          break;
+        case "testOnReturn":
+          validation.setTestOnReturn(bool(reader, text(reader)));
+          break;
+        case "testWhileIdle":
+          validation.setTestWhileIdle(bool(reader, text(reader)));
+          break;
+        case "fastFail":
+          final Dbcp.Validation.FastFail fastFail = new Dbcp.Validation.FastFail();
+          final HashSet<String> fastFailNames = new HashSet<>();
+          while (nextElement(reader, fastFailNames)) {
+            if (!"disconnectionSqlCodes".equals(reader.getLocalName()))
+              throw unexpected(reader);
+
+            fastFail.setDisconnectionSqlCodes(stringNonEmpty(reader, text(reader)));
+          }
+
+          validation.setFastFail(fastFail);
+          break;
+        case "health":
+          final Dbcp.Validation.Health health = new Dbcp.Validation.Health();
+          final String halfLife = reader.getAttributeValue(null, "halfLife");
+          if (halfLife != null)
+            health.setHalfLife(positiveInt(reader, halfLife));
+
+          final String minSamples = reader.getAttributeValue(null, "minSamples");
+          if (minSamples != null)
+            health.setMinSamples(positiveInt(reader, minSamples));
+
+          final String latencyFactor = reader.getAttributeValue(null, "latencyFactor");
+          if (latencyFactor != null)
+            health.setLatencyFactor(positiveInt(reader, latencyFactor));
+
+          final String maxErrorPercent = reader.getAttributeValue(null, "maxErrorPercent");
+          if (maxErrorPercent != null)
+            health.setMaxErrorPercent((int)number(reader, maxErrorPercent, 1, 100));
+
+          final String timeBetweenRuns = reader.getAttributeValue(null, "timeBetweenRuns");
+          if (timeBetweenRuns != null)
+            health.setTimeBetweenRuns(positiveInt(reader, timeBetweenRuns));
+
+          validation.setHealth(health);
+          empty(reader);
+          break;
+        default:
+          throw unexpected(reader);
+      }
+    }
+
+    return validation;
+  }
+
+  private static Dbcp.Logging readLogging(final XMLStreamReader reader) throws SAXException, XMLStreamException {
+    final Dbcp.Logging logging = new Dbcp.Logging();
+    final HashSet<String> names = new HashSet<>();
+    while (nextElement(reader, names)) {
+      switch (reader.getLocalName()) {
+        case "level":
+          logging.setLevel(enumeration(reader, text(reader), "ERROR", "WARN", "INFO", "DEBUG", "TRACE"));
+          break;
+        case "logExpiredConnections":
+          logging.setLogExpiredConnections(bool(reader, text(reader)));
+          break;
+        case "logAbandoned":
+          logging.setLogAbandoned(bool(reader, text(reader)));
+          break;
+        default:
+          throw unexpected(reader);
+      }
+    }
+
+    if (logging.getLevel() == null)
+      throw error(reader, "Missing element logging/level");
+
+    return logging;
+  }
+
+  /**
+   * Advances the specified {@link XMLStreamReader} to the start of the next child element of the current element.
+   *
+   * @return {@code true} if the reader is positioned at the start of a child element, or {@code false} if the reader is positioned
+   *         at the end of the current element.
+   */
+  private static boolean nextElement(final XMLStreamReader reader) throws SAXException, XMLStreamException {
+    reader.next();
+    return element(reader);
+  }
+
+  /**
+   * Advances the specified {@link XMLStreamReader} to the start of the next child element of the current element, like
+   * {@link #nextElement(XMLStreamReader)}, and checks that no child element with the same name has been read before, as the children
+   * of an {@code xs:all} may occur at most once.
+   *
+   * @param names The names of the child elements read before, to which the name of the child element is added.
+   */
+  private static boolean nextElement(final XMLStreamReader reader, final HashSet<String> names) throws SAXException, XMLStreamException {
+    if (!nextElement(reader))
+      return false;
+
+    if (!names.add(reader.getLocalName()))
+      throw error(reader, "Duplicate element: " + reader.getName());
+
+    return true;
+  }
+
+  /**
+   * Advances the specified {@link XMLStreamReader} to the start of the next child element or to the end of the current element, like
+   * {@link #nextElement(XMLStreamReader)}, but starting with the event at which the reader is positioned.
+   */
+  private static boolean element(final XMLStreamReader reader) throws SAXException, XMLStreamException {
+    for (int event = reader.getEventType();; event = reader.next()) {
+      if (event == XMLStreamConstants.START_ELEMENT) {
+        checkElement(reader);
+        return true;
+      }
+
+      if (event == XMLStreamConstants.END_ELEMENT || event == XMLStreamConstants.END_DOCUMENT)
+        return false;
+
+      if ((event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA) && !reader.isWhiteSpace())
+        throw error(reader, "Unexpected text: " + reader.getText().trim());
+    }
+  }
+
+  /**
+   * Advances the specified {@link XMLStreamReader} to the end of the current element, without inspecting its content.
+   */
+  private static void skip(final XMLStreamReader reader) throws XMLStreamException {
+    for (int depth = 1; depth > 0;) {
+      final int event = reader.next();
+      if (event == XMLStreamConstants.START_ELEMENT)
+        ++depth;
+      else if (event == XMLStreamConstants.END_ELEMENT)
+        --depth;
+    }
+  }
+
+  private static void empty(final XMLStreamReader reader) throws SAXException, XMLStreamException {
+    if (nextElement(reader))
+      throw unexpected(reader);
+  }
+
+  private static String text(final XMLStreamReader reader) throws XMLStreamException {
+    return reader.getElementText().trim();
+  }
+
+  /**
+   * Checks that the element at whose start the specified {@link XMLStreamReader} is positioned is in the namespace of the schema, and
+   * that it has no attributes other than those declared by the schema and those in the {@code xsi} namespace.
+   */
+  private static void checkElement(final XMLStreamReader reader) throws SAXException {
+    if (!NAMESPACE.equals(reader.getNamespaceURI()))
+      throw error(reader, "Unexpected namespace: " + reader.getNamespaceURI());
+
+    final String[] names = attributes.getOrDefault(reader.getLocalName(), noAttributes);
+    for (int i = 0, i$ = reader.getAttributeCount(); i < i$; ++i) {
+      final String namespace = reader.getAttributeNamespace(i);
+      if (XSI_NAMESPACE.equals(namespace))
+        continue;
+
+      if (namespace == null || namespace.length() == 0) {
+        final String name = reader.getAttributeLocalName(i);
+        boolean declared = false;
+        for (final String n : names) // [A]
+          if (declared = n.equals(name))
+            break;
+
+        if (declared)
+          continue;
+      }
+
+      throw error(reader, "Unexpected attribute " + reader.getLocalName() + "/@" + reader.getAttributeName(i));
+    }
+  }
+
+  private static String required(final XMLStreamReader reader, final String name) throws SAXException {
+    final String value = reader.getAttributeValue(null, name);
+    if (value == null)
+      throw error(reader, "Missing attribute " + reader.getLocalName() + "/@" + name);
+
+    return value.trim();
+  }
+
+  private static String stringNonEmpty(final XMLStreamReader reader, final String value) throws SAXException {
+    if (value.length() == 0)
+      throw error(reader, "Value of " + reader.getLocalName() + " must not be empty");
+
+    return value;
+  }
+
+  private static String qualifiedIdentifier(final XMLStreamReader reader, final String value) throws SAXException {
+    boolean start = true;
+    for (int i = 0, i$ = value.length(); i < i$; ++i) {
+      final char ch = value.charAt(i);
+      if (ch == '.' && !start && i < i$ - 1)
+        start = true;
+      else if (start ? Character.isJavaIdentifierStart(ch) : Character.isJavaIdentifierPart(ch))
+        start = false;
+      else
+        throw error(reader, "Value of " + reader.getLocalName() + " is not a qualified identifier: " + value);
+    }
+
+    if (start)
+      throw error(reader, "Value of " + reader.getLocalName() + " is not a qualified identifier: " + value);
+
+    return value;
+  }
+
+  private static String enumeration(final XMLStreamReader reader, final String value, final String ... values) throws SAXException {
+    for (final String v : values) // [A]
+      if (v.equals(value))
+        return v;
+
+    throw error(reader, "Value of " + reader.getLocalName() + " is not one of the allowed values: " + value);
+  }
+
+  private static boolean bool(final XMLStreamReader reader, final String value) throws SAXException {
+    if ("true".equals(value) || "1".equals(value))
+      return true;
+
+    if ("false".equals(value) || "0".equals(value))
+      return false;
+
+    throw error(reader, "Value of " + reader.getLocalName() + " is not a boolean: " + value);
+  }
+
+  private static long number(final XMLStreamReader reader, final String value, final long min, final long max) throws SAXException {
+    final long number;
+    try {
+      number = Long.parseLong(value);
+    }
+    catch (final NumberFormatException e) {
+      throw error(reader, "Value of " + reader.getLocalName() + " is not a number: " + value);
+    }
+
+    if (number < min || number > max)
+      throw error(reader, "Value of " + reader.getLocalName() + " (" + value + ") must be in the range [" + min + ", " + max + "]");
+
+    return number;
+  }
+
+  private static int positiveInt(final XMLStreamReader reader, final String value) throws SAXException {
+    return (int)number(reader, value, 1, Integer.MAX_VALUE);
+  }
+
+  private static int nonNegativeInt(final XMLStreamReader reader, final String value) throws SAXException {
+    return (int)number(reader, value, 0, Integer.MAX_VALUE);
+  }
+
+  private static long nonNegativeLong(final XMLStreamReader reader, final String value) throws SAXException {
+    return number(reader, value, 0, Long.MAX_VALUE);
+  }
+
+  private static String indefinite(final XMLStreamReader reader, final String value, final boolean isLong) throws SAXException {
+    if (!INDEFINITE.equals(value))
+      number(reader, value, 1, isLong ? Long.MAX_VALUE : Integer.MAX_VALUE);
+
+    return value;
+  }
+
+  private static SAXException error(final XMLStreamReader reader, final String message) {
+    return new SAXException(message + " at line " + reader.getLocation().getLineNumber() + ", column " + reader.getLocation().getColumnNumber());
+  }
+
+  private static SAXException unexpected(final XMLStreamReader reader) {
+    return error(reader, "Unexpected element: " + reader.getName());
+  }
+
+  private DbcpReader() {
+  }
+}
@@ -0,0 +1,349 @@
+/* Copyright (c) 2026 OpenJAX
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.openjax.dbcp;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.apache.commons.dbcp2.ConnectionFactory;
+
+/**
+ * A {@link ConnectionFactory} that creates connections to the first healthy of an ordered list of {@link Endpoint endpoints}, or to
+ * the healthy endpoints in proportion to their weights. When a connection to an endpoint cannot be created, the creation fails over
+ * to the next endpoint. An endpoint is marked unhealthy after {@value #MAX_FAILURES} consecutive failures to create a connection to
+ * it, or when it fails a {@link #probe() probe}, and is marked healthy again by a successful creation or probe. A single failure is
+ * thereby not enough to divert the traffic from an endpoint.
+ * <p>
+ * The connections to an endpoint are handed to the drain callback, so that the pool can close them, only when a failure of the
+ * endpoint is confirmed by a probe, or when its host has moved to an entirely new set of addresses upon {@link #resolve()
+ * re-resolution}. A host that resolves to rotating subsets of its addresses does not cause a drain.
+ */
+final class FailoverConnectionFactory implements ConnectionFactory {
+  /** The number of consecutive failures to create a connection to an endpoint after which it is marked unhealthy. */
+  static final int MAX_FAILURES = 3;
+
+  /**
+   * Returns the host of the specified JDBC URL, or {@code null} if the URL does not have a host, such as for an embedded database.
+   *
+   * @param url The JDBC URL.
+   * @return The host of the specified JDBC URL, or {@code null} if the URL does not have a host.
+   */
+  static String getHost(final String url) {
+    int start = url.indexOf("//");
+    if (start >= 0)
+      start += 2;
+    else if ((start = url.indexOf('@')) >= 0)
+      ++start;
+    else
+      return null;
+
+    int end = start;
+    for (final int len = url.length(); end < len; ++end) {
+      final char ch = url.charAt(end);
+      if (ch == '/' || ch == '?' || ch == ';')
+        break;
+    }
+
+    String authority = url.substring(start, end);
+    final int at = authority.lastIndexOf('@');
+    if (at >= 0)
+      authority = authority.substring(at + 1);
+
+    if (authority.startsWith("[")) {
+      final int close = authority.indexOf(']');
+      return close > 1 ? authority.substring(1, close) : null;
+    }
+
+    end = 0;
+    for (final int len = authority.length(); end < len; ++end) {
+      final char ch = authority.charAt(end);
+      if (ch == ':' || ch == ',')
+        break;
+    }
+
+    return end > 0 ? authority.substring(0, end) : null;
+  }
+
+  private final Endpoint[] endpoints;
+  private final boolean weighted;
+  private final int probeTimeout;
+  private final Consumer<Endpoint> drain;
+
+  /**
+   * Creates a new {@link FailoverConnectionFactory}, and resolves the hosts of the specified endpoints.
+   *
+   * @param endpoints The endpoints, in the order of preference.
+   * @param weighted Whether connections are spread over the healthy endpoints in proportion to their weights, or are created to the
+   *          first healthy endpoint.
+   * @param probeTimeout The timeout (in seconds) of {@link Connection#isValid(int)} in a {@link #probe() probe}.
+   * @param drain The callback that closes the connections to an endpoint.
+   * @throws NullPointerException If {@code endpoints} or {@code drain} is null.
+   * @throws IllegalArgumentException If {@code endpoints} is empty.
+   */
+  FailoverConnectionFactory(final Endpoint[] endpoints, final boolean weighted, final int probeTimeout, final Consumer<Endpoint> drain) {
+    if (endpoints.length == 0)
+      throw new IllegalArgumentException("endpoints is empty");
+
+    this.endpoints = endpoints;
+    this.weighted = weighted;
+    this.probeTimeout = probeTimeout;
+    this.drain = Objects.requireNonNull(drain);
+    for (final Endpoint endpoint : endpoints) // [A]
+      endpoint.update(endpoint.resolve());
+  }
+
+  /**
+   * Returns the endpoints of this factory, in the order of preference.
+   *
+   * @return The endpoints of this factory, in the order of preference.
+   */
+  Endpoint[] getEndpoints() {
+    return endpoints;
+  }
+
+  private Endpoint[] candidates() {
+    final Endpoint[] candidates = new Endpoint[endpoints.length];
+    int size = 0;
+    if (weighted) {
+      int total = 0;
+      for (final Endpoint endpoint : endpoints) // [A]
+        if (endpoint.isHealthy())
+          total += endpoint.weight;
+
+      if (total > 0) {
+        int random = ThreadLocalRandom.current().nextInt(total);
+        for (final Endpoint endpoint : endpoints) { // [A]
+          if (endpoint.isHealthy() && (random -= endpoint.weight) < 0) {
+            candidates[size++] = endpoint;
+            break;
+          }
+        }
+      }
+    }
+
+    for (final Endpoint endpoint : endpoints) // [A]
+      if (endpoint.isHealthy() && (size == 0 || endpoint != candidates[0]))
+        candidates[size++] = endpoint;
+
+    // If no endpoint is healthy, all are tried anyway, as an endpoint may have recovered since it was last probed
+    for (final Endpoint endpoint : endpoints) // [A]
+      if (!endpoint.isHealthy())
+        candidates[size++] = endpoint;
+
+    return candidates;
+  }
+
+  @Override
+  public Connection createConnection() throws SQLException {
+    SQLException exception = null;
+    for (final Endpoint endpoint : candidates()) { // [A]
+      try {
+        final Connection connection = endpoint.connectionFactory.createConnection();
+        endpoint.markHealthy();
+        return new EndpointConnection(connection, endpoint);
+      }
+      catch (final SQLException e) {
+        endpoint.markFailed();
+        if (exception == null)
+          exception = e;
+        else
+          exception.addSuppressed(e);
+      }
+    }
+
+    throw exception;
+  }
+
+  /**
+   * Probes each endpoint by creating a connection to it and validating the connection, and marks the endpoint healthy or unhealthy
+   * accordingly. The connections to an endpoint that fails the probe are drained, unless they have been drained since the endpoint was
+   * last healthy.
+   */
+  void probe() {
+    for (final Endpoint endpoint : endpoints) { // [A]
+      boolean valid;
+      try (final Connection connection = endpoint.connectionFactory.createConnection()) {
+        valid = connection.isValid(probeTimeout);
+      }
+      catch (final SQLException e) {
+        valid = false;
+      }
+
+      if (valid) {
+        endpoint.markHealthy();
+      }
+      else {
+        endpoint.healthy.set(false);
+        if (endpoint.drained.compareAndSet(false, true))
+          drain.accept(endpoint);
+      }
+    }
+  }
+
+  /**
+   * Re-resolves the host of each endpoint, and drains the connections to each endpoint whose host has moved to addresses none of which
+   * it has resolved to since its connections were last drained. An endpoint whose host cannot be resolved is left to be marked
+   * unhealthy by its {@link #probe() probe}. Must not be called concurrently.
+   */
+  void resolve() {
+    for (final Endpoint endpoint : endpoints) // [A]
+      if (endpoint.update(endpoint.resolve()))
+        drain.accept(endpoint);
+  }
+
+  /**
+   * An endpoint of a {@link FailoverConnectionFactory}.
+   */
+  static final class Endpoint {
+    private final String url;
+    private final int weight;
+    private final ConnectionFactory connectionFactory;
+    private final String host;
+    private final AtomicBoolean healthy = new AtomicBoolean(true);
+    private final AtomicBoolean drained = new AtomicBoolean();
+    private final AtomicInteger failures = new AtomicInteger();
+    private HashSet<String> addresses;
+
+    /**
+     * Creates a new {@link Endpoint}.
+     *
+     * @param url The connection URL of the endpoint.
+     * @param weight The weight of the endpoint.
+     * @param connectionFactory The {@link ConnectionFactory} that creates connections to the endpoint.
+     * @throws NullPointerException If {@code url} or {@code connectionFactory} is null.
+     * @throws IllegalArgumentException If {@code weight} is not positive.
+     */
+    Endpoint(final String url, final int weight, final ConnectionFactory connectionFactory) {
+      if (weight <= 0)
+        throw new IllegalArgumentException("weight (" + weight + ") must be positive");
+
+      this.url = Objects.requireNonNull(url);
+      this.weight = weight;
+      this.connectionFactory = Objects.requireNonNull(connectionFactory);
+      this.host = getHost(url);
+    }
+
+    /**
+     * Returns the connection URL of this endpoint.
+     *
+     * @return The connection URL of this endpoint.
+     */
+    String getUrl() {
+      return url;
+    }
+
+    /**
+     * Returns whether this endpoint is healthy.
+     *
+     * @return Whether this endpoint is healthy.
+     */
+    boolean isHealthy() {
+      return healthy.get();
+    }
+
+    private void markHealthy() {
+      failures.set(0);
+      drained.set(false);
+      healthy.set(true);
+    }
+
+    private void markFailed() {
+      if (failures.incrementAndGet() >= MAX_FAILURES)
+        healthy.set(false);
+    }
+
+    /**
+     * Adds the specified addresses to the addresses that the host of this endpoint has resolved to since its connections were last
+     * drained, or replaces them if none of the specified addresses is among them.
+     *
+     * @param addresses The addresses that the host of this endpoint resolves to, or {@code null} if the host cannot be resolved.
+     * @return Whether the host has moved to an entirely new set of addresses, so that the connections to this endpoint are to be
+     *         drained.
+     */
+    boolean update(final String[] addresses) {
+      if (addresses == null)
+        return false;
+
+      if (this.addresses == null) {
+        this.addresses = new HashSet<>(Arrays.asList(addresses));
+        return false;
+      }
+
+      for (final String address : addresses) { // [A]
+        if (this.addresses.contains(address)) {
+          this.addresses.addAll(Arrays.asList(addresses));
+          return false;
+        }
+      }
+
+      this.addresses = new HashSet<>(Arrays.asList(addresses));
+      return true;
+    }
+
+    private String[] resolve() {
+      if (host == null)
+        return null;
+
+      try {
+        final InetAddress[] addresses = InetAddress.getAllByName(host);
+        final String[] hostAddresses = new String[addresses.length];
+        for (int i = 0; i < addresses.length; ++i) // [A]
+          hostAddresses[i] = addresses[i].getHostAddress();
+
+        return hostAddresses;
+      }
+      catch (final UnknownHostException e) {
+        return null;
+      }
+    }
+
+    @Override
+    public String toString() {
+      return url;
+    }
+  }
+
+  /**
+   * A {@link Connection} created to an {@link Endpoint}, by which the pool identifies the connections to drain.
+   */
+  static final class EndpointConnection extends DelegateConnection {
+    private final Endpoint endpoint;
+
+    private EndpointConnection(final Connection target, final Endpoint endpoint) {
+      super(target);
+      this.endpoint = endpoint;
+    }
+
+    /**
+     * Returns the {@link Endpoint} to which this connection was created.
+     *
+     * @return The {@link Endpoint} to which this connection was created.
+     */
+    Endpoint getEndpoint() {
+      return endpoint;
+    }
+  }
+}
@@ -0,0 +1,536 @@
+/* Copyright (c) 2026 OpenJAX
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.openjax.dbcp;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.commons.dbcp2.ConnectionFactory;
+import org.apache.commons.dbcp2.DelegatingCallableStatement;
+import org.apache.commons.dbcp2.DelegatingPreparedStatement;
+import org.apache.commons.dbcp2.DelegatingStatement;
+import org.apache.commons.dbcp2.PoolableConnection;
+import org.apache.commons.pool2.PooledObject;
+import org.apache.commons.pool2.PooledObjectState;
+import org.apache.commons.pool2.impl.GenericObjectPool;
+
+/**
+ * Scores the health of the connections of a pool by exponentially weighted moving averages of the latency of their probes, and of the
+ * rate of their errors that indicate a problem of the connection or of the backend. A probe is a validation of the connection with
+ * {@link Connection#isValid(int)} or with the validation query, which is the same uniform operation on every connection, so that the
+ * latencies of the connections are comparable regardless of the statements that the application happens to execute on them. The
+ * statements of the application are sampled only for the error rate. The samples are taken by a {@link HealthConnection} with which
+ * the physical connections are {@link #decorate(ConnectionFactory,String) decorated}. Each
+ * {@link #score(GenericObjectPool, ConnectionObjectFactory) scoring} marks the outliers as broken, so that they are no longer handed
+ * out: idle outliers are closed and replaced, and borrowed outliers are closed when they are returned.
+ */
+final class HealthScoring {
+  /**
+   * Returns whether the specified {@link SQLException} indicates a problem of the connection or of the backend, rather than of the
+   * statement that caused it.
+   *
+   * @param e The {@link SQLException}.
+   * @return Whether the specified {@link SQLException} indicates a problem of the connection or of the backend.
+   */
+  static boolean isHealthError(final SQLException e) {
+    if (e instanceof SQLTransientException || e instanceof SQLRecoverableException || e instanceof SQLNonTransientConnectionException)
+      return true;
+
+    final String sqlState = e.getSQLState();
+    return sqlState != null && (sqlState.startsWith("08") || sqlState.startsWith("53") || sqlState.startsWith("57") || sqlState.startsWith("58") || sqlState.startsWith("HYT"));
+  }
+
+  private final double alpha;
+  private final int minSamples;
+  private final int latencyFactor;
+  private final double maxErrorRate;
+  private final LongAdder retiredCount = new LongAdder();
+
+  /**
+   * Creates a new {@link HealthScoring}.
+   *
+   * @param halfLife The number of samples after which the weight of a sample in the moving averages has halved.
+   * @param minSamples The number of samples of a connection before its error rate is scored, and the number of probes of a
+   *          connection before its latency is scored.
+   * @param latencyFactor The multiple of the median latency of the connections above which a connection is an outlier.
+   * @param maxErrorPercent The percentage of samples with errors above which a connection is an outlier.
+   * @throws IllegalArgumentException If {@code halfLife}, {@code minSamples} or {@code latencyFactor} is not positive, or if
+   *           {@code maxErrorPercent} is not in the range [1, 100].
+   */
+  HealthScoring(final int halfLife, final int minSamples, final int latencyFactor, final int maxErrorPercent) {
+    if (halfLife <= 0)
+      throw new IllegalArgumentException("halfLife (" + halfLife + ") must be positive");
+
+    if (minSamples <= 0)
+      throw new IllegalArgumentException("minSamples (" + minSamples + ") must be positive");
+
+    if (latencyFactor <= 0)
+      throw new IllegalArgumentException("latencyFactor (" + latencyFactor + ") must be positive");
+
+    if (maxErrorPercent < 1 || maxErrorPercent > 100)
+      throw new IllegalArgumentException("maxErrorPercent (" + maxErrorPercent + ") must be in the range [1, 100]");
+
+    this.alpha = 1 - Math.pow(2, -1d / halfLife);
+    this.minSamples = minSamples;
+    this.latencyFactor = latencyFactor;
+    this.maxErrorRate = maxErrorPercent / 100d;
+  }
+
+  /**
+   * Returns the number of connections that have been retired as outliers.
+   *
+   * @return The number of connections that have been retired as outliers.
+   */
+  long getRetiredCount() {
+    return retiredCount.sum();
+  }
+
+  /**
+   * Returns a {@link ConnectionFactory} that decorates the connections of the specified {@link ConnectionFactory} with a
+   * {@link HealthConnection}.
+   *
+   * @param connectionFactory The target {@link ConnectionFactory}.
+   * @param validationQuery The validation query of the pool, whose executions are probes, or {@code null} if the pool validates its
+   *          connections with {@link Connection#isValid(int)}.
+   * @return A {@link ConnectionFactory} that decorates the connections of the specified {@link ConnectionFactory}.
+   */
+  ConnectionFactory decorate(final ConnectionFactory connectionFactory, final String validationQuery) {
+    return () -> new HealthConnection(connectionFactory.createConnection(), new Health(alpha), validationQuery);
+  }
+
+  /**
+   * Scores the connections of the specified pool that have at least the minimum number of samples or probes, and retires the
+   * outliers.
+   *
+   * @param pool The pool.
+   * @param factory The {@link ConnectionObjectFactory} of the pool.
+   * @return The number of connections retired by this scoring.
+   */
+  int score(final GenericObjectPool<PoolableConnection> pool, final ConnectionObjectFactory factory) {
+    final ArrayList<Map.Entry<PooledObject<PoolableConnection>,ConnectionState>> entries = new ArrayList<>();
+    final ArrayList<Health> healths = new ArrayList<>();
+    for (final Map.Entry<PooledObject<PoolableConnection>,ConnectionState> entry : factory.states()) {
+      final Health health;
+      try {
+        health = entry.getKey().getObject().unwrap(HealthConnection.class).getHealth();
+      }
+      catch (final SQLException e) {
+        continue;
+      }
+
+      if ((health.getSamples() >= minSamples || health.getProbes() >= minSamples) && !entry.getValue().isBroken()) {
+        entries.add(entry);
+        healths.add(health);
+      }
+    }
+
+    // The latency of a connection with too few probes is NaN, which is never above the maximum
+    final int size = healths.size();
+    final double[] latencies = new double[size];
+    final double[] errorRates = new double[size];
+    int probed = 0;
+    for (int i = 0; i < size; ++i) { // [RA]
+      final Health health = healths.get(i);
+      if (health.getProbes() >= minSamples) {
+        latencies[i] = health.getLatency();
+        ++probed;
+      }
+      else {
+        latencies[i] = Double.NaN;
+      }
+
+      errorRates[i] = health.getSamples() >= minSamples ? health.getErrorRate() : 0;
+    }
+
+    double maxLatency = Double.MAX_VALUE;
+    if (probed >= 3) {
+      final double[] sorted = latencies.clone();
+      // NaN is sorted after all numbers
+      Arrays.sort(sorted);
+      final double median = probed % 2 == 1 ? sorted[probed / 2] : (sorted[probed / 2 - 1] + sorted[probed / 2]) / 2;
+      maxLatency = median * latencyFactor;
+    }
+
+    final ArrayList<Map.Entry<PooledObject<PoolableConnection>,ConnectionState>> outliers = new ArrayList<>();
+    for (int i = 0; i < size; ++i) { // [A]
+      if (errorRates[i] > maxErrorRate || latencies[i] > maxLatency) {
+        final Map.Entry<PooledObject<PoolableConnection>,ConnectionState> entry = entries.get(i);
+        entry.getValue().markBroken();
+        outliers.add(entry);
+      }
+    }
+
+    final int retired = outliers.size();
+    if (retired == 0)
+      return 0;
+
+    // Parked connections are allocated in the view of the pool, and would otherwise be served again without being invalidated
+    BasicDataSource.unpark(pool, (final PooledObject<PoolableConnection> p) -> {
+      final ConnectionState state = factory.getState(p);
+      return state != null && state.isBroken();
+    });
+
+    for (int i = 0; i < retired; ++i) // [RA]
+      retire(pool, outliers.get(i).getKey());
+
+    retiredCount.add(retired);
+    return retired;
+  }
+
+  private static void retire(final GenericObjectPool<PoolableConnection> pool, final PooledObject<PoolableConnection> p) {
+    boolean invalidated = false;
+    // Holding the monitor of the pooled object prevents a borrower from allocating it before it is invalidated
+    synchronized (p) {
+      if (p.getState() == PooledObjectState.IDLE) {
+        try {
+          pool.invalidateObject(p.getObject());
+          invalidated = true;
+        }
+        catch (final Exception e) {
+        }
+      }
+    }
+
+    final int maxTotal = pool.getMaxTotal();
+    if (invalidated && (maxTotal < 0 || pool.getNumActive() + pool.getNumIdle() < maxTotal)) {
+      try {
+        pool.addObject();
+      }
+      catch (final Exception e) {
+      }
+    }
+  }
+
+  /**
+   * The moving averages of the latency of the probes and of the error rate of a connection.
+   */
+  static final class Health {
+    private final double alpha;
+    private double latency;
+    private double errorRate;
+    private long probes;
+    private long samples;
+
+    private Health(final double alpha) {
+      this.alpha = alpha;
+    }
+
+    /**
+     * Records a probe, which is also a sample of the error rate.
+     *
+     * @param nanos The latency (in nanoseconds) of the probe.
+     * @param error Whether the probe failed, or failed with an error that indicates a problem of the connection or of the backend.
+     */
+    synchronized void recordProbe(final long nanos, final boolean error) {
+      latency = probes++ == 0 ? nanos : latency + alpha * (nanos - latency);
+      recordSample(error);
+    }
+
+    /**
+     * Records a sample of the error rate.
+     *
+     * @param error Whether the sample failed with an error that indicates a problem of the connection or of the backend.
+     */
+    synchronized void recordSample(final boolean error) {
+      errorRate = samples++ == 0 ? (error ? 1 : 0) : errorRate + alpha * ((error ? 1 : 0) - errorRate);
+    }
+
+    /**
+     * Returns the moving average of the latency (in nanoseconds) of the probes.
+     *
+     * @return The moving average of the latency (in nanoseconds) of the probes.
+     */
+    synchronized double getLatency() {
+      return latency;
+    }
+
+    /**
+     * Returns the moving average of the error rate, in the range [0, 1].
+     *
+     * @return The moving average of the error rate.
+     */
+    synchronized double getErrorRate() {
+      return errorRate;
+    }
+
+    /**
+     * Returns the number of probes.
+     *
+     * @return The number of probes.
+     */
+    synchronized long getProbes() {
+      return probes;
+    }
+
+    /**
+     * Returns the number of samples of the error rate, including the probes.
+     *
+     * @return The number of samples of the error rate.
+     */
+    synchronized long getSamples() {
+      return samples;
+    }
+  }
+
+  /**
+   * A {@link Connection} that samples the latency and errors of its probes, and the errors of its statements, into its {@link Health}.
+   * Each statement is one sample of the error rate, which is recorded when the statement is closed, and is an error if any of its
+   * executions failed with an error that indicates a problem of the connection or of the backend.
+   */
+  static final class HealthConnection extends DelegateConnection {
+    private final Health health;
+    private final String validationQuery;
+
+    private HealthConnection(final Connection target, final Health health, final String validationQuery) {
+      super(target);
+      this.health = health;
+      this.validationQuery = validationQuery;
+    }
+
+    /**
+     * Returns the {@link Health} of this connection.
+     *
+     * @return The {@link Health} of this connection.
+     */
+    Health getHealth() {
+      return health;
+    }
+
+    @Override
+    public Statement createStatement() throws SQLException {
+      return new HealthStatement(this, target.createStatement());
+    }
+
+    @Override
+    public Statement createStatement(final int resultSetType, final int resultSetConcurrency) throws SQLException {
+      return new HealthStatement(this, target.createStatement(resultSetType, resultSetConcurrency));
+    }
+
+    @Override
+    public Statement createStatement(final int resultSetType, final int resultSetConcurrency, final int resultSetHoldability) throws SQLException {
+      return new HealthStatement(this, target.createStatement(resultSetType, resultSetConcurrency, resultSetHoldability));
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(final String sql) throws SQLException {
+      // The pool prepares its validation query on the innermost connection, which is this connection
+      return sql.equals(validationQuery) ? new ProbeStatement(this, target.prepareStatement(sql)) : new HealthPreparedStatement(this, target.prepareStatement(sql));
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(final String sql, final int resultSetType, final int resultSetConcurrency) throws SQLException {
+      return new HealthPreparedStatement(this, target.prepareStatement(sql, resultSetType, resultSetConcurrency));
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(final String sql, final int resultSetType, final int resultSetConcurrency, final int resultSetHoldability) throws SQLException {
+      return new HealthPreparedStatement(this, target.prepareStatement(sql, resultSetType, resultSetConcurrency, resultSetHoldability));
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(final String sql, final int autoGeneratedKeys) throws SQLException {
+      return new HealthPreparedStatement(this, target.prepareStatement(sql, autoGeneratedKeys));
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(final String sql, final int[] columnIndexes) throws SQLException {
+      return new HealthPreparedStatement(this, target.prepareStatement(sql, columnIndexes));
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(final String sql, final String[] columnNames) throws SQLException {
+      return new HealthPreparedStatement(this, target.prepareStatement(sql, columnNames));
+    }
+
+    @Override
+    public CallableStatement prepareCall(final String sql) throws SQLException {
+      return new HealthCallableStatement(this, target.prepareCall(sql));
+    }
+
+    @Override
+    public CallableStatement prepareCall(final String sql, final int resultSetType, final int resultSetConcurrency) throws SQLException {
+      return new HealthCallableStatement(this, target.prepareCall(sql, resultSetType, resultSetConcurrency));
+    }
+
+    @Override
+    public CallableStatement prepareCall(final String sql, final int resultSetType, final int resultSetConcurrency, final int resultSetHoldability) throws SQLException {
+      return new HealthCallableStatement(this, target.prepareCall(sql, resultSetType, resultSetConcurrency, resultSetHoldability));
+    }
+
+    @Override
+    public boolean isValid(final int timeout) throws SQLException {
+      final long start = System.nanoTime();
+      final boolean valid;
+      try {
+        valid = target.isValid(timeout);
+      }
+      catch (final SQLException e) {
+        health.recordProbe(System.nanoTime() - start, isHealthError(e));
+        throw e;
+      }
+
+      health.recordProbe(System.nanoTime() - start, !valid);
+      return valid;
+    }
+  }
+
+  /**
+   * A {@link Statement} of a {@link HealthConnection}. The {@link DelegatingStatement} has no parent connection, because its
+   * {@link #handleException(SQLException)} is the hook at which the errors of all of its methods are sampled.
+   */
+  private static final class HealthStatement extends DelegatingStatement {
+    private final HealthConnection owner;
+    private boolean error;
+
+    private HealthStatement(final HealthConnection owner, final Statement statement) {
+      super(null, statement);
+      this.owner = owner;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+      checkOpen();
+      return owner;
+    }
+
+    @Override
+    protected void handleException(final SQLException e) throws SQLException {
+      error |= isHealthError(e);
+      throw e;
+    }
+
+    @Override
+    public void close() throws SQLException {
+      if (!isClosed())
+        owner.health.recordSample(error);
+
+      super.close();
+    }
+  }
+
+  /**
+   * A {@link PreparedStatement} of a {@link HealthConnection}, which samples its errors like a {@link HealthStatement}.
+   */
+  private static final class HealthPreparedStatement extends DelegatingPreparedStatement {
+    private final HealthConnection owner;
+    private boolean error;
+
+    private HealthPreparedStatement(final HealthConnection owner, final PreparedStatement statement) {
+      super(null, statement);
+      this.owner = owner;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+      checkOpen();
+      return owner;
+    }
+
+    @Override
+    protected void handleException(final SQLException e) throws SQLException {
+      error |= isHealthError(e);
+      throw e;
+    }
+
+    @Override
+    public void close() throws SQLException {
+      if (!isClosed())
+        owner.health.recordSample(error);
+
+      super.close();
+    }
+  }
+
+  /**
+   * A {@link CallableStatement} of a {@link HealthConnection}, which samples its errors like a {@link HealthStatement}.
+   */
+  private static final class HealthCallableStatement extends DelegatingCallableStatement {
+    private final HealthConnection owner;
+    private boolean error;
+
+    private HealthCallableStatement(final HealthConnection owner, final CallableStatement statement) {
+      super(null, statement);
+      this.owner = owner;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+      checkOpen();
+      return owner;
+    }
+
+    @Override
+    protected void handleException(final SQLException e) throws SQLException {
+      error |= isHealthError(e);
+      throw e;
+    }
+
+    @Override
+    public void close() throws SQLException {
+      if (!isClosed())
+        owner.health.recordSample(error);
+
+      super.close();
+    }
+  }
+
+  /**
+   * The {@link PreparedStatement} of the validation query of a {@link HealthConnection}, each execution of which is a probe. Its
+   * errors are sampled with the probes, and not again when it is closed.
+   */
+  private static final class ProbeStatement extends DelegatingPreparedStatement {
+    private final HealthConnection owner;
+
+    private ProbeStatement(final HealthConnection owner, final PreparedStatement statement) {
+      super(null, statement);
+      this.owner = owner;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+      checkOpen();
+      return owner;
+    }
+
+    @Override
+    public ResultSet executeQuery() throws SQLException {
+      final long start = System.nanoTime();
+      final ResultSet resultSet;
+      try {
+        resultSet = super.executeQuery();
+      }
+      catch (final SQLException e) {
+        owner.health.recordProbe(System.nanoTime() - start, isHealthError(e));
+        throw e;
+      }
+
+      owner.health.recordProbe(System.nanoTime() - start, false);
+      return resultSet;
+    }
+  }
+}
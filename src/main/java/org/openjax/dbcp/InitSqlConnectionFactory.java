@@ -0,0 +1,150 @@
+/* Copyright (c) 2026 OpenJAX
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.openjax.dbcp;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Objects;
+import java.util.function.LongConsumer;
+
+import org.apache.commons.dbcp2.ConnectionFactory;
+
+/**
+ * A {@link ConnectionFactory} that executes initialization statements on each connection created by its target
+ * {@link ConnectionFactory}, either serially, as a single JDBC batch, or as a single multi-statement execution, and reports the time
+ * spent doing so.
+ */
+class InitSqlConnectionFactory implements ConnectionFactory {
+  static final String SERIAL = "serial";
+  static final String BATCH = "batch";
+  static final String MULTI_STATEMENT = "multiStatement";
+
+  private final ConnectionFactory target;
+  private final String[] sqls;
+  private final String execution;
+  private final LongConsumer timer;
+  private volatile Boolean batchSupported;
+
+  /**
+   * Creates a new {@link InitSqlConnectionFactory}.
+   *
+   * @param target The target {@link ConnectionFactory}.
+   * @param sqls The initialization statements.
+   * @param execution The execution mode: {@link #SERIAL}, {@link #BATCH} or {@link #MULTI_STATEMENT}.
+   * @param timer The {@link LongConsumer} to be called with the time (in nanoseconds) spent initializing each connection.
+   * @throws NullPointerException If any of the parameters is null.
+   * @throws IllegalArgumentException If {@code execution} is not a supported execution mode.
+   */
+  InitSqlConnectionFactory(final ConnectionFactory target, final String[] sqls, final String execution, final LongConsumer timer) {
+    this(sqls, execution, timer, Objects.requireNonNull(target));
+  }
+
+  /**
+   * Creates a new {@link InitSqlConnectionFactory} without a target {@link ConnectionFactory}, which only
+   * {@link #initialize(Connection) initializes} the connections that are created elsewhere.
+   *
+   * @param sqls The initialization statements.
+   * @param execution The execution mode: {@link #SERIAL}, {@link #BATCH} or {@link #MULTI_STATEMENT}.
+   * @param timer The {@link LongConsumer} to be called with the time (in nanoseconds) spent initializing each connection.
+   * @throws NullPointerException If any of the parameters is null.
+   * @throws IllegalArgumentException If {@code execution} is not a supported execution mode.
+   */
+  InitSqlConnectionFactory(final String[] sqls, final String execution, final LongConsumer timer) {
+    this(sqls, execution, timer, null);
+  }
+
+  private InitSqlConnectionFactory(final String[] sqls, final String execution, final LongConsumer timer, final ConnectionFactory target) {
+    this.target = target;
+    this.sqls = Objects.requireNonNull(sqls);
+    this.timer = Objects.requireNonNull(timer);
+    if (!SERIAL.equals(execution) && !BATCH.equals(execution) && !MULTI_STATEMENT.equals(execution))
+      throw new IllegalArgumentException("Unsupported initSqls execution: " + execution);
+
+    this.execution = execution;
+  }
+
+  private boolean isBatchSupported(final Connection connection) throws SQLException {
+    final Boolean batchSupported = this.batchSupported;
+    return batchSupported != null ? batchSupported : (this.batchSupported = connection.getMetaData().supportsBatchUpdates());
+  }
+
+  @Override
+  public Connection createConnection() throws SQLException {
+    if (target == null)
+      throw new IllegalStateException("No target ConnectionFactory");
+
+    final Connection connection = target.createConnection();
+    if (connection == null)
+      return connection;
+
+    try {
+      initialize(connection);
+    }
+    catch (final SQLException | RuntimeException e) {
+      try {
+        connection.close();
+      }
+      catch (final SQLException e1) {
+        e.addSuppressed(e1);
+      }
+
+      throw e;
+    }
+
+    return connection;
+  }
+
+  /**
+   * Executes the initialization statements on the specified {@link Connection}, and reports the time spent doing so. The connection
+   * is left open if a statement fails.
+   *
+   * @param connection The {@link Connection}.
+   * @throws SQLException If a database access error occurs.
+   * @throws NullPointerException If {@code connection} is null.
+   */
+  void initialize(final Connection connection) throws SQLException {
+    if (sqls.length == 0)
+      return;
+
+    final long start = System.nanoTime();
+    try (final Statement statement = connection.createStatement()) {
+      if (sqls.length == 1) {
+        statement.execute(sqls[0]);
+      }
+      else if (MULTI_STATEMENT.equals(execution)) {
+        final StringBuilder b = new StringBuilder(sqls[0]);
+        for (int i = 1; i < sqls.length; ++i) // [A]
+          b.append(";\n").append(sqls[i]);
+
+        for (boolean hasResultSet = statement.execute(b.toString()); hasResultSet || statement.getUpdateCount() != -1; hasResultSet = statement.getMoreResults());
+      }
+      else if (BATCH.equals(execution) && isBatchSupported(connection)) {
+        for (final String sql : sqls) // [A]
+          statement.addBatch(sql);
+
+        statement.executeBatch();
+      }
+      else {
+        for (final String sql : sqls) // [A]
+          statement.execute(sql);
+      }
+    }
+
+    timer.accept(System.nanoTime() - start);
+  }
+}
@@ -0,0 +1,224 @@
+/* Copyright (c) 2026 OpenJAX
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.openjax.dbcp;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * The Java Flight Recorder events of the pools. This class is only loaded by {@link PoolEvents} if the {@code jdk.jfr} module is
+ * available, and each event is only allocated if its {@link EventType} is enabled.
+ */
+final class JfrPoolEvents {
+  @Name("org.openjax.dbcp.ConnectionBorrow")
+  @Label("Connection Borrow")
+  @Category({"OpenJAX", "DBCP"})
+  @Description("A connection is borrowed from a pool. The duration is the time waited for the connection.")
+  static final class ConnectionBorrow extends Event {
+    @Label("Pool")
+    String pool;
+  }
+
+  @Name("org.openjax.dbcp.ConnectionReturn")
+  @Label("Connection Return")
+  @Category({"OpenJAX", "DBCP"})
+  @Description("A connection is returned to a pool.")
+  static final class ConnectionReturn extends Event {
+    @Label("Pool")
+    String pool;
+
+    @Label("Hold Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long holdTime;
+  }
+
+  @Name("org.openjax.dbcp.ConnectionCreate")
+  @Label("Connection Create")
+  @Category({"OpenJAX", "DBCP"})
+  @Description("A physical connection is opened by a pool. The duration is the time taken to open the connection.")
+  static final class ConnectionCreate extends Event {
+    @Label("Pool")
+    String pool;
+
+    @Label("Success")
+    boolean success;
+  }
+
+  @Name("org.openjax.dbcp.ConnectionValidate")
+  @Label("Connection Validate")
+  @Category({"OpenJAX", "DBCP"})
+  @Description("A pooled connection is validated. The duration is the time taken to validate the connection.")
+  static final class ConnectionValidate extends Event {
+    @Label("Pool")
+    String pool;
+
+    @Label("Valid")
+    boolean valid;
+  }
+
+  @Name("org.openjax.dbcp.PoolEviction")
+  @Label("Pool Eviction")
+  @Category({"OpenJAX", "DBCP"})
+  @Description("An idle connection is evicted from a pool.")
+  static final class PoolEviction extends Event {
+    @Label("Pool")
+    String pool;
+
+    @Label("Idle Time")
+    @Timespan(Timespan.MILLISECONDS)
+    long idleTime;
+  }
+
+  @Name("org.openjax.dbcp.PoolExhausted")
+  @Label("Pool Exhausted")
+  @Category({"OpenJAX", "DBCP"})
+  @Description("A request for a connection fails because no connection became available. The duration is the time waited.")
+  static final class PoolExhausted extends Event {
+    @Label("Pool")
+    String pool;
+
+    @Label("Message")
+    String message;
+
+    @Label("Max Total")
+    int maxTotal;
+
+    @Label("Active")
+    int numActive;
+
+    @Label("Waiters")
+    int numWaiters;
+  }
+
+  private static final EventType borrowType = EventType.getEventType(ConnectionBorrow.class);
+  private static final EventType returnType = EventType.getEventType(ConnectionReturn.class);
+  private static final EventType createType = EventType.getEventType(ConnectionCreate.class);
+  private static final EventType validateType = EventType.getEventType(ConnectionValidate.class);
+  private static final EventType evictionType = EventType.getEventType(PoolEviction.class);
+  private static final EventType exhaustedType = EventType.getEventType(PoolExhausted.class);
+
+  static boolean isAvailable() {
+    return FlightRecorder.isAvailable();
+  }
+
+  /**
+   * The events of a request for a connection, of which either the {@link ConnectionBorrow} or the {@link PoolExhausted} event is
+   * committed, so that both measure the time waited from the start of the request.
+   */
+  private static final class Request {
+    private final ConnectionBorrow borrow;
+    private final PoolExhausted exhausted;
+
+    private Request(final ConnectionBorrow borrow, final PoolExhausted exhausted) {
+      this.borrow = borrow;
+      this.exhausted = exhausted;
+      if (borrow != null)
+        borrow.begin();
+
+      if (exhausted != null)
+        exhausted.begin();
+    }
+  }
+
+  static Object beginBorrow() {
+    final boolean borrowEnabled = borrowType.isEnabled();
+    final boolean exhaustedEnabled = exhaustedType.isEnabled();
+    return borrowEnabled || exhaustedEnabled ? new Request(borrowEnabled ? new ConnectionBorrow() : null, exhaustedEnabled ? new PoolExhausted() : null) : null;
+  }
+
+  static void commitBorrow(final Object request, final String pool) {
+    final ConnectionBorrow event = ((Request)request).borrow;
+    if (event != null) {
+      event.pool = pool;
+      event.commit();
+    }
+  }
+
+  static void commitExhausted(final Object request, final String pool, final String message, final int maxTotal, final int numActive, final int numWaiters) {
+    final PoolExhausted event = ((Request)request).exhausted;
+    if (event != null) {
+      event.pool = pool;
+      event.message = message;
+      event.maxTotal = maxTotal;
+      event.numActive = numActive;
+      event.numWaiters = numWaiters;
+      event.commit();
+    }
+  }
+
+  static boolean isReturnEnabled() {
+    return returnType.isEnabled();
+  }
+
+  static void commitReturn(final String pool, final long holdTime) {
+    final ConnectionReturn event = new ConnectionReturn();
+    event.pool = pool;
+    event.holdTime = holdTime;
+    event.commit();
+  }
+
+  static Object beginCreate() {
+    if (!createType.isEnabled())
+      return null;
+
+    final ConnectionCreate event = new ConnectionCreate();
+    event.begin();
+    return event;
+  }
+
+  static void commitCreate(final Object event, final String pool, final boolean success) {
+    final ConnectionCreate create = (ConnectionCreate)event;
+    create.pool = pool;
+    create.success = success;
+    create.commit();
+  }
+
+  static Object beginValidate() {
+    if (!validateType.isEnabled())
+      return null;
+
+    final ConnectionValidate event = new ConnectionValidate();
+    event.begin();
+    return event;
+  }
+
+  static void commitValidate(final Object event, final String pool, final boolean valid) {
+    final ConnectionValidate validate = (ConnectionValidate)event;
+    validate.pool = pool;
+    validate.valid = valid;
+    validate.commit();
+  }
+
+  static void commitEviction(final String pool, final long idleTime) {
+    if (!evictionType.isEnabled())
+      return;
+
+    final PoolEviction event = new PoolEviction();
+    event.pool = pool;
+    event.idleTime = idleTime;
+    event.commit();
+  }
+
+  private JfrPoolEvents() {
+  }
+}
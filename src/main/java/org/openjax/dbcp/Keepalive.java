@@ -0,0 +1,101 @@
+/* Copyright (c) 2026 OpenJAX
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.openjax.dbcp;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Objects;
+
+import org.apache.commons.dbcp2.PoolableConnection;
+import org.apache.commons.pool2.PooledObject;
+import org.apache.commons.pool2.PooledObjectState;
+
+/**
+ * A maintenance task that keeps idle connections alive past the idle timeouts of firewalls and load balancers, by pinging up to a
+ * maximum number of the longest idle connections per run with {@link Connection#isValid(int)}. A connection is pinged only if it has
+ * been idle, and not pinged, for at least the keepalive idle time. A borrower of a connection that is being pinged waits for the ping
+ * to complete, and a connection that fails the ping is rejected when it is next borrowed or validated.
+ */
+final class Keepalive implements Runnable {
+  private final ConnectionObjectFactory factory;
+  private final long idleTime;
+  private final int maxPerRun;
+  private final int timeout;
+
+  /**
+   * Creates a new {@link Keepalive} task.
+   *
+   * @param factory The {@link ConnectionObjectFactory} of the pool.
+   * @param idleTime The time (in milliseconds) a connection must be idle before it is pinged.
+   * @param maxPerRun The maximum number of connections pinged per run.
+   * @param timeout The timeout (in seconds) of each ping.
+   * @throws NullPointerException If {@code factory} is null.
+   */
+  Keepalive(final ConnectionObjectFactory factory, final long idleTime, final int maxPerRun, final int timeout) {
+    this.factory = Objects.requireNonNull(factory);
+    this.idleTime = idleTime;
+    this.maxPerRun = maxPerRun;
+    this.timeout = timeout;
+  }
+
+  private static long lastActive(final PooledObject<PoolableConnection> p, final ConnectionState state) {
+    // The last use rather than the last return, which is reset when a parked connection is unparked to the idle deque
+    return Math.max(p.getLastUsedTime(), state.getLastKeepalive());
+  }
+
+  @Override
+  public void run() {
+    final long threshold = System.currentTimeMillis() - idleTime;
+    final ArrayList<Map.Entry<PooledObject<PoolableConnection>,ConnectionState>> candidates = new ArrayList<>();
+    for (final Map.Entry<PooledObject<PoolableConnection>,ConnectionState> entry : factory.states()) {
+      final PooledObject<PoolableConnection> p = entry.getKey();
+      if (p.getState() == PooledObjectState.IDLE && lastActive(p, entry.getValue()) <= threshold)
+        candidates.add(entry);
+    }
+
+    candidates.sort((final Map.Entry<PooledObject<PoolableConnection>,ConnectionState> a, final Map.Entry<PooledObject<PoolableConnection>,ConnectionState> b) -> Long.compare(lastActive(a.getKey(), a.getValue()), lastActive(b.getKey(), b.getValue())));
+    for (int i = 0, i$ = Math.min(maxPerRun, candidates.size()); i < i$; ++i) { // [RA]
+      final Map.Entry<PooledObject<PoolableConnection>,ConnectionState> entry = candidates.get(i);
+      final PooledObject<PoolableConnection> p = entry.getKey();
+      final ConnectionState state = entry.getValue();
+      if (!state.startKeepalive())
+        continue;
+
+      // Ping only if still idle: a borrower that allocates the connection hereafter waits in activateObject()
+      boolean valid = true;
+      try {
+        if (p.getState() == PooledObjectState.IDLE)
+          valid = ping(p.getObject());
+      }
+      finally {
+        state.endKeepalive(valid);
+      }
+    }
+  }
+
+  private boolean ping(final PoolableConnection connection) {
+    try {
+      final Connection physical = connection.getInnermostDelegateInternal();
+      return physical != null && physical.isValid(timeout);
+    }
+    catch (final SQLException | RuntimeException e) {
+      return false;
+    }
+  }
+}
@@ -0,0 +1,43 @@
+/* Copyright (c) 2026 OpenJAX
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.openjax.dbcp;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+/**
+ * A {@link DataSource} whose connections are partitioned into lanes, as declared by {@code <size><lanes>}. Obtainable via
+ * {@code dataSource.unwrap(LaneDataSource.class)} from a pool created by {@link DataSources}. {@link #getConnection()} selects the
+ * lane entered on the current thread with {@link Lanes#enter(String)}, or the default lane if none is entered. A lane that is not
+ * declared is rejected, whether specified or entered.
+ */
+public interface LaneDataSource extends DataSource {
+  /**
+   * Attempts to establish a connection in the specified lane.
+   *
+   * @param lane The name of the lane, or {@code null} for the lane entered on the current thread, or the default lane if none is
+   *          entered.
+   * @return A connection in the specified lane.
+   * @throws SQLException If a database access error occurs, or if no connection could be admitted in the lane within the maximum wait
+   *           time of the pool.
+   * @throws IllegalArgumentException If no lane with the specified name, or with the name of the lane entered on the current thread, is
+   *           declared.
+   */
+  Connection getConnection(String lane) throws SQLException;
+}
@@ -0,0 +1,282 @@
+/* Copyright (c) 2026 OpenJAX
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.openjax.dbcp;
+
+import java.util.LinkedHashMap;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntSupplier;
+
+/**
+ * An admission gate that partitions the connections of a pool into lanes. Each lane is guaranteed its reserved number of connections,
+ * and the capacity that is not reserved by any lane is an overflow shared by all lanes, up to the maximum of each lane. Requests that
+ * cannot be admitted wait in a queue ordered by the priority of their lane, and then by their order of arrival. When a connection is
+ * released, the waiters are served in that order, so that a waiter of a high priority lane is admitted before any waiter of a lower
+ * priority lane that competes for the same capacity.
+ */
+final class LaneGate {
+  static final String DEFAULT = "default";
+
+  /**
+   * A lane of a {@link LaneGate}.
+   */
+  static final class Lane {
+    private final String name;
+    private final int reserved;
+    private final int max;
+    private final int priority;
+    private int used;
+
+    private Lane(final String name, final int reserved, final int max, final int priority) {
+      this.name = name;
+      this.reserved = reserved;
+      this.max = max;
+      this.priority = priority;
+    }
+
+    /**
+     * Returns the name of this lane.
+     *
+     * @return The name of this lane.
+     */
+    String getName() {
+      return name;
+    }
+  }
+
+  private static final class Waiter implements Comparable<Waiter> {
+    private final Lane lane;
+    private final long sequence;
+    private final Condition condition;
+    private boolean admitted;
+
+    private Waiter(final Lane lane, final long sequence, final Condition condition) {
+      this.lane = lane;
+      this.sequence = sequence;
+      this.condition = condition;
+    }
+
+    @Override
+    public int compareTo(final Waiter o) {
+      final int compare = Integer.compare(o.lane.priority, lane.priority);
+      return compare != 0 ? compare : Long.compare(sequence, o.sequence);
+    }
+  }
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final TreeSet<Waiter> waiters = new TreeSet<>();
+  private final LinkedHashMap<String,Lane> lanes = new LinkedHashMap<>();
+  private final IntSupplier capacity;
+  private String defaultLane = DEFAULT;
+  private int reserved;
+  private int overflowUsed;
+  private long sequence;
+
+  /**
+   * Creates a new {@link LaneGate} with the specified supplier of the capacity, which is the maximum number of connections that can
+   * be admitted at the same time.
+   *
+   * @param capacity The supplier of the capacity, where a negative value denotes an unbounded capacity.
+   * @throws NullPointerException If {@code capacity} is null.
+   */
+  LaneGate(final IntSupplier capacity) {
+    this.capacity = Objects.requireNonNull(capacity);
+  }
+
+  /**
+   * Adds a lane to this gate.
+   *
+   * @param name The name of the lane.
+   * @param reserved The number of connections guaranteed to the lane.
+   * @param max The maximum number of connections of the lane, or a negative value for the capacity of this gate.
+   * @param priority The priority of the lane, where higher values are served first.
+   * @throws NullPointerException If {@code name} is null.
+   * @throws IllegalArgumentException If a lane with the specified name already exists, if {@code reserved} or {@code priority} is
+   *           negative, or if {@code max} is zero or less than {@code reserved}.
+   */
+  void addLane(final String name, final int reserved, final int max, final int priority) {
+    if (lanes.containsKey(Objects.requireNonNull(name)))
+      throw new IllegalArgumentException("Lane \"" + name + "\" is already declared");
+
+    if (reserved < 0)
+      throw new IllegalArgumentException("reserved (" + reserved + ") must not be negative");
+
+    if (priority < 0)
+      throw new IllegalArgumentException("priority (" + priority + ") must not be negative");
+
+    if (max == 0 || max > 0 && max < reserved)
+      throw new IllegalArgumentException("max (" + max + ") must be positive and not less than reserved (" + reserved + ")");
+
+    lanes.put(name, new Lane(name, reserved, max < 0 ? Integer.MAX_VALUE : max, priority));
+    this.reserved += reserved;
+  }
+
+  /**
+   * Specifies the lane of requests that do not select a lane.
+   *
+   * @param name The name of the lane.
+   * @throws NullPointerException If {@code name} is null.
+   */
+  void setDefaultLane(final String name) {
+    this.defaultLane = Objects.requireNonNull(name);
+  }
+
+  /**
+   * Checks that the lanes of this gate fit its capacity, and adds the implicit {@value #DEFAULT} lane if no lane of the default name
+   * is declared.
+   *
+   * @throws IllegalArgumentException If the reserved connections of all lanes exceed the capacity of this gate, or if a default lane
+   *           other than {@value #DEFAULT} is specified but not declared.
+   */
+  void check() {
+    final int capacity = this.capacity.getAsInt();
+    if (capacity >= 0 && reserved > capacity)
+      throw new IllegalArgumentException("Reserved connections of all lanes (" + reserved + ") exceed maxTotal (" + capacity + ")");
+
+    if (!lanes.containsKey(defaultLane)) {
+      if (!DEFAULT.equals(defaultLane))
+        throw new IllegalArgumentException("Default lane \"" + defaultLane + "\" is not declared");
+
+      addLane(DEFAULT, 0, -1, 0);
+    }
+  }
+
+  /**
+   * Returns the lane with the specified name.
+   *
+   * @param name The name of the lane, or {@code null} for the default lane.
+   * @return The lane with the specified name.
+   * @throws IllegalArgumentException If no lane with the specified name is declared.
+   */
+  Lane getLane(final String name) {
+    final Lane lane = lanes.get(name != null ? name : defaultLane);
+    if (lane == null)
+      throw new IllegalArgumentException("Lane \"" + name + "\" is not declared");
+
+    return lane;
+  }
+
+  /**
+   * Returns the number of connections that are admitted in the lane with the specified name.
+   *
+   * @param name The name of the lane, or {@code null} for the default lane.
+   * @return The number of connections that are admitted in the lane with the specified name.
+   * @throws IllegalArgumentException If no lane with the specified name is declared.
+   */
+  int getUsed(final String name) {
+    final Lane lane = getLane(name);
+    lock.lock();
+    try {
+      return lane.used;
+    }
+    finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Admits the specified lane if it is below its reservation, or if it is below its maximum and the overflow is not exhausted. Must be
+   * called while holding {@link #lock}.
+   */
+  private boolean tryAdmit(final Lane lane) {
+    if (lane.used < lane.reserved) {
+      ++lane.used;
+      return true;
+    }
+
+    final int capacity = this.capacity.getAsInt();
+    if (lane.used < lane.max && (capacity < 0 || overflowUsed < capacity - reserved)) {
+      ++lane.used;
+      ++overflowUsed;
+      return true;
+    }
+
+    return false;
+  }
+
+  /**
+   * Acquires admission for one connection in the specified lane, waiting up to the specified timeout.
+   *
+   * @param lane The lane.
+   * @param timeout The maximum time to wait (in milliseconds), or a negative value to wait indefinitely.
+   * @return Whether admission was acquired.
+   * @throws InterruptedException If the calling thread is interrupted while waiting.
+   */
+  boolean acquire(final Lane lane, final long timeout) throws InterruptedException {
+    lock.lock();
+    try {
+      if (tryAdmit(lane))
+        return true;
+
+      if (timeout == 0)
+        return false;
+
+      final Waiter waiter = new Waiter(lane, sequence++, lock.newCondition());
+      waiters.add(waiter);
+      try {
+        long remaining = timeout < 0 ? Long.MAX_VALUE : TimeUnit.MILLISECONDS.toNanos(timeout);
+        while (!waiter.admitted) {
+          if (remaining <= 0)
+            return false;
+
+          remaining = waiter.condition.awaitNanos(remaining);
+        }
+
+        return true;
+      }
+      catch (final InterruptedException e) {
+        if (waiter.admitted)
+          release(lane);
+
+        throw e;
+      }
+      finally {
+        waiters.remove(waiter);
+      }
+    }
+    finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Releases the admission for one connection in the specified lane, and admits the waiters that can be admitted in the order of
+   * their priority and arrival.
+   *
+   * @param lane The lane.
+   */
+  void release(final Lane lane) {
+    lock.lock();
+    try {
+      if (lane.used-- > lane.reserved)
+        --overflowUsed;
+
+      for (final Waiter waiter : waiters) {
+        if (!waiter.admitted && tryAdmit(waiter.lane)) {
+          waiter.admitted = true;
+          waiter.condition.signal();
+        }
+      }
+    }
+    finally {
+      lock.unlock();
+    }
+  }
+}
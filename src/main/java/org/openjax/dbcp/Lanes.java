@@ -0,0 +1,87 @@
+/* Copyright (c) 2026 OpenJAX
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.openjax.dbcp;
+
+/**
+ * Selection of the lane of the current thread, which is used by {@link LaneDataSource#getConnection()} when no lane is specified.
+ */
+public final class Lanes {
+  private static final ThreadLocal<Scope> scope = new ThreadLocal<>();
+
+  /**
+   * Enters the specified lane on the current thread. The returned {@link Scope} must be closed on the same thread, typically via
+   * try-with-resources, upon which the lane that was entered before is restored.
+   *
+   * @param lane The name of the lane.
+   * @return The {@link Scope} of the lane on the current thread.
+   * @throws NullPointerException If {@code lane} is null.
+   */
+  public static Scope enter(final String lane) {
+    final Scope scope = new Scope(Thread.currentThread(), lane, Lanes.scope.get());
+    Lanes.scope.set(scope);
+    return scope;
+  }
+
+  /**
+   * Returns the name of the lane entered on the current thread, or {@code null} if no lane is entered.
+   *
+   * @return The name of the lane entered on the current thread, or {@code null} if no lane is entered.
+   */
+  public static String current() {
+    final Scope scope = Lanes.scope.get();
+    return scope == null ? null : scope.lane;
+  }
+
+  /**
+   * The scope of a lane entered on a thread.
+   */
+  public static final class Scope implements AutoCloseable {
+    private final Thread thread;
+    private final String lane;
+    private final Scope outer;
+    private boolean closed;
+
+    private Scope(final Thread thread, final String lane, final Scope outer) {
+      if (lane == null)
+        throw new NullPointerException("lane is null");
+
+      this.thread = thread;
+      this.lane = lane;
+      this.outer = outer;
+    }
+
+    /**
+     * Exits this {@link Scope}, restoring the lane that was entered on the current thread before.
+     *
+     * @throws IllegalStateException If this {@link Scope} is not the innermost open scope on the current thread.
+     */
+    @Override
+    public void close() {
+      if (thread != Thread.currentThread() || closed || scope.get() != this)
+        throw new IllegalStateException("Scope is not open on " + Thread.currentThread().getName());
+
+      closed = true;
+      if (outer == null)
+        scope.remove();
+      else
+        scope.set(outer);
+    }
+  }
+
+  private Lanes() {
+  }
+}
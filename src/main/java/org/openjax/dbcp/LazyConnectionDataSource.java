@@ -0,0 +1,616 @@
+/* Copyright (c) 2026 OpenJAX
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.openjax.dbcp;
+
+import java.sql.Array;
+import java.sql.Blob;
+import java.sql.CallableStatement;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.NClob;
+import java.sql.PreparedStatement;
+import java.sql.SQLClientInfoException;
+import java.sql.SQLException;
+import java.sql.SQLWarning;
+import java.sql.SQLXML;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.sql.Struct;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Executor;
+
+import javax.sql.DataSource;
+
+/**
+ * A {@link DelegateDataSource} whose {@link #getConnection()} returns a lightweight {@link LazyConnection} that does not borrow a
+ * connection from the target {@link DataSource} until it is needed to create a statement, to access the database metadata, or to
+ * perform another operation that requires the database. Until then, the "auto-commit", "read-only", transaction isolation, holdability,
+ * catalog and schema properties set on the {@link LazyConnection} are recorded, and are applied to the target connection once it is
+ * borrowed. A {@link LazyConnection} that is closed without having been used thus never occupies a pooled connection.
+ * <p>
+ * The default values of the recorded properties are read from the first connection borrowed from the target {@link DataSource}. A
+ * borrowed target connection is brought to the recorded value of each property, or to its default value if none is recorded, and a
+ * property is set on the target connection only if its current value differs. A value that is left on a pooled connection by a
+ * previous borrower is thus not carried over, also for the catalog, schema and holdability, which the pool does not reset. The
+ * properties are recorded from the setters called on the {@link LazyConnection} also while it holds a target connection, so that they
+ * are not read back from the target connection when it is released. A property that is changed in another way, such as by a SQL
+ * statement, is therefore not recorded.
+ */
+public class LazyConnectionDataSource extends DelegateDataSource {
+  private volatile boolean hasDefaults;
+  private boolean defaultAutoCommit;
+  private boolean defaultReadOnly;
+  private int defaultTransactionIsolation;
+  private int defaultHoldability;
+  private String defaultCatalog;
+  private String defaultSchema;
+
+  /**
+   * Creates a new {@link LazyConnectionDataSource} with the specified target {@link DataSource}.
+   *
+   * @param target The target {@link DataSource}.
+   * @throws NullPointerException If {@code target} is null.
+   */
+  public LazyConnectionDataSource(final DataSource target) {
+    super(target);
+  }
+
+  /**
+   * Borrows a connection from the target {@link DataSource}, reading the default values of the recorded properties from it if they are
+   * not yet known.
+   *
+   * @return A connection borrowed from the target {@link DataSource}.
+   * @throws SQLException If a database access error occurs.
+   */
+  Connection borrow() throws SQLException {
+    final Connection connection = target.getConnection();
+    if (!hasDefaults) {
+      synchronized (this) {
+        if (!hasDefaults) {
+          try {
+            defaultAutoCommit = connection.getAutoCommit();
+            defaultReadOnly = connection.isReadOnly();
+            defaultTransactionIsolation = connection.getTransactionIsolation();
+            defaultHoldability = connection.getHoldability();
+            defaultCatalog = connection.getCatalog();
+            defaultSchema = connection.getSchema();
+          }
+          catch (final SQLException e) {
+            connection.close();
+            throw e;
+          }
+
+          hasDefaults = true;
+        }
+      }
+    }
+
+    return connection;
+  }
+
+  /**
+   * Returns a new {@link LazyConnection}. Subclasses may override this method to return a subclass of {@link LazyConnection}.
+   *
+   * @return A new {@link LazyConnection}.
+   */
+  protected LazyConnection newConnection() {
+    return new LazyConnection();
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    return newConnection();
+  }
+
+  /**
+   * A {@link Connection} that borrows its target connection from the target {@link DataSource} of its
+   * {@link LazyConnectionDataSource} when it is first needed.
+   */
+  protected class LazyConnection extends DelegateConnection {
+    private Boolean autoCommit;
+    private Boolean readOnly;
+    private Integer transactionIsolation;
+    private Integer holdability;
+    private String catalog;
+    private String schema;
+    private boolean closed;
+
+    /**
+     * Creates a new {@link LazyConnection} that has not borrowed a target connection.
+     */
+    protected LazyConnection() {
+    }
+
+    /**
+     * Returns whether this {@link LazyConnection} currently holds a target connection.
+     *
+     * @return Whether this {@link LazyConnection} currently holds a target connection.
+     */
+    protected final boolean isBorrowed() {
+      return target != null;
+    }
+
+    /**
+     * Returns the target connection, borrowing it from the target {@link DataSource} if it is not yet borrowed, and setting each
+     * property whose current value on it differs from the recorded value, or from the default value if none is recorded.
+     *
+     * @return The target connection.
+     * @throws SQLException If this {@link LazyConnection} is closed, or if a database access error occurs.
+     */
+    protected Connection connection() throws SQLException {
+      if (closed)
+        throw new SQLException("Connection is closed", "08003");
+
+      if (target == null) {
+        final Connection connection = borrow();
+        try {
+          final boolean autoCommit = this.autoCommit != null ? this.autoCommit : defaultAutoCommit;
+          if (autoCommit != connection.getAutoCommit())
+            connection.setAutoCommit(autoCommit);
+
+          final boolean readOnly = this.readOnly != null ? this.readOnly : defaultReadOnly;
+          if (readOnly != connection.isReadOnly())
+            connection.setReadOnly(readOnly);
+
+          final int transactionIsolation = this.transactionIsolation != null ? this.transactionIsolation : defaultTransactionIsolation;
+          if (transactionIsolation != connection.getTransactionIsolation())
+            connection.setTransactionIsolation(transactionIsolation);
+
+          final int holdability = this.holdability != null ? this.holdability : defaultHoldability;
+          if (holdability != connection.getHoldability())
+            connection.setHoldability(holdability);
+
+          final String catalog = this.catalog != null ? this.catalog : defaultCatalog;
+          if (catalog != null && !catalog.equals(connection.getCatalog()))
+            connection.setCatalog(catalog);
+
+          final String schema = this.schema != null ? this.schema : defaultSchema;
+          if (schema != null && !schema.equals(connection.getSchema()))
+            connection.setSchema(schema);
+        }
+        catch (final SQLException e) {
+          connection.close();
+          throw e;
+        }
+
+        target = connection;
+      }
+
+      return target;
+    }
+
+    /**
+     * Returns the "auto-commit" mode that was last set on this {@link LazyConnection}, or its default value, without accessing the
+     * target connection. Must not be called before a target connection has been borrowed, as the default value is not known until then.
+     *
+     * @return The "auto-commit" mode that was last set on this {@link LazyConnection}, or its default value.
+     */
+    protected final boolean getRecordedAutoCommit() {
+      return autoCommit != null ? autoCommit : defaultAutoCommit;
+    }
+
+    /**
+     * Returns the target connection to the target {@link DataSource}, if it is borrowed. The recorded properties are applied to the
+     * target connection that is borrowed next.
+     *
+     * @throws SQLException If a database access error occurs.
+     */
+    protected void release() throws SQLException {
+      final Connection connection = target;
+      if (connection == null)
+        return;
+
+      target = null;
+      connection.close();
+    }
+
+    /**
+     * Invoked with each statement created by this {@link LazyConnection}. Subclasses may override this method to decorate the
+     * statement.
+     *
+     * @param <T> The type of the statement.
+     * @param statement The statement created by the target connection.
+     * @return The statement to return to the caller.
+     * @throws SQLException If a database access error occurs.
+     */
+    protected <T extends Statement> T opened(final T statement) throws SQLException {
+      return statement;
+    }
+
+    private void checkOpen() throws SQLException {
+      if (closed)
+        throw new SQLException("Connection is closed", "08003");
+    }
+
+    @Override
+    public <T> T unwrap(final Class<T> iface) throws SQLException {
+      return iface.isInstance(this) ? iface.cast(this) : connection().unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(final Class<?> iface) throws SQLException {
+      return iface.isInstance(this) || connection().isWrapperFor(iface);
+    }
+
+    @Override
+    public Statement createStatement() throws SQLException {
+      return opened(connection().createStatement());
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(final String sql) throws SQLException {
+      return opened(connection().prepareStatement(sql));
+    }
+
+    @Override
+    public CallableStatement prepareCall(final String sql) throws SQLException {
+      return opened(connection().prepareCall(sql));
+    }
+
+    @Override
+    public String nativeSQL(final String sql) throws SQLException {
+      return connection().nativeSQL(sql);
+    }
+
+    @Override
+    public void setAutoCommit(final boolean autoCommit) throws SQLException {
+      checkOpen();
+      if (target != null)
+        target.setAutoCommit(autoCommit);
+
+      this.autoCommit = autoCommit;
+    }
+
+    @Override
+    public boolean getAutoCommit() throws SQLException {
+      checkOpen();
+      if (target != null)
+        return target.getAutoCommit();
+
+      if (autoCommit != null)
+        return autoCommit;
+
+      return hasDefaults ? defaultAutoCommit : connection().getAutoCommit();
+    }
+
+    @Override
+    public void commit() throws SQLException {
+      checkOpen();
+      if (target != null)
+        target.commit();
+    }
+
+    @Override
+    public void rollback() throws SQLException {
+      checkOpen();
+      if (target != null)
+        target.rollback();
+    }
+
+    @Override
+    public void close() throws SQLException {
+      if (closed)
+        return;
+
+      closed = true;
+      final Connection connection = target;
+      if (connection != null) {
+        target = null;
+        connection.close();
+      }
+    }
+
+    @Override
+    public boolean isClosed() throws SQLException {
+      return closed;
+    }
+
+    @Override
+    public DatabaseMetaData getMetaData() throws SQLException {
+      return connection().getMetaData();
+    }
+
+    @Override
+    public void setReadOnly(final boolean readOnly) throws SQLException {
+      checkOpen();
+      if (target != null)
+        target.setReadOnly(readOnly);
+
+      this.readOnly = readOnly;
+    }
+
+    @Override
+    public boolean isReadOnly() throws SQLException {
+      checkOpen();
+      if (target != null)
+        return target.isReadOnly();
+
+      if (readOnly != null)
+        return readOnly;
+
+      return hasDefaults ? defaultReadOnly : connection().isReadOnly();
+    }
+
+    @Override
+    public void setCatalog(final String catalog) throws SQLException {
+      checkOpen();
+      if (target != null)
+        target.setCatalog(catalog);
+
+      this.catalog = catalog;
+    }
+
+    @Override
+    public String getCatalog() throws SQLException {
+      checkOpen();
+      return target == null && catalog != null ? catalog : connection().getCatalog();
+    }
+
+    @Override
+    public void setTransactionIsolation(final int level) throws SQLException {
+      checkOpen();
+      if (target != null)
+        target.setTransactionIsolation(level);
+
+      this.transactionIsolation = level;
+    }
+
+    @Override
+    public int getTransactionIsolation() throws SQLException {
+      checkOpen();
+      if (target != null)
+        return target.getTransactionIsolation();
+
+      if (transactionIsolation != null)
+        return transactionIsolation;
+
+      return hasDefaults ? defaultTransactionIsolation : connection().getTransactionIsolation();
+    }
+
+    @Override
+    public SQLWarning getWarnings() throws SQLException {
+      checkOpen();
+      return target == null ? null : target.getWarnings();
+    }
+
+    @Override
+    public void clearWarnings() throws SQLException {
+      checkOpen();
+      if (target != null)
+        target.clearWarnings();
+    }
+
+    @Override
+    public Statement createStatement(final int resultSetType, final int resultSetConcurrency) throws SQLException {
+      return opened(connection().createStatement(resultSetType, resultSetConcurrency));
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(final String sql, final int resultSetType, final int resultSetConcurrency) throws SQLException {
+      return opened(connection().prepareStatement(sql, resultSetType, resultSetConcurrency));
+    }
+
+    @Override
+    public CallableStatement prepareCall(final String sql, final int resultSetType, final int resultSetConcurrency) throws SQLException {
+      return opened(connection().prepareCall(sql, resultSetType, resultSetConcurrency));
+    }
+
+    @Override
+    public Map<String,Class<?>> getTypeMap() throws SQLException {
+      return connection().getTypeMap();
+    }
+
+    @Override
+    public void setTypeMap(final Map<String,Class<?>> map) throws SQLException {
+      connection().setTypeMap(map);
+    }
+
+    @Override
+    public void setHoldability(final int holdability) throws SQLException {
+      checkOpen();
+      if (target != null)
+        target.setHoldability(holdability);
+
+      this.holdability = holdability;
+    }
+
+    @Override
+    public int getHoldability() throws SQLException {
+      checkOpen();
+      if (target != null)
+        return target.getHoldability();
+
+      if (holdability != null)
+        return holdability;
+
+      return hasDefaults ? defaultHoldability : connection().getHoldability();
+    }
+
+    @Override
+    public Savepoint setSavepoint() throws SQLException {
+      return connection().setSavepoint();
+    }
+
+    @Override
+    public Savepoint setSavepoint(final String name) throws SQLException {
+      return connection().setSavepoint(name);
+    }
+
+    @Override
+    public void rollback(final Savepoint savepoint) throws SQLException {
+      connection().rollback(savepoint);
+    }
+
+    @Override
+    public void releaseSavepoint(final Savepoint savepoint) throws SQLException {
+      connection().releaseSavepoint(savepoint);
+    }
+
+    @Override
+    public Statement createStatement(final int resultSetType, final int resultSetConcurrency, final int resultSetHoldability) throws SQLException {
+      return opened(connection().createStatement(resultSetType, resultSetConcurrency, resultSetHoldability));
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(final String sql, final int resultSetType, final int resultSetConcurrency, final int resultSetHoldability) throws SQLException {
+      return opened(connection().prepareStatement(sql, resultSetType, resultSetConcurrency, resultSetHoldability));
+    }
+
+    @Override
+    public CallableStatement prepareCall(final String sql, final int resultSetType, final int resultSetConcurrency, final int resultSetHoldability) throws SQLException {
+      return opened(connection().prepareCall(sql, resultSetType, resultSetConcurrency, resultSetHoldability));
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(final String sql, final int autoGeneratedKeys) throws SQLException {
+      return opened(connection().prepareStatement(sql, autoGeneratedKeys));
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(final String sql, final int[] columnIndexes) throws SQLException {
+      return opened(connection().prepareStatement(sql, columnIndexes));
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(final String sql, final String[] columnNames) throws SQLException {
+      return opened(connection().prepareStatement(sql, columnNames));
+    }
+
+    @Override
+    public Clob createClob() throws SQLException {
+      return connection().createClob();
+    }
+
+    @Override
+    public Blob createBlob() throws SQLException {
+      return connection().createBlob();
+    }
+
+    @Override
+    public NClob createNClob() throws SQLException {
+      return connection().createNClob();
+    }
+
+    @Override
+    public SQLXML createSQLXML() throws SQLException {
+      return connection().createSQLXML();
+    }
+
+    @Override
+    public boolean isValid(final int timeout) throws SQLException {
+      return !closed && connection().isValid(timeout);
+    }
+
+    @Override
+    public void setClientInfo(final String name, final String value) throws SQLClientInfoException {
+      try {
+        connection().setClientInfo(name, value);
+      }
+      catch (final SQLClientInfoException e) {
+        throw e;
+      }
+      catch (final SQLException e) {
+        throw new SQLClientInfoException(e.getMessage(), e.getSQLState(), e.getErrorCode(), null, e);
+      }
+    }
+
+    @Override
+    public void setClientInfo(final Properties properties) throws SQLClientInfoException {
+      try {
+        connection().setClientInfo(properties);
+      }
+      catch (final SQLClientInfoException e) {
+        throw e;
+      }
+      catch (final SQLException e) {
+        throw new SQLClientInfoException(e.getMessage(), e.getSQLState(), e.getErrorCode(), null, e);
+      }
+    }
+
+    @Override
+    public String getClientInfo(final String name) throws SQLException {
+      return connection().getClientInfo(name);
+    }
+
+    @Override
+    public Properties getClientInfo() throws SQLException {
+      return connection().getClientInfo();
+    }
+
+    @Override
+    public Array createArrayOf(final String typeName, final Object[] elements) throws SQLException {
+      return connection().createArrayOf(typeName, elements);
+    }
+
+    @Override
+    public Struct createStruct(final String typeName, final Object[] attributes) throws SQLException {
+      return connection().createStruct(typeName, attributes);
+    }
+
+    @Override
+    public void setSchema(final String schema) throws SQLException {
+      checkOpen();
+      if (target != null)
+        target.setSchema(schema);
+
+      this.schema = schema;
+    }
+
+    @Override
+    public String getSchema() throws SQLException {
+      checkOpen();
+      return target == null && schema != null ? schema : connection().getSchema();
+    }
+
+    @Override
+    public void abort(final Executor executor) throws SQLException {
+      closed = true;
+      final Connection connection = target;
+      if (connection != null) {
+        target = null;
+        connection.abort(executor);
+      }
+    }
+
+    @Override
+    public void setNetworkTimeout(final Executor executor, final int milliseconds) throws SQLException {
+      connection().setNetworkTimeout(executor, milliseconds);
+    }
+
+    @Override
+    public int getNetworkTimeout() throws SQLException {
+      return connection().getNetworkTimeout();
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+      return obj == this;
+    }
+
+    @Override
+    public int hashCode() {
+      return System.identityHashCode(this);
+    }
+
+    @Override
+    public String toString() {
+      return target == null ? getClass().getSimpleName() + "@" + Integer.toHexString(hashCode()) : target.toString();
+    }
+  }
+}
@@ -0,0 +1,86 @@
+/* Copyright (c) 2026 OpenJAX
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.openjax.dbcp;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A scheduler of background maintenance tasks shared by all pools in the JVM, which runs on daemon threads.
+ */
+final class Maintenance {
+  private static final Logger logger = LoggerFactory.getLogger(Maintenance.class);
+  private static final int THREADS = 2;
+  private static ScheduledThreadPoolExecutor executor;
+
+  private static synchronized ScheduledThreadPoolExecutor executor() {
+    if (executor == null) {
+      final AtomicInteger count = new AtomicInteger();
+      executor = new ScheduledThreadPoolExecutor(THREADS, (final Runnable r) -> {
+        final Thread thread = new Thread(r, "dbcp-maintenance-" + count.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+      });
+      executor.setRemoveOnCancelPolicy(true);
+    }
+
+    return executor;
+  }
+
+  /**
+   * Schedules the specified task to run repeatedly with the specified delay between the end of one run and the start of the next.
+   * Exceptions thrown by the task do not suppress subsequent runs.
+   *
+   * @param task The task to run.
+   * @param delay The delay (in milliseconds) before the first run, and between subsequent runs.
+   * @return The {@link ScheduledFuture} with which to cancel the task.
+   */
+  static ScheduledFuture<?> schedule(final Runnable task, final long delay) {
+    return executor().scheduleWithFixedDelay(() -> {
+      try {
+        task.run();
+      }
+      catch (final RuntimeException e) {
+        logger.warn("Maintenance task failed: " + task, e);
+      }
+    }, delay, delay, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Runs the specified task once, as soon as a thread is available.
+   *
+   * @param task The task to run.
+   */
+  static void execute(final Runnable task) {
+    executor().execute(() -> {
+      try {
+        task.run();
+      }
+      catch (final RuntimeException e) {
+        logger.warn("Maintenance task failed: " + task, e);
+      }
+    });
+  }
+
+  private Maintenance() {
+  }
+}
@@ -0,0 +1,349 @@
+/* Copyright (c) 2026 OpenJAX
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.openjax.dbcp;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+import org.apache.commons.pool2.DestroyMode;
+import org.apache.commons.pool2.PooledObject;
+import org.apache.commons.pool2.PooledObjectFactory;
+import org.apache.commons.pool2.impl.AbandonedConfig;
+import org.apache.commons.pool2.impl.GenericObjectPool;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+
+/**
+ * A {@link GenericObjectPool} that dequeues "lifo" from a bounded hot set of the most recently returned objects, and "fifo" from the
+ * idle deque of the {@link GenericObjectPool} beyond it. Borrowers are thus served by the smallest set of objects that meets the
+ * demand, so that the per-connection caches of the database and the driver, such as those of prepared statements, stay warm. When the
+ * hot set overflows, its least recently returned object is demoted to the tail of the idle deque, from which the coldest object is
+ * dequeued first. A {@link #rotate() rotation} periodically promotes the coldest object of the idle deque into the hot set, so that the
+ * objects beyond the hot set are cycled, rather than left to go stale.
+ * <p>
+ * An object in the hot set remains allocated from the perspective of the {@link GenericObjectPool}, but is counted as idle by
+ * {@link #getNumIdle()} and {@link #getNumActive()}. Objects of the hot set that have not been used for the minimum evictable idle time
+ * or the abandoned object timeout, whichever is shorter, are demoted before each eviction run, so that eviction and abandoned object
+ * removal see them as idle. If abandoned objects are removed on borrow, objects of the hot set that have not been used for the abandoned
+ * object timeout are also demoted before each borrow from the {@link GenericObjectPool}, whose borrow may remove abandoned objects.
+ * The hot set is not counted towards {@code minIdle}.
+ * <p>
+ * A borrower that finds the hot set empty waits on the idle deque, which is not signaled by a return to the hot set. While there is
+ * such a borrower, each return to the hot set is therefore handed off to the idle deque. Objects moved from the hot set to the idle
+ * deque are not passivated or validated again.
+ *
+ * @param <T> The type of the pooled objects.
+ */
+final class MruObjectPool<T> extends GenericObjectPool<T> implements ParkingObjectPool<T> {
+  private final TrackingObjectFactory<T> tracker;
+  private final int hotSize;
+  private final ArrayDeque<PooledObject<T>> hot;
+  private volatile int numHot;
+  private final AtomicInteger coldBorrowers = new AtomicInteger();
+  private final LongAdder hotBorrowCount = new LongAdder();
+  private final LongAdder coldBorrowCount = new LongAdder();
+  private final LongAdder rotationCount = new LongAdder();
+
+  /**
+   * Creates a new {@link MruObjectPool}.
+   *
+   * @param factory The {@link PooledObjectFactory} of the pool.
+   * @param config The {@link GenericObjectPoolConfig} of the pool.
+   * @param abandonedConfig The {@link AbandonedConfig} of the pool, or {@code null} if abandoned objects are not removed.
+   * @param hotSize The maximum number of objects in the hot set.
+   * @throws NullPointerException If {@code factory} or {@code config} is null.
+   * @throws IllegalArgumentException If {@code hotSize} is not positive.
+   */
+  MruObjectPool(final PooledObjectFactory<T> factory, final GenericObjectPoolConfig<T> config, final AbandonedConfig abandonedConfig, final int hotSize) {
+    this(new TrackingObjectFactory<>(factory), config, abandonedConfig, hotSize);
+  }
+
+  private MruObjectPool(final TrackingObjectFactory<T> tracker, final GenericObjectPoolConfig<T> config, final AbandonedConfig abandonedConfig, final int hotSize) {
+    super(tracker, config, abandonedConfig);
+    if (hotSize <= 0)
+      throw new IllegalArgumentException("hotSize (" + hotSize + ") must be positive");
+
+    this.tracker = tracker;
+    this.hotSize = hotSize;
+    this.hot = new ArrayDeque<>(hotSize + 1);
+    // The idle deque beyond the hot set is dequeued coldest first
+    setLifo(false);
+  }
+
+  /**
+   * Returns the maximum number of objects in the hot set of this pool.
+   *
+   * @return The maximum number of objects in the hot set of this pool.
+   */
+  int getHotSize() {
+    return hotSize;
+  }
+
+  /**
+   * Returns the number of objects that were borrowed from the hot set.
+   *
+   * @return The number of objects that were borrowed from the hot set.
+   */
+  long getHotBorrowCount() {
+    return hotBorrowCount.sum();
+  }
+
+  /**
+   * Returns the number of objects that were borrowed from beyond the hot set, including objects that were created to be borrowed.
+   *
+   * @return The number of objects that were borrowed from beyond the hot set.
+   */
+  long getColdBorrowCount() {
+    return coldBorrowCount.sum();
+  }
+
+  /**
+   * Returns the number of objects that were promoted into the hot set by {@link #rotate()}.
+   *
+   * @return The number of objects that were promoted into the hot set by {@link #rotate()}.
+   */
+  long getRotationCount() {
+    return rotationCount.sum();
+  }
+
+  private PooledObject<T> poll() {
+    synchronized (hot) {
+      final PooledObject<T> p = hot.pollFirst();
+      numHot = hot.size();
+      return p;
+    }
+  }
+
+  /**
+   * Pushes the specified object onto the hot set, and returns the least recently returned object of the hot set if it has overflowed.
+   */
+  private PooledObject<T> push(final PooledObject<T> p) {
+    synchronized (hot) {
+      hot.addFirst(p);
+      final PooledObject<T> demoted = hot.size() > hotSize ? hot.pollLast() : null;
+      numHot = hot.size();
+      return demoted;
+    }
+  }
+
+  /**
+   * Demotes the objects of the hot set that have not been used for at least the specified time (in milliseconds) to the idle deque of
+   * the {@link GenericObjectPool}, or all objects if {@code idleTime} is negative.
+   */
+  private void demote(final long idleTime) {
+    final long now = System.currentTimeMillis();
+    for (PooledObject<T> p;;) {
+      synchronized (hot) {
+        p = hot.peekLast();
+        if (p == null || idleTime >= 0 && now - p.getLastUsedTime() < idleTime)
+          return;
+
+        hot.pollLast();
+        numHot = hot.size();
+      }
+
+      super.returnObject(p.getObject());
+    }
+  }
+
+  /**
+   * Demotes the objects of the hot set that the abandoned object removal of a borrow from the {@link GenericObjectPool} would otherwise
+   * remove, if abandoned objects are removed on borrow.
+   */
+  private void demoteAbandoned() {
+    if (getRemoveAbandonedOnBorrow())
+      demote(getRemoveAbandonedTimeoutDuration().toMillis());
+  }
+
+  @Override
+  public void unpark(final Predicate<? super PooledObject<T>> predicate) {
+    final ArrayList<PooledObject<T>> unparked = new ArrayList<>();
+    synchronized (hot) {
+      for (final Iterator<PooledObject<T>> i = hot.iterator(); i.hasNext();) { // [I]
+        final PooledObject<T> p = i.next();
+        if (predicate.test(p)) {
+          i.remove();
+          unparked.add(p);
+        }
+      }
+
+      numHot = hot.size();
+    }
+
+    for (int i = 0, i$ = unparked.size(); i < i$; ++i) // [RA]
+      super.returnObject(unparked.get(i).getObject());
+  }
+
+  private void invalidate(final PooledObject<T> p) {
+    try {
+      super.invalidateObject(p.getObject(), DestroyMode.NORMAL);
+    }
+    catch (final Exception e) {
+    }
+  }
+
+  /**
+   * Promotes the coldest object of the idle deque of the {@link GenericObjectPool} into the hot set, thereby demoting the least
+   * recently returned object of the hot set if the hot set is full. The promoted object is activated and validated as if it were
+   * borrowed. Does nothing if the idle deque is empty.
+   *
+   * @return Whether an object was promoted.
+   */
+  boolean rotate() {
+    if (isClosed() || super.getNumIdle() == 0)
+      return false;
+
+    demoteAbandoned();
+    final T obj;
+    try {
+      obj = super.borrowObject(Duration.ZERO);
+    }
+    catch (final Exception e) {
+      return false;
+    }
+
+    rotationCount.increment();
+    returnObject(obj);
+    return true;
+  }
+
+  private T borrowHot() {
+    for (PooledObject<T> p; (p = poll()) != null;) {
+      if (!ParkingObjectPool.reallocate(p))
+        continue;
+
+      try {
+        tracker.activateObject(p);
+        if (getTestOnBorrow() && !tracker.validateObject(p)) {
+          invalidate(p);
+          continue;
+        }
+      }
+      catch (final Exception e) {
+        invalidate(p);
+        continue;
+      }
+
+      hotBorrowCount.increment();
+      return p.getObject();
+    }
+
+    return null;
+  }
+
+  @Override
+  public T borrowObject(final Duration borrowMaxWaitDuration) throws Exception {
+    T obj = borrowHot();
+    if (obj != null)
+      return obj;
+
+    coldBorrowers.incrementAndGet();
+    try {
+      // A returner that pushed to the hot set before this borrower was counted is seen here
+      obj = borrowHot();
+      if (obj != null)
+        return obj;
+
+      demoteAbandoned();
+      obj = super.borrowObject(borrowMaxWaitDuration);
+      coldBorrowCount.increment();
+      return obj;
+    }
+    finally {
+      coldBorrowers.decrementAndGet();
+    }
+  }
+
+  @Override
+  public void returnObject(final T obj) {
+    final PooledObject<T> p = isClosed() ? null : tracker.get(obj);
+    if (p == null) {
+      super.returnObject(obj);
+      return;
+    }
+
+    try {
+      if (getTestOnReturn() && !tracker.validateObject(p)) {
+        invalidate(p);
+        return;
+      }
+
+      tracker.passivate(p);
+    }
+    catch (final Exception e) {
+      invalidate(p);
+      return;
+    }
+
+    p.use();
+    final PooledObject<T> demoted = push(p);
+    if (demoted != null)
+      super.returnObject(demoted.getObject());
+
+    // A borrower that was counted after missing the hot set may be waiting on the idle deque
+    if (coldBorrowers.get() > 0) {
+      final PooledObject<T> handoff = poll();
+      if (handoff != null)
+        super.returnObject(handoff.getObject());
+    }
+
+    // A concurrent close() may have demoted the hot set before the object was pushed
+    if (isClosed())
+      demote(-1);
+  }
+
+  @Override
+  public void evict() throws Exception {
+    long idleTime = getMinEvictableIdleDuration().toMillis();
+    if (isAbandonedConfig()) {
+      final long removeAbandonedTimeout = getRemoveAbandonedTimeoutDuration().toMillis();
+      if (idleTime < 0 || removeAbandonedTimeout < idleTime)
+        idleTime = removeAbandonedTimeout;
+    }
+
+    if (idleTime >= 0)
+      demote(idleTime);
+
+    super.evict();
+  }
+
+  @Override
+  public void clear() {
+    demote(-1);
+    super.clear();
+  }
+
+  @Override
+  public void close() {
+    super.close();
+    demote(-1);
+  }
+
+  @Override
+  public int getNumIdle() {
+    return super.getNumIdle() + numHot;
+  }
+
+  @Override
+  public int getNumActive() {
+    return super.getNumActive() - numHot;
+  }
+}
@@ -0,0 +1,215 @@
+/* Copyright (c) 2026 OpenJAX
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.openjax.dbcp;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.apache.commons.dbcp2.DelegatingCallableStatement;
+import org.apache.commons.dbcp2.DelegatingPreparedStatement;
+import org.apache.commons.dbcp2.DelegatingStatement;
+
+/**
+ * A {@link LazyConnectionDataSource} that multiplexes the connections it hands out over the connections of its target
+ * {@link DataSource}. A connection of the target {@link DataSource} is borrowed when a statement is created, and is returned as soon as
+ * all statements of the multiplexed connection are closed, unless the multiplexed connection is in a transaction. A multiplexed
+ * connection is thus pinned to a target connection only while it has open statements (and therefore open result sets), or while
+ * "auto-commit" is disabled and the current transaction has not been committed or rolled back.
+ * <p>
+ * As successive statements of a multiplexed connection may execute on different target connections, session state other than the
+ * properties recorded by {@link LazyConnectionDataSource.LazyConnection} (such as temporary tables or session variables) does not carry
+ * over between transactions.
+ */
+public class MultiplexingDataSource extends LazyConnectionDataSource {
+  /**
+   * Creates a new {@link MultiplexingDataSource} with the specified target {@link DataSource}.
+   *
+   * @param target The target {@link DataSource}.
+   * @throws NullPointerException If {@code target} is null.
+   */
+  public MultiplexingDataSource(final DataSource target) {
+    super(target);
+  }
+
+  @Override
+  protected LazyConnection newConnection() {
+    return new MultiplexedConnection();
+  }
+
+  /**
+   * A {@link LazyConnectionDataSource.LazyConnection} that returns its target connection whenever it is not pinned.
+   */
+  protected class MultiplexedConnection extends LazyConnection {
+    private int openStatements;
+    private boolean inTransaction;
+
+    /**
+     * Creates a new {@link MultiplexedConnection} that has not borrowed a target connection.
+     */
+    protected MultiplexedConnection() {
+    }
+
+    /**
+     * Returns whether this {@link MultiplexedConnection} is pinned to its target connection, which is the case while it has open
+     * statements, or while a transaction is in progress.
+     *
+     * @return Whether this {@link MultiplexedConnection} is pinned to its target connection.
+     */
+    protected boolean isPinned() {
+      return openStatements > 0 || inTransaction;
+    }
+
+    private void releaseIfUnpinned() throws SQLException {
+      if (!isPinned() && isBorrowed() && !isClosed())
+        release();
+    }
+
+    @Override
+    protected <T extends Statement> T opened(final T statement) throws SQLException {
+      ++openStatements;
+      if (!getRecordedAutoCommit())
+        inTransaction = true;
+
+      final Statement multiplexed = statement instanceof CallableStatement ? new MultiplexedCallableStatement((CallableStatement)statement) : statement instanceof PreparedStatement ? new MultiplexedPreparedStatement((PreparedStatement)statement) : new MultiplexedStatement(statement);
+      @SuppressWarnings("unchecked")
+      final T t = (T)multiplexed;
+      return t;
+    }
+
+    private void closed() throws SQLException {
+      --openStatements;
+      releaseIfUnpinned();
+    }
+
+    @Override
+    public void setAutoCommit(final boolean autoCommit) throws SQLException {
+      super.setAutoCommit(autoCommit);
+      if (autoCommit) {
+        inTransaction = false;
+        releaseIfUnpinned();
+      }
+      else if (isBorrowed()) {
+        inTransaction = true;
+      }
+    }
+
+    @Override
+    public void commit() throws SQLException {
+      super.commit();
+      inTransaction = false;
+      releaseIfUnpinned();
+    }
+
+    @Override
+    public void rollback() throws SQLException {
+      super.rollback();
+      inTransaction = false;
+      releaseIfUnpinned();
+    }
+
+    /**
+     * A {@link Statement} of a {@link MultiplexedConnection}. The {@link DelegatingStatement} has no parent connection, and wraps the
+     * result sets it returns, so that {@link java.sql.ResultSet#getStatement()} returns this statement rather than the statement of the
+     * target connection.
+     */
+    private final class MultiplexedStatement extends DelegatingStatement {
+      private MultiplexedStatement(final Statement statement) {
+        super(null, statement);
+      }
+
+      @Override
+      public Connection getConnection() throws SQLException {
+        checkOpen();
+        return MultiplexedConnection.this;
+      }
+
+      @Override
+      public void close() throws SQLException {
+        if (isClosed())
+          return;
+
+        try {
+          super.close();
+        }
+        finally {
+          closed();
+        }
+      }
+    }
+
+    /**
+     * A {@link PreparedStatement} of a {@link MultiplexedConnection}, like a {@link MultiplexedStatement}.
+     */
+    private final class MultiplexedPreparedStatement extends DelegatingPreparedStatement {
+      private MultiplexedPreparedStatement(final PreparedStatement statement) {
+        super(null, statement);
+      }
+
+      @Override
+      public Connection getConnection() throws SQLException {
+        checkOpen();
+        return MultiplexedConnection.this;
+      }
+
+      @Override
+      public void close() throws SQLException {
+        if (isClosed())
+          return;
+
+        try {
+          super.close();
+        }
+        finally {
+          closed();
+        }
+      }
+    }
+
+    /**
+     * A {@link CallableStatement} of a {@link MultiplexedConnection}, like a {@link MultiplexedStatement}.
+     */
+    private final class MultiplexedCallableStatement extends DelegatingCallableStatement {
+      private MultiplexedCallableStatement(final CallableStatement statement) {
+        super(null, statement);
+      }
+
+      @Override
+      public Connection getConnection() throws SQLException {
+        checkOpen();
+        return MultiplexedConnection.this;
+      }
+
+      @Override
+      public void close() throws SQLException {
+        if (isClosed())
+          return;
+
+        try {
+          super.close();
+        }
+        finally {
+          closed();
+        }
+      }
+    }
+  }
+}
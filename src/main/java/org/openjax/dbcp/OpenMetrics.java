@@ -0,0 +1,273 @@
+/* Copyright (c) 2026 OpenJAX
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.openjax.dbcp;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Renders the statistics of the pools created by {@link DataSources} in the
+ * <a href="https://github.com/OpenObservability/OpenMetrics/blob/main/specification/OpenMetrics.md">OpenMetrics</a> text format, for
+ * scraping by Prometheus without a JMX bridge. The samples of each pool are labeled with the id of its {@code <dbcp>}, or its JMX name
+ * if it has no id, and the pools with the same label are rendered as one, with their values summed. The pools of
+ * {@code getConnection(username, password)} of a pool with {@code <size><perUser>} are rendered as separate samples with the additional
+ * label {@code perUser="true"}, for the families whose values are known for them. The maximum number of connections is not rendered
+ * for pools without a limit, nor for a label that is shared by such a pool.
+ */
+public final class OpenMetrics {
+  /** The content type of the OpenMetrics text format. */
+  public static final String CONTENT_TYPE = "application/openmetrics-text; version=1.0.0; charset=utf-8";
+
+  /**
+   * Writes the statistics of the open pools created by {@link DataSources} to the specified {@link Writer}.
+   *
+   * @param out The {@link Writer}.
+   * @throws IOException If an I/O error occurs.
+   * @throws NullPointerException If {@code out} is null.
+   */
+  public static void write(final Writer out) throws IOException {
+    write(out, DataSources.dataSources());
+  }
+
+  static void write(final Writer out, final BasicDataSource ... dataSources) throws IOException {
+    final LinkedHashMap<String,Sample> merged = new LinkedHashMap<>();
+    for (final BasicDataSource dataSource : dataSources) { // [A]
+      if (dataSource.isClosed())
+        continue;
+
+      final String name = dataSource.getId() != null ? dataSource.getId() : dataSource.getJmxName();
+      if (name == null)
+        continue;
+
+      final String labels = "pool=\"" + escape(name) + "\"";
+      add(merged, new Sample(labels, dataSource, false));
+      if (dataSource.hasPerUser())
+        add(merged, new Sample(labels + ",perUser=\"true\"", dataSource, true));
+    }
+
+    final Sample[] samples = merged.values().toArray(new Sample[merged.size()]);
+    final int size = samples.length;
+
+    gauge(out, "dbcp_connections_active", "Connections borrowed from the pool.", samples, size, s -> s.numActive);
+    gauge(out, "dbcp_connections_idle", "Idle connections in the pool.", samples, size, s -> s.numIdle);
+    gauge(out, "dbcp_connections_max", "Maximum number of connections of the pool.", samples, size, s -> s.maxTotal);
+    gauge(out, "dbcp_borrow_waiters", "Threads waiting to borrow a connection from the pool.", samples, size, s -> s.numWaiters);
+    counter(out, "dbcp_connections_created", "Physical connections opened by the pool.", samples, size, s -> s.createdCount);
+    counter(out, "dbcp_connections_destroyed", "Physical connections closed by the pool.", samples, size, s -> s.destroyedCount);
+    counter(out, "dbcp_borrow_timeouts", "Requests for a connection that failed because no connection became available.", samples, size, s -> s.timeoutCount);
+
+    out.write("# TYPE dbcp_borrow_wait_seconds histogram\n");
+    out.write("# UNIT dbcp_borrow_wait_seconds seconds\n");
+    out.write("# HELP dbcp_borrow_wait_seconds Time waited to borrow a connection from the pool.\n");
+    for (int i = 0; i < size; ++i) { // [A]
+      final Sample sample = samples[i];
+      final long[] counts = sample.waitCounts;
+      for (int j = 0; j < counts.length; ++j) { // [A]
+        out.write("dbcp_borrow_wait_seconds_bucket{");
+        out.write(sample.labels);
+        out.write(",le=\"");
+        out.write(j < WaitHistogram.BOUNDS.length ? Double.toString(WaitHistogram.BOUNDS[j]) : "+Inf");
+        out.write("\"} ");
+        out.write(Long.toString(counts[j]));
+        out.write('\n');
+      }
+
+      out.write("dbcp_borrow_wait_seconds_count{");
+      out.write(sample.labels);
+      out.write("} ");
+      out.write(Long.toString(counts[counts.length - 1]));
+      out.write("\ndbcp_borrow_wait_seconds_sum{");
+      out.write(sample.labels);
+      out.write("} ");
+      out.write(Double.toString(sample.waitSum / 1e9));
+      out.write('\n');
+    }
+
+    out.write("# EOF\n");
+    out.flush();
+  }
+
+  private static void add(final LinkedHashMap<String,Sample> samples, final Sample sample) {
+    final Sample existing = samples.putIfAbsent(sample.labels, sample);
+    if (existing != null)
+      existing.add(sample);
+  }
+
+  @FunctionalInterface
+  private interface Value {
+    long get(Sample sample);
+  }
+
+  private static void gauge(final Writer out, final String name, final String help, final Sample[] samples, final int size, final Value value) throws IOException {
+    family(out, name, "gauge", help, "", samples, size, value);
+  }
+
+  private static void counter(final Writer out, final String name, final String help, final Sample[] samples, final int size, final Value value) throws IOException {
+    family(out, name, "counter", help, "_total", samples, size, value);
+  }
+
+  private static void family(final Writer out, final String name, final String type, final String help, final String suffix, final Sample[] samples, final int size, final Value value) throws IOException {
+    out.write("# TYPE " + name + " " + type + "\n");
+    out.write("# HELP " + name + " " + help + "\n");
+    for (int i = 0; i < size; ++i) { // [A]
+      final Sample sample = samples[i];
+      final long v = value.get(sample);
+      if (v < 0)
+        continue;
+
+      out.write(name);
+      out.write(suffix);
+      out.write('{');
+      out.write(sample.labels);
+      out.write("} ");
+      out.write(Long.toString(v));
+      out.write('\n');
+    }
+  }
+
+  private static String escape(final String value) {
+    final StringBuilder builder = new StringBuilder(value.length());
+    for (int i = 0, i$ = value.length(); i < i$; ++i) {
+      final char ch = value.charAt(i);
+      if (ch == '\\')
+        builder.append("\\\\");
+      else if (ch == '"')
+        builder.append("\\\"");
+      else if (ch == '\n')
+        builder.append("\\n");
+      else
+        builder.append(ch);
+    }
+
+    return builder.toString();
+  }
+
+  /**
+   * Starts an {@link HttpServer} on the specified address that serves the statistics of the pools created by {@link DataSources} at
+   * the path {@code /metrics}. The server is stopped with {@link HttpServer#stop(int)}.
+   *
+   * @param address The address to bind to, for instance {@code new InetSocketAddress("127.0.0.1", 9404)}.
+   * @return The started {@link HttpServer}.
+   * @throws IOException If the server cannot be bound to the address.
+   * @throws NullPointerException If {@code address} is null.
+   */
+  public static HttpServer serve(final InetSocketAddress address) throws IOException {
+    final HttpServer server = HttpServer.create(address, 0);
+    server.createContext("/metrics", OpenMetrics::handle);
+    server.start();
+    return server;
+  }
+
+  private static void handle(final HttpExchange exchange) throws IOException {
+    try {
+      final String method = exchange.getRequestMethod();
+      if (!"GET".equals(method) && !"HEAD".equals(method)) {
+        exchange.getResponseHeaders().set("Allow", "GET, HEAD");
+        exchange.sendResponseHeaders(405, -1);
+        return;
+      }
+
+      final StringWriter writer = new StringWriter();
+      write(writer);
+      final byte[] body = writer.toString().getBytes(StandardCharsets.UTF_8);
+      exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+      if ("HEAD".equals(method)) {
+        exchange.sendResponseHeaders(200, -1);
+        return;
+      }
+
+      exchange.sendResponseHeaders(200, body.length);
+      try (final OutputStream out = exchange.getResponseBody()) {
+        out.write(body);
+      }
+    }
+    finally {
+      exchange.close();
+    }
+  }
+
+  /**
+   * A snapshot of the statistics of a pool, so that all families are rendered from the same values. A negative value is not known,
+   * and is not rendered.
+   */
+  private static final class Sample {
+    private final String labels;
+    private long numActive;
+    private long numIdle;
+    private long maxTotal;
+    private long numWaiters;
+    private long createdCount;
+    private long destroyedCount;
+    private long timeoutCount;
+    private final long[] waitCounts;
+    private long waitSum;
+
+    private Sample(final String labels, final BasicDataSource dataSource, final boolean perUser) {
+      this.labels = labels;
+      final WaitHistogram borrowWait;
+      if (perUser) {
+        this.numActive = dataSource.getNumUserActive();
+        this.numIdle = dataSource.getNumUserIdle();
+        this.maxTotal = dataSource.getUserMaxTotal();
+        this.numWaiters = -1;
+        this.createdCount = dataSource.getUserCreatedCount();
+        this.destroyedCount = -1;
+        this.timeoutCount = dataSource.getUserBorrowTimeoutCount();
+        borrowWait = dataSource.getUserBorrowWait();
+      }
+      else {
+        this.numActive = dataSource.getNumActive();
+        this.numIdle = dataSource.getNumIdle();
+        this.maxTotal = dataSource.getMaxTotal();
+        this.numWaiters = dataSource.getNumWaiters();
+        this.createdCount = dataSource.getCreatedCount();
+        this.destroyedCount = dataSource.getDestroyedCount();
+        this.timeoutCount = dataSource.getBorrowTimeoutCount();
+        borrowWait = dataSource.getBorrowWait();
+      }
+
+      this.waitCounts = borrowWait.getCumulativeCounts();
+      this.waitSum = borrowWait.getSum();
+    }
+
+    private void add(final Sample sample) {
+      numActive += sample.numActive;
+      numIdle += sample.numIdle;
+      // A negative maxTotal is unlimited, as is the sum of the pools of which one is unlimited
+      maxTotal = maxTotal < 0 || sample.maxTotal < 0 ? -1 : maxTotal + sample.maxTotal;
+      numWaiters = numWaiters < 0 ? numWaiters : numWaiters + sample.numWaiters;
+      createdCount += sample.createdCount;
+      destroyedCount = destroyedCount < 0 ? destroyedCount : destroyedCount + sample.destroyedCount;
+      timeoutCount += sample.timeoutCount;
+      for (int i = 0; i < waitCounts.length; ++i) // [A]
+        waitCounts[i] += sample.waitCounts[i];
+
+      waitSum += sample.waitSum;
+    }
+  }
+
+  private OpenMetrics() {
+  }
+}
@@ -0,0 +1,55 @@
+/* Copyright (c) 2026 OpenJAX
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.openjax.dbcp;
+
+import java.util.function.Predicate;
+
+import org.apache.commons.pool2.PooledObject;
+
+/**
+ * A pool that parks returned objects outside of the idle deque of its {@link org.apache.commons.pool2.impl.GenericObjectPool}. Parked
+ * objects remain allocated from the perspective of the {@link org.apache.commons.pool2.impl.GenericObjectPool}, and are therefore not
+ * seen by maintenance tasks that act on idle objects until they are {@link #unpark(Predicate) unparked}. An object is
+ * {@link PooledObject#use() used} when it is parked, so that abandoned object removal does not see it as abandoned while it is parked,
+ * and is {@link #reallocate(PooledObject) reallocated} when it is borrowed from where it is parked.
+ *
+ * @param <T> The type of the pooled objects.
+ */
+interface ParkingObjectPool<T> {
+  /**
+   * Reallocates the specified parked object to its next borrower, so that its last borrow time and borrowed count are updated as by a
+   * borrow from the idle deque.
+   *
+   * @param p The parked {@link PooledObject}.
+   * @return Whether the object was reallocated, or {@code false} if it has been marked abandoned or invalid while it was parked, in
+   *         which case it is destroyed by the pool and must not be borrowed.
+   * @throws NullPointerException If {@code p} is null.
+   */
+  static boolean reallocate(final PooledObject<?> p) {
+    synchronized (p) {
+      return p.deallocate() && p.allocate();
+    }
+  }
+
+  /**
+   * Returns the parked objects that match the specified predicate to the idle deque, without passivating them again.
+   *
+   * @param predicate The predicate that selects the objects to unpark.
+   * @throws NullPointerException If {@code predicate} is null.
+   */
+  void unpark(Predicate<? super PooledObject<T>> predicate);
+}
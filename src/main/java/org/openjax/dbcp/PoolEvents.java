@@ -0,0 +1,85 @@
+/* Copyright (c) 2026 OpenJAX
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.openjax.dbcp;
+
+/**
+ * Emits the Java Flight Recorder events of the pools via {@link JfrPoolEvents}, if the {@code jdk.jfr} module is available. Each
+ * {@code begin} method returns an opaque event, or {@code null} if the event is not enabled, which is to be passed to the respective
+ * {@code commit} method. If the {@code jdk.jfr} module is not available, or if no recording enables the events, no event is
+ * allocated.
+ */
+final class PoolEvents {
+  private static final boolean available = isAvailable();
+
+  private static boolean isAvailable() {
+    try {
+      return JfrPoolEvents.isAvailable();
+    }
+    catch (final LinkageError e) {
+      return false;
+    }
+  }
+
+  static Object beginBorrow() {
+    return available ? JfrPoolEvents.beginBorrow() : null;
+  }
+
+  static void commitBorrow(final Object event, final String pool) {
+    if (event != null)
+      JfrPoolEvents.commitBorrow(event, pool);
+  }
+
+  static void commitExhausted(final Object event, final String pool, final String message, final int maxTotal, final int numActive, final int numWaiters) {
+    if (event != null)
+      JfrPoolEvents.commitExhausted(event, pool, message, maxTotal, numActive, numWaiters);
+  }
+
+  static boolean isReturnEnabled() {
+    return available && JfrPoolEvents.isReturnEnabled();
+  }
+
+  static void commitReturn(final String pool, final long holdTime) {
+    if (available)
+      JfrPoolEvents.commitReturn(pool, holdTime);
+  }
+
+  static Object beginCreate() {
+    return available ? JfrPoolEvents.beginCreate() : null;
+  }
+
+  static void commitCreate(final Object event, final String pool, final boolean success) {
+    if (event != null)
+      JfrPoolEvents.commitCreate(event, pool, success);
+  }
+
+  static Object beginValidate() {
+    return available ? JfrPoolEvents.beginValidate() : null;
+  }
+
+  static void commitValidate(final Object event, final String pool, final boolean valid) {
+    if (event != null)
+      JfrPoolEvents.commitValidate(event, pool, valid);
+  }
+
+  static void commitEviction(final String pool, final long idleTime) {
+    if (available)
+      JfrPoolEvents.commitEviction(pool, idleTime);
+  }
+
+  private PoolEvents() {
+  }
+}
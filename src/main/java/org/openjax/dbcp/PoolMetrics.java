@@ -0,0 +1,89 @@
+/* Copyright (c) 2026 OpenJAX
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.openjax.dbcp;
+
+/**
+ * Metrics of a connection pool created by {@link DataSources}, obtainable via {@code dataSource.unwrap(PoolMetrics.class)}.
+ */
+public interface PoolMetrics {
+  /**
+   * Returns the number of physical connections that have been initialized with the {@code <initSqls>} of the pool.
+   *
+   * @return The number of physical connections that have been initialized.
+   */
+  long getConnectionInitCount();
+
+  /**
+   * Returns the total time (in nanoseconds) spent executing the {@code <initSqls>} on new physical connections.
+   *
+   * @return The total time (in nanoseconds) spent initializing physical connections.
+   */
+  long getConnectionInitTime();
+
+  /**
+   * Returns the longest time (in nanoseconds) spent executing the {@code <initSqls>} on a new physical connection.
+   *
+   * @return The longest time (in nanoseconds) spent initializing a physical connection.
+   */
+  long getMaxConnectionInitTime();
+
+  /**
+   * Returns the time (in nanoseconds) spent executing the {@code <initSqls>} on the most recently created physical connection.
+   *
+   * @return The time (in nanoseconds) spent initializing the most recently created physical connection.
+   */
+  long getLastConnectionInitTime();
+
+  /**
+   * Returns the number of requests for a connection that failed because no connection became available in time.
+   *
+   * @return The number of requests for a connection that failed because no connection became available in time.
+   */
+  long getBorrowTimeoutCount();
+
+  /**
+   * Returns the number of connections that have been retired as outliers by the {@code <validation><health>} scoring of the pool.
+   *
+   * @return The number of connections that have been retired as outliers.
+   */
+  long getHealthRetiredCount();
+
+  /**
+   * Returns the number of connections that were borrowed from the hot set of an {@code <pool><queue>mru</queue>} pool, or {@code 0}
+   * if the queue of the pool is not "mru".
+   *
+   * @return The number of connections that were borrowed from the hot set.
+   */
+  long getHotSetBorrowCount();
+
+  /**
+   * Returns the number of idle connections that were rotated into the hot set of an {@code <pool><queue>mru</queue>} pool, or
+   * {@code 0} if the queue of the pool is not "mru".
+   *
+   * @return The number of idle connections that were rotated into the hot set.
+   */
+  long getRotationCount();
+
+  /**
+   * Returns the number of times each open physical connection of the pool has been borrowed, in descending order, which shows how the
+   * reuse of connections is distributed by the {@code <pool><queue>} of the pool. A connection that is validated while idle, or rotated
+   * into the hot set of an "mru" queue, counts as borrowed.
+   *
+   * @return The number of times each open physical connection of the pool has been borrowed, in descending order.
+   */
+  long[] getBorrowCounts();
+}
@@ -0,0 +1,339 @@
+/* Copyright (c) 2026 OpenJAX
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.openjax.dbcp;
+
+import java.io.PrintWriter;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Deque;
+
+import org.apache.commons.pool2.PooledObject;
+import org.apache.commons.pool2.PooledObjectState;
+import org.apache.commons.pool2.TrackedUse;
+
+/**
+ * A table of pool bookkeeping that stores the timestamps, states and counters of its {@link Entry entries} in primitive arrays indexed
+ * by slot, instead of in per-entry {@link Instant} objects as {@link org.apache.commons.pool2.impl.DefaultPooledObject} does. An
+ * {@link Entry} thus consists of no more than a reference to its object and its slot number, and borrowing or returning an entry does
+ * not allocate. The arrays are allocated in fixed-size chunks that are never moved, so that growing the table does not race with
+ * concurrent updates of existing entries.
+ * <p>
+ * Entries do not record the stack traces of borrowers, and therefore print nothing for abandoned connections.
+ *
+ * @param <T> The type of the pooled objects.
+ */
+final class PooledObjectTable<T> {
+  private static final int CHUNK_BITS = 6;
+  private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+  private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+  private static final int CREATE = 0;
+  private static final int BORROW = 1;
+  private static final int RETURN = 2;
+  private static final int USE = 3;
+  private static final int COUNT = 4;
+  private static final int FIELDS = 5;
+
+  private static final PooledObjectState[] states = PooledObjectState.values();
+
+  private volatile long[][] times = new long[0][];
+  private volatile byte[][] stateChunks = new byte[0][];
+  private int[] free = new int[CHUNK_SIZE];
+  private int freeSize;
+  private int size;
+
+  /**
+   * Returns a new {@link Entry} for the specified object in a free slot of this table.
+   *
+   * @param object The pooled object.
+   * @return A new {@link Entry} for the specified object.
+   */
+  Entry wrap(final T object) {
+    final int slot = allocate();
+    final long now = System.currentTimeMillis();
+    final long[] times = this.times[slot >> CHUNK_BITS];
+    final int offset = (slot & CHUNK_MASK) * FIELDS;
+    times[offset + CREATE] = now;
+    times[offset + BORROW] = now;
+    times[offset + RETURN] = now;
+    times[offset + USE] = now;
+    times[offset + COUNT] = 0;
+    stateChunks[slot >> CHUNK_BITS][slot & CHUNK_MASK] = (byte)PooledObjectState.IDLE.ordinal();
+    return new Entry(object, slot);
+  }
+
+  private synchronized int allocate() {
+    if (freeSize > 0)
+      return free[--freeSize];
+
+    final int slot = size++;
+    final int chunk = slot >> CHUNK_BITS;
+    if (chunk == times.length) {
+      final long[][] times = Arrays.copyOf(this.times, chunk + 1);
+      times[chunk] = new long[CHUNK_SIZE * FIELDS];
+      final byte[][] stateChunks = Arrays.copyOf(this.stateChunks, chunk + 1);
+      stateChunks[chunk] = new byte[CHUNK_SIZE];
+      this.stateChunks = stateChunks;
+      this.times = times;
+    }
+
+    return slot;
+  }
+
+  private synchronized void release(final int slot) {
+    if (freeSize == free.length)
+      free = Arrays.copyOf(free, freeSize * 2);
+
+    free[freeSize++] = slot;
+  }
+
+  /**
+   * Returns the number of slots that are in use.
+   *
+   * @return The number of slots that are in use.
+   */
+  synchronized int size() {
+    return size - freeSize;
+  }
+
+  /**
+   * A {@link PooledObject} whose bookkeeping is stored in a slot of its {@link PooledObjectTable}.
+   */
+  final class Entry implements PooledObject<T> {
+    private final T object;
+    private volatile int slot;
+
+    private Entry(final T object, final int slot) {
+      this.object = object;
+      this.slot = slot;
+    }
+
+    private long get(final int field) {
+      final int slot = this.slot;
+      return slot < 0 ? 0 : times[slot >> CHUNK_BITS][(slot & CHUNK_MASK) * FIELDS + field];
+    }
+
+    private void set(final int slot, final int field, final long value) {
+      times[slot >> CHUNK_BITS][(slot & CHUNK_MASK) * FIELDS + field] = value;
+    }
+
+    private PooledObjectState state() {
+      final int slot = this.slot;
+      return slot < 0 ? PooledObjectState.INVALID : states[stateChunks[slot >> CHUNK_BITS][slot & CHUNK_MASK]];
+    }
+
+    private void state(final PooledObjectState state) {
+      if (slot >= 0)
+        stateChunks[slot >> CHUNK_BITS][slot & CHUNK_MASK] = (byte)state.ordinal();
+    }
+
+    /**
+     * Returns the slot of this entry to its {@link PooledObjectTable}. The entry is {@link PooledObjectState#INVALID} thereafter.
+     */
+    synchronized void free() {
+      final int slot = this.slot;
+      if (slot >= 0) {
+        this.slot = -1;
+        release(slot);
+      }
+    }
+
+    @Override
+    public synchronized boolean allocate() {
+      final PooledObjectState state = state();
+      if (state == PooledObjectState.IDLE) {
+        state(PooledObjectState.ALLOCATED);
+        final int slot = this.slot;
+        final long now = System.currentTimeMillis();
+        set(slot, BORROW, now);
+        set(slot, USE, now);
+        set(slot, COUNT, get(COUNT) + 1);
+        return true;
+      }
+
+      if (state == PooledObjectState.EVICTION)
+        state(PooledObjectState.EVICTION_RETURN_TO_HEAD);
+
+      return false;
+    }
+
+    @Override
+    public synchronized boolean deallocate() {
+      final PooledObjectState state = state();
+      if (state != PooledObjectState.ALLOCATED && state != PooledObjectState.RETURNING)
+        return false;
+
+      state(PooledObjectState.IDLE);
+      set(slot, RETURN, System.currentTimeMillis());
+      return true;
+    }
+
+    @Override
+    public synchronized void invalidate() {
+      state(PooledObjectState.INVALID);
+    }
+
+    @Override
+    public synchronized void markAbandoned() {
+      state(PooledObjectState.ABANDONED);
+    }
+
+    @Override
+    public synchronized void markReturning() {
+      state(PooledObjectState.RETURNING);
+    }
+
+    @Override
+    public synchronized boolean startEvictionTest() {
+      if (state() != PooledObjectState.IDLE)
+        return false;
+
+      state(PooledObjectState.EVICTION);
+      return true;
+    }
+
+    @Override
+    public synchronized boolean endEvictionTest(final Deque<PooledObject<T>> idleQueue) {
+      final PooledObjectState state = state();
+      if (state == PooledObjectState.EVICTION) {
+        state(PooledObjectState.IDLE);
+        return true;
+      }
+
+      if (state == PooledObjectState.EVICTION_RETURN_TO_HEAD) {
+        state(PooledObjectState.IDLE);
+        idleQueue.offerFirst(this);
+      }
+
+      return false;
+    }
+
+    @Override
+    public synchronized void use() {
+      // Synchronized with free(), so that the slot is not released and reused by another entry before it is written
+      final int slot = this.slot;
+      if (slot >= 0)
+        set(slot, USE, System.currentTimeMillis());
+    }
+
+    @Override
+    public T getObject() {
+      return object;
+    }
+
+    @Override
+    public PooledObjectState getState() {
+      return state();
+    }
+
+    @Override
+    public long getBorrowedCount() {
+      return get(COUNT);
+    }
+
+    @Override
+    public long getCreateTime() {
+      return get(CREATE);
+    }
+
+    @Override
+    public long getLastBorrowTime() {
+      return get(BORROW);
+    }
+
+    @Override
+    public long getLastReturnTime() {
+      return get(RETURN);
+    }
+
+    @Override
+    public long getLastUsedTime() {
+      final long lastUse = get(USE);
+      final long lastBorrow = get(BORROW);
+      final long lastUsed = lastUse > lastBorrow ? lastUse : lastBorrow;
+      if (!(object instanceof TrackedUse))
+        return lastUsed;
+
+      // As DefaultPooledObject, so that a connection in use is not removed as abandoned
+      final long lastTrackedUse = ((TrackedUse)object).getLastUsedInstant().toEpochMilli();
+      return lastTrackedUse > lastUsed ? lastTrackedUse : lastUsed;
+    }
+
+    @Override
+    public Instant getCreateInstant() {
+      return Instant.ofEpochMilli(getCreateTime());
+    }
+
+    @Override
+    public Instant getLastBorrowInstant() {
+      return Instant.ofEpochMilli(getLastBorrowTime());
+    }
+
+    @Override
+    public Instant getLastReturnInstant() {
+      return Instant.ofEpochMilli(getLastReturnTime());
+    }
+
+    @Override
+    public Instant getLastUsedInstant() {
+      return Instant.ofEpochMilli(getLastUsedTime());
+    }
+
+    @Override
+    public long getActiveTimeMillis() {
+      final long lastReturn = get(RETURN);
+      final long lastBorrow = get(BORROW);
+      return lastReturn > lastBorrow ? lastReturn - lastBorrow : System.currentTimeMillis() - lastBorrow;
+    }
+
+    @Override
+    public Duration getActiveDuration() {
+      return Duration.ofMillis(getActiveTimeMillis());
+    }
+
+    @Override
+    public long getIdleTimeMillis() {
+      final long idle = System.currentTimeMillis() - get(RETURN);
+      return idle > 0 ? idle : 0;
+    }
+
+    @Override
+    public Duration getIdleDuration() {
+      return Duration.ofMillis(getIdleTimeMillis());
+    }
+
+    @Override
+    public void setLogAbandoned(final boolean logAbandoned) {
+    }
+
+    @Override
+    public void printStackTrace(final PrintWriter writer) {
+    }
+
+    @Override
+    public int compareTo(final PooledObject<T> other) {
+      final int compare = Long.compare(getLastReturnTime(), other.getLastReturnTime());
+      return compare != 0 ? compare : Integer.compare(System.identityHashCode(this), System.identityHashCode(other));
+    }
+
+    @Override
+    public String toString() {
+      return "Object: " + object + ", State: " + state();
+    }
+  }
+}
@@ -0,0 +1,196 @@
+/* Copyright (c) 2026 OpenJAX
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.openjax.dbcp;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.dbcp2.ConnectionFactory;
+
+/**
+ * A {@link ConnectionFactory} that limits the rate at which physical connections are created by the target {@link ConnectionFactory}.
+ * Each creation takes a permit from the per-pool {@link TokenBucket}, as well as from the JVM-wide {@link TokenBucket} if one has been
+ * configured. After a creation attempt fails, subsequent attempts are delayed by an exponential backoff with full jitter, so that
+ * pools that lost their database at the same time do not retry in lockstep. The backoff and the permits are waited for only until the
+ * {@link BorrowDeadline deadline} of the borrow in progress, after which the creation fails with a
+ * {@link SQLTransientConnectionException}.
+ */
+class RateLimitedConnectionFactory implements ConnectionFactory {
+  /**
+   * A limit on the rate at which all pools in this JVM can create physical connections, which applies until it is
+   * {@link #release() released}.
+   */
+  static final class JvmLimit {
+    private final int permitsPerSecond;
+    private final int burst;
+
+    private JvmLimit(final int permitsPerSecond, final int burst) {
+      this.permitsPerSecond = permitsPerSecond;
+      this.burst = burst;
+    }
+
+    /**
+     * Releases this limit, after which the lowest of the remaining limits applies.
+     */
+    void release() {
+      synchronized (jvmLimits) {
+        if (jvmLimits.remove(this))
+          updateJvmBucket();
+      }
+    }
+  }
+
+  private static final ArrayList<JvmLimit> jvmLimits = new ArrayList<>();
+  private static TokenBucket jvmBucket;
+
+  /**
+   * Limits the rate at which all pools in this JVM can create physical connections. If other limits are set, the lowest of the limits
+   * applies. The permits that have already been handed out are kept when the applicable limit changes.
+   *
+   * @param permitsPerSecond The maximum number of physical connections all pools in this JVM can create per second.
+   * @param burst The number of connections that can be created back-to-back before the rate limit applies.
+   * @return The {@link JvmLimit}, which must be {@link JvmLimit#release() released} when it no longer applies.
+   * @throws IllegalArgumentException If {@code permitsPerSecond} or {@code burst} is not positive.
+   */
+  static JvmLimit limitJvm(final int permitsPerSecond, final int burst) {
+    if (permitsPerSecond <= 0)
+      throw new IllegalArgumentException("permitsPerSecond (" + permitsPerSecond + ") must be positive");
+
+    if (burst <= 0)
+      throw new IllegalArgumentException("burst (" + burst + ") must be positive");
+
+    final JvmLimit limit = new JvmLimit(permitsPerSecond, burst);
+    synchronized (jvmLimits) {
+      jvmLimits.add(limit);
+      updateJvmBucket();
+    }
+
+    return limit;
+  }
+
+  private static void updateJvmBucket() {
+    JvmLimit lowest = null;
+    final int size = jvmLimits.size();
+    for (int i = 0; i < size; ++i) { // [RA]
+      final JvmLimit limit = jvmLimits.get(i);
+      if (lowest == null || limit.permitsPerSecond < lowest.permitsPerSecond)
+        lowest = limit;
+    }
+
+    if (lowest == null)
+      jvmBucket = null;
+    else if (jvmBucket == null)
+      jvmBucket = new TokenBucket(lowest.permitsPerSecond, lowest.burst);
+    else
+      jvmBucket.setRate(lowest.permitsPerSecond, lowest.burst);
+  }
+
+  static TokenBucket jvmBucket() {
+    synchronized (jvmLimits) {
+      return jvmBucket;
+    }
+  }
+
+  private final ConnectionFactory target;
+  private final TokenBucket bucket;
+  private final long initialBackoff;
+  private final long maxBackoff;
+  private final AtomicInteger failures = new AtomicInteger();
+  private volatile long retryAt = System.nanoTime();
+
+  /**
+   * Creates a new {@link RateLimitedConnectionFactory} with the specified parameters.
+   *
+   * @param target The target {@link ConnectionFactory}.
+   * @param permitsPerSecond The maximum number of physical connections this factory can create per second.
+   * @param burst The number of connections that can be created back-to-back before the rate limit applies.
+   * @param initialBackoff The backoff ceiling (in milliseconds) after the first failed creation attempt, or {@code 0} to disable
+   *          backoff.
+   * @param maxBackoff The maximum backoff ceiling (in milliseconds).
+   * @throws NullPointerException If {@code target} is null.
+   * @throws IllegalArgumentException If {@code permitsPerSecond} or {@code burst} is not positive, or if {@code maxBackoff} is less
+   *           than {@code initialBackoff}.
+   */
+  RateLimitedConnectionFactory(final ConnectionFactory target, final int permitsPerSecond, final int burst, final long initialBackoff, final long maxBackoff) {
+    if (maxBackoff < initialBackoff)
+      throw new IllegalArgumentException("maxBackoff (" + maxBackoff + ") must not be less than initialBackoff (" + initialBackoff + ")");
+
+    this.target = Objects.requireNonNull(target);
+    this.bucket = new TokenBucket(permitsPerSecond, burst);
+    this.initialBackoff = TimeUnit.MILLISECONDS.toNanos(initialBackoff);
+    this.maxBackoff = TimeUnit.MILLISECONDS.toNanos(maxBackoff);
+  }
+
+  @Override
+  public Connection createConnection() throws SQLException {
+    final long timeout = BorrowDeadline.remaining();
+    final long backoff = retryAt - System.nanoTime();
+    if (backoff > timeout)
+      throw new SQLTransientConnectionException("Timeout waiting for the connection creation backoff to elapse");
+
+    long wait = bucket.reserve(timeout);
+    if (wait < 0)
+      throw new SQLTransientConnectionException("Timeout waiting for a connection creation permit");
+
+    final TokenBucket jvmBucket = jvmBucket();
+    if (jvmBucket != null) {
+      final long jvmWait = jvmBucket.reserve(timeout);
+      if (jvmWait < 0)
+        throw new SQLTransientConnectionException("Timeout waiting for a JVM-wide connection creation permit");
+
+      wait = Math.max(wait, jvmWait);
+    }
+
+    try {
+      wait = Math.max(wait, backoff);
+      if (wait > 0)
+        TimeUnit.NANOSECONDS.sleep(wait);
+    }
+    catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new SQLTransientConnectionException("Interrupted while waiting for a connection creation permit", e);
+    }
+
+    try {
+      final Connection connection = target.createConnection();
+      failures.set(0);
+      return connection;
+    }
+    catch (final SQLException | RuntimeException e) {
+      backoff();
+      throw e;
+    }
+  }
+
+  private void backoff() {
+    if (initialBackoff == 0)
+      return;
+
+    final int failures = this.failures.incrementAndGet() - 1;
+    final long ceiling = failures < Long.numberOfLeadingZeros(initialBackoff) - 1 ? Math.min(initialBackoff << failures, maxBackoff) : maxBackoff;
+    final long delay = ThreadLocalRandom.current().nextLong(ceiling + 1);
+    final long retryAt = System.nanoTime() + delay;
+    if (retryAt - this.retryAt > 0)
+      this.retryAt = retryAt;
+  }
+}
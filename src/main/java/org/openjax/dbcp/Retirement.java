@@ -0,0 +1,90 @@
+/* Copyright (c) 2026 OpenJAX
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.openjax.dbcp;
+
+import java.util.Map;
+import java.util.Objects;
+
+import org.apache.commons.dbcp2.PoolableConnection;
+import org.apache.commons.pool2.PooledObject;
+import org.apache.commons.pool2.PooledObjectState;
+import org.apache.commons.pool2.impl.GenericObjectPool;
+
+/**
+ * A maintenance task that retires idle connections whose lifetime has expired, one per run, so that expiry does not happen on the
+ * borrow path, nor in bulk. A replacement connection is added to the pool before an expired connection is closed, unless the pool is
+ * at its maximum size. If the replacement cannot be created, the expired connection is kept until it can.
+ */
+final class Retirement implements Runnable {
+  private final GenericObjectPool<PoolableConnection> pool;
+  private final ConnectionObjectFactory factory;
+
+  /**
+   * Creates a new {@link Retirement} task.
+   *
+   * @param pool The pool.
+   * @param factory The {@link ConnectionObjectFactory} of the pool.
+   * @throws NullPointerException If {@code pool} or {@code factory} is null.
+   */
+  Retirement(final GenericObjectPool<PoolableConnection> pool, final ConnectionObjectFactory factory) {
+    this.pool = Objects.requireNonNull(pool);
+    this.factory = Objects.requireNonNull(factory);
+  }
+
+  @Override
+  public void run() {
+    final long now = System.currentTimeMillis();
+    Map.Entry<PooledObject<PoolableConnection>,ConnectionState> expired = null;
+    for (final Map.Entry<PooledObject<PoolableConnection>,ConnectionState> entry : factory.states()) {
+      final long expiry = entry.getValue().getExpiry();
+      if (expiry <= now && entry.getKey().getState() == PooledObjectState.IDLE && (expired == null || expiry < expired.getValue().getExpiry()))
+        expired = entry;
+    }
+
+    if (expired == null)
+      return;
+
+    final int maxTotal = pool.getMaxTotal();
+    if (maxTotal < 0 || pool.getNumActive() + pool.getNumIdle() < maxTotal) {
+      try {
+        pool.addObject();
+      }
+      catch (final Exception e) {
+        return;
+      }
+    }
+
+    final PooledObject<PoolableConnection> p = expired.getKey();
+    final ConnectionState state = expired.getValue();
+    if (!state.startKeepalive())
+      return;
+
+    try {
+      // Holding the monitor of the pooled object prevents a borrower from allocating it before it is invalidated
+      synchronized (p) {
+        if (p.getState() == PooledObjectState.IDLE)
+          pool.invalidateObject(p.getObject());
+      }
+    }
+    catch (final Exception e) {
+      // The connection has already been removed from the pool
+    }
+    finally {
+      state.endKeepalive(false);
+    }
+  }
+}
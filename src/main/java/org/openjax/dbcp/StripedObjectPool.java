@@ -0,0 +1,295 @@
+/* Copyright (c) 2026 OpenJAX
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.openjax.dbcp;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+import org.apache.commons.pool2.DestroyMode;
+import org.apache.commons.pool2.PooledObject;
+import org.apache.commons.pool2.PooledObjectFactory;
+import org.apache.commons.pool2.impl.AbandonedConfig;
+import org.apache.commons.pool2.impl.GenericObjectPool;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+
+/**
+ * A {@link GenericObjectPool} that parks returned objects in one of several stripes selected by the hash of the returning thread,
+ * instead of returning them to the single idle deque and its lock. A borrower first takes the most recently parked object of its own
+ * stripe, then steals from the other stripes, and only then falls back to the idle deque of the {@link GenericObjectPool}. The slots
+ * of the stripes are claimed with compare-and-set, so that borrowers and returners on different stripes do not contend.
+ * <p>
+ * A parked object remains allocated from the perspective of the {@link GenericObjectPool}, but is counted as idle by
+ * {@link #getNumIdle()} and {@link #getNumActive()}. Parked objects are returned to the idle deque on every eviction run, and when the
+ * pool is cleared or closed, so that eviction, abandoned object removal and {@code minIdle} see them as idle. If abandoned objects are
+ * removed on borrow, a borrower that finds the stripes empty also returns the parked objects to the idle deque before it borrows from
+ * the {@link GenericObjectPool}, whose borrow may remove abandoned objects.
+ * <p>
+ * A borrower that finds the stripes empty waits on the idle deque, which is not signaled by a return to a stripe. While there is such
+ * a borrower, each return to a stripe is therefore handed off to the idle deque. Objects moved from the stripes to the idle deque are
+ * not passivated or validated again.
+ *
+ * @param <T> The type of the pooled objects.
+ */
+final class StripedObjectPool<T> extends GenericObjectPool<T> implements ParkingObjectPool<T> {
+  // Unused slots between stripes, so that the slots of adjacent stripes do not share a cache line
+  private static final int PADDING = 16;
+
+  private final TrackingObjectFactory<T> tracker;
+  private final int stripes;
+  private final int slots;
+  private final AtomicReferenceArray<PooledObject<T>> parked;
+  private final AtomicInteger unparkedBorrowers = new AtomicInteger();
+  private final LongAdder numParked = new LongAdder();
+  private final LongAdder stealCount = new LongAdder();
+
+  /**
+   * Creates a new {@link StripedObjectPool}.
+   *
+   * @param factory The {@link PooledObjectFactory} of the pool.
+   * @param config The {@link GenericObjectPoolConfig} of the pool.
+   * @param abandonedConfig The {@link AbandonedConfig} of the pool, or {@code null} if abandoned objects are not removed.
+   * @param stripes The number of stripes.
+   * @param maxParked The maximum number of objects parked across all stripes, or a negative value for 8 objects per stripe.
+   * @throws NullPointerException If {@code factory} or {@code config} is null.
+   * @throws IllegalArgumentException If {@code stripes} is not positive.
+   */
+  StripedObjectPool(final PooledObjectFactory<T> factory, final GenericObjectPoolConfig<T> config, final AbandonedConfig abandonedConfig, final int stripes, final int maxParked) {
+    this(new TrackingObjectFactory<>(factory), config, abandonedConfig, stripes, maxParked);
+  }
+
+  private StripedObjectPool(final TrackingObjectFactory<T> tracker, final GenericObjectPoolConfig<T> config, final AbandonedConfig abandonedConfig, final int stripes, final int maxParked) {
+    super(tracker, config, abandonedConfig);
+    if (stripes <= 0)
+      throw new IllegalArgumentException("stripes (" + stripes + ") must be positive");
+
+    this.tracker = tracker;
+    this.stripes = stripes;
+    this.slots = maxParked < 0 ? 8 : Math.max(1, (maxParked + stripes - 1) / stripes);
+    this.parked = new AtomicReferenceArray<>(stripes * (slots + PADDING));
+  }
+
+  /**
+   * Returns the number of stripes of this pool.
+   *
+   * @return The number of stripes of this pool.
+   */
+  int getStripes() {
+    return stripes;
+  }
+
+  /**
+   * Returns the number of objects that were borrowed from a stripe other than the stripe of the borrowing thread.
+   *
+   * @return The number of objects that were borrowed from a stripe other than the stripe of the borrowing thread.
+   */
+  long getStealCount() {
+    return stealCount.sum();
+  }
+
+  private int stripe() {
+    return (int)((Thread.currentThread().getId() * 0x9E3779B97F4A7C15L) >>> 33) % stripes;
+  }
+
+  private PooledObject<T> poll(final int stripe) {
+    final int offset = stripe * (slots + PADDING);
+    for (int i = offset + slots - 1; i >= offset; --i) {
+      final PooledObject<T> p = parked.get(i);
+      if (p != null && parked.compareAndSet(i, p, null)) {
+        numParked.decrement();
+        return p;
+      }
+    }
+
+    return null;
+  }
+
+  private boolean offer(final int stripe, final PooledObject<T> p) {
+    final int offset = stripe * (slots + PADDING);
+    for (int i = offset, i$ = offset + slots; i < i$; ++i) {
+      if (parked.get(i) == null && parked.compareAndSet(i, null, p)) {
+        numParked.increment();
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  /**
+   * Returns all parked objects to the idle deque of the {@link GenericObjectPool}.
+   */
+  private void drain() {
+    for (int i = 0, i$ = parked.length(); i < i$; ++i) {
+      final PooledObject<T> p = parked.getAndSet(i, null);
+      if (p != null) {
+        numParked.decrement();
+        super.returnObject(p.getObject());
+      }
+    }
+  }
+
+  @Override
+  public void unpark(final Predicate<? super PooledObject<T>> predicate) {
+    for (int i = 0, i$ = parked.length(); i < i$; ++i) {
+      final PooledObject<T> p = parked.get(i);
+      if (p != null && predicate.test(p) && parked.compareAndSet(i, p, null)) {
+        numParked.decrement();
+        super.returnObject(p.getObject());
+      }
+    }
+  }
+
+  private void invalidate(final PooledObject<T> p) {
+    try {
+      super.invalidateObject(p.getObject(), DestroyMode.NORMAL);
+    }
+    catch (final Exception e) {
+    }
+  }
+
+  private PooledObject<T> pollAny() {
+    final int stripe = stripe();
+    for (int i = 0; i < stripes; ++i) {
+      final PooledObject<T> p = poll((stripe + i) % stripes);
+      if (p != null)
+        return p;
+    }
+
+    return null;
+  }
+
+  private T borrowParked() {
+    final int stripe = stripe();
+    for (int i = 0; i < stripes; ++i) {
+      for (PooledObject<T> p; (p = poll((stripe + i) % stripes)) != null;) {
+        if (!ParkingObjectPool.reallocate(p))
+          continue;
+
+        try {
+          tracker.activateObject(p);
+          if (getTestOnBorrow() && !tracker.validateObject(p)) {
+            invalidate(p);
+            continue;
+          }
+        }
+        catch (final Exception e) {
+          invalidate(p);
+          continue;
+        }
+
+        if (i > 0)
+          stealCount.increment();
+
+        return p.getObject();
+      }
+    }
+
+    return null;
+  }
+
+  @Override
+  public T borrowObject(final Duration borrowMaxWaitDuration) throws Exception {
+    T obj = borrowParked();
+    if (obj != null)
+      return obj;
+
+    unparkedBorrowers.incrementAndGet();
+    try {
+      // A returner that parked an object before this borrower was counted is seen here
+      obj = borrowParked();
+      if (obj != null)
+        return obj;
+
+      // The abandoned object removal of the borrow would otherwise remove the objects that have been parked for longer than its timeout
+      if (getRemoveAbandonedOnBorrow())
+        drain();
+
+      return super.borrowObject(borrowMaxWaitDuration);
+    }
+    finally {
+      unparkedBorrowers.decrementAndGet();
+    }
+  }
+
+  @Override
+  public void returnObject(final T obj) {
+    final PooledObject<T> p = isClosed() ? null : tracker.get(obj);
+    if (p != null) {
+      try {
+        if (getTestOnReturn() && !tracker.validateObject(p)) {
+          invalidate(p);
+          return;
+        }
+
+        tracker.passivate(p);
+      }
+      catch (final Exception e) {
+        invalidate(p);
+        return;
+      }
+
+      p.use();
+      if (offer(stripe(), p)) {
+        // A borrower that was counted after missing the stripes may be waiting on the idle deque
+        if (unparkedBorrowers.get() > 0) {
+          final PooledObject<T> handoff = pollAny();
+          if (handoff != null)
+            super.returnObject(handoff.getObject());
+        }
+
+        // A concurrent close() may have drained the stripes before the object was parked
+        if (isClosed())
+          drain();
+
+        return;
+      }
+    }
+
+    super.returnObject(obj);
+  }
+
+  @Override
+  public void evict() throws Exception {
+    drain();
+    super.evict();
+  }
+
+  @Override
+  public void clear() {
+    drain();
+    super.clear();
+  }
+
+  @Override
+  public void close() {
+    super.close();
+    drain();
+  }
+
+  @Override
+  public int getNumIdle() {
+    return super.getNumIdle() + numParked.intValue();
+  }
+
+  @Override
+  public int getNumActive() {
+    return super.getNumActive() - numParked.intValue();
+  }
+}
@@ -0,0 +1,195 @@
+/* Copyright (c) 2026 OpenJAX
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.openjax.dbcp;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.apache.commons.dbcp2.DelegatingConnection;
+
+/**
+ * A {@link DelegateDataSource} that serves many tenants, each with its own catalog or schema, from one shared target
+ * {@link DataSource}. A connection obtained with {@link #getConnection(String)} is borrowed from the target {@link DataSource} and
+ * switched to the catalog or schema of the tenant, and is returned to the target {@link DataSource} when it is closed, like any other
+ * connection. The tenant that each physical connection is on is tracked, so that a connection that is already on the requested
+ * tenant is served without a switch, which saves a round trip to the database for the pooled connections that are reused.
+ * Connections are borrowed in the order of the target {@link DataSource}, however, so an idle connection that is already on the
+ * requested tenant is not preferred over the other idle connections.
+ * <p>
+ * The tenants are tracked separately for each target {@link DataSource} and for catalogs and schemas. The tenant of a physical
+ * connection is tracked when it is switched by this or any other {@link TenantDataSource} of the same target {@link DataSource}, and
+ * when {@link Connection#setCatalog(String)} or {@link Connection#setSchema(String)} is called on a connection of a
+ * {@link TenantDataSource}. A switch made in any other way is not tracked. The target {@link DataSource} therefore must not reset the
+ * catalog or schema of its connections, which is why a {@link org.apache.commons.dbcp2.BasicDataSource} with a default catalog or
+ * schema is rejected as the target.
+ */
+public class TenantDataSource extends DelegateDataSource {
+  /** The tracked catalogs of the physical connections of each target {@link DataSource}. */
+  private static final Map<DataSource,Map<Connection,String>> catalogs = new WeakHashMap<>();
+  /** The tracked schemas of the physical connections of each target {@link DataSource}. */
+  private static final Map<DataSource,Map<Connection,String>> schemas = new WeakHashMap<>();
+
+  /**
+   * Returns the tracked tenants of the physical connections of the specified target {@link DataSource}, weakly keyed so that closed
+   * connections are dropped.
+   */
+  private static Map<Connection,String> tenants(final Map<DataSource,Map<Connection,String>> targets, final DataSource target) {
+    synchronized (targets) {
+      return targets.computeIfAbsent(target, k -> Collections.synchronizedMap(new WeakHashMap<>()));
+    }
+  }
+
+  /**
+   * Returns the innermost physical connection of the specified {@link Connection}, or the specified {@link Connection} itself if it
+   * does not wrap another.
+   */
+  private static Connection physical(Connection connection) {
+    while (true) {
+      final Connection target;
+      if (connection instanceof DelegateConnection)
+        target = ((DelegateConnection)connection).target;
+      else if (connection instanceof DelegatingConnection)
+        target = ((DelegatingConnection<?>)connection).getInnermostDelegateInternal();
+      else
+        return connection;
+
+      if (target == null)
+        return connection;
+
+      connection = target;
+    }
+  }
+
+  private final boolean schema;
+  private final Map<Connection,String> tenants;
+  private final Map<Connection,String> others;
+  private final AtomicLong switchCount = new AtomicLong();
+  private final AtomicLong reuseCount = new AtomicLong();
+
+  /**
+   * Creates a new {@link TenantDataSource} with the specified target {@link DataSource}.
+   *
+   * @param target The target {@link DataSource}.
+   * @param schema Whether tenants are switched with {@link Connection#setSchema(String)}, instead of with
+   *          {@link Connection#setCatalog(String)}.
+   * @throws NullPointerException If {@code target} is null.
+   * @throws IllegalArgumentException If {@code target} is a {@link org.apache.commons.dbcp2.BasicDataSource} with a default catalog or
+   *           schema, which resets the tracked tenant of its connections.
+   */
+  public TenantDataSource(final DataSource target, final boolean schema) {
+    super(target);
+    if (target instanceof org.apache.commons.dbcp2.BasicDataSource) {
+      final org.apache.commons.dbcp2.BasicDataSource dataSource = (org.apache.commons.dbcp2.BasicDataSource)target;
+      if (dataSource.getDefaultCatalog() != null || dataSource.getDefaultSchema() != null)
+        throw new IllegalArgumentException("The target data source must not have a default catalog or schema");
+    }
+
+    this.schema = schema;
+    this.tenants = tenants(schema ? schemas : catalogs, target);
+    this.others = tenants(schema ? catalogs : schemas, target);
+  }
+
+  /**
+   * Returns a connection that is switched to the catalog or schema of the specified tenant.
+   *
+   * @param tenant The name of the catalog or schema of the tenant.
+   * @return A connection that is switched to the catalog or schema of the specified tenant.
+   * @throws NullPointerException If {@code tenant} is null.
+   * @throws SQLException If a database access error occurs.
+   */
+  public Connection getConnection(final String tenant) throws SQLException {
+    Objects.requireNonNull(tenant);
+    final Connection target = this.target.getConnection();
+    try {
+      final Connection physical = physical(target);
+      if (tenant.equals(tenants.get(physical))) {
+        reuseCount.incrementAndGet();
+      }
+      else {
+        // Not tracked until the switch has succeeded, because a failed switch leaves the connection on an unknown tenant
+        tenants.remove(physical);
+        others.remove(physical);
+        if (schema)
+          target.setSchema(tenant);
+        else
+          target.setCatalog(tenant);
+
+        tenants.put(physical, tenant);
+        switchCount.incrementAndGet();
+      }
+
+      return new TenantConnection(target, physical);
+    }
+    catch (final SQLException | RuntimeException e) {
+      target.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Returns the number of times the catalog or schema of a connection was switched to serve a tenant.
+   *
+   * @return The number of times the catalog or schema of a connection was switched to serve a tenant.
+   */
+  public long getSwitchCount() {
+    return switchCount.get();
+  }
+
+  /**
+   * Returns the number of times a connection that was already on the requested tenant was served without a switch.
+   *
+   * @return The number of times a connection that was already on the requested tenant was served without a switch.
+   */
+  public long getReuseCount() {
+    return reuseCount.get();
+  }
+
+  private final class TenantConnection extends DelegateConnection {
+    private final Connection physical;
+
+    private TenantConnection(final Connection target, final Connection physical) {
+      super(target);
+      this.physical = physical;
+    }
+
+    @Override
+    public void setCatalog(final String catalog) throws SQLException {
+      // A switch of the catalog may also switch the schema, and vice versa, so the other tracked tenant is dropped as well
+      tenants.remove(physical);
+      others.remove(physical);
+      super.setCatalog(catalog);
+      if (!schema && catalog != null)
+        tenants.put(physical, catalog);
+    }
+
+    @Override
+    public void setSchema(final String schema) throws SQLException {
+      tenants.remove(physical);
+      others.remove(physical);
+      super.setSchema(schema);
+      if (TenantDataSource.this.schema && schema != null)
+        tenants.put(physical, schema);
+    }
+  }
+}
@@ -0,0 +1,88 @@
+/* Copyright (c) 2026 OpenJAX
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.openjax.dbcp;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A token bucket that hands out permits at a fixed rate, allowing up to {@code burst} permits to be taken back-to-back. The bucket
+ * is implemented as a generic cell rate algorithm, and therefore keeps no more state than a single timestamp.
+ */
+final class TokenBucket {
+  private int permitsPerSecond;
+  private long interval;
+  private long tolerance;
+  private long theoreticalArrival;
+
+  /**
+   * Creates a new {@link TokenBucket} with the specified rate and burst.
+   *
+   * @param permitsPerSecond The number of permits handed out per second.
+   * @param burst The number of permits that can be taken back-to-back.
+   * @throws IllegalArgumentException If {@code permitsPerSecond} or {@code burst} is not positive.
+   */
+  TokenBucket(final int permitsPerSecond, final int burst) {
+    setRate(permitsPerSecond, burst);
+    this.theoreticalArrival = System.nanoTime();
+  }
+
+  /**
+   * Returns the number of permits handed out per second.
+   *
+   * @return The number of permits handed out per second.
+   */
+  synchronized int getPermitsPerSecond() {
+    return permitsPerSecond;
+  }
+
+  /**
+   * Changes the rate and burst of this bucket, keeping the permits that have already been reserved.
+   *
+   * @param permitsPerSecond The number of permits handed out per second.
+   * @param burst The number of permits that can be taken back-to-back.
+   * @throws IllegalArgumentException If {@code permitsPerSecond} or {@code burst} is not positive.
+   */
+  synchronized void setRate(final int permitsPerSecond, final int burst) {
+    if (permitsPerSecond <= 0)
+      throw new IllegalArgumentException("permitsPerSecond (" + permitsPerSecond + ") must be positive");
+
+    if (burst <= 0)
+      throw new IllegalArgumentException("burst (" + burst + ") must be positive");
+
+    this.permitsPerSecond = permitsPerSecond;
+    this.interval = TimeUnit.SECONDS.toNanos(1) / permitsPerSecond;
+    this.tolerance = interval * (burst - 1);
+  }
+
+  /**
+   * Reserves a permit if it may be used within the specified timeout, and returns the number of nanoseconds the caller must wait
+   * before the permit may be used.
+   *
+   * @param timeout The maximum time (in nanoseconds) the caller can wait.
+   * @return The number of nanoseconds the caller must wait before the permit may be used, or {@code -1} if the permit may not be used
+   *         within the specified timeout, in which case no permit is reserved.
+   */
+  synchronized long reserve(final long timeout) {
+    final long now = System.nanoTime();
+    final long wait = Math.max(0, theoreticalArrival - tolerance - now);
+    if (wait > timeout)
+      return -1;
+
+    theoreticalArrival = (theoreticalArrival - now < 0 ? now : theoreticalArrival) + interval;
+    return wait;
+  }
+}
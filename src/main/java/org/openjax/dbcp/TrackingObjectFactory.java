@@ -0,0 +1,130 @@
+/* Copyright (c) 2026 OpenJAX
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.openjax.dbcp;
+
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.pool2.DestroyMode;
+import org.apache.commons.pool2.PooledObject;
+import org.apache.commons.pool2.PooledObjectFactory;
+
+/**
+ * A {@link PooledObjectFactory} that keeps the {@link PooledObject} of each object it creates, so that a pool that parks objects
+ * outside of the idle deque of its {@link org.apache.commons.pool2.impl.GenericObjectPool} can find the {@link PooledObject} of an
+ * object returned by its borrower. An object that is {@link #passivate(PooledObject) passivated} by the pool ahead of its return to
+ * the idle deque is neither passivated nor validated again when the {@link org.apache.commons.pool2.impl.GenericObjectPool} returns it.
+ *
+ * @param <T> The type of the pooled objects.
+ */
+final class TrackingObjectFactory<T> implements PooledObjectFactory<T> {
+  private final PooledObjectFactory<T> target;
+  private final ConcurrentHashMap<Identity,PooledObject<T>> pooledObjects = new ConcurrentHashMap<>();
+  private final Set<PooledObject<T>> passivated = ConcurrentHashMap.newKeySet();
+
+  /**
+   * Creates a new {@link TrackingObjectFactory} with the specified target {@link PooledObjectFactory}.
+   *
+   * @param target The target {@link PooledObjectFactory}.
+   * @throws NullPointerException If {@code target} is null.
+   */
+  TrackingObjectFactory(final PooledObjectFactory<T> target) {
+    this.target = Objects.requireNonNull(target);
+  }
+
+  /**
+   * Returns the {@link PooledObject} of the specified object, or {@code null} if the object was not created by this factory, or has
+   * been destroyed.
+   *
+   * @param obj The object.
+   * @return The {@link PooledObject} of the specified object, or {@code null} if there is no such {@link PooledObject}.
+   */
+  PooledObject<T> get(final T obj) {
+    return pooledObjects.get(new Identity(obj));
+  }
+
+  /**
+   * Passivates the specified object ahead of its return to the idle deque of the pool, so that {@link #passivateObject(PooledObject)}
+   * and {@link #validateObject(PooledObject)} do nothing for the object until it is next activated or destroyed.
+   *
+   * @param p The {@link PooledObject} to passivate.
+   * @throws Exception If the target {@link PooledObjectFactory} fails to passivate the object.
+   */
+  void passivate(final PooledObject<T> p) throws Exception {
+    target.passivateObject(p);
+    passivated.add(p);
+  }
+
+  @Override
+  public PooledObject<T> makeObject() throws Exception {
+    final PooledObject<T> p = target.makeObject();
+    pooledObjects.put(new Identity(p.getObject()), p);
+    return p;
+  }
+
+  @Override
+  public void activateObject(final PooledObject<T> p) throws Exception {
+    passivated.remove(p);
+    target.activateObject(p);
+  }
+
+  @Override
+  public void passivateObject(final PooledObject<T> p) throws Exception {
+    if (!passivated.remove(p))
+      target.passivateObject(p);
+  }
+
+  @Override
+  public boolean validateObject(final PooledObject<T> p) {
+    return passivated.contains(p) || target.validateObject(p);
+  }
+
+  @Override
+  public void destroyObject(final PooledObject<T> p) throws Exception {
+    destroyObject(p, DestroyMode.NORMAL);
+  }
+
+  @Override
+  public void destroyObject(final PooledObject<T> p, final DestroyMode destroyMode) throws Exception {
+    try {
+      target.destroyObject(p, destroyMode);
+    }
+    finally {
+      passivated.remove(p);
+      pooledObjects.remove(new Identity(p.getObject()));
+    }
+  }
+
+  private static final class Identity {
+    private final Object object;
+
+    private Identity(final Object object) {
+      this.object = object;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+      return obj instanceof Identity && ((Identity)obj).object == object;
+    }
+
+    @Override
+    public int hashCode() {
+      return System.identityHashCode(object);
+    }
+  }
+}
@@ -0,0 +1,180 @@
+/* Copyright (c) 2026 OpenJAX
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.openjax.dbcp;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+
+import javax.sql.ConnectionPoolDataSource;
+import javax.sql.DataSource;
+import javax.sql.PooledConnection;
+
+import org.apache.commons.dbcp2.ConnectionFactory;
+
+/**
+ * A {@link ConnectionFactory} that obtains connections from a vendor {@link DataSource} or {@link ConnectionPoolDataSource},
+ * instantiated by class name and configured via its bean properties.
+ */
+final class VendorConnectionFactory implements ConnectionFactory {
+  private static Object convert(final String value, final Class<?> type) throws ReflectiveOperationException {
+    if (type == String.class || type == Object.class)
+      return value;
+
+    if (type == boolean.class || type == Boolean.class)
+      return Boolean.valueOf(value);
+
+    if (type == int.class || type == Integer.class)
+      return Integer.valueOf(value);
+
+    if (type == long.class || type == Long.class)
+      return Long.valueOf(value);
+
+    if (type == short.class || type == Short.class)
+      return Short.valueOf(value);
+
+    if (type == byte.class || type == Byte.class)
+      return Byte.valueOf(value);
+
+    if (type == double.class || type == Double.class)
+      return Double.valueOf(value);
+
+    if (type == float.class || type == Float.class)
+      return Float.valueOf(value);
+
+    if (type == char.class || type == Character.class) {
+      if (value.length() != 1)
+        throw new IllegalArgumentException("\"" + value + "\" is not a single character");
+
+      return value.charAt(0);
+    }
+
+    if (type.isEnum()) {
+      for (final Object constant : type.getEnumConstants()) // [A]
+        if (((Enum<?>)constant).name().equalsIgnoreCase(value))
+          return constant;
+
+      throw new IllegalArgumentException("\"" + value + "\" is not a constant of " + type.getName());
+    }
+
+    final Constructor<?> constructor = type.getConstructor(String.class);
+    return constructor.newInstance(value);
+  }
+
+  /**
+   * Sets the bean property with the specified name on the specified bean, converting the specified value to the type of the setter.
+   * A setter with a {@link String} parameter is preferred over other setters of the same name.
+   */
+  private static void setProperty(final Object bean, final String name, final String value) throws SQLException {
+    final String setterName = "set" + Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    Method setter = null;
+    for (final Method method : bean.getClass().getMethods()) { // [A]
+      if (method.getParameterCount() == 1 && !Modifier.isStatic(method.getModifiers()) && setterName.equals(method.getName()) && (setter == null || method.getParameterTypes()[0] == String.class))
+        setter = method;
+    }
+
+    if (setter == null)
+      throw new SQLException("Property \"" + name + "\" does not exist on " + bean.getClass().getName());
+
+    try {
+      setter.invoke(bean, convert(value, setter.getParameterTypes()[0]));
+    }
+    catch (final InvocationTargetException e) {
+      throw new SQLException("Unable to set property \"" + name + "\" on " + bean.getClass().getName(), e.getCause());
+    }
+    catch (final ReflectiveOperationException | IllegalArgumentException e) {
+      throw new SQLException("Unable to set property \"" + name + "\" to \"" + value + "\" on " + bean.getClass().getName(), e);
+    }
+  }
+
+  private final Object dataSource;
+
+  /**
+   * Creates a new {@link VendorConnectionFactory} with a new instance of the specified class, configured with the specified bean
+   * properties.
+   *
+   * @param className The fully qualified name of a {@link DataSource} or {@link ConnectionPoolDataSource} class.
+   * @param classLoader The {@link ClassLoader} from which to load the class, or {@code null} for the {@link ClassLoader} of this class.
+   * @param properties The bean properties, in the order in which they are to be set.
+   * @throws NullPointerException If {@code className} or {@code properties} is null.
+   * @throws SQLException If the class cannot be instantiated, is not a {@link DataSource} or {@link ConnectionPoolDataSource}, or if a
+   *           property cannot be set.
+   */
+  VendorConnectionFactory(final String className, final ClassLoader classLoader, final Map<String,String> properties) throws SQLException {
+    Objects.requireNonNull(className);
+    try {
+      final Class<?> cls = Class.forName(className, true, classLoader != null ? classLoader : VendorConnectionFactory.class.getClassLoader());
+      if (!DataSource.class.isAssignableFrom(cls) && !ConnectionPoolDataSource.class.isAssignableFrom(cls))
+        throw new SQLException(className + " is neither a " + DataSource.class.getName() + " nor a " + ConnectionPoolDataSource.class.getName());
+
+      this.dataSource = cls.getConstructor().newInstance();
+    }
+    catch (final InvocationTargetException e) {
+      throw new SQLException("Unable to instantiate " + className, e.getCause());
+    }
+    catch (final ReflectiveOperationException e) {
+      throw new SQLException("Unable to instantiate " + className, e);
+    }
+
+    for (final Map.Entry<String,String> entry : properties.entrySet())
+      setProperty(dataSource, entry.getKey(), entry.getValue());
+  }
+
+  @Override
+  public Connection createConnection() throws SQLException {
+    if (dataSource instanceof DataSource)
+      return ((DataSource)dataSource).getConnection();
+
+    final PooledConnection pooledConnection = ((ConnectionPoolDataSource)dataSource).getPooledConnection();
+    final Connection connection;
+    try {
+      connection = pooledConnection.getConnection();
+    }
+    catch (final SQLException e) {
+      pooledConnection.close();
+      throw e;
+    }
+
+    return new DelegateConnection(connection) {
+      @Override
+      public void close() throws SQLException {
+        try {
+          super.close();
+        }
+        finally {
+          pooledConnection.close();
+        }
+      }
+
+      @Override
+      public void abort(final Executor executor) throws SQLException {
+        try {
+          super.abort(executor);
+        }
+        finally {
+          pooledConnection.close();
+        }
+      }
+    };
+  }
+}
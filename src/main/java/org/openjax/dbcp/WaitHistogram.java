@@ -0,0 +1,80 @@
+/* Copyright (c) 2026 OpenJAX
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.openjax.dbcp;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram of wait times with fixed buckets, whose counts are kept in {@link LongAdder}s, so that recording a wait does not
+ * contend with concurrent recordings.
+ */
+final class WaitHistogram {
+  /** The upper bounds (in seconds) of the buckets, excluding the implicit {@code +Inf} bucket. */
+  static final double[] BOUNDS = {0.0001, 0.0005, 0.001, 0.005, 0.01, 0.05, 0.1, 0.5, 1, 5, 10};
+
+  private static final long[] boundNanos = new long[BOUNDS.length];
+
+  static {
+    for (int i = 0; i < BOUNDS.length; ++i) // [A]
+      boundNanos[i] = (long)(BOUNDS[i] * 1e9);
+  }
+
+  private final LongAdder[] counts = new LongAdder[BOUNDS.length + 1];
+  private final LongAdder sum = new LongAdder();
+
+  WaitHistogram() {
+    for (int i = 0; i < counts.length; ++i) // [A]
+      counts[i] = new LongAdder();
+  }
+
+  /**
+   * Records a wait of the specified time.
+   *
+   * @param nanos The time (in nanoseconds) of the wait.
+   */
+  void record(final long nanos) {
+    int i = 0;
+    while (i < boundNanos.length && nanos > boundNanos[i])
+      ++i;
+
+    counts[i].increment();
+    sum.add(nanos);
+  }
+
+  /**
+   * Returns the cumulative counts of the buckets, of which the last is the {@code +Inf} bucket, and thus the total count.
+   *
+   * @return The cumulative counts of the buckets.
+   */
+  long[] getCumulativeCounts() {
+    final long[] cumulative = new long[counts.length];
+    long count = 0;
+    for (int i = 0; i < counts.length; ++i) // [A]
+      cumulative[i] = count += counts[i].sum();
+
+    return cumulative;
+  }
+
+  /**
+   * Returns the sum (in nanoseconds) of all recorded waits.
+   *
+   * @return The sum (in nanoseconds) of all recorded waits.
+   */
+  long getSum() {
+    return sum.sum();
+  }
+}
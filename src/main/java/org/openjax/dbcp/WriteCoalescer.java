@@ -0,0 +1,271 @@
+/* Copyright (c) 2026 OpenJAX
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.openjax.dbcp;
+
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.sql.DataSource;
+
+/**
+ * Coalesces parameterized statements submitted concurrently by many threads into JDBC batches. Statements with identical SQL are
+ * grouped until either the group reaches the maximum batch size, or the first statement of the group has waited for the maximum delay,
+ * whereupon the group is executed with {@link PreparedStatement#addBatch()} and {@link PreparedStatement#executeBatch()} on a single
+ * connection borrowed from the {@link DataSource}. The {@link CompletableFuture} returned by {@link #submit(String,Object...)} is
+ * completed with the update count of the statement, or exceptionally if the statement failed.
+ * <p>
+ * If the borrowed connection is in "auto-commit" mode, the statements of a batch succeed or fail individually as reported by the
+ * driver. Otherwise, the batch is committed as a whole, or rolled back as a whole if any of its statements fails.
+ */
+public class WriteCoalescer implements AutoCloseable {
+  private final DataSource dataSource;
+  private final int maxBatchSize;
+  private final long maxDelayNanos;
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition ready = lock.newCondition();
+  private final LinkedHashMap<String,Batch> batches = new LinkedHashMap<>();
+  private final ArrayDeque<Batch> full = new ArrayDeque<>();
+  private final Thread flusher;
+  private boolean closed;
+
+  private static final class Batch {
+    private final String sql;
+    private final long deadline;
+    private final ArrayList<Object[]> parameters = new ArrayList<>();
+    private final ArrayList<CompletableFuture<Integer>> futures = new ArrayList<>();
+
+    private Batch(final String sql, final long deadline) {
+      this.sql = sql;
+      this.deadline = deadline;
+    }
+  }
+
+  /**
+   * Creates a new {@link WriteCoalescer} that executes batches on connections borrowed from the specified {@link DataSource}.
+   *
+   * @param dataSource The {@link DataSource} from which to borrow connections.
+   * @param maxBatchSize The maximum number of statements in a batch.
+   * @param maxDelay The maximum time (in milliseconds) a statement waits for other statements to be coalesced with.
+   * @throws NullPointerException If {@code dataSource} is null.
+   * @throws IllegalArgumentException If {@code maxBatchSize} is not positive, or if {@code maxDelay} is negative.
+   */
+  public WriteCoalescer(final DataSource dataSource, final int maxBatchSize, final long maxDelay) {
+    this.dataSource = Objects.requireNonNull(dataSource);
+    if (maxBatchSize <= 0)
+      throw new IllegalArgumentException("maxBatchSize (" + maxBatchSize + ") must be positive");
+
+    if (maxDelay < 0)
+      throw new IllegalArgumentException("maxDelay (" + maxDelay + ") must not be negative");
+
+    this.maxBatchSize = maxBatchSize;
+    this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelay);
+    this.flusher = new Thread(this::flush, "WriteCoalescer-" + Integer.toHexString(System.identityHashCode(this)));
+    this.flusher.setDaemon(true);
+    this.flusher.start();
+  }
+
+  /**
+   * Submits the specified parameterized statement for execution in a batch with other statements of identical SQL.
+   *
+   * @param sql The SQL of the statement.
+   * @param parameters The parameters of the statement, in order, as accepted by {@link PreparedStatement#setObject(int,Object)}.
+   * @return A {@link CompletableFuture} that is completed with the update count of the statement, or exceptionally with the
+   *         {@link SQLException} that caused it to fail.
+   * @throws NullPointerException If {@code sql} is null.
+   * @throws IllegalStateException If this {@link WriteCoalescer} is closed.
+   */
+  public CompletableFuture<Integer> submit(final String sql, final Object ... parameters) {
+    Objects.requireNonNull(sql);
+    final CompletableFuture<Integer> future = new CompletableFuture<>();
+    lock.lock();
+    try {
+      if (closed)
+        throw new IllegalStateException("WriteCoalescer is closed");
+
+      Batch batch = batches.get(sql);
+      if (batch == null) {
+        batches.put(sql, batch = new Batch(sql, System.nanoTime() + maxDelayNanos));
+        ready.signal();
+      }
+
+      batch.parameters.add(parameters == null ? new Object[0] : parameters.clone());
+      batch.futures.add(future);
+      if (batch.futures.size() >= maxBatchSize) {
+        batches.remove(sql);
+        full.add(batch);
+        ready.signal();
+      }
+    }
+    finally {
+      lock.unlock();
+    }
+
+    return future;
+  }
+
+  /**
+   * Returns the next batch that is due for execution, waiting until one is due, or {@code null} if this {@link WriteCoalescer} is
+   * closed and all batches have been executed.
+   */
+  private Batch next() throws InterruptedException {
+    lock.lock();
+    try {
+      while (true) {
+        if (!full.isEmpty())
+          return full.poll();
+
+        if (batches.isEmpty()) {
+          if (closed)
+            return null;
+
+          ready.await();
+          continue;
+        }
+
+        final Iterator<Batch> iterator = batches.values().iterator();
+        final Batch oldest = iterator.next();
+        final long delay = oldest.deadline - System.nanoTime();
+        if (closed || delay <= 0) {
+          iterator.remove();
+          return oldest;
+        }
+
+        ready.awaitNanos(delay);
+      }
+    }
+    finally {
+      lock.unlock();
+    }
+  }
+
+  private void flush() {
+    Batch batch = null;
+    try {
+      while ((batch = next()) != null) {
+        execute(batch);
+        batch = null;
+      }
+    }
+    catch (final InterruptedException e) {
+      fail(batch, new SQLException("WriteCoalescer was interrupted", e));
+    }
+    catch (final Throwable t) {
+      fail(batch, new SQLException("WriteCoalescer failed", t));
+      throw t;
+    }
+  }
+
+  /**
+   * Closes this {@link WriteCoalescer}, and completes the futures of the specified batch that was being executed (if not null) and of
+   * all batches not yet executed exceptionally with the specified {@link SQLException}.
+   */
+  private void fail(final Batch current, final SQLException e) {
+    if (current != null)
+      complete(current, null, e);
+
+    lock.lock();
+    try {
+      closed = true;
+      for (final Batch batch : full)
+        complete(batch, null, e);
+
+      for (final Batch batch : batches.values())
+        complete(batch, null, e);
+
+      full.clear();
+      batches.clear();
+    }
+    finally {
+      lock.unlock();
+    }
+  }
+
+  private void execute(final Batch batch) {
+    try (final Connection connection = dataSource.getConnection()) {
+      final boolean autoCommit = connection.getAutoCommit();
+      try (final PreparedStatement statement = connection.prepareStatement(batch.sql)) {
+        for (int i = 0, i$ = batch.parameters.size(); i < i$; ++i) { // [RA]
+          final Object[] parameters = batch.parameters.get(i);
+          for (int j = 0; j < parameters.length; ++j) // [A]
+            statement.setObject(j + 1, parameters[j]);
+
+          statement.addBatch();
+        }
+
+        final int[] updateCounts = statement.executeBatch();
+        if (!autoCommit)
+          connection.commit();
+
+        complete(batch, updateCounts, null);
+      }
+      catch (final SQLException | RuntimeException e) {
+        if (!autoCommit) {
+          connection.rollback();
+          complete(batch, null, e);
+        }
+        else {
+          complete(batch, e instanceof BatchUpdateException ? ((BatchUpdateException)e).getUpdateCounts() : null, e);
+        }
+      }
+    }
+    catch (final SQLException | RuntimeException e) {
+      complete(batch, null, e);
+    }
+  }
+
+  private static void complete(final Batch batch, final int[] updateCounts, final Exception e) {
+    for (int i = 0, i$ = batch.futures.size(); i < i$; ++i) { // [RA]
+      final CompletableFuture<Integer> future = batch.futures.get(i);
+      if (updateCounts != null && i < updateCounts.length && updateCounts[i] != Statement.EXECUTE_FAILED)
+        future.complete(updateCounts[i]);
+      else
+        future.completeExceptionally(e != null ? e : new SQLException("Statement was not executed"));
+    }
+  }
+
+  /**
+   * Closes this {@link WriteCoalescer}, executing the statements that have been submitted but not yet executed, and waiting for their
+   * execution to complete.
+   *
+   * @throws InterruptedException If the calling thread is interrupted while waiting.
+   */
+  @Override
+  public void close() throws InterruptedException {
+    lock.lock();
+    try {
+      closed = true;
+      ready.signal();
+    }
+    finally {
+      lock.unlock();
+    }
+
+    flusher.join();
+  }
+}
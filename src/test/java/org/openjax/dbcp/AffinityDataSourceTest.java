@@ -0,0 +1,134 @@
+/* Copyright (c) 2026 OpenJAX
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.openjax.dbcp;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.SQLClientInfoException;
+import java.sql.SQLException;
+
+import org.junit.AfterClass;
+import org.junit.Test;
+
+public class AffinityDataSourceTest {
+  @AfterClass
+  public static void afterClass() {
+    new File("derby.log").delete();
+  }
+
+  @Test
+  public void testScope() throws SQLException {
+    try (final BasicDataSource pool = DerbyFixture.newDataSource("affinity")) {
+      final AffinityDataSource dataSource = new AffinityDataSource(pool);
+      assertFalse(dataSource.isScoped());
+      try (final AffinityDataSource.Scope scope = dataSource.open()) {
+        assertTrue(dataSource.isScoped());
+        final Connection c1 = dataSource.getConnection();
+        final Connection c2 = dataSource.getConnection();
+        assertNotSame(c1, c2);
+        assertEquals(1, pool.getNumActive());
+
+        c1.close();
+        assertTrue(c1.isClosed());
+        assertFalse(c2.isClosed());
+
+        try (final AffinityDataSource.Scope nested = dataSource.open()) {
+          assertSame(scope, nested);
+          dataSource.getConnection().close();
+          assertEquals(1, pool.getNumActive());
+        }
+
+        assertEquals(1, pool.getNumActive());
+        c2.close();
+      }
+
+      assertFalse(dataSource.isScoped());
+      assertEquals(0, pool.getNumActive());
+      assertEquals(1, pool.getNumIdle());
+
+      try (final Connection connection = dataSource.getConnection()) {
+        assertEquals(1, pool.getNumActive());
+      }
+
+      assertEquals(0, pool.getNumActive());
+    }
+  }
+
+  @Test
+  public void testClosedHandle() throws SQLException {
+    try (final BasicDataSource pool = DerbyFixture.newDataSource("affinity")) {
+      final AffinityDataSource dataSource = new AffinityDataSource(pool);
+      try (final AffinityDataSource.Scope scope = dataSource.open()) {
+        final Connection c1 = dataSource.getConnection();
+        final Connection c2 = dataSource.getConnection();
+        c1.close();
+        assertFalse(c1.isValid(0));
+        try {
+          c1.createStatement();
+          fail("Expected SQLException");
+        }
+        catch (final SQLException e) {
+          assertEquals("08003", e.getSQLState());
+        }
+
+        try {
+          c1.setAutoCommit(false);
+          fail("Expected SQLException");
+        }
+        catch (final SQLException e) {
+          assertEquals("08003", e.getSQLState());
+        }
+
+        try {
+          c1.setClientInfo("ApplicationName", "affinity");
+          fail("Expected SQLClientInfoException");
+        }
+        catch (final SQLClientInfoException e) {
+          assertEquals("08003", e.getSQLState());
+        }
+
+        assertTrue(c2.getAutoCommit());
+        assertTrue(c2.isValid(0));
+        c2.close();
+      }
+    }
+  }
+
+  @Test
+  public void testWrongThread() throws Exception {
+    try (final BasicDataSource pool = DerbyFixture.newDataSource("affinity")) {
+      final AffinityDataSource dataSource = new AffinityDataSource(pool);
+      final AffinityDataSource.Scope scope = dataSource.open();
+      final Throwable[] thrown = new Throwable[1];
+      final Thread thread = new Thread(() -> {
+        try {
+          scope.close();
+        }
+        catch (final Throwable t) {
+          thrown[0] = t;
+        }
+      });
+      thread.start();
+      thread.join();
+      assertTrue(thrown[0] instanceof IllegalStateException);
+      scope.close();
+      assertFalse(dataSource.isScoped());
+    }
+  }
+}
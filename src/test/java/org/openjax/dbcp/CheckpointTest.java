@@ -0,0 +1,99 @@
+/* Copyright (c) 2026 OpenJAX
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.openjax.dbcp;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+
+import org.junit.AfterClass;
+import org.junit.Test;
+
+public class CheckpointTest {
+  @AfterClass
+  public static void afterClass() {
+    new File("derby.log").delete();
+  }
+
+  @Test
+  public void testCheckpointAndRestore() throws Exception {
+    try (final BasicDataSource dataSource = DerbyFixture.newDataSource("checkpoint")) {
+      try (
+        final Connection c1 = dataSource.getConnection();
+        final Connection c2 = dataSource.getConnection();
+        final Connection c3 = dataSource.getConnection();
+      ) {
+      }
+
+      assertEquals(3, dataSource.getNumIdle());
+      dataSource.beforeCheckpoint(1000);
+      assertEquals(0, dataSource.getNumIdle());
+      assertEquals(0, dataSource.getNumActive());
+      assertEquals(0, dataSource.getObjectFactory().states().size());
+
+      try {
+        dataSource.getConnection();
+        fail("Expected SQLTransientConnectionException");
+      }
+      catch (final SQLTransientConnectionException e) {
+      }
+
+      final int warmSize = dataSource.afterRestore();
+      assertEquals(3, warmSize);
+      for (int i = 0; i < warmSize; ++i)
+        dataSource.addIdleConnection();
+
+      assertEquals(3, dataSource.getNumIdle());
+      try (final Connection connection = dataSource.getConnection()) {
+        assertTrue(connection.isValid(1));
+      }
+    }
+  }
+
+  @Test
+  public void testBorrowedTimeout() throws Exception {
+    try (final BasicDataSource dataSource = DerbyFixture.newDataSource("borrowed")) {
+      try (final Connection connection = dataSource.getConnection()) {
+        try {
+          dataSource.beforeCheckpoint(50);
+          fail("Expected SQLException");
+        }
+        catch (final SQLException e) {
+          assertFalse(e instanceof SQLTransientConnectionException);
+        }
+      }
+
+      dataSource.beforeCheckpoint(1000);
+      assertEquals(0, dataSource.getNumIdle());
+      assertEquals(1, dataSource.afterRestore());
+    }
+  }
+
+  @Test
+  public void testUninitialized() throws Exception {
+    try (final BasicDataSource dataSource = DerbyFixture.newDataSource("uninitialized")) {
+      dataSource.beforeCheckpoint(1000);
+      assertEquals(0, dataSource.afterRestore());
+      try (final Connection connection = dataSource.getConnection()) {
+        assertTrue(connection.isValid(1));
+      }
+    }
+  }
+}
@@ -0,0 +1,232 @@
+/* Copyright (c) 2026 OpenJAX
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.openjax.dbcp;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+
+import org.junit.AfterClass;
+import org.junit.Test;
+import org.openjax.dbcp_1_2.Dbcp;
+
+import com.sun.net.httpserver.HttpServer;
+
+public class ConfigCacheTest {
+  @AfterClass
+  public static void afterClass() {
+    new File("derby.log").delete();
+  }
+
+  private static byte[] document(final String id) {
+    return ("<dbcp id=\"" + id + "\" xmlns=\"http://www.openjax.org/dbcp-1.2.xsd\"><jdbc><url>jdbc:derby:memory:" + id + ";create=true</url><driverClassName>org.apache.derby.jdbc.EmbeddedDriver</driverClassName></jdbc></dbcp>").getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static File write(final File file, final String id) throws IOException {
+    Files.write(file.toPath(), document(id));
+    return file;
+  }
+
+  private static File writeJar(final File file, final String id) throws IOException {
+    try (final JarOutputStream out = new JarOutputStream(new FileOutputStream(file))) {
+      out.putNextEntry(new ZipEntry("dbcp.xml"));
+      out.write(document(id));
+      out.closeEntry();
+    }
+
+    return file;
+  }
+
+  private static ConfigCache.Reader reader(final AtomicInteger reads) {
+    return in -> {
+      reads.incrementAndGet();
+      return new Dbcp[] {DbcpReader.read(in)};
+    };
+  }
+
+  @Test
+  public void testHitAndMiss() throws Exception {
+    final ConfigCache cache = new ConfigCache(2);
+    final AtomicInteger reads = new AtomicInteger();
+    final ConfigCache.Reader reader = reader(reads);
+
+    final File a = write(File.createTempFile("a", ".xml"), "a");
+    final File b = write(File.createTempFile("b", ".xml"), "b");
+    final File c = write(File.createTempFile("c", ".xml"), "c");
+    try {
+      final URL url = a.toURI().toURL();
+      final Dbcp[] dbcps = cache.get("dbcp", url, reader);
+      assertSame(dbcps, cache.get("dbcp", url, reader));
+      assertEquals(1, reads.get());
+      assertEquals(1, cache.getHitCount());
+      assertEquals(1, cache.getMissCount());
+
+      // A different scope is a different entry
+      assertNotSame(dbcps, cache.get("other", url, reader));
+      assertEquals(2, reads.get());
+
+      // A change of the document is a miss, and replaces the stale entry
+      write(a, "a2");
+      a.setLastModified(a.lastModified() + 2000);
+      assertEquals("a2", cache.get("dbcp", url, reader)[0].getId());
+      assertEquals(3, reads.get());
+      assertEquals(2, cache.size());
+
+      // The least recently used entry is evicted
+      cache.get("dbcp", b.toURI().toURL(), reader);
+      cache.get("dbcp", c.toURI().toURL(), reader);
+      assertEquals(2, cache.size());
+      cache.get("dbcp", url, reader);
+      assertEquals(6, reads.get());
+
+      cache.setMaxSize(0);
+      assertEquals(0, cache.size());
+      cache.get("dbcp", url, reader);
+      cache.get("dbcp", url, reader);
+      assertEquals(8, reads.get());
+      assertEquals(1, cache.getHitCount());
+    }
+    finally {
+      a.delete();
+      b.delete();
+      c.delete();
+    }
+  }
+
+  @Test
+  public void testSameSize() throws Exception {
+    final ConfigCache cache = new ConfigCache(2);
+    final AtomicInteger reads = new AtomicInteger();
+    final ConfigCache.Reader reader = reader(reads);
+    final File file = write(File.createTempFile("same", ".xml"), "a1");
+    try {
+      final FileTime lastModified = Files.getLastModifiedTime(file.toPath());
+      final URL url = file.toURI().toURL();
+      assertEquals("a1", cache.get("dbcp", url, reader)[0].getId());
+
+      // A change of the content that keeps the size is seen by the change of the last modified time
+      write(file, "a2");
+      Files.setLastModifiedTime(file.toPath(), FileTime.from(lastModified.to(TimeUnit.MICROSECONDS) + 1000, TimeUnit.MICROSECONDS));
+      assertEquals("a2", cache.get("dbcp", url, reader)[0].getId());
+      assertEquals("a2", cache.get("dbcp", url, reader)[0].getId());
+      assertEquals(2, reads.get());
+      assertEquals(1, cache.getHitCount());
+    }
+    finally {
+      file.delete();
+    }
+  }
+
+  @Test
+  public void testJar() throws Exception {
+    final ConfigCache cache = new ConfigCache(2);
+    final AtomicInteger reads = new AtomicInteger();
+    final ConfigCache.Reader reader = reader(reads);
+    final File file = writeJar(File.createTempFile("dbcp", ".jar"), "j1");
+    try {
+      final URL url = new URL("jar:" + file.toURI().toURL() + "!/dbcp.xml");
+      assertEquals("j1", cache.get("dbcp", url, reader)[0].getId());
+      assertEquals("j1", cache.get("dbcp", url, reader)[0].getId());
+      assertEquals(1, reads.get());
+
+      final FileTime lastModified = Files.getLastModifiedTime(file.toPath());
+      writeJar(file, "j2");
+      Files.setLastModifiedTime(file.toPath(), FileTime.fromMillis(lastModified.toMillis() + 2000));
+      assertEquals("j2", cache.get("dbcp", url, reader)[0].getId());
+      assertEquals(2, reads.get());
+    }
+    finally {
+      file.delete();
+    }
+  }
+
+  @Test
+  public void testHttp() throws Exception {
+    final ConfigCache cache = new ConfigCache(2);
+    final AtomicInteger reads = new AtomicInteger();
+    final ConfigCache.Reader reader = reader(reads);
+    final AtomicInteger version = new AtomicInteger(1);
+    final AtomicInteger notModified = new AtomicInteger();
+    final HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.createContext("/dbcp.xml", exchange -> {
+      final String etag = "\"" + version.get() + "\"";
+      exchange.getResponseHeaders().set("ETag", etag);
+      if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+        notModified.incrementAndGet();
+        exchange.sendResponseHeaders(HttpURLConnection.HTTP_NOT_MODIFIED, -1);
+      }
+      else {
+        final byte[] body = document("h" + version.get());
+        exchange.sendResponseHeaders(HttpURLConnection.HTTP_OK, body.length);
+        try (final OutputStream out = exchange.getResponseBody()) {
+          out.write(body);
+        }
+      }
+
+      exchange.close();
+    });
+    server.start();
+    try {
+      final URL url = new URL("http://127.0.0.1:" + server.getAddress().getPort() + "/dbcp.xml");
+      assertEquals("h1", cache.get("dbcp", url, reader)[0].getId());
+      assertEquals("h1", cache.get("dbcp", url, reader)[0].getId());
+      assertEquals(1, reads.get());
+      assertEquals(1, notModified.get());
+
+      version.set(2);
+      assertEquals("h2", cache.get("dbcp", url, reader)[0].getId());
+      assertEquals(2, reads.get());
+      assertEquals(1, cache.getHitCount());
+    }
+    finally {
+      server.stop(0);
+    }
+  }
+
+  @Test
+  public void testDataSources() throws Exception {
+    final File file = write(File.createTempFile("cached", ".xml"), "cached");
+    try {
+      final long hits = DataSources.getConfigCacheHitCount();
+      final long misses = DataSources.getConfigCacheMissCount();
+      for (int i = 0; i < 3; ++i) {
+        try (final BasicDataSource dataSource = DataSources.createDataSource(file.toURI().toURL())) {
+          assertEquals("jdbc:derby:memory:cached;create=true", dataSource.getUrl());
+        }
+      }
+
+      assertEquals(misses + 1, DataSources.getConfigCacheMissCount());
+      assertEquals(hits + 2, DataSources.getConfigCacheHitCount());
+    }
+    finally {
+      file.delete();
+    }
+  }
+}
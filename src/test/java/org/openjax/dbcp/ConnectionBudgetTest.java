@@ -0,0 +1,97 @@
+/* Copyright (c) 2026 OpenJAX
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.openjax.dbcp;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+
+import org.junit.AfterClass;
+import org.junit.Test;
+
+public class ConnectionBudgetTest {
+  private static BasicDataSource newDataSource(final String name) {
+    final BasicDataSource dataSource = DerbyFixture.newDataSource(name);
+    dataSource.setMaxWaitMillis(100);
+    dataSource.setBudget("ConnectionBudgetTest", 4, 1, 1);
+    return dataSource;
+  }
+
+  @AfterClass
+  public static void afterClass() {
+    new File("derby.log").delete();
+  }
+
+  @Test
+  public void testBudget() throws SQLException {
+    try (
+      final BasicDataSource a = newDataSource("budgetA");
+      final BasicDataSource b = newDataSource("budgetB");
+    ) {
+      final Connection a1 = a.getConnection();
+      final Connection a2 = a.getConnection();
+      final Connection a3 = a.getConnection();
+      try {
+        a.getConnection();
+        fail("Expected SQLTransientConnectionException");
+      }
+      catch (final SQLTransientConnectionException e) {
+      }
+
+      a2.close();
+      a3.close();
+      assertEquals(2, a.getNumIdle());
+
+      try (
+        final Connection b1 = b.getConnection();
+        final Connection b2 = b.getConnection();
+      ) {
+        assertEquals(1, a.getNumIdle());
+      }
+
+      a1.close();
+    }
+  }
+  @Test(timeout = 10000)
+  public void testPreload() throws SQLException {
+    try (
+      final BasicDataSource a = newDataSource("budgetC");
+      final BasicDataSource b = newDataSource("budgetD");
+    ) {
+      b.setInitialSize(2);
+      final Connection a1 = a.getConnection();
+      final Connection a2 = a.getConnection();
+      final Connection a3 = a.getConnection();
+
+      // The second initial connection of b needs the headroom that a occupies, and fails when the maximum wait time of the first borrow
+      // elapses
+      try {
+        b.getConnection();
+        fail("Expected SQLException");
+      }
+      catch (final SQLException e) {
+      }
+
+      a1.close();
+      a2.close();
+      a3.close();
+    }
+  }
+}
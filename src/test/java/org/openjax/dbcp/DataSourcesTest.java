@@ -18,21 +18,37 @@ package org.openjax.dbcp;
 
 import static org.junit.Assert.*;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Properties;
 
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBElement;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import javax.xml.namespace.QName;
+
 import org.apache.commons.dbcp2.BasicDataSource;
+import org.apache.commons.dbcp2.PoolableConnection;
+import org.apache.commons.pool2.PooledObject;
 import org.jaxsb.runtime.Bindings;
 import org.junit.Test;
 import org.libj.lang.Strings;
 import org.libj.util.CollectionUtil;
+import org.openjax.dbcp_1_2.Dbcp;
 import org.openjax.www.dbcp_1_2.xL0gluGCXAA.$Dbcp;
 import org.xml.sax.SAXException;
 
@@ -127,6 +143,213 @@ public class DataSourcesTest {
     }
   }
 
+  @Test
+  public void testJaxbStreaming() throws IOException, SAXException, SQLException {
+    final String jdbc = "<jdbc><url>jdbc:derby:memory:streaming;create=true</url><driverClassName>org.apache.derby.jdbc.EmbeddedDriver</driverClassName></jdbc>";
+    final File file = File.createTempFile("dbcps", ".xml");
+    try {
+      Files.write(file.toPath(), ("<dbcps xmlns=\"http://www.openjax.org/dbcp-1.2.xsd\"><dbcp id=\"a\">" + jdbc + "<size><maxTotal>3</maxTotal></size></dbcp><dbcp id=\"b\"><size><maxTotal>0</maxTotal></size></dbcp></dbcps>").getBytes(StandardCharsets.UTF_8));
+      try (
+        final BasicDataSource dataSource = DataSources.createDataSource("a", file.toURI().toURL());
+        final Connection connection = dataSource.getConnection();
+      ) {
+        assertEquals(3, dataSource.getMaxTotal());
+        assertTrue(connection.isValid(1));
+      }
+
+      // The matching element is validated against the schema
+      try {
+        DataSources.createDataSource("b", file.toURI().toURL());
+        fail("Expected SAXException");
+      }
+      catch (final SAXException e) {
+      }
+
+      // The element right after a bound element is not skipped
+      Files.write(file.toPath(), ("<dbcps xmlns=\"http://www.openjax.org/dbcp-1.2.xsd\"><dbcp id=\"a\">" + jdbc + "</dbcp><dbcp id=\"a\"/></dbcps>").getBytes(StandardCharsets.UTF_8));
+      try {
+        DataSources.createDataSource("a", file.toURI().toURL());
+        fail("Expected SAXException");
+      }
+      catch (final SAXException e) {
+      }
+    }
+    finally {
+      file.delete();
+      new File("derby.log").delete();
+    }
+  }
+
+  private static void assertIllegal(final String dbcp) throws IOException, SAXException, SQLException {
+    final File file = File.createTempFile("dbcp", ".xml");
+    try {
+      Files.write(file.toPath(), ("<dbcp id=\"a\" xmlns=\"http://www.openjax.org/dbcp-1.2.xsd\">" + dbcp + "</dbcp>").getBytes(StandardCharsets.UTF_8));
+      try (final BasicDataSource dataSource = DataSources.createDataSource("a", file.toURI().toURL())) {
+        fail("Expected IllegalArgumentException");
+      }
+      catch (final IllegalArgumentException e) {
+      }
+    }
+    finally {
+      file.delete();
+    }
+  }
+
+  private static void assertInvalid(final String dbcp) throws IOException, SQLException {
+    final File file = File.createTempFile("dbcp", ".xml");
+    try {
+      Files.write(file.toPath(), ("<dbcp id=\"a\" xmlns=\"http://www.openjax.org/dbcp-1.2.xsd\">" + dbcp + "</dbcp>").getBytes(StandardCharsets.UTF_8));
+      try (final BasicDataSource dataSource = DataSources.createDataSource("a", file.toURI().toURL())) {
+        fail("Expected SAXException");
+      }
+      catch (final SAXException e) {
+      }
+    }
+    finally {
+      file.delete();
+    }
+  }
+
+  @Test
+  public void testJdbc() throws IOException, SAXException, SQLException {
+    final String vendor = "<dataSource className=\"org.apache.derby.jdbc.EmbeddedDataSource\"><property name=\"databaseName\" value=\"memory:vendor\"/></dataSource>";
+    assertInvalid("<jdbc><driverClassName>org.apache.derby.jdbc.EmbeddedDriver</driverClassName></jdbc>");
+    assertInvalid("<jdbc><url>jdbc:derby:memory:vendor;user=a;password=b</url>" + vendor + "</jdbc>");
+    assertInvalid("<jdbc><url>jdbc:derby:memory:vendor</url><driverClassName>org.apache.derby.jdbc.EmbeddedDriver</driverClassName>" + vendor + "</jdbc>");
+    assertIllegal("<jdbc>" + vendor + "</jdbc><connection><properties><property name=\"user\" value=\"a\"/></properties></connection>");
+  }
+
+  @Test
+  public void testPerUser() throws IOException, SAXException, SQLException {
+    final String jdbc = "<jdbc><url>jdbc:derby:memory:perUserIllegal;create=true</url><driverClassName>org.apache.derby.jdbc.EmbeddedDriver</driverClassName>";
+    final String perUser = "<perUser maxTotal=\"4\"/>";
+    assertIllegal(jdbc + "<failover><endpoint url=\"jdbc:derby:memory:perUserFailover\"/></failover></jdbc><size>" + perUser + "</size>");
+    assertIllegal(jdbc + "</jdbc><size><creationRate><permitsPerSecond>10</permitsPerSecond></creationRate>" + perUser + "</size>");
+    assertIllegal(jdbc + "</jdbc><size><budget name=\"perUser\" capacity=\"4\"/>" + perUser + "</size>");
+    assertIllegal(jdbc + "</jdbc><size><lanes><lane name=\"batch\"/></lanes>" + perUser + "</size>");
+    assertIllegal(jdbc + "</jdbc><size>" + perUser + "</size><validation><health/></validation>");
+  }
+
+  private static org.openjax.dbcp.BasicDataSource createDataSource(final String dbcp) throws IOException, SAXException, SQLException {
+    final File file = File.createTempFile("dbcp", ".xml");
+    try {
+      final String jdbc = "<jdbc><url>jdbc:derby:memory:elements;create=true</url><driverClassName>org.apache.derby.jdbc.EmbeddedDriver</driverClassName></jdbc>";
+      Files.write(file.toPath(), ("<dbcp id=\"a\" xmlns=\"http://www.openjax.org/dbcp-1.2.xsd\">" + (dbcp.startsWith("<jdbc>") ? "" : jdbc) + dbcp + "</dbcp>").getBytes(StandardCharsets.UTF_8));
+      final org.openjax.dbcp.BasicDataSource dataSource = DataSources.createDataSource("a", file.toURI().toURL());
+      // Start the pool, so that the elements that take effect on its creation can be asserted
+      dataSource.getConnection().close();
+      return dataSource;
+    }
+    finally {
+      file.delete();
+    }
+  }
+
+  @Test
+  public void testElements() throws IOException, SAXException, SQLException {
+    try {
+      try (final org.openjax.dbcp.BasicDataSource dataSource = createDataSource("<jdbc><dataSource className=\"org.apache.derby.jdbc.EmbeddedDataSource\"><property name=\"databaseName\" value=\"memory:elements\"/><property name=\"createDatabase\" value=\"create\"/></dataSource></jdbc>")) {
+        assertTrue(dataSource.hasVendorDataSource());
+      }
+
+      try (final org.openjax.dbcp.BasicDataSource dataSource = createDataSource("<jdbc><url>jdbc:derby:memory:elements;create=true</url><driverClassName>org.apache.derby.jdbc.EmbeddedDriver</driverClassName><failover><endpoint url=\"jdbc:derby:memory:elementsFailover;create=true\"/></failover></jdbc>")) {
+        assertTrue(dataSource.hasFailover());
+        assertNotNull(dataSource.getFailover());
+      }
+
+      try (final org.openjax.dbcp.BasicDataSource dataSource = createDataSource("<connection><initSqls execution=\"batch\"><initSql>SET SCHEMA SYS</initSql></initSqls></connection>")) {
+        assertEquals(InitSqlConnectionFactory.BATCH, dataSource.getInitSqlExecution());
+        assertEquals(1, dataSource.getConnectionInitCount());
+      }
+
+      try (final org.openjax.dbcp.BasicDataSource dataSource = createDataSource("<size><creationRate><permitsPerSecond>100</permitsPerSecond></creationRate></size>")) {
+        assertTrue(dataSource.hasCreationRate());
+      }
+
+      try (final org.openjax.dbcp.BasicDataSource dataSource = createDataSource("<size><budget name=\"elements\" capacity=\"4\"/></size>")) {
+        assertTrue(dataSource.hasBudget());
+      }
+
+      try (final org.openjax.dbcp.BasicDataSource dataSource = createDataSource("<size><lanes><lane name=\"interactive\" reserved=\"1\"/><lane name=\"batch\"/></lanes></size>")) {
+        assertNotNull(dataSource.getLaneGate());
+      }
+
+      try (final org.openjax.dbcp.BasicDataSource dataSource = createDataSource("<size><perUser maxTotal=\"4\"/></size>")) {
+        assertTrue(dataSource.hasPerUser());
+        assertEquals(4, dataSource.getUserMaxTotal());
+      }
+
+      try (final org.openjax.dbcp.BasicDataSource dataSource = createDataSource("<pool><queue>striped</queue><stripes>2</stripes></pool>")) {
+        assertEquals(2, ((StripedObjectPool<?>)dataSource.getObjectPool()).getStripes());
+      }
+
+      try (final org.openjax.dbcp.BasicDataSource dataSource = createDataSource("<pool><queue>mru</queue><hotSet>2</hotSet><rotationInterval>1000</rotationInterval></pool>")) {
+        assertTrue(dataSource.getObjectPool() instanceof MruObjectPool);
+      }
+
+      try (final org.openjax.dbcp.BasicDataSource dataSource = createDataSource("<pool><compactBookkeeping>true</compactBookkeeping></pool>")) {
+        for (final Map.Entry<PooledObject<PoolableConnection>,ConnectionState> entry : dataSource.getObjectFactory().states())
+          assertTrue(entry.getKey() instanceof PooledObjectTable.Entry);
+      }
+
+      try (final org.openjax.dbcp.BasicDataSource dataSource = createDataSource("<pool><maxConnectionLifetime>60000</maxConnectionLifetime><keepalive><idleTime>1000</idleTime></keepalive><retirement jitter=\"100\"/></pool>")) {
+        assertTrue(dataSource.hasKeepalive());
+        assertTrue(dataSource.hasRetirement());
+      }
+
+      try (final org.openjax.dbcp.BasicDataSource dataSource = createDataSource("<validation><health/></validation>")) {
+        assertNotNull(dataSource.getHealth());
+      }
+    }
+    finally {
+      new File("derby.log").delete();
+    }
+  }
+
+  private static String marshal(final Dbcp dbcp) throws JAXBException {
+    final Marshaller marshaller = JAXBContext.newInstance(Dbcp.class).createMarshaller();
+    final StringWriter writer = new StringWriter();
+    marshaller.marshal(new JAXBElement<>(new QName("http://www.openjax.org/dbcp-1.2.xsd", "dbcp"), Dbcp.class, dbcp), writer);
+    return writer.toString();
+  }
+
+  @Test
+  public void testDbcpReader() throws IOException, JAXBException, SAXException {
+    final ArrayList<byte[]> fixtures = new ArrayList<>();
+    for (final String resource : new String[] {"dbcp.xml", "dbcp-compact.xml", "dbcp-creation-rate.xml"}) { // [A]
+      try (final InputStream in = ClassLoader.getSystemClassLoader().getResourceAsStream(resource)) {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[1024];
+        for (int len; (len = in.read(buffer)) != -1;)
+          out.write(buffer, 0, len);
+
+        fixtures.add(out.toByteArray());
+      }
+    }
+
+    final String ns = " xmlns=\"http://www.openjax.org/dbcp-1.2.xsd\"";
+    fixtures.add(("<dbcp id=\"a\"" + ns + "><size><maxTotal>INDEFINITE</maxTotal><budget name=\"b\" capacity=\"4\"/></size><pool><retirement jitter=\"0\" proactive=\"true\"/></pool></dbcp>").getBytes(StandardCharsets.UTF_8));
+    fixtures.add(("<dbcp id=\"vendor\"" + ns + "><jdbc><dataSource className=\"org.apache.derby.jdbc.EmbeddedDataSource\"><property name=\"databaseName\" value=\"memory:vendor\"/></dataSource></jdbc></dbcp>").getBytes(StandardCharsets.UTF_8));
+    fixtures.add(("<dbcp id=\"full\"" + ns + ">" +
+      "<jdbc><url>jdbc:derby:memory:full</url><driverClassName>org.apache.derby.jdbc.EmbeddedDriver</driverClassName>" +
+      "<failover weighted=\"true\" probeInterval=\"1000\" probeTimeout=\"2\" resolveInterval=\"30000\"><endpoint url=\"jdbc:derby:memory:b\" weight=\"2\"/><endpoint url=\"jdbc:derby:memory:c\"/></failover></jdbc>" +
+      "<connection><initSqls execution=\"batch\"><initSql>SET SCHEMA SYS</initSql></initSqls></connection>" +
+      "<size><maxTotal>INDEFINITE</maxTotal><creationRate><permitsPerSecond>10</permitsPerSecond><jvmPermitsPerSecond>100</jvmPermitsPerSecond></creationRate>" +
+      "<budget name=\"b\" capacity=\"4\" reserved=\"1\" weight=\"2\"/><lanes default=\"batch\"><lane name=\"interactive\" reserved=\"1\" max=\"4\" priority=\"10\"/><lane name=\"batch\"/></lanes>" +
+      "<perUser maxTotal=\"4\" maxPerUser=\"2\" maxIdlePerUser=\"0\"/></size>" +
+      "<pool><queue>mru</queue><stripes>2</stripes><hotSet>2</hotSet><rotationInterval>1000</rotationInterval>" +
+      "<keepalive><idleTime>1000</idleTime><timeBetweenRuns>1000</timeBetweenRuns><maxPerRun>2</maxPerRun><timeout>5</timeout></keepalive>" +
+      "<retirement jitter=\"100\" proactive=\"true\" timeBetweenRuns=\"1000\"/></pool>" +
+      "<validation><health halfLife=\"10\" minSamples=\"5\" latencyFactor=\"2\" maxErrorPercent=\"25\" timeBetweenRuns=\"1000\"/></validation>" +
+      "</dbcp>").getBytes(StandardCharsets.UTF_8));
+
+    for (int i = 0, i$ = fixtures.size(); i < i$; ++i) { // [RA]
+      final byte[] fixture = fixtures.get(i);
+      final String expected = marshal(DataSources.unmarshal(new ByteArrayInputStream(fixture)));
+      assertEquals(expected, marshal(DbcpReader.read(new ByteArrayInputStream(fixture))));
+    }
+  }
+
   @Test
   public void testJaxSB() throws IOException, SAXException, SQLException {
     final $Dbcp dbcp = ($Dbcp)Bindings.parse(ClassLoader.getSystemClassLoader().getResource("dbcp.xml"));
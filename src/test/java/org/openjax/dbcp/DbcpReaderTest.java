@@ -0,0 +1,193 @@
+/* Copyright (c) 2026 OpenJAX
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.openjax.dbcp;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Properties;
+
+import org.junit.AfterClass;
+import org.junit.Test;
+import org.openjax.dbcp_1_2.Dbcp;
+import org.xml.sax.SAXException;
+
+/**
+ * Tests the reflection-free path of {@link DataSources} that is used in a GraalVM native image. This test is run in a native image
+ * with {@code mvn -Pnative test}.
+ */
+public class DbcpReaderTest {
+  @AfterClass
+  public static void afterClass() {
+    new File("derby.log").delete();
+  }
+
+  private static Dbcp read(final String xml) throws IOException, SAXException {
+    return DbcpReader.read(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
+  }
+
+  private static void assertInvalid(final String xml) throws IOException {
+    try {
+      read(xml);
+      fail("Expected SAXException");
+    }
+    catch (final SAXException e) {
+    }
+  }
+
+  @Test
+  public void testStartPool() throws Exception {
+    final Properties properties = new Properties();
+    try (final InputStream in = ClassLoader.getSystemClassLoader().getResourceAsStream("dbcp.properties")) {
+      properties.load(in);
+    }
+
+    // The document is read through the URL entry point, which reads it with the DbcpReader in a native image
+    final URL url = ClassLoader.getSystemClassLoader().getResource("dbcp.xml");
+    try (
+      final BasicDataSource dataSource = DataSources.createDataSource(url);
+      final Connection connection = dataSource.getConnection();
+      final Statement statement = connection.createStatement();
+      final ResultSet resultSet = statement.executeQuery("SELECT 1 FROM SYSIBM.SYSDUMMY1");
+    ) {
+      assertEquals("test", dataSource.getId());
+      assertEquals(properties.get("driverClassName"), dataSource.getDriverClassName());
+      assertEquals(properties.get("url"), dataSource.getUrl());
+      assertEquals(properties.get("queryTimeout"), "" + dataSource.getDefaultQueryTimeout());
+      assertEquals(properties.get("maxTotal"), "" + dataSource.getMaxTotal());
+      assertEquals(properties.get("cacheState"), "" + dataSource.getCacheState());
+      assertEquals(properties.get("removeAbandonedTimeout"), "" + dataSource.getRemoveAbandonedTimeout());
+      assertEquals(properties.get("minIdleTime"), "" + dataSource.getMinEvictableIdleTimeMillis());
+      assertEquals(properties.get("policyClassName"), dataSource.getEvictionPolicyClassName());
+      assertEquals(properties.get("query"), dataSource.getValidationQuery());
+      assertEquals(properties.get("jmxName"), dataSource.getJmxName());
+      assertArrayEquals(properties.get("initSql").toString().split(","), dataSource.getConnectionInitSqlsAsArray());
+
+      assertTrue(resultSet.next());
+      assertEquals(1, resultSet.getInt(1));
+      assertFalse(resultSet.next());
+    }
+  }
+
+  @Test
+  public void testInvalid() throws IOException {
+    final String ns = " xmlns=\"http://www.openjax.org/dbcp-1.2.xsd\"";
+    assertInvalid("<dbcps" + ns + "/>");
+    assertInvalid("<dbcp" + ns + "/>");
+    assertInvalid("<dbcp id=\"a\" xmlns=\"http://www.openjax.org/dbcp-1.1.xsd\"/>");
+    assertInvalid("<dbcp id=\"a\"" + ns + "><unknown/></dbcp>");
+    assertInvalid("<dbcp id=\"a\"" + ns + "><size><maxTotal>0</maxTotal></size></dbcp>");
+    assertInvalid("<dbcp id=\"a\"" + ns + "><size><initialSize>x</initialSize></size></dbcp>");
+    assertInvalid("<dbcp id=\"a\"" + ns + "><pool><queue>stack</queue></pool></dbcp>");
+    assertInvalid("<dbcp id=\"a\"" + ns + "><pool><stripes>0</stripes></pool></dbcp>");
+    assertInvalid("<dbcp id=\"a\"" + ns + "><pool><hotSet>0</hotSet></pool></dbcp>");
+    assertInvalid("<dbcp id=\"a\"" + ns + "><pool><removeAbandoned on=\"borrow\"/></pool></dbcp>");
+    assertInvalid("<dbcp id=\"a\"" + ns + "><validation><query>DELETE FROM t</query></validation></dbcp>");
+    assertInvalid("<dbcp id=\"a\"" + ns + "><validation><health maxErrorPercent=\"101\"/></validation></dbcp>");
+    assertInvalid("<dbcp id=\"a\"" + ns + "><jdbc><driverClassName>org..Driver</driverClassName></jdbc></dbcp>");
+    assertInvalid("<dbcp id=\"a\"" + ns + "><jdbc><failover/></jdbc></dbcp>");
+    assertInvalid("<dbcp id=\"a\"" + ns + "><jdbc><url>jdbc:a</url></jdbc></dbcp>");
+    assertInvalid("<dbcp id=\"a\"" + ns + "><jdbc><url>jdbc:a</url><dataSource className=\"a.DataSource\"/></jdbc></dbcp>");
+    assertInvalid("<dbcp id=\"a\"" + ns + "><jdbc><failover><endpoint url=\"jdbc:b\" weight=\"0\"/></failover></jdbc></dbcp>");
+    assertInvalid("<dbcp id=\"a\"" + ns + "><logging><logAbandoned>true</logAbandoned></logging></dbcp>");
+    assertInvalid("<dbcp id=\"a\"" + ns + "><size><maxTotal>1</maxTotal><maxTotal>2</maxTotal></size></dbcp>");
+    assertInvalid("<dbcp id=\"a\"" + ns + "><size/><size/></dbcp>");
+    assertInvalid("<dbcp id=\"a\"" + ns + "><pool><keepalive><idleTime>1</idleTime><idleTime>2</idleTime></keepalive></pool></dbcp>");
+    assertInvalid("<dbcp id=\"a\" name=\"b\"" + ns + "/>");
+    assertInvalid("<dbcp id=\"a\"" + ns + "><size><maxTotal unit=\"x\">1</maxTotal></size></dbcp>");
+    assertInvalid("<dbcp id=\"a\"" + ns + "><size><budget name=\"b\" capacity=\"1\" max=\"2\"/></size></dbcp>");
+    assertInvalid("<dbcp id=\"a\"" + ns + " xmlns:x=\"urn:x\"><pool x:queue=\"lifo\"/></dbcp>");
+  }
+
+  private static String tenants(final int count) {
+    final StringBuilder b = new StringBuilder("<dbcps xmlns=\"http://www.openjax.org/dbcp-1.2.xsd\">");
+    for (int i = 0; i < count; ++i) {
+      b.append("<dbcp id=\"tenant").append(i).append("\"><jdbc><url>jdbc:derby:memory:tenant").append(i).append(";create=true</url>");
+      b.append("<driverClassName>org.apache.derby.jdbc.EmbeddedDriver</driverClassName></jdbc><size><maxTotal>").append(i % 100 + 1).append("</maxTotal></size></dbcp>");
+    }
+
+    // Not valid, but skipped unless requested
+    b.append("<dbcp id=\"invalid\"><size><maxTotal>0</maxTotal></size></dbcp>");
+    return b.append("</dbcps>").toString();
+  }
+
+  @Test
+  public void testStreaming() throws Exception {
+    final String xml = tenants(5000);
+    final Dbcp[] dbcps = DbcpReader.read(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)), "tenant4321");
+    assertEquals(1, dbcps.length);
+    assertEquals("tenant4321", dbcps[0].getId());
+    assertEquals("22", dbcps[0].getSize().getMaxTotal());
+
+    assertEquals(0, DbcpReader.read(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)), "missing").length);
+    try {
+      DbcpReader.read(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)), "invalid");
+      fail("Expected SAXException");
+    }
+    catch (final SAXException e) {
+    }
+
+    try {
+      DbcpReader.read(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)), null);
+      fail("Expected SAXException");
+    }
+    catch (final SAXException e) {
+    }
+
+    final File file = File.createTempFile("dbcps", ".xml");
+    try {
+      Files.write(file.toPath(), xml.getBytes(StandardCharsets.UTF_8));
+      try (
+        final BasicDataSource dataSource = DataSources.createDataSource("tenant7", file.toURI().toURL());
+        final Connection connection = dataSource.getConnection();
+      ) {
+        assertEquals("jdbc:derby:memory:tenant7;create=true", dataSource.getUrl());
+        assertEquals(8, dataSource.getMaxTotal());
+        assertTrue(connection.isValid(1));
+      }
+
+      assertNull(DataSources.createDataSource("missing", file.toURI().toURL()));
+    }
+    finally {
+      file.delete();
+    }
+  }
+
+  @Test
+  public void testDuplicateId() throws IOException {
+    assertInvalid("<dbcps xmlns=\"http://www.openjax.org/dbcp-1.2.xsd\"><dbcp id=\"a\"/><dbcp id=\"a\"/></dbcps>");
+  }
+
+  @Test
+  public void testValid() throws IOException, SAXException {
+    final Dbcp dbcp = read("<dbcp id=\"a\" xmlns=\"http://www.openjax.org/dbcp-1.2.xsd\"><size><maxTotal>INDEFINITE</maxTotal><budget name=\"b\" capacity=\"4\"/></size><pool><retirement jitter=\"0\" proactive=\"true\"/></pool></dbcp>");
+    assertEquals("INDEFINITE", dbcp.getSize().getMaxTotal());
+    assertEquals("b", dbcp.getSize().getBudget().getName());
+    assertEquals(4, (int)dbcp.getSize().getBudget().getCapacity());
+    assertNull(dbcp.getSize().getBudget().getReserved());
+    assertTrue(dbcp.getPool().getRetirement().getProactive());
+  }
+}
@@ -0,0 +1,39 @@
+/* Copyright (c) 2026 OpenJAX
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.openjax.dbcp;
+
+/**
+ * The in-memory Derby database fixture shared by the tests of the pools.
+ */
+final class DerbyFixture {
+  /**
+   * Returns a new {@link BasicDataSource} for the in-memory Derby database with the specified name, which is created upon the first
+   * connection.
+   *
+   * @param name The name of the database.
+   * @return A new {@link BasicDataSource} for the in-memory Derby database with the specified name.
+   */
+  static BasicDataSource newDataSource(final String name) {
+    final BasicDataSource dataSource = new BasicDataSource();
+    dataSource.setDriverClassName("org.apache.derby.jdbc.EmbeddedDriver");
+    dataSource.setUrl("jdbc:derby:memory:" + name + ";create=true");
+    return dataSource;
+  }
+
+  private DerbyFixture() {
+  }
+}
@@ -0,0 +1,260 @@
+/* Copyright (c) 2026 OpenJAX
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.openjax.dbcp;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * A JDBC {@link Driver} that proxies another driver, and injects faults into the connections it creates. The URL of the driver is the
+ * URL of the proxied driver with the {@code jdbc:} prefix replaced by {@value #PREFIX}, for instance
+ * {@code jdbc:fault:derby:memory:test;create=true}. Faults are configured with the following connection properties, which can be
+ * specified in {@code <connection><properties>} of {@code dbcp.xml}, and are not passed to the proxied driver:
+ * <ul>
+ * <li>{@code fault.connectLatency}: The time (in milliseconds) to wait before each connection is created.</li>
+ * <li>{@code fault.statementLatency}: The time (in milliseconds) to wait before each statement is executed.</li>
+ * <li>{@code fault.disconnectRate}: The probability in [0, 1] that the execution of a statement drops the connection, after which all
+ * operations on the connection fail with SQLState {@code 08006}, and {@link Connection#isValid(int)} returns {@code false}.</li>
+ * <li>{@code fault.errorRate}: The probability in [0, 1] that the execution of a statement fails with {@code fault.sqlState}.</li>
+ * <li>{@code fault.sqlState}: The SQLState of injected errors, such as one of the {@code disconnectionSqlCodes}. (Default:
+ * {@code 57P01}).</li>
+ * </ul>
+ */
+public class FaultInjectingDriver implements Driver {
+  public static final String PREFIX = "jdbc:fault:";
+
+  /** The number of connections created. */
+  public static final AtomicLong connects = new AtomicLong();
+  /** The number of connections dropped. */
+  public static final AtomicLong disconnects = new AtomicLong();
+  /** The number of errors injected. */
+  public static final AtomicLong errors = new AtomicLong();
+
+  static {
+    try {
+      DriverManager.registerDriver(new FaultInjectingDriver());
+    }
+    catch (final SQLException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+
+  private static final class Faults {
+    private final long connectLatency;
+    private final long statementLatency;
+    private final double disconnectRate;
+    private final double errorRate;
+    private final String sqlState;
+
+    private Faults(final Properties properties) {
+      this.connectLatency = Long.parseLong(properties.getProperty("fault.connectLatency", "0"));
+      this.statementLatency = Long.parseLong(properties.getProperty("fault.statementLatency", "0"));
+      this.disconnectRate = Double.parseDouble(properties.getProperty("fault.disconnectRate", "0"));
+      this.errorRate = Double.parseDouble(properties.getProperty("fault.errorRate", "0"));
+      this.sqlState = properties.getProperty("fault.sqlState", "57P01");
+    }
+  }
+
+  private static void sleep(final long millis) throws SQLException {
+    if (millis <= 0)
+      return;
+
+    try {
+      Thread.sleep(millis);
+    }
+    catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new SQLException("Interrupted", e);
+    }
+  }
+
+  private static Object invoke(final Object target, final Method method, final Object[] args) throws Throwable {
+    try {
+      return method.invoke(target, args);
+    }
+    catch (final InvocationTargetException e) {
+      throw e.getCause();
+    }
+  }
+
+  private static final class ConnectionHandler implements InvocationHandler {
+    private final Connection target;
+    private final Faults faults;
+    private volatile boolean disconnected;
+    private Connection proxy;
+
+    private ConnectionHandler(final Connection target, final Faults faults) {
+      this.target = target;
+      this.faults = faults;
+    }
+
+    private void checkConnected() throws SQLException {
+      if (disconnected)
+        throw new SQLNonTransientConnectionException("Connection dropped", "08006");
+    }
+
+    @Override
+    public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+      final String name = method.getName();
+      if ("close".equals(name)) {
+        target.close();
+        return null;
+      }
+
+      if ("isClosed".equals(name))
+        return target.isClosed();
+
+      if ("isValid".equals(name))
+        return !disconnected && target.isValid((Integer)args[0]);
+
+      if ("abort".equals(name))
+        return FaultInjectingDriver.invoke(target, method, args);
+
+      if ("equals".equals(name))
+        return proxy == args[0];
+
+      if ("hashCode".equals(name))
+        return System.identityHashCode(proxy);
+
+      if ("toString".equals(name))
+        return "Fault:" + target;
+
+      checkConnected();
+      final Object result = FaultInjectingDriver.invoke(target, method, args);
+      if (result instanceof Statement) {
+        final Class<?> type = result instanceof CallableStatement ? CallableStatement.class : result instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+        return Proxy.newProxyInstance(FaultInjectingDriver.class.getClassLoader(), new Class<?>[] {type}, new StatementHandler(this, (Statement)result));
+      }
+
+      return result;
+    }
+  }
+
+  private static final class StatementHandler implements InvocationHandler {
+    private final ConnectionHandler connection;
+    private final Statement target;
+
+    private StatementHandler(final ConnectionHandler connection, final Statement target) {
+      this.connection = connection;
+      this.target = target;
+    }
+
+    @Override
+    public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+      final String name = method.getName();
+      if ("getConnection".equals(name))
+        return connection.proxy;
+
+      if ("close".equals(name) || "isClosed".equals(name))
+        return FaultInjectingDriver.invoke(target, method, args);
+
+      if ("equals".equals(name))
+        return proxy == args[0];
+
+      if ("hashCode".equals(name))
+        return System.identityHashCode(proxy);
+
+      if ("toString".equals(name))
+        return "Fault:" + target;
+
+      connection.checkConnected();
+      if (name.startsWith("execute")) {
+        final Faults faults = connection.faults;
+        sleep(faults.statementLatency);
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (faults.disconnectRate > 0 && random.nextDouble() < faults.disconnectRate) {
+          connection.disconnected = true;
+          disconnects.incrementAndGet();
+          connection.checkConnected();
+        }
+
+        if (faults.errorRate > 0 && random.nextDouble() < faults.errorRate) {
+          errors.incrementAndGet();
+          throw new SQLException("Injected error", faults.sqlState);
+        }
+      }
+
+      return FaultInjectingDriver.invoke(target, method, args);
+    }
+  }
+
+  @Override
+  public Connection connect(final String url, final Properties info) throws SQLException {
+    if (!acceptsURL(url))
+      return null;
+
+    final Properties properties = new Properties();
+    final Properties faultProperties = new Properties();
+    if (info != null) {
+      for (final String key : info.stringPropertyNames())
+        (key.startsWith("fault.") ? faultProperties : properties).setProperty(key, info.getProperty(key));
+    }
+
+    final Faults faults = new Faults(faultProperties);
+    sleep(faults.connectLatency);
+    final ConnectionHandler handler = new ConnectionHandler(DriverManager.getConnection("jdbc:" + url.substring(PREFIX.length()), properties), faults);
+    handler.proxy = (Connection)Proxy.newProxyInstance(FaultInjectingDriver.class.getClassLoader(), new Class<?>[] {Connection.class}, handler);
+    connects.incrementAndGet();
+    return handler.proxy;
+  }
+
+  @Override
+  public boolean acceptsURL(final String url) {
+    return url != null && url.startsWith(PREFIX);
+  }
+
+  @Override
+  public DriverPropertyInfo[] getPropertyInfo(final String url, final Properties info) {
+    return new DriverPropertyInfo[0];
+  }
+
+  @Override
+  public int getMajorVersion() {
+    return 1;
+  }
+
+  @Override
+  public int getMinorVersion() {
+    return 0;
+  }
+
+  @Override
+  public boolean jdbcCompliant() {
+    return false;
+  }
+
+  @Override
+  public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+    throw new SQLFeatureNotSupportedException();
+  }
+}
@@ -0,0 +1,110 @@
+/* Copyright (c) 2026 OpenJAX
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.openjax.dbcp;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.junit.AfterClass;
+import org.junit.Test;
+
+public class FaultInjectingDriverTest {
+  @AfterClass
+  public static void afterClass() {
+    new File("derby.log").delete();
+  }
+
+  private static BasicDataSource newDataSource(final String name) {
+    final BasicDataSource dataSource = new BasicDataSource();
+    dataSource.setDriverClassName(FaultInjectingDriver.class.getName());
+    dataSource.setUrl(FaultInjectingDriver.PREFIX + "derby:memory:" + name + ";create=true");
+    return dataSource;
+  }
+
+  private static SQLException execute(final Connection connection) {
+    try (final Statement statement = connection.createStatement()) {
+      statement.execute("VALUES 1");
+      return null;
+    }
+    catch (final SQLException e) {
+      return e;
+    }
+  }
+
+  @Test
+  public void testConnectLatency() throws Exception {
+    try (final BasicDataSource dataSource = newDataSource("connectLatency")) {
+      dataSource.addConnectionProperty("fault.connectLatency", "100");
+      final long start = System.nanoTime();
+      try (final Connection connection = dataSource.getConnection()) {
+        assertTrue(System.nanoTime() - start >= 100_000_000);
+        assertNull(execute(connection));
+      }
+    }
+  }
+
+  @Test
+  public void testFastFail() throws Exception {
+    try (final BasicDataSource dataSource = newDataSource("fastFail")) {
+      dataSource.addConnectionProperty("fault.errorRate", "1");
+      dataSource.addConnectionProperty("fault.sqlState", "57P01");
+      dataSource.setFastFailValidation(true);
+      final long connects = FaultInjectingDriver.connects.get();
+      try (final Connection connection = dataSource.getConnection()) {
+        assertEquals("57P01", execute(connection).getSQLState());
+      }
+
+      try (final Connection connection = dataSource.getConnection()) {
+        assertEquals(connects + 2, FaultInjectingDriver.connects.get());
+      }
+    }
+  }
+
+  @Test
+  public void testDisconnect() throws Exception {
+    try (final BasicDataSource dataSource = newDataSource("disconnect")) {
+      dataSource.addConnectionProperty("fault.disconnectRate", "1");
+      final long connects = FaultInjectingDriver.connects.get();
+      try (final Connection connection = dataSource.getConnection()) {
+        assertEquals("08006", execute(connection).getSQLState());
+        assertFalse(connection.isValid(1));
+      }
+
+      try (final Connection connection = dataSource.getConnection()) {
+        assertEquals(connects + 2, FaultInjectingDriver.connects.get());
+      }
+    }
+  }
+
+  @Test
+  public void testLoadGenerator() throws Exception {
+    try (final BasicDataSource dataSource = newDataSource("load")) {
+      dataSource.addConnectionProperty("fault.statementLatency", "5");
+      dataSource.setMaxTotal(2);
+      final LoadGenerator.Report report = LoadGenerator.run(dataSource, 4, 500, "VALUES 1");
+      assertTrue(report.getOperations() > 0);
+      assertTrue(report.getThroughput() < 2 * 1000 / 5 * 1.5);
+      assertTrue(report.getBorrowTime(99) >= report.getBorrowTime(50));
+      assertTrue(report.getBorrowTime(99) > 0);
+      assertTrue(report.getErrors().isEmpty());
+    }
+  }
+}
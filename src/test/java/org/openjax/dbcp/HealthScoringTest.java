@@ -0,0 +1,184 @@
+/* Copyright (c) 2026 OpenJAX
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.openjax.dbcp;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLSyntaxErrorException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+
+import org.junit.AfterClass;
+import org.junit.Test;
+
+public class HealthScoringTest {
+  @AfterClass
+  public static void afterClass() {
+    new File("derby.log").delete();
+  }
+
+  private static BasicDataSource newDataSource(final String name) {
+    final BasicDataSource dataSource = DerbyFixture.newDataSource(name);
+    dataSource.setMaxTotal(4);
+    dataSource.setMaxIdle(4);
+    dataSource.setHealth(1, 5, 100, 50, 60000);
+    return dataSource;
+  }
+
+  private static HealthScoring.Health health(final Connection connection) throws SQLException {
+    return connection.unwrap(HealthScoring.HealthConnection.class).getHealth();
+  }
+
+  @Test
+  public void testIsHealthError() {
+    assertTrue(HealthScoring.isHealthError(new SQLTimeoutException()));
+    assertTrue(HealthScoring.isHealthError(new SQLException("Connection reset", "08S01")));
+    assertTrue(HealthScoring.isHealthError(new SQLException("Too many connections", "53300")));
+    assertTrue(HealthScoring.isHealthError(new SQLException("Admin shutdown", "57P01")));
+    assertFalse(HealthScoring.isHealthError(new SQLSyntaxErrorException("Syntax error", "42X01")));
+    assertFalse(HealthScoring.isHealthError(new SQLException("Duplicate key", "23505")));
+    assertFalse(HealthScoring.isHealthError(new SQLException("Unknown")));
+  }
+
+  @Test
+  public void testSampling() throws Exception {
+    try (final BasicDataSource dataSource = newDataSource("sampling")) {
+      try (final Connection connection = dataSource.getConnection()) {
+        final HealthScoring.Health health = health(connection);
+        final long samples = health.getSamples();
+        final long probes = health.getProbes();
+        try (final PreparedStatement statement = connection.prepareStatement("VALUES 1")) {
+          statement.executeQuery().close();
+          statement.executeQuery().close();
+        }
+
+        try (final Statement statement = connection.createStatement()) {
+          statement.executeQuery("SELECT * FROM missing");
+          fail("Expected SQLException");
+        }
+        catch (final SQLException e) {
+        }
+
+        // Each statement is one sample of the error rate, and only the probes are samples of the latency
+        assertEquals(samples + 2, health.getSamples());
+        assertEquals(probes, health.getProbes());
+        assertEquals(0, health.getErrorRate(), 0);
+
+        assertTrue(connection.isValid(1));
+        assertEquals(samples + 3, health.getSamples());
+        assertEquals(probes + 1, health.getProbes());
+        assertTrue(health.getLatency() > 0);
+      }
+    }
+  }
+
+  @Test
+  public void testValidationQuery() throws Exception {
+    try (final BasicDataSource dataSource = newDataSource("validationQuery")) {
+      dataSource.setValidationQuery("VALUES 1");
+      dataSource.setTestOnBorrow(true);
+      final HealthScoring.Health health;
+      try (final Connection connection = dataSource.getConnection()) {
+        health = health(connection);
+      }
+
+      // Each validation on borrow is a probe, and is not also sampled as a statement when the pool closes it
+      final long probes = health.getProbes();
+      final long samples = health.getSamples();
+      assertTrue(probes > 0);
+      try (final Connection connection = dataSource.getConnection()) {
+        assertSame(health, health(connection));
+        assertEquals(probes + 1, health.getProbes());
+        assertEquals(samples + 1, health.getSamples());
+      }
+    }
+  }
+
+  @Test
+  public void testRetire() throws Exception {
+    try (final BasicDataSource dataSource = newDataSource("retire")) {
+      final Connection[] connections = new Connection[4];
+      for (int i = 0; i < connections.length; ++i) { // [A]
+        connections[i] = dataSource.getConnection();
+        for (int j = 0; j < 5; ++j) {
+          assertTrue(connections[i].isValid(1));
+          try (final PreparedStatement statement = connections[i].prepareStatement("VALUES 1")) {
+            statement.executeQuery().close();
+          }
+        }
+      }
+
+      // A connection whose probe latency is far above the median of the pool is retired while idle, and replaced
+      final HealthScoring.Health slow = health(connections[0]);
+      for (int i = 0; i < 5; ++i)
+        slow.recordProbe(10_000_000_000L, false);
+
+      // A connection whose error rate is above the maximum is retired when it is returned
+      final HealthScoring.Health erroring = health(connections[1]);
+      erroring.recordSample(true);
+      erroring.recordSample(true);
+
+      connections[0].close();
+      assertEquals(2, dataSource.scoreHealth());
+      assertEquals(2, dataSource.getHealthRetiredCount());
+      assertEquals(1, dataSource.getDestroyedCount());
+      assertEquals(1, dataSource.getNumIdle());
+      assertEquals(3, dataSource.getNumActive());
+
+      for (int i = 1; i < connections.length; ++i) // [A]
+        connections[i].close();
+
+      assertEquals(2, dataSource.getDestroyedCount());
+      assertEquals(3, dataSource.getNumIdle());
+      assertEquals(0, dataSource.scoreHealth());
+    }
+  }
+  @Test
+  public void testRetireParked() throws Exception {
+    try (final BasicDataSource dataSource = newDataSource("retireParked")) {
+      dataSource.setStripes(2);
+      final Connection[] connections = new Connection[4];
+      for (int i = 0; i < connections.length; ++i) { // [A]
+        connections[i] = dataSource.getConnection();
+        for (int j = 0; j < 5; ++j)
+          assertTrue(connections[i].isValid(1));
+      }
+
+      final HealthScoring.Health slow = health(connections[0]);
+      for (int i = 0; i < 5; ++i)
+        slow.recordProbe(10_000_000_000L, false);
+
+      // The returned connections are parked in the stripes, where the outlier must not be served again
+      for (int i = 0; i < connections.length; ++i) // [A]
+        connections[i].close();
+
+      assertEquals(1, dataSource.scoreHealth());
+      assertEquals(1, dataSource.getDestroyedCount());
+      for (int i = 0; i < connections.length; ++i) { // [A]
+        connections[i] = dataSource.getConnection();
+        assertNotSame(slow, health(connections[i]));
+      }
+
+      for (int i = 0; i < connections.length; ++i) // [A]
+        connections[i].close();
+    }
+  }
+}
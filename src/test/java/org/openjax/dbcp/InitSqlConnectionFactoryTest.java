@@ -0,0 +1,66 @@
+/* Copyright (c) 2026 OpenJAX
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.openjax.dbcp;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+import org.junit.AfterClass;
+import org.junit.Test;
+
+public class InitSqlConnectionFactoryTest {
+  @AfterClass
+  public static void afterClass() {
+    new File("derby.log").delete();
+  }
+
+  private static void testExecution(final String execution) throws SQLException {
+    try (final BasicDataSource dataSource = new BasicDataSource()) {
+      dataSource.setDriverClassName("org.apache.derby.jdbc.EmbeddedDriver");
+      dataSource.setUrl("jdbc:derby:memory:" + execution + ";create=true");
+      dataSource.setConnectionInitSqls(Arrays.asList("SET ISOLATION SERIALIZABLE", "SET ISOLATION READ UNCOMMITTED"));
+      dataSource.setInitSqlExecution(execution);
+      try (
+        final Connection c1 = dataSource.getConnection();
+        final Connection c2 = dataSource.getConnection();
+      ) {
+        assertEquals(Connection.TRANSACTION_READ_UNCOMMITTED, c1.getTransactionIsolation());
+        assertEquals(Connection.TRANSACTION_READ_UNCOMMITTED, c2.getTransactionIsolation());
+      }
+
+      final PoolMetrics metrics = dataSource.unwrap(PoolMetrics.class);
+      assertEquals(2, metrics.getConnectionInitCount());
+      assertTrue(metrics.getConnectionInitTime() > 0);
+      assertTrue(metrics.getMaxConnectionInitTime() >= metrics.getLastConnectionInitTime());
+      assertTrue(metrics.getConnectionInitTime() >= metrics.getMaxConnectionInitTime());
+    }
+  }
+
+  @Test
+  public void testSerial() throws SQLException {
+    testExecution(InitSqlConnectionFactory.SERIAL);
+  }
+
+  @Test
+  public void testBatch() throws SQLException {
+    testExecution(InitSqlConnectionFactory.BATCH);
+  }
+}
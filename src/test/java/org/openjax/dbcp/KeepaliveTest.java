@@ -0,0 +1,70 @@
+/* Copyright (c) 2026 OpenJAX
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.openjax.dbcp;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.sql.Connection;
+import java.util.Map;
+
+import org.apache.commons.dbcp2.PoolableConnection;
+import org.apache.commons.pool2.PooledObject;
+import org.junit.AfterClass;
+import org.junit.Test;
+
+public class KeepaliveTest {
+  @AfterClass
+  public static void afterClass() {
+    new File("derby.log").delete();
+  }
+
+  @Test
+  public void testKeepalive() throws Exception {
+    try (final BasicDataSource dataSource = new BasicDataSource()) {
+      dataSource.setDriverClassName("org.apache.derby.jdbc.EmbeddedDriver");
+      dataSource.setUrl("jdbc:derby:memory:keepalive;create=true");
+      dataSource.setKeepalive(1, 20, 2, 1);
+      try (
+        final Connection c1 = dataSource.getConnection();
+        final Connection c2 = dataSource.getConnection();
+      ) {
+      }
+
+      assertEquals(2, dataSource.getNumIdle());
+      Thread.sleep(200);
+      for (final Map.Entry<PooledObject<PoolableConnection>,ConnectionState> entry : dataSource.getObjectFactory().states())
+        assertTrue(entry.getValue().getLastKeepalive() > 0);
+
+      final Map.Entry<PooledObject<PoolableConnection>,ConnectionState> broken = dataSource.getObjectFactory().states().iterator().next();
+      broken.getKey().getObject().getInnermostDelegateInternal().close();
+      Thread.sleep(200);
+      assertTrue(broken.getValue().isBroken());
+
+      try (
+        final Connection c1 = dataSource.getConnection();
+        final Connection c2 = dataSource.getConnection();
+      ) {
+        assertTrue(c1.isValid(1));
+        assertTrue(c2.isValid(1));
+      }
+
+      assertEquals(2, dataSource.getNumIdle());
+      assertFalse(dataSource.getObjectFactory().states().contains(broken));
+    }
+  }
+}
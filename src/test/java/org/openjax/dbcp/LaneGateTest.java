@@ -0,0 +1,241 @@
+/* Copyright (c) 2026 OpenJAX
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.openjax.dbcp;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.AfterClass;
+import org.junit.Test;
+
+public class LaneGateTest {
+  @AfterClass
+  public static void afterClass() {
+    new File("derby.log").delete();
+  }
+
+  private static Thread acquire(final LaneGate gate, final LaneGate.Lane lane, final AtomicBoolean admitted, final CountDownLatch started) {
+    final Thread thread = new Thread(() -> {
+      try {
+        started.countDown();
+        admitted.set(gate.acquire(lane, 5000));
+      }
+      catch (final InterruptedException e) {
+      }
+    });
+    thread.start();
+    return thread;
+  }
+
+  @Test
+  public void testReservation() throws Exception {
+    final LaneGate gate = new LaneGate(() -> 4);
+    gate.addLane("interactive", 2, -1, 10);
+    gate.addLane("batch", 0, 4, 0);
+    gate.check();
+
+    final LaneGate.Lane interactive = gate.getLane("interactive");
+    final LaneGate.Lane batch = gate.getLane("batch");
+    assertTrue(gate.acquire(batch, 0));
+    assertTrue(gate.acquire(batch, 0));
+    assertFalse(gate.acquire(batch, 10));
+    assertFalse(gate.acquire(gate.getLane(null), 0));
+
+    assertTrue(gate.acquire(interactive, 0));
+    assertTrue(gate.acquire(interactive, 0));
+    assertFalse(gate.acquire(interactive, 0));
+    assertEquals(2, gate.getUsed("batch"));
+    assertEquals(2, gate.getUsed("interactive"));
+
+    gate.release(batch);
+    assertTrue(gate.acquire(interactive, 0));
+    assertEquals(3, gate.getUsed("interactive"));
+  }
+
+  @Test
+  public void testPriority() throws Exception {
+    final LaneGate gate = new LaneGate(() -> 2);
+    gate.addLane("low", 0, -1, 0);
+    gate.addLane("high", 0, -1, 5);
+    gate.check();
+
+    final LaneGate.Lane low = gate.getLane("low");
+    final LaneGate.Lane high = gate.getLane("high");
+    assertTrue(gate.acquire(low, 0));
+    assertTrue(gate.acquire(low, 0));
+
+    final AtomicBoolean lowAdmitted = new AtomicBoolean();
+    final CountDownLatch lowStarted = new CountDownLatch(1);
+    final Thread lowThread = acquire(gate, low, lowAdmitted, lowStarted);
+    lowStarted.await();
+    Thread.sleep(50);
+
+    final AtomicBoolean highAdmitted = new AtomicBoolean();
+    final CountDownLatch highStarted = new CountDownLatch(1);
+    final Thread highThread = acquire(gate, high, highAdmitted, highStarted);
+    highStarted.await();
+    Thread.sleep(50);
+
+    gate.release(low);
+    highThread.join(1000);
+    assertTrue(highAdmitted.get());
+    assertTrue(lowThread.isAlive());
+
+    gate.release(low);
+    lowThread.join(1000);
+    assertTrue(lowAdmitted.get());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testOverReserved() {
+    final LaneGate gate = new LaneGate(() -> 2);
+    gate.addLane("a", 2, -1, 0);
+    gate.addLane("b", 1, -1, 0);
+    gate.check();
+  }
+
+  @Test
+  public void testDataSource() throws Exception {
+    try (final BasicDataSource dataSource = new BasicDataSource()) {
+      dataSource.setDriverClassName("org.apache.derby.jdbc.EmbeddedDriver");
+      dataSource.setUrl("jdbc:derby:memory:lanes;create=true");
+      dataSource.setMaxTotal(3);
+      dataSource.setMaxWaitMillis(50);
+      dataSource.addLane("interactive", 1, -1, 10);
+      dataSource.addLane("batch", 0, -1, 0);
+      dataSource.setDefaultLane("batch");
+      dataSource.checkLanes();
+
+      final LaneDataSource lanes = dataSource.unwrap(LaneDataSource.class);
+      try (
+        final Connection b1 = lanes.getConnection();
+        final Connection b2 = lanes.getConnection();
+      ) {
+        assertEquals(2, dataSource.getLaneGate().getUsed("batch"));
+        try {
+          lanes.getConnection();
+          fail("Expected SQLTransientConnectionException");
+        }
+        catch (final SQLTransientConnectionException e) {
+        }
+
+        try (
+          final Lanes.Scope scope = Lanes.enter("interactive");
+          final Connection i1 = lanes.getConnection();
+        ) {
+          assertTrue(i1.isValid(1));
+          assertEquals(1, dataSource.getLaneGate().getUsed("interactive"));
+        }
+
+        assertNull(Lanes.current());
+        try (final Connection i1 = lanes.getConnection("interactive")) {
+          assertEquals(1, dataSource.getLaneGate().getUsed("interactive"));
+        }
+      }
+
+      assertEquals(0, dataSource.getLaneGate().getUsed("batch"));
+      assertEquals(0, dataSource.getLaneGate().getUsed("interactive"));
+      try {
+        lanes.getConnection("unknown");
+        fail("Expected IllegalArgumentException");
+      }
+      catch (final IllegalArgumentException e) {
+      }
+
+      try (final Lanes.Scope scope = Lanes.enter("unknown")) {
+        lanes.getConnection();
+        fail("Expected IllegalArgumentException");
+      }
+      catch (final IllegalArgumentException e) {
+      }
+    }
+  }
+
+  @Test
+  public void testMaxWait() throws Exception {
+    try (final BasicDataSource dataSource = new BasicDataSource()) {
+      dataSource.setDriverClassName("org.apache.derby.jdbc.EmbeddedDriver");
+      dataSource.setUrl("jdbc:derby:memory:laneWait;create=true");
+      dataSource.setMaxTotal(2);
+      dataSource.setMaxWaitMillis(1000);
+      dataSource.addLane("a", 0, 1, 0);
+      dataSource.checkLanes();
+      dataSource.getConnection().close();
+
+      // Hold the only admission to the lane, and exhaust the pool outside of the lane
+      final LaneGate gate = dataSource.getLaneGate();
+      final LaneGate.Lane lane = gate.getLane("a");
+      assertTrue(gate.acquire(lane, 0));
+      final Connection c1 = dataSource.getObjectPool().borrowObject();
+      final Connection c2 = dataSource.getObjectPool().borrowObject();
+      final Thread releaser = new Thread(() -> {
+        try {
+          Thread.sleep(700);
+        }
+        catch (final InterruptedException e) {
+        }
+
+        gate.release(lane);
+      });
+
+      releaser.start();
+      final long start = System.currentTimeMillis();
+      try {
+        dataSource.getConnection("a");
+        fail("Expected SQLTransientConnectionException");
+      }
+      catch (final SQLTransientConnectionException e) {
+      }
+
+      final long elapsed = System.currentTimeMillis() - start;
+      assertTrue(String.valueOf(elapsed), elapsed < 1500);
+      releaser.join();
+      c1.close();
+      c2.close();
+    }
+  }
+
+  @Test
+  public void testAbandoned() throws Exception {
+    try (final BasicDataSource dataSource = new BasicDataSource()) {
+      dataSource.setDriverClassName("org.apache.derby.jdbc.EmbeddedDriver");
+      dataSource.setUrl("jdbc:derby:memory:laneAbandoned;create=true");
+      dataSource.setMaxTotal(2);
+      dataSource.setRemoveAbandonedOnBorrow(true);
+      dataSource.setRemoveAbandonedTimeout(Duration.ZERO);
+      dataSource.addLane("a", 0, -1, 0);
+      dataSource.checkLanes();
+
+      // The first connection is removed as abandoned by the second borrow, which releases its admission to the lane
+      final Connection c1 = dataSource.getConnection("a");
+      assertEquals(1, dataSource.getLaneGate().getUsed("a"));
+      final Connection c2 = dataSource.getConnection("a");
+      assertEquals(1, dataSource.getLaneGate().getUsed("a"));
+
+      c2.close();
+      assertEquals(0, dataSource.getLaneGate().getUsed("a"));
+      c1.close();
+      assertEquals(0, dataSource.getLaneGate().getUsed("a"));
+    }
+  }
+}
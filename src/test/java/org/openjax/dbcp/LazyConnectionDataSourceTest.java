@@ -0,0 +1,119 @@
+/* Copyright (c) 2026 OpenJAX
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.openjax.dbcp;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.junit.AfterClass;
+import org.junit.Test;
+
+public class LazyConnectionDataSourceTest {
+  @AfterClass
+  public static void afterClass() {
+    new File("derby.log").delete();
+  }
+
+  @Test
+  public void testUnused() throws SQLException {
+    try (final BasicDataSource pool = DerbyFixture.newDataSource("lazy")) {
+      final LazyConnectionDataSource dataSource = new LazyConnectionDataSource(pool);
+      try (final Connection connection = dataSource.getConnection()) {
+        connection.setAutoCommit(false);
+        connection.setReadOnly(true);
+        connection.setTransactionIsolation(Connection.TRANSACTION_SERIALIZABLE);
+        assertFalse(connection.getAutoCommit());
+        assertTrue(connection.isReadOnly());
+        assertEquals(Connection.TRANSACTION_SERIALIZABLE, connection.getTransactionIsolation());
+        connection.commit();
+        connection.rollback();
+      }
+
+      assertEquals(0, pool.getNumActive());
+      assertEquals(0, pool.getNumIdle());
+    }
+  }
+
+  @Test
+  public void testBorrow() throws SQLException {
+    try (final BasicDataSource pool = DerbyFixture.newDataSource("lazy")) {
+      final LazyConnectionDataSource dataSource = new LazyConnectionDataSource(pool);
+      final Connection connection = dataSource.getConnection();
+      connection.setAutoCommit(false);
+      connection.setTransactionIsolation(Connection.TRANSACTION_SERIALIZABLE);
+      assertEquals(0, pool.getNumActive());
+
+      try (
+        final Statement statement = connection.createStatement();
+        final ResultSet resultSet = statement.executeQuery("SELECT 1 FROM SYSIBM.SYSDUMMY1");
+      ) {
+        assertTrue(resultSet.next());
+      }
+
+      assertEquals(1, pool.getNumActive());
+      assertFalse(connection.getAutoCommit());
+      assertEquals(Connection.TRANSACTION_SERIALIZABLE, connection.getTransactionIsolation());
+      connection.commit();
+      connection.close();
+      assertTrue(connection.isClosed());
+      assertEquals(0, pool.getNumActive());
+      assertEquals(1, pool.getNumIdle());
+
+      try {
+        connection.createStatement();
+        fail("Expected SQLException");
+      }
+      catch (final SQLException e) {
+        assertEquals("08003", e.getSQLState());
+      }
+    }
+  }
+  @Test
+  public void testLeftover() throws SQLException {
+    try (final BasicDataSource pool = DerbyFixture.newDataSource("lazy")) {
+      pool.setMaxTotal(1);
+      final LazyConnectionDataSource dataSource = new LazyConnectionDataSource(pool);
+      try (final Connection connection = dataSource.getConnection()) {
+        assertEquals("APP", connection.getSchema());
+      }
+
+      try (final Connection connection = pool.getConnection()) {
+        connection.setHoldability(ResultSet.CLOSE_CURSORS_AT_COMMIT);
+        connection.setSchema("SYS");
+      }
+
+      try (final Connection connection = dataSource.getConnection()) {
+        try (final Statement statement = connection.createStatement()) {
+          assertEquals(ResultSet.HOLD_CURSORS_OVER_COMMIT, connection.getHoldability());
+          assertEquals("APP", connection.getSchema());
+        }
+      }
+
+      try (final Connection connection = dataSource.getConnection()) {
+        connection.setSchema("SYS");
+        try (final Statement statement = connection.createStatement()) {
+          assertEquals("SYS", connection.getSchema());
+        }
+      }
+    }
+  }
+}
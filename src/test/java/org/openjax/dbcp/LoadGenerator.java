@@ -0,0 +1,222 @@
+/* Copyright (c) 2026 OpenJAX
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.openjax.dbcp;
+
+import java.io.File;
+import java.net.URL;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+/**
+ * Generates load against a {@link DataSource} from a number of threads that repeatedly borrow a connection, execute a statement, and
+ * return the connection, and reports the throughput, the percentiles of the time to borrow a connection, and the errors by SQLState.
+ * Combined with {@link FaultInjectingDriver}, this allows pools to be sized, and timeout and fast-fail settings to be validated,
+ * without a database server.
+ * <p>
+ * Usage: {@code LoadGenerator <dbcp.xml> [threads] [duration (ms)] [sql]}
+ */
+public final class LoadGenerator {
+  /**
+   * The result of a run of the {@link LoadGenerator}.
+   */
+  public static final class Report {
+    private final long duration;
+    private final long operations;
+    private final long[] borrowTimes;
+    private final TreeMap<String,Integer> errors;
+
+    private Report(final long duration, final long operations, final long[] borrowTimes, final TreeMap<String,Integer> errors) {
+      this.duration = duration;
+      this.operations = operations;
+      this.borrowTimes = borrowTimes;
+      this.errors = errors;
+    }
+
+    /**
+     * Returns the number of operations that completed without error.
+     *
+     * @return The number of operations that completed without error.
+     */
+    public long getOperations() {
+      return operations;
+    }
+
+    /**
+     * Returns the number of operations that completed without error per second.
+     *
+     * @return The number of operations that completed without error per second.
+     */
+    public double getThroughput() {
+      return operations * 1e9 / duration;
+    }
+
+    /**
+     * Returns the specified percentile of the times (in nanoseconds) to borrow a connection, including failed attempts.
+     *
+     * @param percentile The percentile in [0, 100].
+     * @return The specified percentile of the times (in nanoseconds) to borrow a connection.
+     */
+    public long getBorrowTime(final double percentile) {
+      if (borrowTimes.length == 0)
+        return 0;
+
+      final int index = (int)Math.ceil(percentile / 100 * borrowTimes.length) - 1;
+      return borrowTimes[Math.max(0, Math.min(borrowTimes.length - 1, index))];
+    }
+
+    /**
+     * Returns the number of errors by SQLState, where errors without SQLState are counted as {@code "null"}.
+     *
+     * @return The number of errors by SQLState.
+     */
+    public Map<String,Integer> getErrors() {
+      return errors;
+    }
+
+    @Override
+    public String toString() {
+      final StringBuilder b = new StringBuilder();
+      b.append(String.format("operations: %d (%.1f/s)%n", operations, getThroughput()));
+      b.append(String.format("borrow (ms): p50=%.3f p90=%.3f p99=%.3f p99.9=%.3f max=%.3f%n", getBorrowTime(50) / 1e6, getBorrowTime(90) / 1e6, getBorrowTime(99) / 1e6, getBorrowTime(99.9) / 1e6, getBorrowTime(100) / 1e6));
+      b.append("errors: ").append(errors);
+      return b.toString();
+    }
+  }
+
+  private static final class Worker extends Thread {
+    private final DataSource dataSource;
+    private final String sql;
+    private final long deadline;
+    private final CountDownLatch start;
+    private final TreeMap<String,Integer> errors = new TreeMap<>();
+    private long[] borrowTimes = new long[1024];
+    private int size;
+    private long operations;
+
+    private Worker(final int index, final DataSource dataSource, final String sql, final long deadline, final CountDownLatch start) {
+      super("load-" + index);
+      this.dataSource = dataSource;
+      this.sql = sql;
+      this.deadline = deadline;
+      this.start = start;
+    }
+
+    @Override
+    public void run() {
+      try {
+        start.await();
+      }
+      catch (final InterruptedException e) {
+        return;
+      }
+
+      while (System.nanoTime() - deadline < 0) {
+        final long startTime = System.nanoTime();
+        boolean borrowed = false;
+        try (final Connection connection = dataSource.getConnection()) {
+          record(System.nanoTime() - startTime);
+          borrowed = true;
+          try (final Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+          }
+
+          ++operations;
+        }
+        catch (final SQLException e) {
+          if (!borrowed)
+            record(System.nanoTime() - startTime);
+
+          errors.merge(String.valueOf(e.getSQLState()), 1, Integer::sum);
+        }
+      }
+    }
+
+    private void record(final long borrowTime) {
+      if (size == borrowTimes.length)
+        borrowTimes = Arrays.copyOf(borrowTimes, size * 2);
+
+      borrowTimes[size++] = borrowTime;
+    }
+  }
+
+  /**
+   * Runs the specified number of threads against the specified {@link DataSource} for the specified duration.
+   *
+   * @param dataSource The {@link DataSource}.
+   * @param threads The number of threads.
+   * @param duration The duration (in milliseconds).
+   * @param sql The SQL statement executed by each operation.
+   * @return The {@link Report} of the run.
+   * @throws InterruptedException If the calling thread is interrupted.
+   */
+  public static Report run(final DataSource dataSource, final int threads, final long duration, final String sql) throws InterruptedException {
+    final CountDownLatch start = new CountDownLatch(1);
+    final long begin = System.nanoTime();
+    final long deadline = begin + TimeUnit.MILLISECONDS.toNanos(duration);
+    final Worker[] workers = new Worker[threads];
+    for (int i = 0; i < threads; ++i)
+      (workers[i] = new Worker(i, dataSource, sql, deadline, start)).start();
+
+    start.countDown();
+    long operations = 0;
+    int size = 0;
+    for (final Worker worker : workers) {
+      worker.join();
+      operations += worker.operations;
+      size += worker.size;
+    }
+
+    final long[] borrowTimes = new long[size];
+    final TreeMap<String,Integer> errors = new TreeMap<>();
+    size = 0;
+    for (final Worker worker : workers) {
+      System.arraycopy(worker.borrowTimes, 0, borrowTimes, size, worker.size);
+      size += worker.size;
+      for (final Map.Entry<String,Integer> entry : worker.errors.entrySet())
+        errors.merge(entry.getKey(), entry.getValue(), Integer::sum);
+    }
+
+    Arrays.sort(borrowTimes);
+    return new Report(System.nanoTime() - begin, operations, borrowTimes, errors);
+  }
+
+  public static void main(final String[] args) throws Exception {
+    if (args.length == 0) {
+      System.err.println("Usage: LoadGenerator <dbcp.xml> [threads] [duration (ms)] [sql]");
+      System.exit(1);
+    }
+
+    final URL url = new File(args[0]).exists() ? new File(args[0]).toURI().toURL() : new URL(args[0]);
+    final int threads = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+    final long duration = args.length > 2 ? Long.parseLong(args[2]) : 10000;
+    final String sql = args.length > 3 ? args[3] : "VALUES 1";
+    try (final BasicDataSource dataSource = DataSources.createDataSource(url)) {
+      System.out.println(run(dataSource, threads, duration, sql));
+    }
+  }
+
+  private LoadGenerator() {
+  }
+}
@@ -0,0 +1,130 @@
+/* Copyright (c) 2026 OpenJAX
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.openjax.dbcp;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the throughput of a prepared statement heavy workload on a pool with a "lifo", "fifo" or "mru" queue. The pool is sized
+ * for a peak that is well above the concurrency of the benchmark, its idle connections are kept at {@code minIdle}, and its
+ * connections are replaced as they reach their lifetime, so that every connection a borrower reaches for the first time must prepare
+ * its statements anew. The "fifo" queue spreads the borrows over all connections of the pool, and thus prepares every statement on
+ * every connection, whereas the "mru" queue serves the borrows from its hot set, whose statement caches stay warm.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class MruObjectPoolBenchmark {
+  private static final int POOL_SIZE = 32;
+  private static final int STATEMENTS = 32;
+  private static final int ROWS = 100;
+
+  @Param({"lifo", "fifo", "mru"})
+  public String queue;
+
+  private final String[] sqls = new String[STATEMENTS];
+  private BasicDataSource dataSource;
+
+  @Setup(Level.Trial)
+  public void setup() throws SQLException {
+    dataSource = new BasicDataSource();
+    dataSource.setDriverClassName("org.apache.derby.jdbc.EmbeddedDriver");
+    dataSource.setUrl("jdbc:derby:memory:mru-" + queue + ";create=true");
+    dataSource.setInitialSize(POOL_SIZE);
+    dataSource.setMinIdle(POOL_SIZE);
+    dataSource.setMaxIdle(POOL_SIZE);
+    dataSource.setMaxTotal(POOL_SIZE);
+    dataSource.setPoolPreparedStatements(true);
+    dataSource.setMaxOpenPreparedStatements(STATEMENTS);
+    dataSource.setMaxConnLifetimeMillis(2000);
+    dataSource.setTimeBetweenEvictionRunsMillis(250);
+    dataSource.setNumTestsPerEvictionRun(POOL_SIZE);
+    dataSource.setTestWhileIdle(true);
+    dataSource.setLifo("lifo".equals(queue));
+    if ("mru".equals(queue))
+      dataSource.setHotSet(4, 1000);
+
+    try (
+      final Connection connection = dataSource.getConnection();
+      final Statement statement = connection.createStatement();
+    ) {
+      statement.execute("CREATE TABLE t (id INT PRIMARY KEY, v VARCHAR(32))");
+      for (int i = 0; i < ROWS; ++i)
+        statement.execute("INSERT INTO t VALUES (" + i + ", 'v" + i + "')");
+    }
+
+    // Distinct SQL texts, so that each is prepared separately on each connection
+    for (int i = 0; i < STATEMENTS; ++i)
+      sqls[i] = "SELECT v FROM t WHERE id = ? AND " + i + " = " + i;
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws SQLException {
+    dataSource.close();
+  }
+
+  @Benchmark
+  public String query() throws SQLException {
+    final ThreadLocalRandom random = ThreadLocalRandom.current();
+    try (
+      final Connection connection = dataSource.getConnection();
+      final PreparedStatement statement = connection.prepareStatement(sqls[random.nextInt(STATEMENTS)]);
+    ) {
+      statement.setInt(1, random.nextInt(ROWS));
+      try (final ResultSet resultSet = statement.executeQuery()) {
+        return resultSet.next() ? resultSet.getString(1) : null;
+      }
+    }
+  }
+
+  public static void main(final String[] args) throws RunnerException {
+    final Options options = new OptionsBuilder()
+      .include(MruObjectPoolBenchmark.class.getSimpleName())
+      .build();
+
+    new Runner(options).run();
+  }
+}
@@ -0,0 +1,297 @@
+/* Copyright (c) 2026 OpenJAX
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.openjax.dbcp;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.commons.pool2.BasePooledObjectFactory;
+import org.apache.commons.pool2.PooledObject;
+import org.apache.commons.pool2.impl.AbandonedConfig;
+import org.apache.commons.pool2.impl.DefaultPooledObject;
+import org.apache.commons.pool2.impl.DefaultPooledObjectInfo;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import org.junit.AfterClass;
+import org.junit.Test;
+
+public class MruObjectPoolTest {
+  private static final class Factory extends BasePooledObjectFactory<Object> {
+    private final AtomicInteger created = new AtomicInteger();
+    private final AtomicInteger destroyed = new AtomicInteger();
+    private final AtomicInteger passivated = new AtomicInteger();
+
+    @Override
+    public Object create() {
+      created.incrementAndGet();
+      return new Object();
+    }
+
+    @Override
+    public PooledObject<Object> wrap(final Object obj) {
+      return new DefaultPooledObject<>(obj);
+    }
+
+    @Override
+    public void passivateObject(final PooledObject<Object> p) {
+      passivated.incrementAndGet();
+    }
+
+    @Override
+    public void destroyObject(final PooledObject<Object> p) {
+      destroyed.incrementAndGet();
+    }
+  }
+
+  private static MruObjectPool<Object> newPool(final Factory factory, final int hotSize) {
+    final GenericObjectPoolConfig<Object> config = new GenericObjectPoolConfig<>();
+    config.setMaxTotal(8);
+    config.setMaxIdle(8);
+    config.setJmxEnabled(false);
+    return new MruObjectPool<>(factory, config, null, hotSize);
+  }
+
+  @AfterClass
+  public static void afterClass() {
+    new File("derby.log").delete();
+  }
+
+  @Test
+  public void testHotSet() throws Exception {
+    final Factory factory = new Factory();
+    try (final MruObjectPool<Object> pool = newPool(factory, 2)) {
+      final Object a = pool.borrowObject();
+      final Object b = pool.borrowObject();
+      final Object c = pool.borrowObject();
+      pool.returnObject(a);
+      pool.returnObject(b);
+      pool.returnObject(c);
+      assertEquals(3, pool.getNumIdle());
+      assertEquals(0, pool.getNumActive());
+
+      assertSame(c, pool.borrowObject());
+      assertSame(b, pool.borrowObject());
+      assertSame(a, pool.borrowObject());
+      assertEquals(0, pool.getNumIdle());
+      assertEquals(3, pool.getNumActive());
+      assertEquals(2, pool.getHotBorrowCount());
+      assertEquals(4, pool.getColdBorrowCount());
+      assertEquals(3, factory.created.get());
+
+      pool.returnObject(a);
+      pool.returnObject(b);
+      pool.returnObject(c);
+    }
+
+    assertEquals(3, factory.destroyed.get());
+  }
+
+  @Test
+  public void testBorrowCount() throws Exception {
+    final Factory factory = new Factory();
+    try (final MruObjectPool<Object> pool = newPool(factory, 2)) {
+      final Object a = pool.borrowObject();
+      pool.returnObject(a);
+      final long start = System.currentTimeMillis();
+      Thread.sleep(10);
+      assertSame(a, pool.borrowObject());
+      final DefaultPooledObjectInfo info = pool.listAllObjects().iterator().next();
+      assertEquals(2, info.getBorrowedCount());
+      assertTrue(info.getLastBorrowTime() > start);
+      pool.returnObject(a);
+    }
+  }
+
+  @Test
+  public void testRemoveAbandonedOnBorrow() throws Exception {
+    final Factory factory = new Factory();
+    final GenericObjectPoolConfig<Object> config = new GenericObjectPoolConfig<>();
+    config.setMaxTotal(3);
+    config.setJmxEnabled(false);
+    final AbandonedConfig abandonedConfig = new AbandonedConfig();
+    abandonedConfig.setRemoveAbandonedOnBorrow(true);
+    abandonedConfig.setRemoveAbandonedTimeout(Duration.ofMillis(100));
+    try (final MruObjectPool<Object> pool = new MruObjectPool<>(factory, config, abandonedConfig, 2)) {
+      final Object a = pool.borrowObject();
+      final Object b = pool.borrowObject();
+      Thread.sleep(200);
+
+      // a is returned after it has been borrowed for longer than the abandoned object timeout
+      pool.returnObject(a);
+      assertSame(a, pool.borrowObject());
+      pool.returnObject(a);
+
+      // The borrow that misses the hot set removes b, which is abandoned, but not a, which is in the hot set
+      final Object c = pool.borrowObject();
+      assertSame(a, c);
+      final Object d = pool.borrowObject();
+      assertNotSame(b, d);
+      assertEquals(1, factory.destroyed.get());
+      assertEquals(2, pool.getNumActive());
+      pool.returnObject(c);
+      pool.returnObject(d);
+    }
+  }
+
+  @Test
+  public void testDemotionIsNotPassivatedAgain() throws Exception {
+    final Factory factory = new Factory();
+    try (final MruObjectPool<Object> pool = newPool(factory, 1)) {
+      pool.setTestOnReturn(true);
+      final Object a = pool.borrowObject();
+      final Object b = pool.borrowObject();
+      pool.returnObject(a);
+      pool.returnObject(b);
+      assertEquals(2, factory.passivated.get());
+
+      pool.evict();
+      pool.clear();
+      assertEquals(2, factory.passivated.get());
+    }
+  }
+
+  @Test
+  public void testWaiterIsWoken() throws Exception {
+    final Factory factory = new Factory();
+    final GenericObjectPoolConfig<Object> config = new GenericObjectPoolConfig<>();
+    config.setMaxTotal(2);
+    config.setMaxWait(Duration.ofSeconds(30));
+    config.setJmxEnabled(false);
+    try (final MruObjectPool<Object> pool = new MruObjectPool<>(factory, config, null, 8)) {
+      final Object a = pool.borrowObject();
+      final Object b = pool.borrowObject();
+      final AtomicReference<Object> borrowed = new AtomicReference<>();
+      final Thread waiter = new Thread(() -> {
+        try {
+          borrowed.set(pool.borrowObject());
+        }
+        catch (final Exception e) {
+          throw new RuntimeException(e);
+        }
+      });
+      waiter.start();
+      while (pool.getNumWaiters() == 0)
+        Thread.sleep(1);
+
+      final long start = System.nanoTime();
+      pool.returnObject(a);
+      waiter.join(10000);
+      assertSame(a, borrowed.get());
+      assertTrue(System.nanoTime() - start < 10_000_000_000L);
+      pool.returnObject(a);
+      pool.returnObject(b);
+    }
+  }
+
+  @Test
+  public void testColdIsFifo() throws Exception {
+    final Factory factory = new Factory();
+    try (final MruObjectPool<Object> pool = newPool(factory, 1)) {
+      final Object a = pool.borrowObject();
+      final Object b = pool.borrowObject();
+      final Object c = pool.borrowObject();
+      pool.returnObject(a);
+      pool.returnObject(b);
+      pool.returnObject(c);
+
+      // c is hot, and a was demoted before b
+      assertSame(c, pool.borrowObject());
+      assertSame(a, pool.borrowObject());
+      assertSame(b, pool.borrowObject());
+    }
+  }
+
+  @Test
+  public void testRotate() throws Exception {
+    final Factory factory = new Factory();
+    try (final MruObjectPool<Object> pool = newPool(factory, 1)) {
+      assertFalse(pool.rotate());
+
+      final Object a = pool.borrowObject();
+      final Object b = pool.borrowObject();
+      pool.returnObject(a);
+      pool.returnObject(b);
+
+      assertTrue(pool.rotate());
+      assertEquals(1, pool.getRotationCount());
+      assertEquals(2, pool.getNumIdle());
+      assertEquals(0, pool.getNumActive());
+
+      assertSame(a, pool.borrowObject());
+      assertSame(b, pool.borrowObject());
+      assertEquals(2, factory.created.get());
+    }
+  }
+
+  @Test
+  public void testEvictDemotes() throws Exception {
+    final Factory factory = new Factory();
+    try (final MruObjectPool<Object> pool = newPool(factory, 2)) {
+      final Object a = pool.borrowObject();
+      final Object b = pool.borrowObject();
+      pool.returnObject(a);
+      pool.returnObject(b);
+      assertEquals(2, pool.getNumIdle());
+
+      pool.setMinEvictableIdleDuration(Duration.ofHours(1));
+      pool.evict();
+      assertEquals(2, pool.getNumIdle());
+      assertEquals(0, factory.destroyed.get());
+
+      pool.setMinEvictableIdleDuration(Duration.ZERO);
+      pool.setNumTestsPerEvictionRun(8);
+      Thread.sleep(10);
+      pool.evict();
+      assertEquals(0, pool.getNumIdle());
+      assertEquals(0, pool.getNumActive());
+      assertEquals(2, factory.destroyed.get());
+    }
+  }
+
+  @Test
+  public void testDataSource() throws Exception {
+    try (final BasicDataSource dataSource = new BasicDataSource()) {
+      dataSource.setDriverClassName("org.apache.derby.jdbc.EmbeddedDriver");
+      dataSource.setUrl("jdbc:derby:memory:mru;create=true");
+      dataSource.setMaxTotal(4);
+      dataSource.setHotSet(1, 60000);
+
+      final Connection c1 = dataSource.getConnection();
+      final Connection c2 = dataSource.getConnection();
+      assertEquals(2, dataSource.getNumActive());
+      c1.close();
+      c2.close();
+      assertEquals(0, dataSource.getNumActive());
+      assertEquals(2, dataSource.getNumIdle());
+
+      for (int i = 0; i < 3; ++i) {
+        try (final Connection c3 = dataSource.getConnection()) {
+          assertTrue(c3.isValid(1));
+          assertEquals(1, dataSource.getNumIdle());
+        }
+      }
+
+      assertEquals(3, dataSource.getHotSetBorrowCount());
+      assertEquals(0, dataSource.getRotationCount());
+      assertArrayEquals(new long[] {4, 1}, dataSource.getBorrowCounts());
+    }
+  }
+}
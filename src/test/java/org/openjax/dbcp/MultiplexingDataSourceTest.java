@@ -0,0 +1,121 @@
+/* Copyright (c) 2026 OpenJAX
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.openjax.dbcp;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.junit.AfterClass;
+import org.junit.Test;
+
+public class MultiplexingDataSourceTest {
+  private static BasicDataSource newDataSource() {
+    final BasicDataSource dataSource = DerbyFixture.newDataSource("multiplexing");
+    dataSource.setMaxTotal(1);
+    dataSource.setMaxWaitMillis(100);
+    return dataSource;
+  }
+
+  @AfterClass
+  public static void afterClass() {
+    new File("derby.log").delete();
+  }
+
+  private static void select(final Connection connection) throws SQLException {
+    try (
+      final Statement statement = connection.createStatement();
+      final ResultSet resultSet = statement.executeQuery("SELECT 1 FROM SYSIBM.SYSDUMMY1");
+    ) {
+      assertSame(connection, statement.getConnection());
+      assertSame(statement, resultSet.getStatement());
+      assertTrue(resultSet.next());
+    }
+  }
+
+  @Test
+  public void testMultiplex() throws SQLException {
+    try (final BasicDataSource pool = newDataSource()) {
+      final MultiplexingDataSource dataSource = new MultiplexingDataSource(pool);
+      try (
+        final Connection c1 = dataSource.getConnection();
+        final Connection c2 = dataSource.getConnection();
+      ) {
+        for (int i = 0; i < 3; ++i) {
+          select(c1);
+          select(c2);
+          assertEquals(0, pool.getNumActive());
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testRecordedProperties() throws SQLException {
+    try (final BasicDataSource pool = newDataSource()) {
+      // The pool resets the property when the connection is borrowed, so it is only set if it is applied again
+      pool.setDefaultReadOnly(false);
+      final MultiplexingDataSource dataSource = new MultiplexingDataSource(pool);
+      try (final Connection connection = dataSource.getConnection()) {
+        try (final Statement statement = connection.createStatement()) {
+          connection.setReadOnly(true);
+        }
+
+        assertEquals(0, pool.getNumActive());
+        try (final Statement statement = connection.createStatement()) {
+          assertTrue(connection.isReadOnly());
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testPinned() throws SQLException {
+    try (final BasicDataSource pool = newDataSource()) {
+      final MultiplexingDataSource dataSource = new MultiplexingDataSource(pool);
+      try (
+        final Connection c1 = dataSource.getConnection();
+        final Connection c2 = dataSource.getConnection();
+      ) {
+        try (final Statement statement = c1.createStatement()) {
+          assertEquals(1, pool.getNumActive());
+          try {
+            select(c2);
+            fail("Expected SQLTransientConnectionException");
+          }
+          catch (final SQLException e) {
+          }
+        }
+
+        assertEquals(0, pool.getNumActive());
+
+        c1.setAutoCommit(false);
+        select(c1);
+        assertEquals(1, pool.getNumActive());
+        c1.commit();
+        assertEquals(0, pool.getNumActive());
+        assertFalse(c1.getAutoCommit());
+
+        select(c2);
+      }
+    }
+  }
+}
@@ -0,0 +1,183 @@
+/* Copyright (c) 2026 OpenJAX
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.openjax.dbcp;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+
+import org.junit.AfterClass;
+import org.junit.Test;
+
+import com.sun.net.httpserver.HttpServer;
+
+public class OpenMetricsTest {
+  @AfterClass
+  public static void afterClass() {
+    new File("derby.log").delete();
+  }
+
+  private static BasicDataSource newDataSource(final String id) {
+    final BasicDataSource dataSource = DerbyFixture.newDataSource(id);
+    dataSource.setId(id);
+    dataSource.setMaxTotal(1);
+    dataSource.setMaxWaitMillis(50);
+    return dataSource;
+  }
+
+  @Test
+  public void testWrite() throws Exception {
+    try (final BasicDataSource dataSource = newDataSource("metrics")) {
+      final String text;
+      try (final Connection connection = dataSource.getConnection()) {
+        try {
+          dataSource.getConnection();
+          fail("Expected SQLTransientConnectionException");
+        }
+        catch (final SQLTransientConnectionException e) {
+        }
+
+        final StringWriter writer = new StringWriter();
+        OpenMetrics.write(writer, dataSource);
+        text = writer.toString();
+      }
+
+      assertTrue(text, text.contains("# TYPE dbcp_connections_active gauge\n"));
+      assertTrue(text, text.contains("dbcp_connections_active{pool=\"metrics\"} 1\n"));
+      assertTrue(text, text.contains("dbcp_connections_idle{pool=\"metrics\"} 0\n"));
+      assertTrue(text, text.contains("dbcp_connections_max{pool=\"metrics\"} 1\n"));
+      assertTrue(text, text.contains("# TYPE dbcp_connections_created counter\n"));
+      assertTrue(text, text.contains("dbcp_connections_created_total{pool=\"metrics\"} 1\n"));
+      assertTrue(text, text.contains("dbcp_borrow_timeouts_total{pool=\"metrics\"} 1\n"));
+      assertTrue(text, text.contains("dbcp_borrow_wait_seconds_bucket{pool=\"metrics\",le=\"+Inf\"} 1\n"));
+      assertTrue(text, text.contains("dbcp_borrow_wait_seconds_count{pool=\"metrics\"} 1\n"));
+      assertTrue(text, text.endsWith("# EOF\n"));
+      assertEquals(1, dataSource.getBorrowTimeoutCount());
+    }
+  }
+
+  @Test
+  public void testEscape() throws Exception {
+    try (final BasicDataSource dataSource = newDataSource("escape")) {
+      dataSource.setId("a\"b\\c");
+      final StringWriter writer = new StringWriter();
+      OpenMetrics.write(writer, dataSource);
+      assertTrue(writer.toString(), writer.toString().contains("dbcp_connections_active{pool=\"a\\\"b\\\\c\"} 0\n"));
+    }
+  }
+
+  @Test
+  public void testDuplicate() throws Exception {
+    try (
+      final BasicDataSource a = newDataSource("duplicate");
+      final BasicDataSource b = newDataSource("duplicate");
+      final BasicDataSource c = newDataSource("anonymous");
+      final BasicDataSource d = newDataSource("jmx");
+    ) {
+      c.setId(null);
+      d.setId(null);
+      d.setJmxName("org.openjax.dbcp:name=jmx");
+      final StringWriter writer = new StringWriter();
+      OpenMetrics.write(writer, a, b, c, d);
+      final String text = writer.toString();
+      assertTrue(text, text.contains("dbcp_connections_max{pool=\"duplicate\"} 2\n"));
+      assertEquals(text, text.indexOf("dbcp_connections_max{pool=\"duplicate\"}"), text.lastIndexOf("dbcp_connections_max{pool=\"duplicate\"}"));
+      assertTrue(text, text.contains("dbcp_connections_max{pool=\"org.openjax.dbcp:name=jmx\"} 1\n"));
+      assertFalse(text, text.contains("pool=\"\""));
+    }
+  }
+
+  @Test
+  public void testUnlimited() throws Exception {
+    try (
+      final BasicDataSource a = newDataSource("unlimited");
+      final BasicDataSource b = newDataSource("unlimited");
+    ) {
+      a.setMaxTotal(-1);
+      final StringWriter writer = new StringWriter();
+      OpenMetrics.write(writer, a, b);
+      OpenMetrics.write(writer, b, a);
+      final String text = writer.toString();
+      assertFalse(text, text.contains("dbcp_connections_max{pool=\"unlimited\"}"));
+      assertTrue(text, text.contains("dbcp_connections_active{pool=\"unlimited\"} 0\n"));
+    }
+  }
+
+  @Test
+  public void testPerUser() throws Exception {
+    try (final BasicDataSource dataSource = newDataSource("metricsPerUser")) {
+      dataSource.setPerUser(2, -1, -1);
+      final String text;
+      try (final Connection connection = dataSource.getConnection("alice", "secret")) {
+        final StringWriter writer = new StringWriter();
+        OpenMetrics.write(writer, dataSource);
+        text = writer.toString();
+      }
+
+      assertTrue(text, text.contains("dbcp_connections_active{pool=\"metricsPerUser\"} 0\n"));
+      assertTrue(text, text.contains("dbcp_connections_active{pool=\"metricsPerUser\",perUser=\"true\"} 1\n"));
+      assertTrue(text, text.contains("dbcp_connections_max{pool=\"metricsPerUser\",perUser=\"true\"} 2\n"));
+      assertTrue(text, text.contains("dbcp_connections_created_total{pool=\"metricsPerUser\",perUser=\"true\"} 1\n"));
+      assertTrue(text, text.contains("dbcp_borrow_wait_seconds_count{pool=\"metricsPerUser\",perUser=\"true\"} 1\n"));
+      assertFalse(text, text.contains("dbcp_borrow_waiters{pool=\"metricsPerUser\",perUser=\"true\"}"));
+    }
+  }
+
+  @Test
+  public void testClosed() throws Exception {
+    final BasicDataSource dataSource = newDataSource("closed");
+    dataSource.close();
+    final StringWriter writer = new StringWriter();
+    OpenMetrics.write(writer, dataSource);
+    assertFalse(writer.toString(), writer.toString().contains("pool=\"closed\""));
+  }
+
+  @Test
+  public void testServe() throws Exception {
+    final HttpServer server = OpenMetrics.serve(new InetSocketAddress("127.0.0.1", 0));
+    try {
+      final URL url = new URL("http://127.0.0.1:" + server.getAddress().getPort() + "/metrics");
+      HttpURLConnection connection = (HttpURLConnection)url.openConnection();
+      assertEquals(200, connection.getResponseCode());
+      assertEquals(OpenMetrics.CONTENT_TYPE, connection.getContentType());
+      final ByteArrayOutputStream out = new ByteArrayOutputStream();
+      try (final InputStream in = connection.getInputStream()) {
+        final byte[] buffer = new byte[1024];
+        for (int len; (len = in.read(buffer)) != -1;)
+          out.write(buffer, 0, len);
+      }
+
+      assertTrue(new String(out.toByteArray(), StandardCharsets.UTF_8).endsWith("# EOF\n"));
+
+      connection = (HttpURLConnection)url.openConnection();
+      connection.setRequestMethod("POST");
+      assertEquals(405, connection.getResponseCode());
+    }
+    finally {
+      server.stop(0);
+    }
+  }
+}
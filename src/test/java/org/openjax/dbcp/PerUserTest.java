@@ -0,0 +1,106 @@
+/* Copyright (c) 2026 OpenJAX
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.openjax.dbcp;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+import org.junit.AfterClass;
+import org.junit.Test;
+
+public class PerUserTest {
+  private static BasicDataSource newDataSource(final String name) {
+    final BasicDataSource dataSource = DerbyFixture.newDataSource(name);
+    dataSource.setMaxWaitMillis(100);
+    return dataSource;
+  }
+
+  @AfterClass
+  public static void afterClass() {
+    new File("derby.log").delete();
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testDisabled() throws SQLException {
+    try (final BasicDataSource dataSource = newDataSource("perUserDisabled")) {
+      dataSource.getConnection("alice", "secret");
+    }
+  }
+
+  @Test
+  public void testPerUser() throws SQLException {
+    try (final BasicDataSource dataSource = newDataSource("perUser")) {
+      dataSource.setPerUser(3, 2, -1);
+      final Connection a1 = dataSource.getConnection("alice", "secret");
+      final Connection a2 = dataSource.getConnection("alice", "secret");
+      assertTrue("alice".equalsIgnoreCase(a1.getMetaData().getUserName()));
+      try {
+        dataSource.getConnection("alice", "secret");
+        fail("Expected SQLException");
+      }
+      catch (final SQLException e) {
+      }
+
+      try (final Connection b1 = dataSource.getConnection("bob", "secret")) {
+        assertTrue("bob".equalsIgnoreCase(b1.getMetaData().getUserName()));
+        assertEquals(3, dataSource.getNumUserActive());
+        try {
+          dataSource.getConnection("bob", "secret");
+          fail("Expected SQLException");
+        }
+        catch (final SQLException e) {
+        }
+      }
+
+      a1.close();
+      a2.close();
+      assertEquals(0, dataSource.getNumUserActive());
+      assertEquals(3, dataSource.getNumUserIdle());
+
+      // The overall maxTotal is reached, so an idle connection of another user is closed to make room
+      try (
+        final Connection c1 = dataSource.getConnection("carol", "secret");
+        final Connection c2 = dataSource.getConnection("carol", "secret");
+      ) {
+        assertTrue("carol".equalsIgnoreCase(c2.getMetaData().getUserName()));
+        assertEquals(2, dataSource.getNumUserActive());
+        assertTrue(dataSource.getNumUserIdle() <= 1);
+      }
+
+      assertEquals(0, dataSource.getNumActive());
+    }
+  }
+
+  @Test
+  public void testPropertiesAndInitSql() throws SQLException {
+    try (final BasicDataSource dataSource = newDataSource("perUserProperties")) {
+      // The database is created only if the connection properties are passed to the driver
+      dataSource.setUrl("jdbc:derby:memory:perUserProperties");
+      dataSource.addConnectionProperty("create", "true");
+      dataSource.setConnectionInitSqls(Arrays.asList("SET SCHEMA SYS"));
+      dataSource.setPerUser(2, -1, -1);
+      try (final Connection connection = dataSource.getConnection("alice", "secret")) {
+        assertEquals("SYS", connection.getSchema());
+        assertTrue("alice".equalsIgnoreCase(connection.getMetaData().getUserName()));
+      }
+    }
+  }
+}
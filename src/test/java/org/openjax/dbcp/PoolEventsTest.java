@@ -0,0 +1,93 @@
+/* Copyright (c) 2026 OpenJAX
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.openjax.dbcp;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.AfterClass;
+import org.junit.Test;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+public class PoolEventsTest {
+  @AfterClass
+  public static void afterClass() {
+    new File("derby.log").delete();
+  }
+
+  @Test
+  public void testEvents() throws Exception {
+    final Path file = Files.createTempFile("dbcp", ".jfr");
+    try (final Recording recording = new Recording()) {
+      for (final String name : new String[] {"ConnectionBorrow", "ConnectionReturn", "ConnectionCreate", "ConnectionValidate", "PoolEviction", "PoolExhausted"}) // [A]
+        recording.enable("org.openjax.dbcp." + name).withoutThreshold();
+
+      recording.start();
+      try (final BasicDataSource dataSource = new BasicDataSource()) {
+        dataSource.setId("events");
+        dataSource.setDriverClassName("org.apache.derby.jdbc.EmbeddedDriver");
+        dataSource.setUrl("jdbc:derby:memory:events;create=true");
+        dataSource.setMaxTotal(1);
+        dataSource.setMaxWaitMillis(50);
+        dataSource.setValidationQuery("VALUES 1");
+        dataSource.setTestOnBorrow(true);
+        dataSource.setMinEvictableIdleTimeMillis(1);
+
+        try (final Connection connection = dataSource.getConnection()) {
+          try {
+            dataSource.getConnection();
+            fail("Expected SQLTransientConnectionException");
+          }
+          catch (final SQLTransientConnectionException e) {
+          }
+        }
+
+        Thread.sleep(10);
+        dataSource.evict();
+      }
+
+      recording.stop();
+      recording.dump(file);
+    }
+
+    final List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+    Files.delete(file);
+    final HashSet<String> names = new HashSet<>();
+    for (int i = 0, i$ = events.size(); i < i$; ++i) { // [RA]
+      final RecordedEvent event = events.get(i);
+      assertEquals("events", event.getString("pool"));
+      names.add(event.getEventType().getName());
+    }
+
+    assertTrue(names.toString(), names.contains("org.openjax.dbcp.ConnectionBorrow"));
+    assertTrue(names.toString(), names.contains("org.openjax.dbcp.ConnectionReturn"));
+    assertTrue(names.toString(), names.contains("org.openjax.dbcp.ConnectionCreate"));
+    assertTrue(names.toString(), names.contains("org.openjax.dbcp.ConnectionValidate"));
+    assertTrue(names.toString(), names.contains("org.openjax.dbcp.PoolEviction"));
+    assertTrue(names.toString(), names.contains("org.openjax.dbcp.PoolExhausted"));
+  }
+}
@@ -0,0 +1,87 @@
+/* Copyright (c) 2026 OpenJAX
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.openjax.dbcp;
+
+import org.apache.commons.pool2.PooledObject;
+import org.apache.commons.pool2.impl.DefaultPooledObject;
+
+/**
+ * Measures the heap retained per idle pool entry by {@link DefaultPooledObject} and by {@link PooledObjectTable}, excluding the
+ * pooled objects themselves. Run with a fixed heap (e.g. {@code -Xms1g -Xmx1g}) for stable results.
+ */
+public final class PooledObjectMemoryBenchmark {
+  private static final Object connection = new Object();
+
+  private static long usedMemory() {
+    final Runtime runtime = Runtime.getRuntime();
+    long used = Long.MAX_VALUE;
+    for (int i = 0; i < 5; ++i) {
+      System.gc();
+      used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+    }
+
+    return used;
+  }
+
+  private static void cycle(final PooledObject<Object> entry) {
+    entry.allocate();
+    entry.use();
+    entry.markReturning();
+    entry.deallocate();
+  }
+
+  private static double measureDefault(final int count) {
+    final PooledObject<?>[] entries = new PooledObject<?>[count];
+    final long before = usedMemory();
+    for (int i = 0; i < count; ++i) {
+      final DefaultPooledObject<Object> entry = new DefaultPooledObject<>(connection);
+      cycle(entry);
+      entries[i] = entry;
+    }
+
+    final long after = usedMemory();
+    return entries.length > 0 ? (double)(after - before) / count : 0;
+  }
+
+  private static double measureCompact(final int count) {
+    final PooledObjectTable<Object> table = new PooledObjectTable<>();
+    final PooledObject<?>[] entries = new PooledObject<?>[count];
+    final long before = usedMemory();
+    for (int i = 0; i < count; ++i) {
+      final PooledObjectTable<Object>.Entry entry = table.wrap(connection);
+      cycle(entry);
+      entries[i] = entry;
+    }
+
+    final long after = usedMemory();
+    return entries.length > 0 && table.size() == count ? (double)(after - before) / count : 0;
+  }
+
+  public static void main(final String[] args) {
+    final int count = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+    for (int i = 0; i < 3; ++i) {
+      measureDefault(count);
+      measureCompact(count);
+    }
+
+    System.out.printf("DefaultPooledObject: %.1f bytes per idle entry%n", measureDefault(count));
+    System.out.printf("PooledObjectTable:   %.1f bytes per idle entry%n", measureCompact(count));
+  }
+
+  private PooledObjectMemoryBenchmark() {
+  }
+}
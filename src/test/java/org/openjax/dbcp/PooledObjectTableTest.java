@@ -0,0 +1,140 @@
+/* Copyright (c) 2026 OpenJAX
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.openjax.dbcp;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.sql.Connection;
+import java.util.ArrayDeque;
+import java.util.Map;
+
+import org.apache.commons.dbcp2.PoolableConnection;
+import org.apache.commons.pool2.PooledObject;
+import org.apache.commons.pool2.PooledObjectState;
+import org.apache.commons.pool2.TrackedUse;
+import org.junit.AfterClass;
+import org.junit.Test;
+
+public class PooledObjectTableTest {
+  private static final class Tracked implements TrackedUse {
+    private final long lastUsed;
+
+    private Tracked(final long lastUsed) {
+      this.lastUsed = lastUsed;
+    }
+
+    @Override
+    public long getLastUsed() {
+      return lastUsed;
+    }
+  }
+
+  @AfterClass
+  public static void afterClass() {
+    new File("derby.log").delete();
+  }
+
+  @Test
+  public void testStates() {
+    final PooledObjectTable<String> table = new PooledObjectTable<>();
+    final PooledObjectTable<String>.Entry entry = table.wrap("a");
+    assertEquals("a", entry.getObject());
+    assertEquals(PooledObjectState.IDLE, entry.getState());
+
+    assertTrue(entry.allocate());
+    assertEquals(PooledObjectState.ALLOCATED, entry.getState());
+    assertEquals(1, entry.getBorrowedCount());
+    assertFalse(entry.allocate());
+
+    entry.markReturning();
+    assertTrue(entry.deallocate());
+    assertEquals(PooledObjectState.IDLE, entry.getState());
+    assertFalse(entry.deallocate());
+
+    final ArrayDeque<PooledObject<String>> idleQueue = new ArrayDeque<>();
+    assertTrue(entry.startEvictionTest());
+    assertFalse(entry.allocate());
+    assertEquals(PooledObjectState.EVICTION_RETURN_TO_HEAD, entry.getState());
+    assertFalse(entry.endEvictionTest(idleQueue));
+    assertSame(entry, idleQueue.peekFirst());
+    assertEquals(PooledObjectState.IDLE, entry.getState());
+
+    entry.invalidate();
+    assertEquals(PooledObjectState.INVALID, entry.getState());
+    assertFalse(entry.allocate());
+  }
+
+  @Test
+  public void testSlots() {
+    final PooledObjectTable<Integer> table = new PooledObjectTable<>();
+    final PooledObjectTable<Integer>.Entry[] entries = new PooledObjectTable.Entry[200];
+    for (int i = 0; i < entries.length; ++i) { // [A]
+      entries[i] = table.wrap(i);
+      assertTrue(entries[i].allocate());
+    }
+
+    assertEquals(entries.length, table.size());
+    for (int i = 0; i < entries.length; i += 2) // [A]
+      entries[i].free();
+
+    assertEquals(entries.length / 2, table.size());
+    assertEquals(PooledObjectState.INVALID, entries[0].getState());
+    for (int i = 1; i < entries.length; i += 2) { // [A]
+      assertEquals(PooledObjectState.ALLOCATED, entries[i].getState());
+      assertEquals(1, entries[i].getBorrowedCount());
+    }
+
+    final PooledObjectTable<Integer>.Entry reused = table.wrap(-1);
+    assertEquals(entries.length / 2 + 1, table.size());
+    assertEquals(PooledObjectState.IDLE, reused.getState());
+    assertEquals(0, reused.getBorrowedCount());
+    assertEquals(PooledObjectState.INVALID, entries[0].getState());
+  }
+
+  @Test
+  public void testUseAfterFree() {
+    final PooledObjectTable<String> table = new PooledObjectTable<>();
+    final PooledObjectTable<String>.Entry freed = table.wrap("a");
+    freed.free();
+    final PooledObjectTable<String>.Entry reused = table.wrap("b");
+    final long lastUsed = reused.getLastUsedTime();
+    freed.use();
+    assertEquals(lastUsed, reused.getLastUsedTime());
+  }
+
+  @Test
+  public void testTrackedUse() {
+    final PooledObjectTable<Tracked> table = new PooledObjectTable<>();
+    final long future = System.currentTimeMillis() + 60000;
+    final PooledObjectTable<Tracked>.Entry entry = table.wrap(new Tracked(future));
+    assertTrue(entry.allocate());
+    assertEquals(future, entry.getLastUsedTime());
+  }
+
+  @Test
+  public void testDataSource() throws Exception {
+    try (
+      final BasicDataSource dataSource = DataSources.createDataSource(ClassLoader.getSystemClassLoader().getResource("dbcp-compact.xml"));
+      final Connection connection = dataSource.getConnection();
+    ) {
+      assertTrue(connection.isValid(1));
+      for (final Map.Entry<PooledObject<PoolableConnection>,ConnectionState> entry : dataSource.getObjectFactory().states())
+        assertTrue(entry.getKey() instanceof PooledObjectTable.Entry);
+    }
+  }
+}
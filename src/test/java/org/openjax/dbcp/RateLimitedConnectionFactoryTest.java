@@ -0,0 +1,163 @@
+/* Copyright (c) 2026 OpenJAX
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.openjax.dbcp;
+
+import static org.junit.Assert.*;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class RateLimitedConnectionFactoryTest {
+  private static long elapsedMillis(final long start) {
+    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+  }
+
+  private static Connection createConnection(final RateLimitedConnectionFactory factory, final long maxWait) throws SQLException {
+    final boolean deadline = BorrowDeadline.enter(maxWait);
+    try {
+      return factory.createConnection();
+    }
+    finally {
+      if (deadline)
+        BorrowDeadline.exit();
+    }
+  }
+
+  @Test
+  public void testRate() throws SQLException {
+    final RateLimitedConnectionFactory factory = new RateLimitedConnectionFactory(() -> null, 20, 1, 0, 0);
+    final long start = System.nanoTime();
+    for (int i = 0; i < 5; ++i)
+      createConnection(factory, -1);
+
+    assertTrue(elapsedMillis(start) >= 150);
+  }
+
+  @Test
+  public void testBurst() throws SQLException {
+    final RateLimitedConnectionFactory factory = new RateLimitedConnectionFactory(() -> null, 1, 5, 0, 0);
+    final long start = System.nanoTime();
+    for (int i = 0; i < 5; ++i)
+      createConnection(factory, -1);
+
+    assertTrue(elapsedMillis(start) < 500);
+  }
+
+  @Test
+  public void testBackoff() {
+    final AtomicInteger attempts = new AtomicInteger();
+    final RateLimitedConnectionFactory factory = new RateLimitedConnectionFactory(() -> {
+      attempts.incrementAndGet();
+      throw new SQLTransientConnectionException("refused");
+    }, 1000, 1000, 50, 100);
+
+    final long start = System.nanoTime();
+    for (int i = 0; i < 5; ++i) {
+      try {
+        createConnection(factory, -1);
+        fail("Expected SQLTransientConnectionException");
+      }
+      catch (final SQLException e) {
+        assertEquals("refused", e.getMessage());
+      }
+    }
+
+    assertEquals(5, attempts.get());
+    assertTrue(elapsedMillis(start) < 1000);
+  }
+
+  @Test
+  public void testMaxWait() throws SQLException {
+    final RateLimitedConnectionFactory factory = new RateLimitedConnectionFactory(() -> null, 1, 1, 0, 0);
+    createConnection(factory, 100);
+    final long start = System.nanoTime();
+    try {
+      createConnection(factory, 100);
+      fail("Expected SQLTransientConnectionException");
+    }
+    catch (final SQLTransientConnectionException e) {
+    }
+
+    assertTrue(elapsedMillis(start) < 500);
+  }
+
+  @Test
+  public void testMaxWaitBackoff() {
+    final RateLimitedConnectionFactory factory = new RateLimitedConnectionFactory(() -> {
+      throw new SQLTransientConnectionException("refused");
+    }, 1000, 1000, 10000, 10000);
+
+    final long start = System.nanoTime();
+    for (int i = 0; i < 5; ++i) {
+      try {
+        createConnection(factory, 100);
+        fail("Expected SQLTransientConnectionException");
+      }
+      catch (final SQLException e) {
+      }
+    }
+
+    assertTrue(elapsedMillis(start) < 5000);
+  }
+
+  @Test
+  public void testNoBorrow() throws SQLException {
+    final RateLimitedConnectionFactory factory = new RateLimitedConnectionFactory(() -> null, 1, 1, 0, 0);
+    factory.createConnection();
+    try {
+      factory.createConnection();
+      fail("Expected SQLTransientConnectionException");
+    }
+    catch (final SQLTransientConnectionException e) {
+    }
+  }
+
+  @Test
+  public void testJvmLimit() {
+    final RateLimitedConnectionFactory.JvmLimit low = RateLimitedConnectionFactory.limitJvm(1, 1);
+    final TokenBucket bucket = RateLimitedConnectionFactory.jvmBucket();
+    assertEquals(1, bucket.getPermitsPerSecond());
+
+    final RateLimitedConnectionFactory.JvmLimit high = RateLimitedConnectionFactory.limitJvm(1000, 1);
+    assertSame(bucket, RateLimitedConnectionFactory.jvmBucket());
+    assertEquals(1, bucket.getPermitsPerSecond());
+
+    low.release();
+    assertSame(bucket, RateLimitedConnectionFactory.jvmBucket());
+    assertTrue(bucket.getPermitsPerSecond() > 1);
+
+    high.release();
+    final TokenBucket remaining = RateLimitedConnectionFactory.jvmBucket();
+    assertTrue(remaining == null || remaining.getPermitsPerSecond() != 1000);
+  }
+
+  @Test
+  public void testDataSource() throws Exception {
+    try (
+      final BasicDataSource dataSource = DataSources.createDataSource(ClassLoader.getSystemClassLoader().getResource("dbcp-creation-rate.xml"));
+      final Connection connection = dataSource.getConnection();
+    ) {
+      assertTrue(connection.isValid(1));
+      assertEquals(4, dataSource.getNumIdle() + dataSource.getNumActive());
+    }
+  }
+}
@@ -0,0 +1,99 @@
+/* Copyright (c) 2026 OpenJAX
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.openjax.dbcp;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.sql.Connection;
+import java.util.HashSet;
+import java.util.Map;
+
+import org.apache.commons.dbcp2.PoolableConnection;
+import org.apache.commons.pool2.PooledObject;
+import org.junit.AfterClass;
+import org.junit.Test;
+
+public class RetirementTest {
+  @AfterClass
+  public static void afterClass() {
+    new File("derby.log").delete();
+  }
+
+  private static HashSet<PooledObject<PoolableConnection>> pooledObjects(final BasicDataSource dataSource) {
+    final HashSet<PooledObject<PoolableConnection>> pooledObjects = new HashSet<>();
+    for (final Map.Entry<PooledObject<PoolableConnection>,ConnectionState> entry : dataSource.getObjectFactory().states())
+      pooledObjects.add(entry.getKey());
+
+    return pooledObjects;
+  }
+
+  @Test
+  public void testJitter() throws Exception {
+    try (final BasicDataSource dataSource = new BasicDataSource()) {
+      dataSource.setDriverClassName("org.apache.derby.jdbc.EmbeddedDriver");
+      dataSource.setUrl("jdbc:derby:memory:jitter;create=true");
+      dataSource.setMaxConnLifetimeMillis(60000);
+      dataSource.setRetirement(30000, false, 1000);
+      try (
+        final Connection c1 = dataSource.getConnection();
+        final Connection c2 = dataSource.getConnection();
+        final Connection c3 = dataSource.getConnection();
+      ) {
+      }
+
+      final long now = System.currentTimeMillis();
+      final HashSet<Long> expiries = new HashSet<>();
+      for (final Map.Entry<PooledObject<PoolableConnection>,ConnectionState> entry : dataSource.getObjectFactory().states()) {
+        final long expiry = entry.getValue().getExpiry();
+        assertTrue(expiry <= now + 60000);
+        assertTrue(expiry >= now - 1000 + 30000);
+        expiries.add(expiry);
+      }
+
+      assertTrue(expiries.size() > 1);
+    }
+  }
+
+  @Test
+  public void testProactive() throws Exception {
+    try (final BasicDataSource dataSource = new BasicDataSource()) {
+      dataSource.setDriverClassName("org.apache.derby.jdbc.EmbeddedDriver");
+      dataSource.setUrl("jdbc:derby:memory:retirement;create=true");
+      dataSource.setMaxConnLifetimeMillis(1000);
+      dataSource.setRetirement(200, true, 50);
+      try (
+        final Connection c1 = dataSource.getConnection();
+        final Connection c2 = dataSource.getConnection();
+      ) {
+      }
+
+      final HashSet<PooledObject<PoolableConnection>> original = pooledObjects(dataSource);
+      assertEquals(2, original.size());
+      Thread.sleep(1500);
+
+      final HashSet<PooledObject<PoolableConnection>> replaced = pooledObjects(dataSource);
+      assertEquals(2, dataSource.getNumIdle());
+      for (final PooledObject<PoolableConnection> p : original)
+        assertFalse(replaced.contains(p));
+
+      try (final Connection connection = dataSource.getConnection()) {
+        assertTrue(connection.isValid(1));
+      }
+    }
+  }
+}
@@ -0,0 +1,107 @@
+/* Copyright (c) 2026 OpenJAX
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.openjax.dbcp;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.pool2.BasePooledObjectFactory;
+import org.apache.commons.pool2.PooledObject;
+import org.apache.commons.pool2.impl.DefaultPooledObject;
+import org.apache.commons.pool2.impl.GenericObjectPool;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the borrow/return throughput of a {@link GenericObjectPool} with a "lifo" or "fifo" idle deque against a
+ * {@link StripedObjectPool}, with as many pooled objects as threads, so that every borrow is served from an idle object. Run with
+ * {@code -t} set to the number of hardware threads of the host (e.g. {@code -t 96}) to reproduce the contention of many-core hosts.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(64)
+@State(Scope.Benchmark)
+public class StripedObjectPoolBenchmark {
+  private static final class Factory extends BasePooledObjectFactory<Object> {
+    @Override
+    public Object create() {
+      return new Object();
+    }
+
+    @Override
+    public PooledObject<Object> wrap(final Object obj) {
+      return new DefaultPooledObject<>(obj);
+    }
+  }
+
+  @Param({"lifo", "fifo", "striped"})
+  public String queue;
+
+  private GenericObjectPool<Object> pool;
+
+  @Setup(Level.Trial)
+  public void setup() throws Exception {
+    final int size = 256;
+    final GenericObjectPoolConfig<Object> config = new GenericObjectPoolConfig<>();
+    config.setMaxTotal(size);
+    config.setMaxIdle(size);
+    config.setLifo(!"fifo".equals(queue));
+    config.setJmxEnabled(false);
+    pool = "striped".equals(queue) ? new StripedObjectPool<>(new Factory(), config, null, Runtime.getRuntime().availableProcessors(), size) : new GenericObjectPool<>(new Factory(), config);
+    pool.addObjects(size);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    pool.close();
+  }
+
+  @Benchmark
+  public Object borrowReturn() throws Exception {
+    final Object obj = pool.borrowObject();
+    pool.returnObject(obj);
+    return obj;
+  }
+
+  public static void main(final String[] args) throws RunnerException {
+    final Options options = new OptionsBuilder()
+      .include(StripedObjectPoolBenchmark.class.getSimpleName())
+      .threads(args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors())
+      .build();
+
+    new Runner(options).run();
+  }
+}
@@ -0,0 +1,187 @@
+/* Copyright (c) 2026 OpenJAX
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.openjax.dbcp;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class TenantDataSourceTest {
+  // A new pool for each test, because the tracked tenants of the connections of a pool outlive a TenantDataSource
+  private static BasicDataSource newDataSource() {
+    final BasicDataSource dataSource = DerbyFixture.newDataSource("tenants");
+    dataSource.setMaxTotal(2);
+    dataSource.setMaxWaitMillis(100);
+    return dataSource;
+  }
+
+  @BeforeClass
+  public static void beforeClass() throws SQLException {
+    try (
+      final BasicDataSource dataSource = newDataSource();
+      final Connection connection = dataSource.getConnection();
+      final Statement statement = connection.createStatement();
+    ) {
+      for (final String tenant : new String[] {"A", "B", "C"}) { // [A]
+        statement.execute("CREATE SCHEMA " + tenant);
+        statement.execute("CREATE TABLE " + tenant + ".t (name VARCHAR(8))");
+        statement.execute("INSERT INTO " + tenant + ".t VALUES ('" + tenant + "')");
+      }
+    }
+  }
+
+  @AfterClass
+  public static void afterClass() {
+    new File("derby.log").delete();
+  }
+
+  private static String name(final Connection connection) throws SQLException {
+    try (final Statement statement = connection.createStatement()) {
+      final ResultSet resultSet = statement.executeQuery("SELECT name FROM t");
+      assertTrue(resultSet.next());
+      return resultSet.getString(1);
+    }
+  }
+
+  @Test
+  public void testSwitching() throws SQLException {
+    try (final BasicDataSource dataSource = newDataSource()) {
+      testSwitching(dataSource, new TenantDataSource(dataSource, true));
+    }
+  }
+
+  private static void testSwitching(final BasicDataSource dataSource, final TenantDataSource tenants) throws SQLException {
+    try (final Connection connection = tenants.getConnection("A")) {
+      assertEquals("A", name(connection));
+    }
+
+    // The connection is returned to the pool when it is closed
+    assertEquals(0, dataSource.getNumActive());
+    assertEquals(1, tenants.getSwitchCount());
+
+    // The pool serves the same physical connection, which is already on the tenant
+    try (final Connection connection = tenants.getConnection("A")) {
+      assertEquals("A", name(connection));
+    }
+
+    assertEquals(1, tenants.getSwitchCount());
+    assertEquals(1, tenants.getReuseCount());
+
+    try (
+      final Connection a = tenants.getConnection("A");
+      final Connection b = tenants.getConnection("B");
+    ) {
+      assertEquals("A", name(a));
+      assertEquals("B", name(b));
+      assertEquals(2, dataSource.getNumActive());
+    }
+
+    assertEquals(0, dataSource.getNumActive());
+    assertEquals(2, tenants.getReuseCount());
+    assertEquals(2, tenants.getSwitchCount());
+
+    // A switch made through the connection is tracked
+    try (final Connection connection = tenants.getConnection("A")) {
+      connection.setSchema("C");
+      assertEquals("C", name(connection));
+    }
+
+    try (final Connection connection = tenants.getConnection("C")) {
+      assertEquals("C", name(connection));
+    }
+
+    assertEquals(4, tenants.getReuseCount());
+    assertEquals(2, tenants.getSwitchCount());
+
+    try (final Connection connection = tenants.getConnection("B")) {
+      assertEquals("B", name(connection));
+    }
+
+    assertEquals(3, tenants.getSwitchCount());
+  }
+
+  @Test
+  public void testCatalogAndSchema() throws SQLException {
+    try (final BasicDataSource dataSource = newDataSource()) {
+      dataSource.setMaxTotal(1);
+      final TenantDataSource schemas = new TenantDataSource(dataSource, true);
+      final TenantDataSource catalogs = new TenantDataSource(dataSource, false);
+      try (final Connection connection = schemas.getConnection("B")) {
+        assertEquals("B", name(connection));
+      }
+
+      // Derby ignores the catalog, so the connection stays on schema B, which must not be taken for tenant A of the schemas
+      try (final Connection connection = catalogs.getConnection("A")) {
+        assertEquals("B", name(connection));
+      }
+
+      try (final Connection connection = schemas.getConnection("A")) {
+        assertEquals("A", name(connection));
+      }
+
+      assertEquals(2, schemas.getSwitchCount());
+      assertEquals(1, catalogs.getSwitchCount());
+    }
+  }
+
+  @Test
+  public void testDefaultSchema() {
+    final BasicDataSource dataSource = new BasicDataSource();
+    dataSource.setDefaultSchema("A");
+    try {
+      new TenantDataSource(dataSource, true);
+      fail("Expected IllegalArgumentException");
+    }
+    catch (final IllegalArgumentException e) {
+    }
+  }
+
+  @Test
+  public void testRollbackOnReturn() throws SQLException {
+    try (final BasicDataSource dataSource = newDataSource()) {
+      testRollbackOnReturn(new TenantDataSource(dataSource, true));
+    }
+  }
+
+  private static void testRollbackOnReturn(final TenantDataSource tenants) throws SQLException {
+    try (
+      final Connection connection = tenants.getConnection("A");
+      final Statement statement = connection.createStatement();
+    ) {
+      connection.setAutoCommit(false);
+      statement.execute("INSERT INTO t VALUES ('X')");
+    }
+
+    try (
+      final Connection connection = tenants.getConnection("A");
+      final Statement statement = connection.createStatement();
+    ) {
+      final ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM t");
+      assertTrue(resultSet.next());
+      assertEquals(1, resultSet.getInt(1));
+      assertTrue(connection.getAutoCommit());
+    }
+  }
+}
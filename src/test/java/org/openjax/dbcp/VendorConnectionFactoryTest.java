@@ -0,0 +1,80 @@
+/* Copyright (c) 2026 OpenJAX
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.openjax.dbcp;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+
+import org.junit.AfterClass;
+import org.junit.Test;
+
+public class VendorConnectionFactoryTest {
+  @AfterClass
+  public static void afterClass() {
+    new File("derby.log").delete();
+  }
+
+  private static void testDataSource(final String className, final String databaseName) throws SQLException {
+    final LinkedHashMap<String,String> properties = new LinkedHashMap<>();
+    properties.put("databaseName", "memory:" + databaseName);
+    properties.put("createDatabase", "create");
+    properties.put("loginTimeout", "5");
+    try (final BasicDataSource dataSource = new BasicDataSource()) {
+      dataSource.setVendorDataSource(className, properties);
+      for (int i = 0; i < 2; ++i) {
+        try (
+          final Connection connection = dataSource.getConnection();
+          final Statement statement = connection.createStatement();
+          final ResultSet resultSet = statement.executeQuery("SELECT 1 FROM SYSIBM.SYSDUMMY1");
+        ) {
+          assertTrue(resultSet.next());
+        }
+      }
+
+      assertEquals(1, dataSource.getNumIdle());
+    }
+  }
+
+  @Test
+  public void testDataSource() throws SQLException {
+    testDataSource("org.apache.derby.jdbc.EmbeddedDataSource", "vendorDataSource");
+  }
+
+  @Test
+  public void testConnectionPoolDataSource() throws SQLException {
+    testDataSource("org.apache.derby.jdbc.EmbeddedConnectionPoolDataSource", "vendorConnectionPoolDataSource");
+  }
+
+  @Test
+  public void testUnknownProperty() {
+    final LinkedHashMap<String,String> properties = new LinkedHashMap<>();
+    properties.put("noSuchProperty", "value");
+    try {
+      new VendorConnectionFactory("org.apache.derby.jdbc.EmbeddedDataSource", null, properties);
+      fail("Expected SQLException");
+    }
+    catch (final SQLException e) {
+      assertTrue(e.getMessage().contains("noSuchProperty"));
+    }
+  }
+}
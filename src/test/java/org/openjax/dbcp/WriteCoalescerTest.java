@@ -0,0 +1,153 @@
+/* Copyright (c) 2026 OpenJAX
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.openjax.dbcp;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.AfterClass;
+import org.junit.Test;
+
+public class WriteCoalescerTest {
+  @AfterClass
+  public static void afterClass() {
+    new File("derby.log").delete();
+  }
+
+  @Test
+  public void testCoalesce() throws Exception {
+    try (final BasicDataSource pool = new BasicDataSource()) {
+      pool.setDriverClassName("org.apache.derby.jdbc.EmbeddedDriver");
+      pool.setUrl("jdbc:derby:memory:coalescer;create=true");
+      try (
+        final Connection connection = pool.getConnection();
+        final Statement statement = connection.createStatement();
+      ) {
+        statement.execute("CREATE TABLE event (id INT PRIMARY KEY)");
+      }
+
+      final AtomicInteger borrows = new AtomicInteger();
+      final DelegateDataSource dataSource = new DelegateDataSource(pool) {
+        @Override
+        public Connection getConnection() throws SQLException {
+          borrows.incrementAndGet();
+          return super.getConnection();
+        }
+      };
+
+      final ArrayList<CompletableFuture<Integer>> futures = new ArrayList<>();
+      final CompletableFuture<Integer> duplicate;
+      try (final WriteCoalescer coalescer = new WriteCoalescer(dataSource, 10, 100)) {
+        for (int i = 0; i < 50; ++i)
+          futures.add(coalescer.submit("INSERT INTO event (id) VALUES (?)", i));
+
+        duplicate = coalescer.submit("INSERT INTO event (id) VALUES (?)", 0);
+      }
+
+      for (int i = 0, i$ = futures.size(); i < i$; ++i) // [RA]
+        assertEquals(Integer.valueOf(1), futures.get(i).get());
+
+      try {
+        duplicate.get();
+        fail("Expected ExecutionException");
+      }
+      catch (final ExecutionException e) {
+        assertTrue(e.getCause() instanceof SQLException);
+      }
+
+      assertTrue(String.valueOf(borrows.get()), borrows.get() <= 10);
+      try (
+        final Connection connection = pool.getConnection();
+        final Statement statement = connection.createStatement();
+        final ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM event");
+      ) {
+        assertTrue(resultSet.next());
+        assertEquals(50, resultSet.getInt(1));
+      }
+    }
+  }
+
+  @Test
+  public void testMaxBatchSize() throws Exception {
+    try (final BasicDataSource pool = new BasicDataSource()) {
+      pool.setDriverClassName("org.apache.derby.jdbc.EmbeddedDriver");
+      pool.setUrl("jdbc:derby:memory:coalescerSize;create=true");
+      try (
+        final Connection connection = pool.getConnection();
+        final Statement statement = connection.createStatement();
+      ) {
+        statement.execute("CREATE TABLE event (id INT PRIMARY KEY)");
+      }
+
+      final AtomicInteger borrows = new AtomicInteger();
+      final DelegateDataSource dataSource = new DelegateDataSource(pool) {
+        @Override
+        public Connection getConnection() throws SQLException {
+          borrows.incrementAndGet();
+          return super.getConnection();
+        }
+      };
+
+      final ArrayList<CompletableFuture<Integer>> futures = new ArrayList<>();
+      try (final WriteCoalescer coalescer = new WriteCoalescer(dataSource, 10, 60000)) {
+        for (int i = 0; i < 50; ++i)
+          futures.add(coalescer.submit("INSERT INTO event (id) VALUES (?)", i));
+
+        for (int i = 0, i$ = futures.size(); i < i$; ++i) // [RA]
+          assertEquals(Integer.valueOf(1), futures.get(i).get());
+      }
+
+      assertEquals(5, borrows.get());
+    }
+  }
+
+  @Test
+  public void testError() throws Exception {
+    final DelegateDataSource dataSource = new DelegateDataSource() {
+      @Override
+      public Connection getConnection() {
+        throw new AssertionError();
+      }
+    };
+
+    final Thread.UncaughtExceptionHandler handler = Thread.getDefaultUncaughtExceptionHandler();
+    Thread.setDefaultUncaughtExceptionHandler((t, e) -> {});
+    try (final WriteCoalescer coalescer = new WriteCoalescer(dataSource, 1, 0)) {
+      final CompletableFuture<Integer> future = coalescer.submit("INSERT INTO event (id) VALUES (?)", 0);
+      try {
+        future.get();
+        fail("Expected ExecutionException");
+      }
+      catch (final ExecutionException e) {
+        assertTrue(e.getCause() instanceof SQLException);
+        assertTrue(e.getCause().getCause() instanceof AssertionError);
+      }
+    }
+    finally {
+      Thread.setDefaultUncaughtExceptionHandler(handler);
+    }
+  }
+}